@@ -17,7 +17,6 @@ import ucr.proyectoalgoritmos.Domain.flight.Flight;
 import ucr.proyectoalgoritmos.Domain.flight.FlightScheduleManager;
 import ucr.proyectoalgoritmos.Domain.list.ListException;
 import ucr.proyectoalgoritmos.Domain.route.RouteManager;
-import ucr.proyectoalgoritmos.UtilJson.FlightJson;
 import ucr.proyectoalgoritmos.util.FXUtility;
 
 import java.time.LocalDateTime;
@@ -134,11 +133,10 @@ public class CreateFlightController implements Initializable {
                     selectedStatus
             );
 
+            // addFlight deja el cambio pendiente en el guardado diferido de FlightScheduleManager.
             flightScheduleManager.addFlight(newFlight);
             System.out.println("[INFO] Vuelo creado y añadido: " + newFlight);
 
-            FlightJson.saveFlightsToJson(flightScheduleManager.getAllFlights());
-
             FXUtility.alert("Éxito", "Vuelo '" + flightNum + "' creado y guardado exitosamente.");
 
             clearFormFields();
@@ -11,6 +11,7 @@ import ucr.proyectoalgoritmos.Domain.Circular.CircularDoublyLinkedList;
 import ucr.proyectoalgoritmos.Domain.TreeException;
 import ucr.proyectoalgoritmos.Domain.aeropuetos.Airport;
 import ucr.proyectoalgoritmos.Domain.aeropuetos.AirportManager;
+import ucr.proyectoalgoritmos.Domain.flight.ConnectionScanIndex;
 import ucr.proyectoalgoritmos.Domain.flight.Flight;
 import ucr.proyectoalgoritmos.Domain.flight.FlightScheduleManager;
 import ucr.proyectoalgoritmos.Domain.list.DoublyLinkedList;
@@ -23,10 +24,14 @@ import ucr.proyectoalgoritmos.util.FXUtility;
 import java.net.URL;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.List;
 import java.util.ResourceBundle;
 
 public class UserFlightController implements Initializable {
 
+    // Cantidad de itinerarios alternativos sugeridos cuando no hay vuelos para la ruta elegida.
+    private static final int ALTERNATIVE_ROUTES = 3;
+
     @FXML private Button btReservation;
     @FXML private DatePicker dpDeparture;
     @FXML private Button btAddPet;
@@ -219,7 +224,7 @@ public class UserFlightController implements Initializable {
                     originCode, destinationCode, departureDate);
 
             if (availableFlights.isEmpty()) {
-                showAlternativeFlights(originCode);
+                showAlternativeFlights(originCode, destinationCode, departureDate);
                 return;
             }
 
@@ -299,31 +304,46 @@ public class UserFlightController implements Initializable {
         return true;
     }
 
-    private void showAlternativeFlights(String originCode) throws ListException {
+    private void showAlternativeFlights(String originCode, String destinationCode, LocalDate departureDate) throws ListException {
         StringBuilder message = new StringBuilder();
         message.append("No hay vuelos disponibles para la ruta seleccionada.\n\n");
         message.append("Vuelos disponibles desde ").append(originCode).append(":\n");
 
-        CircularDoublyLinkedList allFlights = flightScheduleManager.getScheduledFlights();
         boolean foundFlights = false;
 
-        for (int i = 0; i < allFlights.size(); i++) {
-            Flight flight = (Flight) allFlights.get(i);
-            if (flight.getOriginAirportCode().equals(originCode) &&
-                    flight.getStatus() == Flight.FlightStatus.SCHEDULED) {
-
-                message.append("- ").append(flight.getDestinationAirportCode())
-                        .append(" (").append(airportManager.getAirportName(flight.getDestinationAirportCode()))
-                        .append(") - ").append(flight.getDepartureTime().toLocalDate())
-                        .append("\n");
-                foundFlights = true;
-            }
+        for (Flight flight : flightScheduleManager.findFlightsFrom(originCode, Flight.FlightStatus.SCHEDULED)) {
+            message.append("- ").append(flight.getDestinationAirportCode())
+                    .append(" (").append(airportManager.getAirportName(flight.getDestinationAirportCode()))
+                    .append(") - ").append(flight.getDepartureTime().toLocalDate())
+                    .append("\n");
+            foundFlights = true;
         }
 
         if (!foundFlights) {
             message.append("No hay vuelos disponibles desde este aeropuerto");
         }
 
+        // Itinerario con conexiones que llega más temprano saliendo desde la fecha elegida.
+        ConnectionScanIndex.Itinerary itinerary =
+                flightScheduleManager.findEarliestArrival(originCode, destinationCode, departureDate.atStartOfDay());
+        if (itinerary != null) {
+            message.append("\nItinerario con conexiones que llega más temprano:\n- ").append(itinerary).append("\n");
+        }
+
+        // Itinerarios alternativos hacia el destino, de menor a mayor duración.
+        try {
+            List<RouteManager.ShortestPathResult> routes =
+                    routeManager.findKShortestRoutes(originCode, destinationCode, ALTERNATIVE_ROUTES, "duration");
+            if (!routes.isEmpty()) {
+                message.append("\nRutas alternativas hacia ").append(destinationCode).append(":\n");
+                for (RouteManager.ShortestPathResult route : routes) {
+                    message.append("- ").append(route).append("\n");
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            // El origen o el destino no tienen rutas en el grafo: solo se listan los vuelos.
+        }
+
         FXUtility.alert("Vuelos Disponibles", message.toString());
     }
 
@@ -350,24 +370,10 @@ public class UserFlightController implements Initializable {
             throws ListException {
 
         CircularDoublyLinkedList result = new CircularDoublyLinkedList();
-        CircularDoublyLinkedList allFlights = flightScheduleManager.getScheduledFlights();
-
-        for (int i = 0; i < allFlights.size(); i++) {
-            Flight flight = (Flight) allFlights.get(i);
-
-            // Filtramos por:
-            // 1. Aeropuertos de origen/destino
-            // 2. Fecha de salida
-            // 3. Estado SCHEDULED
-            // 4. Que no esté lleno
-            if (flight.getOriginAirportCode().equals(originCode) &&
-                    flight.getDestinationAirportCode().equals(destinationCode) &&
-                    flight.getDepartureTime().toLocalDate().equals(date) &&
-                    flight.getStatus() == Flight.FlightStatus.SCHEDULED &&
-                    !flight.isFull()) {
-
-                result.add(flight);
-            }
+
+        // Índice por ruta: vuelos SCHEDULED de origen a destino en la fecha, con espacio, por hora de salida.
+        for (Flight flight : flightScheduleManager.findAvailableFlights(originCode, destinationCode, date)) {
+            result.add(flight);
         }
         return result;
     }
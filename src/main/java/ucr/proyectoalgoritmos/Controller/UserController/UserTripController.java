@@ -70,7 +70,7 @@ public class UserTripController implements Initializable {
     }
 
     private void loadAndFilterHistoricalFlights() {
-        flightScheduleManager.reloadFlightsFromJson();
+        // La lista en memoria de FlightScheduleManager ya incluye los cambios aún no guardados.
         CircularDoublyLinkedList allFlights = flightScheduleManager.getScheduledFlights();
         historyFlightsObservableList = FXCollections.observableArrayList();
 
@@ -7,6 +7,7 @@ import com.google.gson.JsonParser;
 import ucr.proyectoalgoritmos.Domain.aeropuetos.AirportManager;
 import ucr.proyectoalgoritmos.Domain.list.ListException;
 import ucr.proyectoalgoritmos.Domain.route.RouteManager;
+import ucr.proyectoalgoritmos.util.GeoUtility;
 
 import java.io.IOException;
 import java.nio.file.Files;
@@ -41,10 +42,18 @@ public class DataLoader {
             String code = airportJson.get("code").getAsString();
             String name = airportJson.get("name").getAsString();
             String country = airportJson.get("country").getAsString();
+            // Coordenadas opcionales: los aeropuertos antiguos del archivo pueden no tenerlas.
+            Double latitude = airportJson.has("latitude") && !airportJson.get("latitude").isJsonNull()
+                    ? airportJson.get("latitude").getAsDouble() : null;
+            Double longitude = airportJson.has("longitude") && !airportJson.get("longitude").isJsonNull()
+                    ? airportJson.get("longitude").getAsDouble() : null;
 
-            airportManager.createAirport(code , name , country);
+            airportManager.createAirport(code , name , country, latitude, longitude);
 
             routeManager.addAirportToGraph(code);
+            if (GeoUtility.isValidCoordinate(latitude, longitude)) {
+                routeManager.setAirportCoordinates(code, latitude, longitude);
+            }
         }
         System.out.println("Airports loaded and added to AirportManager and Route Graph.");
     }
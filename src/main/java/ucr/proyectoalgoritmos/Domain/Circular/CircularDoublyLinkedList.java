@@ -66,6 +66,39 @@ public class CircularDoublyLinkedList implements List {
         count++;
     }
 
+    /**
+     * Igual que add, pero devuelve el nodo creado para que un índice externo pueda
+     * reemplazar sus datos o quitarlo después sin recorrer la lista.
+     */
+    public Node addNode(Object element) {
+        add(element);
+        return last;
+    }
+
+    /**
+     * Quita un nodo de esta lista en O(1). El nodo debe pertenecer a la lista (por ejemplo,
+     * uno devuelto por addNode que aún no se haya quitado).
+     */
+    public void removeNode(Node node) throws ListException {
+        if (isEmpty()) {
+            throw new ListException("Circular Doubly Linked List is empty");
+        }
+        if (count == 1) {
+            clear();
+            return;
+        }
+        if (node == first) {
+            first = first.next;
+        } else if (node == last) {
+            last = last.prev;
+        }
+        node.prev.next = node.next;
+        node.next.prev = node.prev;
+        last.next = first;
+        first.prev = last;
+        count--;
+    }
+
     @Override
     public void addFirst(Object element) {
         Node newNode = new Node(element);
@@ -3,6 +3,7 @@ package ucr.proyectoalgoritmos.Domain.aeropuetos;
 import ucr.proyectoalgoritmos.Domain.list.DoublyLinkedList;
 import ucr.proyectoalgoritmos.Domain.list.ListException;
 import ucr.proyectoalgoritmos.Domain.list.SinglyLinkedList;
+import ucr.proyectoalgoritmos.util.GeoUtility;
 import java.util.Objects;
 
 /**
@@ -15,6 +16,9 @@ public class Airport {
     private DoublyLinkedList passengerQueue;
     private AirportStatus status;
     private SinglyLinkedList departuresBoard;
+    // Coordenadas en grados; null si no se conocen.
+    private Double latitude;
+    private Double longitude;
 
     public enum AirportStatus {
         ACTIVE,
@@ -32,6 +36,12 @@ public class Airport {
         this.passengerQueue = new DoublyLinkedList();
     }
 
+    public Airport(String code, String name, String country, Double latitude, Double longitude) {
+        this(code, name, country);
+        this.latitude = latitude;
+        this.longitude = longitude;
+    }
+
     public Airport() {
         this.status = AirportStatus.ACTIVE;
         this.departuresBoard = new SinglyLinkedList();
@@ -54,6 +64,8 @@ public class Airport {
     public AirportStatus getStatus() { return status; }
     public SinglyLinkedList getDeparturesBoard() { return departuresBoard; }
     public DoublyLinkedList getPassengerQueue() { return passengerQueue; }
+    public Double getLatitude() { return latitude; }
+    public Double getLongitude() { return longitude; }
 
     public void setStatus(AirportStatus status) { this.status = status; }
     public void setDeparturesBoard(SinglyLinkedList departuresBoard) { this.departuresBoard = departuresBoard; }
@@ -61,12 +73,18 @@ public class Airport {
     public void setCode(String code) { this.code = code; }
     public void setName(String name) { this.name = name; }
     public void setCountry(String country) { this.country = country; }
+    public void setLatitude(Double latitude) { this.latitude = latitude; }
+    public void setLongitude(Double longitude) { this.longitude = longitude; }
 
     // Métodos utilitarios
     public int getPassengerQueueSize() throws ListException {
         return passengerQueue != null ? passengerQueue.size() : 0;
     }
 
+    public boolean hasCoordinates() {
+        return GeoUtility.isValidCoordinate(latitude, longitude);
+    }
+
     public int getDeparturesBoardSize() {
         return departuresBoard != null ? departuresBoard.size() : 0;
     }
@@ -22,10 +22,14 @@ public class AirportManager {
     }
 
     public void createAirport(String code, String name, String country) throws ListException {
+        createAirport(code, name, country, null, null);
+    }
+
+    public void createAirport(String code, String name, String country, Double latitude, Double longitude) throws ListException {
         if (findAirport(code) != null) {
             throw new ListException("El aeropuerto con código " + code + " ya existe");
         }
-        Airport newAirport = new Airport(code, name, country);
+        Airport newAirport = new Airport(code, name, country, latitude, longitude);
         this.airports.add(newAirport);
     }
 
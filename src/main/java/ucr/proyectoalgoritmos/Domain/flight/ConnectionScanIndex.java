@@ -0,0 +1,337 @@
+package ucr.proyectoalgoritmos.Domain.flight;
+
+import ucr.proyectoalgoritmos.Domain.Circular.CircularDoublyLinkedList;
+import ucr.proyectoalgoritmos.Domain.list.ListException;
+import ucr.proyectoalgoritmos.Domain.list.Node;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Índice de conexiones (Connection Scan Algorithm) sobre los vuelos programados.
+ * Cada vuelo es una conexión origen -> destino con salida y llegada en minutos; las conexiones
+ * se guardan en arreglos paralelos ordenados por hora de salida. Una consulta de llegada más
+ * temprana recorre ese arreglo una sola vez desde la hora pedida, marcando la hora a la que cada
+ * aeropuerto queda listo para embarcar (llegada + tiempo mínimo de conexión).
+ *
+ * Los vuelos creados, actualizados, cancelados o eliminados se insertan o quitan en su posición
+ * por búsqueda binaria, sin volver a ordenar todo el arreglo.
+ */
+public class ConnectionScanIndex {
+
+    /** Tiempo mínimo de conexión entre dos vuelos, en minutos. */
+    public static final int DEFAULT_MIN_CONNECTION_MINUTES = 45;
+
+    /**
+     * Itinerario encontrado: vuelos en orden, salida del primero y llegada del último.
+     */
+    public static class Itinerary {
+        private final List<Flight> legs;
+        private final LocalDateTime departureTime;
+        private final LocalDateTime arrivalTime;
+
+        Itinerary(List<Flight> legs, LocalDateTime departureTime, LocalDateTime arrivalTime) {
+            this.legs = Collections.unmodifiableList(legs);
+            this.departureTime = departureTime;
+            this.arrivalTime = arrivalTime;
+        }
+
+        public List<Flight> getLegs() { return legs; }
+        public LocalDateTime getDepartureTime() { return departureTime; }
+        public LocalDateTime getArrivalTime() { return arrivalTime; }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            for (Flight leg : legs) {
+                if (sb.length() > 0) {
+                    sb.append(" -> ");
+                }
+                sb.append(leg.getFlightNumber()).append(" (").append(leg.getOriginAirportCode())
+                        .append("-").append(leg.getDestinationAirportCode()).append(")");
+            }
+            return sb + ", Salida: " + departureTime + ", Llegada: " + arrivalTime;
+        }
+    }
+
+    // Conexiones ordenadas por salida; las posiciones [0, count) son válidas.
+    private long[] departure;
+    private long[] arrival;
+    private int[] from;
+    private int[] to;
+    private Flight[] flights;
+    private int count;
+    // Salida con la que se indexó cada vuelo, para ubicarlo al quitarlo aunque su hora haya cambiado.
+    private final Map<String, Long> indexedDeparture;
+
+    private final Map<String, Integer> airportIndex;
+
+    // Memoria de trabajo de las consultas, válida si stamp[a] == generation.
+    private long[] readyAt;
+    private long[] arrivedAt;
+    private int[] arrivedBy;
+    private int[] stamp;
+    private int generation;
+
+    public ConnectionScanIndex() {
+        this.departure = new long[16];
+        this.arrival = new long[16];
+        this.from = new int[16];
+        this.to = new int[16];
+        this.flights = new Flight[16];
+        this.indexedDeparture = new HashMap<>();
+        this.airportIndex = new HashMap<>();
+        this.readyAt = new long[0];
+        this.arrivedAt = new long[0];
+        this.arrivedBy = new int[0];
+        this.stamp = new int[0];
+    }
+
+    private static long toMinutes(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) / 60;
+    }
+
+    private static LocalDateTime fromMinutes(long minutes) {
+        return LocalDateTime.ofEpochSecond(minutes * 60, 0, ZoneOffset.UTC);
+    }
+
+    private int airport(String code) {
+        Integer index = airportIndex.get(code);
+        if (index == null) {
+            index = airportIndex.size();
+            airportIndex.put(code, index);
+        }
+        return index;
+    }
+
+    public synchronized int size() {
+        return count;
+    }
+
+    /**
+     * Reemplaza el contenido del índice por los vuelos dados, ordenándolos una sola vez.
+     */
+    public synchronized void rebuild(CircularDoublyLinkedList allFlights) throws ListException {
+        List<Flight> valid = new ArrayList<>();
+        if (allFlights != null && !allFlights.isEmpty()) {
+            // Recorrido por nodos: get(i) sería O(n) por elemento.
+            Node node = allFlights.getNode(0);
+            for (int i = 0; i < allFlights.size(); i++, node = node.next) {
+                if (node.data instanceof Flight flight && isIndexable(flight)) {
+                    valid.add(flight);
+                }
+            }
+        }
+        valid.sort((a, b) -> a.getDepartureTime().compareTo(b.getDepartureTime()));
+        count = 0;
+        indexedDeparture.clear();
+        ensureCapacity(valid.size());
+        for (Flight flight : valid) {
+            if (!indexedDeparture.containsKey(flight.getFlightNumber())) {
+                set(count++, flight);
+            }
+        }
+    }
+
+    /**
+     * Agrega un vuelo en su posición por hora de salida. Si ya estaba indexado, se reubica.
+     */
+    public synchronized void add(Flight flight) {
+        if (!isIndexable(flight)) {
+            return;
+        }
+        removeInternal(flight.getFlightNumber());
+        ensureCapacity(count + 1);
+        int position = upperBound(toMinutes(flight.getDepartureTime()));
+        shift(position, position + 1, count - position);
+        count++;
+        set(position, flight);
+    }
+
+    /**
+     * Quita un vuelo eliminado o cancelado.
+     * @return true si el vuelo estaba indexado.
+     */
+    public synchronized boolean remove(Flight flight) {
+        return flight != null && removeInternal(flight.getFlightNumber());
+    }
+
+    /**
+     * Actualiza un vuelo cuya hora, duración o estado cambió: se quita y, si sigue siendo
+     * programable, se vuelve a insertar.
+     */
+    public synchronized void update(Flight flight) {
+        if (flight == null) {
+            return;
+        }
+        removeInternal(flight.getFlightNumber());
+        add(flight);
+    }
+
+    private static boolean isIndexable(Flight flight) {
+        return flight != null && flight.getFlightNumber() != null && flight.getDepartureTime() != null
+                && flight.getOriginAirportCode() != null && flight.getDestinationAirportCode() != null
+                && flight.getStatus() != Flight.FlightStatus.CANCELLED
+                && flight.getStatus() != Flight.FlightStatus.COMPLETED;
+    }
+
+    private boolean removeInternal(String flightNumber) {
+        Long indexed = indexedDeparture.remove(flightNumber);
+        if (indexed == null) {
+            return false;
+        }
+        int position = lowerBound(indexed);
+        while (position < count && departure[position] == indexed) {
+            if (flights[position].getFlightNumber().equals(flightNumber)) {
+                shift(position + 1, position, count - position - 1);
+                count--;
+                flights[count] = null;
+                return true;
+            }
+            position++;
+        }
+        return false;
+    }
+
+    private void set(int position, Flight flight) {
+        long dep = toMinutes(flight.getDepartureTime());
+        departure[position] = dep;
+        arrival[position] = dep + Math.max(0, flight.getEstimatedDurationMinutes());
+        from[position] = airport(flight.getOriginAirportCode());
+        to[position] = airport(flight.getDestinationAirportCode());
+        flights[position] = flight;
+        indexedDeparture.put(flight.getFlightNumber(), dep);
+    }
+
+    private void shift(int source, int destination, int length) {
+        if (length <= 0) {
+            return;
+        }
+        System.arraycopy(departure, source, departure, destination, length);
+        System.arraycopy(arrival, source, arrival, destination, length);
+        System.arraycopy(from, source, from, destination, length);
+        System.arraycopy(to, source, to, destination, length);
+        System.arraycopy(flights, source, flights, destination, length);
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= departure.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, departure.length * 2);
+        departure = Arrays.copyOf(departure, newCapacity);
+        arrival = Arrays.copyOf(arrival, newCapacity);
+        from = Arrays.copyOf(from, newCapacity);
+        to = Arrays.copyOf(to, newCapacity);
+        flights = Arrays.copyOf(flights, newCapacity);
+    }
+
+    /** Primera posición con salida >= minutes. */
+    private int lowerBound(long minutes) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (departure[mid] < minutes) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /** Primera posición con salida > minutes. */
+    private int upperBound(long minutes) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (departure[mid] <= minutes) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Itinerario que llega más temprano de originCode a destinationCode saliendo a partir de
+     * departAfter, con al menos minConnectionMinutes entre la llegada de un vuelo y la salida del
+     * siguiente. Solo se usan vuelos programados o asignados que no estén llenos.
+     * @return itinerario, o null si no hay forma de llegar.
+     */
+    public synchronized Itinerary earliestArrival(String originCode, String destinationCode, LocalDateTime departAfter, int minConnectionMinutes) {
+        if (minConnectionMinutes < 0) {
+            throw new IllegalArgumentException("El tiempo mínimo de conexión no puede ser negativo: " + minConnectionMinutes);
+        }
+        Integer origin = airportIndex.get(originCode);
+        Integer destination = airportIndex.get(destinationCode);
+        if (origin == null || destination == null || origin.equals(destination)) {
+            return null;
+        }
+        prepare(airportIndex.size());
+        int gen = generation;
+        long start = toMinutes(departAfter);
+        stamp[origin] = gen;
+        readyAt[origin] = start;
+        arrivedAt[origin] = start;
+        arrivedBy[origin] = -1;
+
+        for (int c = lowerBound(start); c < count; c++) {
+            // Ninguna conexión que sale después de la mejor llegada puede mejorarla.
+            if (stamp[destination] == gen && departure[c] >= arrivedAt[destination]) {
+                break;
+            }
+            int u = from[c];
+            if (stamp[u] != gen || departure[c] < readyAt[u] || !isBookable(flights[c])) {
+                continue;
+            }
+            int v = to[c];
+            if (stamp[v] != gen || arrival[c] < arrivedAt[v]) {
+                stamp[v] = gen;
+                arrivedAt[v] = arrival[c];
+                readyAt[v] = arrival[c] + minConnectionMinutes;
+                arrivedBy[v] = c;
+            }
+        }
+        if (stamp[destination] != gen) {
+            return null;
+        }
+
+        List<Flight> legs = new ArrayList<>();
+        for (int c = arrivedBy[destination]; c != -1; c = arrivedBy[from[c]]) {
+            legs.add(flights[c]);
+        }
+        Collections.reverse(legs);
+        return new Itinerary(legs, legs.get(0).getDepartureTime(), fromMinutes(arrivedAt[destination]));
+    }
+
+    private static boolean isBookable(Flight flight) {
+        Flight.FlightStatus status = flight.getStatus();
+        return (status == Flight.FlightStatus.SCHEDULED || status == Flight.FlightStatus.ASSIGNED) && !flight.isFull();
+    }
+
+    private void prepare(int airports) {
+        if (airports > stamp.length) {
+            int capacity = Math.max(airports, stamp.length * 2);
+            readyAt = new long[capacity];
+            arrivedAt = new long[capacity];
+            arrivedBy = new int[capacity];
+            stamp = new int[capacity];
+            generation = 0;
+        }
+        if (generation == Integer.MAX_VALUE) {
+            Arrays.fill(stamp, 0);
+            generation = 0;
+        }
+        generation++;
+    }
+}
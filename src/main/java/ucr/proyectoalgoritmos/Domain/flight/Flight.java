@@ -1,5 +1,6 @@
 package ucr.proyectoalgoritmos.Domain.flight;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import ucr.proyectoalgoritmos.Domain.Circular.CircularDoublyLinkedList;
 import ucr.proyectoalgoritmos.Domain.airplane.Airplane;
@@ -9,6 +10,7 @@ import ucr.proyectoalgoritmos.Domain.passenger.Passenger;
 import java.time.LocalDateTime;
 import java.util.Objects;
 import java.util.Random;
+import java.util.function.Consumer;
 
 @JsonIgnoreProperties(ignoreUnknown = true)
 public class Flight {
@@ -25,6 +27,8 @@ public class Flight {
     private Airplane airplane; // The airplane assigned to this flight (can be null initially)
     private int estimatedDurationMinutes; // Estimated flight duration in minutes
     private String gate;
+    // Aviso a los índices de FlightScheduleManager cuando cambian el estado, la salida, el origen o el destino.
+    private Consumer<Flight> changeListener;
 
     // Constantes para las puertas disponibles
     private static final String[] AVAILABLE_GATES = {
@@ -146,22 +150,55 @@ public class Flight {
         if (departureTime == null) {
             throw new IllegalArgumentException("Departure time cannot be null.");
         }
+        boolean changed = !departureTime.equals(this.departureTime);
         this.departureTime = departureTime;
+        if (changed) {
+            notifyChange();
+        }
     }
 
     public void setActualDepartureTime(LocalDateTime actualDepartureTime) {
+        boolean changed = !Objects.equals(actualDepartureTime, this.actualDepartureTime);
         this.actualDepartureTime = actualDepartureTime;
+        if (changed) {
+            notifyChange();
+        }
     }
 
     public void setActualArrivalTime(LocalDateTime actualArrivalTime) {
+        boolean changed = !Objects.equals(actualArrivalTime, this.actualArrivalTime);
         this.actualArrivalTime = actualArrivalTime;
+        if (changed) {
+            notifyChange();
+        }
     }
 
     public void setStatus(FlightStatus status) {
         if (status == null) {
             throw new IllegalArgumentException("Flight status cannot be null.");
         }
+        boolean changed = status != this.status;
         this.status = status;
+        if (changed) {
+            notifyChange();
+        }
+    }
+
+    /**
+     * Registra quién debe enterarse de los cambios del vuelo que afectan a los índices de búsqueda o
+     * que se guardan (estado, horarios, ruta, duración, puerta y capacidad; null para dejar de avisar).
+     * Lo usa FlightScheduleManager al indexar el vuelo.
+     */
+    @JsonIgnore
+    void setChangeListener(Consumer<Flight> changeListener) {
+        this.changeListener = changeListener;
+    }
+
+    private void notifyChange() {
+        Consumer<Flight> listener = changeListener;
+        if (listener != null) {
+            listener.accept(this);
+        }
     }
 
     public void setAirplane(Airplane airplane) {
@@ -182,14 +219,22 @@ public class Flight {
             );
         }
         this.airplane = airplane;
+        boolean changed = airplane.getCapacity() != this.capacity;
         this.capacity = airplane.getCapacity();
+        if (changed) {
+            notifyChange();
+        }
     }
 
     public void setEstimatedDurationMinutes(int estimatedDurationMinutes) {
         if (estimatedDurationMinutes < 0) {
             throw new IllegalArgumentException("Estimated duration cannot be negative.");
         }
+        boolean changed = estimatedDurationMinutes != this.estimatedDurationMinutes;
         this.estimatedDurationMinutes = estimatedDurationMinutes;
+        if (changed) {
+            notifyChange();
+        }
     }
 
     public void setOccupancy(int occupancy) {
@@ -282,15 +327,27 @@ public class Flight {
     }
 
     public void setOriginAirportCode(String originAirportCode) {
+        boolean changed = !Objects.equals(originAirportCode, this.originAirportCode);
         this.originAirportCode = originAirportCode;
+        if (changed) {
+            notifyChange();
+        }
     }
 
     public void setDestinationAirportCode(String destinationAirportCode) {
+        boolean changed = !Objects.equals(destinationAirportCode, this.destinationAirportCode);
         this.destinationAirportCode = destinationAirportCode;
+        if (changed) {
+            notifyChange();
+        }
     }
 
     public void setCapacity(int capacity) {
+        boolean changed = capacity != this.capacity;
         this.capacity = capacity;
+        if (changed) {
+            notifyChange();
+        }
     }
 
     public void setPassengers(CircularDoublyLinkedList passengers) {
@@ -319,7 +376,12 @@ public class Flight {
      * Asigna una puerta específica al vuelo.
      */
     public void setGate(String gate) {
-        this.gate = (gate == null || gate.trim().isEmpty()) ? assignRandomGate() : gate.trim();
+        String assigned = (gate == null || gate.trim().isEmpty()) ? assignRandomGate() : gate.trim();
+        boolean changed = !assigned.equals(this.gate);
+        this.gate = assigned;
+        if (changed) {
+            notifyChange();
+        }
     }
 
     /**
@@ -4,18 +4,27 @@ import ucr.proyectoalgoritmos.Domain.Circular.CircularDoublyLinkedList;
 import ucr.proyectoalgoritmos.Domain.aeropuetos.AirportManager;
 import ucr.proyectoalgoritmos.Domain.airplane.Airplane;
 import ucr.proyectoalgoritmos.Domain.list.ListException; // Importar ListException para errores de lista
+import ucr.proyectoalgoritmos.Domain.list.Node;
 import ucr.proyectoalgoritmos.Domain.passenger.Passenger;
 import ucr.proyectoalgoritmos.Domain.stack.StackException;
 import ucr.proyectoalgoritmos.Domain.route.RouteManager;
 import ucr.proyectoalgoritmos.UtilJson.FlightJson;
+import ucr.proyectoalgoritmos.UtilJson.FlightJournal;
+import ucr.proyectoalgoritmos.UtilJson.FlightPersistence;
+import ucr.proyectoalgoritmos.UtilJson.FlightWriteBehind;
 // import ucr.proyectoalgoritmos.Domain.queue.QueueException; // REMOVIDO: Ya no es necesario si Flight usa CircularDoublyLinkedList
 
 import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
-
-import static ucr.proyectoalgoritmos.UtilJson.FlightJson.saveFlightsToJson;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 
 /**
  * Gestiona la programación, creación, asignación y simulación de vuelos.
@@ -28,6 +37,18 @@ public class FlightScheduleManager {
     private Map<String, ucr.proyectoalgoritmos.Domain.Circular.CircularDoublyLinkedList> waitingLists;
     private static FlightScheduleManager instance;
     private FlightJson flightJson;
+    // Vuelos ordenados por hora de salida para buscar itinerarios con conexiones.
+    private final ConnectionScanIndex connectionIndex;
+    // Índice por número de vuelo: nodo de scheduledFlights que guarda el vuelo. Se modifica solo dentro de
+    // métodos synchronized junto con la lista; findFlight lo lee sin bloquear (p. ej. desde el simulador).
+    private volatile ConcurrentHashMap<String, Node> flightsByNumber;
+    // Índices por ruta, origen, estado y salida; los vuelos indexados avisan sus cambios con flightChanged.
+    private final FlightSearchIndex searchIndex;
+    private final Consumer<Flight> flightChanged;
+    // Guardado de los cambios de scheduledFlights; null si esta instancia no persiste (p. ej. en pruebas).
+    private volatile FlightPersistence persistence;
+    // Reservas y listas de espera con bloqueo por vuelo; waitingLists es el mapa de este servicio.
+    private final TicketBookingService bookingService;
 
     public FlightScheduleManager(AirportManager airportManager, RouteManager routeManager) {
         if (airportManager == null) {
@@ -39,7 +60,13 @@ public class FlightScheduleManager {
         this.scheduledFlights = new CircularDoublyLinkedList();
         this.airportManager = airportManager;
         this.routeManager = routeManager;
-        this.waitingLists = new HashMap<>();
+        this.bookingService = new TicketBookingService(TicketBookingService.DEFAULT_STRIPES,
+                (flight, passenger) -> persist(p -> p.passengerAdded(flight, passenger)));
+        this.waitingLists = bookingService.getWaitingLists();
+        this.connectionIndex = new ConnectionScanIndex();
+        this.flightsByNumber = new ConcurrentHashMap<>();
+        this.searchIndex = new FlightSearchIndex();
+        this.flightChanged = this::onFlightChanged;
     }
 
     /**
@@ -53,7 +80,7 @@ public class FlightScheduleManager {
      * Crea un nuevo vuelo y lo añade a la lista de vuelos programados.
      * Realiza validaciones de número de vuelo, existencia de aeropuertos y rutas.
      */
-    public Flight createFlight(String number, String originCode, String destinationCode,
+    public synchronized Flight createFlight(String number, String originCode, String destinationCode,
                                LocalDateTime departureTime, int estimatedDurationMinutes, int capacity) throws ListException, IllegalArgumentException {
         // Validar si el número de vuelo ya está en uso
         if (findFlight(number) != null) {
@@ -68,8 +95,8 @@ public class FlightScheduleManager {
             throw new ListException("El aeropuerto de destino '" + destinationCode + "' no es válido.");
         }
 
-        // Validar que exista una ruta en el grafo entre origen y destino
-        if (routeManager.calculateShortestRoute(originCode, destinationCode) == Integer.MAX_VALUE) {
+        // Validar que exista una ruta en el grafo entre origen y destino (índice de alcanzabilidad, O(1))
+        if (!routeManager.isReachable(originCode, destinationCode)) {
             throw new ListException("No existe una ruta en el grafo entre " + originCode + " y " + destinationCode + ". No se puede crear el vuelo.");
         }
 
@@ -78,90 +105,59 @@ public class FlightScheduleManager {
         newFlight.setEstimatedDurationMinutes(estimatedDurationMinutes);
 
         // Añade el vuelo a la lista de vuelos programados
-        scheduledFlights.add(newFlight);
+        flightsByNumber.put(numberKey(number), scheduledFlights.addNode(newFlight));
+        connectionIndex.add(newFlight);
+        indexForSearch(newFlight);
+        persist(p -> p.flightCreated(newFlight));
         return newFlight;
     }
 
     /**
      * Procesa la compra de un billete para un pasajero en un vuelo específico.
-     * Maneja la adición de pasajeros a vuelos y la gestión de listas de espera.
+     * Maneja la adición de pasajeros a vuelos y la gestión de listas de espera; es seguro llamarlo
+     * desde varios hilos (ver TicketBookingService).
      */
     public void processTicketPurchase(Passenger passenger, Flight flight) throws IllegalArgumentException, ListException {
-        if (flight == null) {
-            throw new IllegalArgumentException("No se puede procesar la compra de billetes. El objeto vuelo es nulo.");
-        }
-        if (passenger == null) {
-            throw new IllegalArgumentException("No se puede procesar la compra de billetes. El objeto pasajero es nulo.");
-        }
-
-        // Si el vuelo está programado y no está lleno
-        if (flight.getStatus() == Flight.FlightStatus.SCHEDULED && !flight.isFull()) {
-            try {
-                flight.addPassenger(passenger); // Intenta añadir al pasajero al vuelo.
+        TicketBookingService.Result result = bookingService.book(passenger, flight);
+        String routeKey = TicketBookingService.routeKey(flight);
+        switch (result) {
+            case BOOKED:
                 System.out.println("Pasajero " + passenger.getName() + " (" + passenger.getId() + ") reservado en el vuelo " + flight.getFlightNumber() + " de " + flight.getOriginAirportCode() + " a " + flight.getDestinationAirportCode() + ".");
-
-                // Si el pasajero estaba en lista de espera para esta ruta, se le remueve.
-                String routeKey = flight.getOriginAirportCode() + "-" + flight.getDestinationAirportCode();
-                if (waitingLists.containsKey(routeKey)) {
-                    ucr.proyectoalgoritmos.Domain.Circular.CircularDoublyLinkedList routeWaitingList = waitingLists.get(routeKey);
-                    try {
-                        if (routeWaitingList.contains(passenger)) {
-                            routeWaitingList.remove(passenger);
-                            if (routeWaitingList.isEmpty()) {
-                                waitingLists.remove(routeKey);
-                            }
-                        }
-                    } catch (ListException e) {
-                        System.err.println("ERROR: Error al intentar remover pasajero de la lista de espera para la ruta " + routeKey + ": " + e.getMessage());
-                    }
-                }
-            } catch (ListException e) {
-                // Si flight.addPassenger lanza ListException (ej. por vuelo lleno o pasajero duplicado), se maneja aquí
-                System.out.println("ADVERTENCIA: No se pudo reservar al pasajero " + passenger.getId() + " en el vuelo " + flight.getFlightNumber() + ". Detalle: " + e.getMessage() + ". Añadiendo a lista de espera.");
-                addToWaitingList(passenger, flight); // Añadir a la lista de espera si no se pudo reservar
-            }
-
-        } else { // El vuelo no está disponible para reserva (lleno o estado no 'SCHEDULED')
-            System.out.println("ADVERTENCIA: El vuelo " + flight.getFlightNumber() + " no está disponible para reserva (Estado: " + flight.getStatus() + ", Ocupación: " + flight.getOccupancy() + "/" + flight.getCapacity() + "). Pasajero " + passenger.getId() + " añadido a lista de espera.");
-            addToWaitingList(passenger, flight);
+                break;
+            case ALREADY_BOOKED:
+                System.out.println("ADVERTENCIA: No se pudo reservar al pasajero " + passenger.getId() + " en el vuelo " + flight.getFlightNumber() + ". Detalle: el pasajero ya está en el vuelo. En lista de espera para la ruta " + routeKey + ".");
+                break;
+            default:
+                System.out.println("ADVERTENCIA: El vuelo " + flight.getFlightNumber() + " no está disponible para reserva (Estado: " + flight.getStatus() + ", Ocupación: " + flight.getOccupancy() + "/" + flight.getCapacity() + "). Pasajero " + passenger.getId() + " en lista de espera para la ruta " + routeKey + ".");
+                break;
         }
     }
 
-    /**
-     * Método auxiliar para añadir un pasajero a la lista de espera de una ruta específica.
-     */
-    private void addToWaitingList(Passenger passenger, Flight flight) throws ListException {
-        String routeKey = flight.getOriginAirportCode() + "-" + flight.getDestinationAirportCode();
-        waitingLists.putIfAbsent(routeKey, new ucr.proyectoalgoritmos.Domain.Circular.CircularDoublyLinkedList()); // Crea la lista si no existe
-        ucr.proyectoalgoritmos.Domain.Circular.CircularDoublyLinkedList routeWaitingList = waitingLists.get(routeKey);
-
-        if (!routeWaitingList.contains(passenger)) { // Evitar duplicados en la lista de espera
-            routeWaitingList.add(passenger);
-            System.out.println("Pasajero " + passenger.getName() + " (" + passenger.getId() + ") añadido a la lista de espera para la ruta " + routeKey + ".");
-        } else {
-            System.out.println("Pasajero " + passenger.getName() + " (" + passenger.getId() + ") ya está en la lista de espera para la ruta " + routeKey + ".");
-        }
+    public TicketBookingService getBookingService() {
+        return bookingService;
     }
 
 
     /**
-     * Busca un vuelo programado por su número de vuelo.
+     * Busca un vuelo programado por su número de vuelo, en O(1) con el índice por número.
+     * Se puede llamar desde cualquier hilo sin bloquear.
      */
     public Flight findFlight(String flightNumber) throws ListException {
-        if (scheduledFlights.isEmpty()) {
+        if (flightNumber == null) {
             return null;
         }
-        for (int i = 0; i < scheduledFlights.size(); i++) {
-            Flight f = (Flight) scheduledFlights.get(i);
-            if (f.getFlightNumber().equals(flightNumber)) {
-                return f;
-            }
-        }
-        return null;
+        Node node = flightsByNumber.get(numberKey(flightNumber));
+        return node == null ? null : (Flight) node.data;
+    }
+
+    // Clave del índice por número: los números de vuelo se comparan sin distinguir mayúsculas.
+    private static String numberKey(String flightNumber) {
+        return flightNumber.toUpperCase(Locale.ROOT);
     }
 
     /**
-     * Muestra todos los vuelos programados, categorizados por su estado.
+     * Muestra todos los vuelos programados, categorizados por su estado (índice por estado,
+     * cada grupo ordenado por hora de salida).
      */
     public void displayFlightsByStatus() throws ListException {
         if (scheduledFlights.isEmpty()) {
@@ -170,44 +166,25 @@ public class FlightScheduleManager {
         }
 
         System.out.println("\n--- VUELOS ACTIVOS (Programados, Asignados y en Progreso) ---");
-        boolean activeFound = false;
-        for (int i = 0; i < scheduledFlights.size(); i++) {
-            Flight flight = (Flight) scheduledFlights.get(i);
-            if (flight.getStatus() == Flight.FlightStatus.SCHEDULED ||
-                    flight.getStatus() == Flight.FlightStatus.IN_PROGRESS ||
-                    flight.getStatus() == Flight.FlightStatus.ASSIGNED) {
-                System.out.println(flight);
-                activeFound = true;
-            }
-        }
-        if (!activeFound) {
-            System.out.println("No hay vuelos activos actualmente.");
-        }
+        List<Flight> active = new ArrayList<>(searchIndex.findByStatus(Flight.FlightStatus.SCHEDULED));
+        active.addAll(searchIndex.findByStatus(Flight.FlightStatus.IN_PROGRESS));
+        active.addAll(searchIndex.findByStatus(Flight.FlightStatus.ASSIGNED));
+        active.sort(Comparator.comparing(Flight::getDepartureTime));
+        printFlights(active, "No hay vuelos activos actualmente.");
 
         System.out.println("\n--- VUELOS COMPLETADOS ---");
-        boolean completedFound = false;
-        for (int i = 0; i < scheduledFlights.size(); i++) {
-            Flight flight = (Flight) scheduledFlights.get(i);
-            if (flight.getStatus() == Flight.FlightStatus.COMPLETED) {
-                System.out.println(flight);
-                completedFound = true;
-            }
-        }
-        if (!completedFound) {
-            System.out.println("No hay vuelos completados actualmente.");
-        }
+        printFlights(searchIndex.findByStatus(Flight.FlightStatus.COMPLETED), "No hay vuelos completados actualmente.");
 
         System.out.println("\n--- VUELOS CANCELADOS ---");
-        boolean cancelledFound = false;
-        for (int i = 0; i < scheduledFlights.size(); i++) {
-            Flight flight = (Flight) scheduledFlights.get(i);
-            if (flight.getStatus() == Flight.FlightStatus.CANCELLED) {
-                System.out.println(flight);
-                cancelledFound = true;
-            }
+        printFlights(searchIndex.findByStatus(Flight.FlightStatus.CANCELLED), "No hay vuelos cancelados actualmente.");
+    }
+
+    private static void printFlights(List<Flight> flights, String emptyMessage) {
+        if (flights.isEmpty()) {
+            System.out.println(emptyMessage);
         }
-        if (!cancelledFound) {
-            System.out.println("No hay vuelos cancelados actualmente.");
+        for (Flight flight : flights) {
+            System.out.println(flight);
         }
     }
 
@@ -217,44 +194,52 @@ public class FlightScheduleManager {
             throw new ListException("Vuelo " + flightNumber + " no encontrado para simular.");
         }
 
-        // Previene la simulación de vuelos ya en progreso o completados/cancelados
-        if (flight.getStatus() == Flight.FlightStatus.IN_PROGRESS ||
-                flight.getStatus() == Flight.FlightStatus.COMPLETED ||
-                flight.getStatus() == Flight.FlightStatus.CANCELLED) {
-            throw new IllegalStateException("El vuelo " + flightNumber + " ya está en progreso, completado o cancelado. No se puede simular de nuevo.");
-        }
+        // Con el bloqueo del vuelo: ninguna reserva entra entre la revisión del estado y el desembarque.
+        Airplane assignedAirplane;
+        bookingService.lockFlight(flight);
+        try {
+            // Previene la simulación de vuelos ya en progreso o completados/cancelados
+            if (flight.getStatus() == Flight.FlightStatus.IN_PROGRESS ||
+                    flight.getStatus() == Flight.FlightStatus.COMPLETED ||
+                    flight.getStatus() == Flight.FlightStatus.CANCELLED) {
+                throw new IllegalStateException("El vuelo " + flightNumber + " ya está en progreso, completado o cancelado. No se puede simular de nuevo.");
+            }
 
-        // Asegurarse de que el vuelo tenga un avión asignado para simular
-        Airplane assignedAirplane = flight.getAirplane();
-        if (assignedAirplane == null) {
-            throw new IllegalArgumentException("No se puede simular el vuelo " + flightNumber + " sin un avión asignado.");
-        }
+            // Asegurarse de que el vuelo tenga un avión asignado para simular
+            assignedAirplane = flight.getAirplane();
+            if (assignedAirplane == null) {
+                throw new IllegalArgumentException("No se puede simular el vuelo " + flightNumber + " sin un avión asignado.");
+            }
 
-        System.out.println("\nIniciando simulación para el vuelo " + flightNumber + "...");
+            System.out.println("\nIniciando simulación para el vuelo " + flightNumber + "...");
 
-        // Paso 1: Vuelo en progreso
-        flight.setStatus(Flight.FlightStatus.IN_PROGRESS);
-        assignedAirplane.setStatus(Airplane.AirplaneStatus.IN_FLIGHT); // Actualizar estado del avión
-        System.out.println("Vuelo " + flightNumber + ": Despegando de " + flight.getOriginAirportCode() + " con avión " + assignedAirplane.getId() + ".");
+            // Paso 1: Vuelo en progreso
+            flight.setStatus(Flight.FlightStatus.IN_PROGRESS);
+            assignedAirplane.setStatus(Airplane.AirplaneStatus.IN_FLIGHT); // Actualizar estado del avión
+            System.out.println("Vuelo " + flightNumber + ": Despegando de " + flight.getOriginAirportCode() + " con avión " + assignedAirplane.getId() + ".");
 
-        // Paso 2: Vuelo completado
-        flight.setStatus(Flight.FlightStatus.COMPLETED);
-        assignedAirplane.setCurrentLocationAirportCode(flight.getDestinationAirportCode()); // Actualizar ubicación del avión
-        assignedAirplane.setStatus(Airplane.AirplaneStatus.IDLE); // El avión está de nuevo disponible
-        assignedAirplane.addFlightToHistory(flight); // Añadir el vuelo al historial del avión
+            // Paso 2: Vuelo completado
+            flight.setStatus(Flight.FlightStatus.COMPLETED);
+            assignedAirplane.setCurrentLocationAirportCode(flight.getDestinationAirportCode()); // Actualizar ubicación del avión
+            assignedAirplane.setStatus(Airplane.AirplaneStatus.IDLE); // El avión está de nuevo disponible
+            assignedAirplane.addFlightToHistory(flight); // Añadir el vuelo al historial del avión
 
-        // Desembarcar a todos los pasajeros del vuelo
-        try {
-            while (!flight.getPassengers().isEmpty()) {
-                // Obtener el primer pasajero y luego removerlo
-                Passenger p = (Passenger) flight.getPassengers().get(0); // Get the first passenger
-                flight.removePassenger(p); // Remove that specific passenger
-                System.out.println("  - Pasajero " + p.getName() + " (" + p.getId() + ") desembarcado.");
-                // Aquí podrías añadir lógica para actualizar el historial de vuelos del pasajero si tienes un PassengerManager global.
+            // Desembarcar a todos los pasajeros del vuelo
+            try {
+                while (!flight.getPassengers().isEmpty()) {
+                    // Obtener el primer pasajero y luego removerlo
+                    Passenger p = (Passenger) flight.getPassengers().get(0); // Get the first passenger
+                    flight.removePassenger(p); // Remove that specific passenger
+                    persist(persistence -> persistence.passengerRemoved(flight, p));
+                    System.out.println("  - Pasajero " + p.getName() + " (" + p.getId() + ") desembarcado.");
+                    // Aquí podrías añadir lógica para actualizar el historial de vuelos del pasajero si tienes un PassengerManager global.
+                }
+                System.out.println("Todos los pasajeros han sido desembarcados del vuelo " + flightNumber + ".");
+            } catch (ListException e) {
+                System.err.println("ERROR al desembarcar pasajeros del vuelo " + flightNumber + ": " + e.getMessage());
             }
-            System.out.println("Todos los pasajeros han sido desembarcados del vuelo " + flightNumber + ".");
-        } catch (ListException e) {
-            System.err.println("ERROR al desembarcar pasajeros del vuelo " + flightNumber + ": " + e.getMessage());
+        } finally {
+            bookingService.unlockFlight(flight);
         }
 
 
@@ -272,13 +257,12 @@ public class FlightScheduleManager {
         }
 
         System.out.println("\n--- LISTAS DE ESPERA POR RUTA ---");
-        for (Map.Entry<String, ucr.proyectoalgoritmos.Domain.Circular.CircularDoublyLinkedList> entry : waitingLists.entrySet()) {
-            String routeKey = entry.getKey();
-            ucr.proyectoalgoritmos.Domain.Circular.CircularDoublyLinkedList list = entry.getValue();
+        for (String routeKey : waitingLists.keySet()) {
+            // Copia tomada con el bloqueo de la ruta: otro hilo puede estar reservando.
+            List<Passenger> list = bookingService.getWaitingList(routeKey);
             System.out.println("Ruta: " + routeKey + " (" + list.size() + " pasajeros en espera)");
             // Imprimir los IDs y nombres de los pasajeros en la lista de espera
-            for (int i = 0; i < list.size(); i++) {
-                Passenger p = (Passenger) list.get(i);
+            for (Passenger p : list) {
                 System.out.println("  - " + p.getId() + " (" + p.getName() + ")");
             }
         }
@@ -288,18 +272,96 @@ public class FlightScheduleManager {
     public static synchronized FlightScheduleManager getInstance(AirportManager airportManager, RouteManager routeManager) {
         if (instance == null) {
             instance = new FlightScheduleManager(airportManager, routeManager);
-            instance.setScheduledFlights(instance.flightJson.loadFlightsFromJson(airportManager, routeManager));
+            FlightScheduleManager manager = instance;
+            FlightPersistence persistence;
+            try {
+                // Instantánea (o flights.json si aún no hay) más diario; el diario se abre después de cargar
+                // para que la compactación nunca escriba una lista vacía.
+                manager.setScheduledFlights(FlightJournal.recover(Paths.get(FlightJournal.DEFAULT_BASE_PATH),
+                        Paths.get(FlightJournal.DEFAULT_SNAPSHOT_PATH), Paths.get(FlightJournal.DEFAULT_JOURNAL_PATH)));
+                persistence = FlightJournal.open(manager::copyScheduledFlights);
+            } catch (IOException | RuntimeException e) {
+                System.err.println("No se pudo abrir el diario de vuelos, se guardará la lista completa: " + e.getMessage());
+                manager.setScheduledFlights(manager.flightJson.loadFlightsFromJson(airportManager, routeManager));
+                persistence = new FlightWriteBehind(manager::copyScheduledFlights,
+                        FlightJson::saveFlightsToJson, FlightWriteBehind.DEFAULT_FLUSH_INTERVAL_MILLIS);
+            }
+            manager.enablePersistence(persistence);
+            Runtime.getRuntime().addShutdownHook(new Thread(manager::closePersistence, "flights-flush-on-exit"));
         }
         return instance;
     }
 
-    public void setScheduledFlights(CircularDoublyLinkedList scheduledFlights) {
+    /**
+     * Activa el guardado: desde ahora los cambios de la lista (vuelos creados, actualizados,
+     * eliminados, cambios de estado y reservas) se avisan a persistence, que los guarda en segundo plano.
+     */
+    public void enablePersistence(FlightPersistence persistence) {
+        FlightPersistence previous = this.persistence;
+        this.persistence = persistence;
+        if (previous != null && previous != persistence) {
+            previous.close();
+        }
+    }
+
+    /**
+     * Guarda ahora los cambios pendientes, si hay guardado diferido.
+     * @return true si se escribió el archivo.
+     */
+    public boolean flushFlights() {
+        FlightPersistence persistence = this.persistence;
+        return persistence != null && persistence.flush();
+    }
+
+    /**
+     * Detiene el guardado diferido después de guardar lo pendiente.
+     */
+    public void closePersistence() {
+        FlightPersistence persistence = this.persistence;
+        if (persistence != null) {
+            persistence.close();
+        }
+    }
+
+    private void persist(Consumer<FlightPersistence> event) {
+        FlightPersistence persistence = this.persistence;
+        if (persistence != null) {
+            event.accept(persistence);
+        }
+    }
+
+    /**
+     * Copia de la lista de vuelos (mismos objetos Flight) para guardarla sin bloquear a quienes la modifican.
+     */
+    public synchronized CircularDoublyLinkedList copyScheduledFlights() {
+        CircularDoublyLinkedList copy = new CircularDoublyLinkedList();
+        try {
+            if (!scheduledFlights.isEmpty()) {
+                Node node = scheduledFlights.getNode(0);
+                for (int i = 0; i < scheduledFlights.size(); i++, node = node.next) {
+                    copy.add(node.data);
+                }
+            }
+        } catch (ListException e) {
+            System.err.println("Error al copiar la lista de vuelos: " + e.getMessage());
+        }
+        return copy;
+    }
+
+    public synchronized void setScheduledFlights(CircularDoublyLinkedList scheduledFlights) {
         this.scheduledFlights = scheduledFlights;
+        rebuildFlightIndex();
+        rebuildConnectionIndex();
+        rebuildSearchIndex();
     }
 
-    public void addFlight(Flight newFlight) {
+    public synchronized void addFlight(Flight newFlight) {
         try {
-            this.scheduledFlights.add(newFlight);
+            Node node = this.scheduledFlights.addNode(newFlight);
+            flightsByNumber.putIfAbsent(numberKey(newFlight.getFlightNumber()), node);
+            connectionIndex.add(newFlight);
+            indexForSearch(newFlight);
+            persist(p -> p.flightCreated(newFlight));
         } catch (Exception e) {
 
             System.err.println("Error al añadir vuelo a la lista de vuelos programados: " + e.getMessage());
@@ -317,64 +379,223 @@ public class FlightScheduleManager {
     }
 
     public void reloadFlightsFromJson() {
-        // Este método fuerza la relectura del archivo JSON
-        this.scheduledFlights = flightJson.loadFlightsFromJson(this.airportManager, this.routeManager);
-        if (this.scheduledFlights == null) {
-            this.scheduledFlights = new CircularDoublyLinkedList();
+        // Este método fuerza la relectura del archivo JSON; antes se guardan los cambios pendientes
+        // para no perderlos, ya que la lista en memoria es la que manda. El flush va fuera del bloqueo
+        // del manager porque el guardado diferido pide la copia de la lista con ese mismo bloqueo.
+        flushFlights();
+        FlightPersistence persistence = this.persistence;
+        CircularDoublyLinkedList stored = persistence == null ? null : persistence.load();
+        synchronized (this) {
+            this.scheduledFlights = stored != null ? stored
+                    : flightJson.loadFlightsFromJson(this.airportManager, this.routeManager);
+            if (this.scheduledFlights == null) {
+                this.scheduledFlights = new CircularDoublyLinkedList();
+            }
+            rebuildFlightIndex();
+            rebuildConnectionIndex();
+            rebuildSearchIndex();
         }
         System.out.println("Vuelos recargados desde JSON.");
     }
 
-    public boolean removeFlight(String flightNumberToDelete) throws ListException {
+    /**
+     * Arma un índice nuevo recorriendo los nodos una sola vez y lo publica de una vez, para que las
+     * búsquedas concurrentes vean el índice anterior o el nuevo completo. Si hay números repetidos
+     * se conserva el primero, como la búsqueda lineal que reemplaza.
+     */
+    private void rebuildFlightIndex() {
+        ConcurrentHashMap<String, Node> index = new ConcurrentHashMap<>(Math.max(16, scheduledFlights.size() * 2));
+        try {
+            if (!scheduledFlights.isEmpty()) {
+                Node node = scheduledFlights.getNode(0);
+                for (int i = 0; i < scheduledFlights.size(); i++) {
+                    if (node.data instanceof Flight) {
+                        index.putIfAbsent(numberKey(((Flight) node.data).getFlightNumber()), node);
+                        ((Flight) node.data).setChangeListener(flightChanged);
+                    }
+                    node = node.next;
+                }
+            }
+        } catch (ListException e) {
+            System.err.println("Error al reconstruir el índice de vuelos: " + e.getMessage());
+        }
+        flightsByNumber = index;
+    }
 
-        if (flightNumberToDelete == null || flightNumberToDelete.trim().isEmpty()) {
-            return false;
+    private void rebuildConnectionIndex() {
+        try {
+            connectionIndex.rebuild(scheduledFlights);
+        } catch (ListException e) {
+            System.err.println("Error al reconstruir el índice de conexiones: " + e.getMessage());
+        }
+    }
+
+    private void rebuildSearchIndex() {
+        try {
+            searchIndex.rebuild(scheduledFlights);
+        } catch (ListException e) {
+            System.err.println("Error al reconstruir el índice de búsqueda de vuelos: " + e.getMessage());
+        }
+    }
+
+    private void indexForSearch(Flight flight) {
+        flight.setChangeListener(flightChanged);
+        searchIndex.add(flight);
+    }
+
+    private void unindexForSearch(Flight flight) {
+        flight.setChangeListener(null);
+        searchIndex.remove(flight);
+    }
+
+    /**
+     * Aviso de Flight cuando cambia su estado, salida, origen o destino; puede llegar desde cualquier
+     * hilo (p. ej. el simulador). Solo reubica vuelos que siguen indexados, así que un vuelo ya quitado
+     * o reemplazado no vuelve a los índices.
+     */
+    private void onFlightChanged(Flight flight) {
+        if (searchIndex.update(flight)) {
+            connectionIndex.update(flight);
+            persist(p -> p.flightChanged(flight));
         }
+    }
 
-        reloadFlightsFromJson();
+    /**
+     * Vuelos de origen a destino con salida en [from, to), ordenados por salida (índice por ruta).
+     * Un extremo null deja el rango abierto.
+     */
+    public List<Flight> findFlightsByRoute(String originCode, String destinationCode, LocalDateTime from, LocalDateTime to) {
+        return searchIndex.findByRoute(originCode, destinationCode, from, to);
+    }
 
-        Flight flightToRemove = findFlight(flightNumberToDelete);
+    /**
+     * Vuelos programados y con espacio de origen a destino que salen en la fecha dada, ordenados por salida.
+     */
+    public List<Flight> findAvailableFlights(String originCode, String destinationCode, LocalDate date) {
+        if (date == null) {
+            throw new IllegalArgumentException("La fecha de salida no puede ser nula.");
+        }
+        List<Flight> available = searchIndex.findByRoute(originCode, destinationCode, Flight.FlightStatus.SCHEDULED,
+                date.atStartOfDay(), date.plusDays(1).atStartOfDay());
+        available.removeIf(Flight::isFull);
+        return available;
+    }
 
-        if (flightToRemove != null) {
+    /**
+     * Vuelos que salen de un aeropuerto, ordenados por salida; status null para todos los estados.
+     */
+    public List<Flight> findFlightsFrom(String originCode, Flight.FlightStatus status) {
+        return searchIndex.findByOrigin(originCode, status);
+    }
 
-            boolean removed = scheduledFlights.remove(flightToRemove);
+    public List<Flight> findFlightsByStatus(Flight.FlightStatus status) {
+        return searchIndex.findByStatus(status);
+    }
 
-            if (removed) {
+    public int countFlightsByStatus(Flight.FlightStatus status) {
+        return searchIndex.countByStatus(status);
+    }
 
-                saveFlightsToJson(this.scheduledFlights);
-                return true;
-            }
+    /**
+     * Vuelos con salida en [from, to), ordenados por salida.
+     */
+    public List<Flight> findFlightsDepartingBetween(LocalDateTime from, LocalDateTime to) {
+        return searchIndex.findDepartingBetween(from, to);
+    }
+
+    /**
+     * Cantidad de vuelos por aeropuerto de origen.
+     */
+    public Map<String, Integer> countFlightsByOrigin() {
+        return searchIndex.countByOrigin();
+    }
+
+    /**
+     * Cantidad de vuelos por ruta, con la clave "origen-destino".
+     */
+    public Map<String, Integer> countFlightsByRoute() {
+        return searchIndex.countByRoute();
+    }
+
+    /**
+     * Itinerario (directo o con conexiones) que llega más temprano de origen a destino saliendo
+     * a partir de departAfter, con el tiempo mínimo de conexión por defecto.
+     * @return itinerario, o null si ninguna combinación de vuelos llega al destino.
+     */
+    public ConnectionScanIndex.Itinerary findEarliestArrival(String originCode, String destinationCode, LocalDateTime departAfter) {
+        return findEarliestArrival(originCode, destinationCode, departAfter, ConnectionScanIndex.DEFAULT_MIN_CONNECTION_MINUTES);
+    }
+
+    public ConnectionScanIndex.Itinerary findEarliestArrival(String originCode, String destinationCode, LocalDateTime departAfter, int minConnectionMinutes) {
+        if (originCode == null || destinationCode == null || departAfter == null) {
+            throw new IllegalArgumentException("Origen, destino y hora de salida no pueden ser nulos.");
         }
-        return false;
+        return connectionIndex.earliestArrival(originCode, destinationCode, departAfter, minConnectionMinutes);
+    }
 
+    /**
+     * Cancela un vuelo: cambia su estado y lo quita de las búsquedas de itinerarios.
+     * @return true si el vuelo existía.
+     */
+    public synchronized boolean cancelFlight(String flightNumber) throws ListException {
+        Flight flight = findFlight(flightNumber);
+        if (flight == null) {
+            return false;
+        }
+        flight.setStatus(Flight.FlightStatus.CANCELLED);
+        connectionIndex.remove(flight);
+        return true;
     }
 
-    public boolean updateFlight(Flight flightToUpdate) throws ListException {
-        if (flightToUpdate == null || flightToUpdate.getFlightNumber().trim().isEmpty()) {
+    /**
+     * Elimina un vuelo de la lista en memoria; el archivo se actualiza con el guardado diferido.
+     * @return true si el vuelo existía.
+     */
+    public synchronized boolean removeFlight(String flightNumberToDelete) throws ListException {
 
+        if (flightNumberToDelete == null || flightNumberToDelete.trim().isEmpty()) {
             return false;
         }
 
-        reloadFlightsFromJson();
+        Node node = flightsByNumber.remove(numberKey(flightNumberToDelete));
 
-        int indexToUpdate = -1;
-        for (int i = 0; i < scheduledFlights.size(); i++) {
-            Object obj = scheduledFlights.get(i);
-            if (obj instanceof Flight) {
-                Flight currentFlightInList = (Flight) obj;
+        if (node != null) {
+            scheduledFlights.removeNode(node);
+            connectionIndex.remove((Flight) node.data);
+            unindexForSearch((Flight) node.data);
 
-                if (currentFlightInList.getFlightNumber().equalsIgnoreCase(flightToUpdate.getFlightNumber())) {
-                    indexToUpdate = i;
-                    break;
-                }
-            }
+            persist(p -> p.flightRemoved((Flight) node.data));
+            return true;
+        }
+        return false;
+
+    }
+
+    /**
+     * Reemplaza el vuelo con el mismo número en la lista en memoria; el archivo se actualiza con el
+     * guardado diferido.
+     * @return true si el vuelo existía.
+     */
+    public synchronized boolean updateFlight(Flight flightToUpdate) throws ListException {
+        if (flightToUpdate == null || flightToUpdate.getFlightNumber().trim().isEmpty()) {
+
+            return false;
         }
 
-        if (indexToUpdate != -1) {
+        Node node = flightsByNumber.get(numberKey(flightToUpdate.getFlightNumber()));
+
+        if (node != null) {
 
-            scheduledFlights.set(indexToUpdate, flightToUpdate);
+            unindexForSearch((Flight) node.data);
+            // El índice de conexiones usa el número exacto; el vuelo anterior puede escribirlo distinto.
+            connectionIndex.remove((Flight) node.data);
+            node.data = flightToUpdate;
+            // Volver a publicar el nodo para que las búsquedas de otros hilos vean el vuelo nuevo.
+            flightsByNumber.put(numberKey(flightToUpdate.getFlightNumber()), node);
+            connectionIndex.update(flightToUpdate);
+            indexForSearch(flightToUpdate);
 
-            saveFlightsToJson(this.scheduledFlights);
+            persist(p -> p.flightUpdated(flightToUpdate));
             return true;
         }
 
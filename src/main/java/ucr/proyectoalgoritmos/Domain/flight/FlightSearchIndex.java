@@ -0,0 +1,281 @@
+package ucr.proyectoalgoritmos.Domain.flight;
+
+import ucr.proyectoalgoritmos.Domain.Circular.CircularDoublyLinkedList;
+import ucr.proyectoalgoritmos.Domain.list.ListException;
+import ucr.proyectoalgoritmos.Domain.list.Node;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+/**
+ * Índices secundarios de los vuelos programados para las búsquedas de usuarios y los reportes:
+ * por ruta (origen, destino), por origen, por estado y por hora de salida. Cada índice es un
+ * conjunto ordenado por hora de salida, así que una consulta por ruta y fecha es un subconjunto
+ * por rango en lugar de recorrer toda la lista.
+ *
+ * Cada vuelo se indexa con una copia de su origen, destino, salida y estado (Entry). Cuando el
+ * vuelo cambia, update lo quita con los valores viejos y lo vuelve a insertar con los nuevos;
+ * FlightScheduleManager lo llama desde el aviso de cambios de Flight, así que los cambios de estado
+ * hechos por el simulador o los controladores se reflejan sin reconstruir nada.
+ */
+public class FlightSearchIndex {
+
+    private static final Comparator<Entry> BY_DEPARTURE = Comparator
+            .comparing((Entry e) -> e.departure)
+            .thenComparing(e -> e.flightNumber)
+            .thenComparingLong(e -> e.sequence);
+
+    /**
+     * Datos con los que se indexó un vuelo; no cambian aunque el vuelo cambie.
+     */
+    private static final class Entry {
+        final Flight flight;
+        final String flightNumber;
+        final String origin;
+        final String destination;
+        final LocalDateTime departure;
+        final Flight.FlightStatus status;
+        // Desempate para vuelos con el mismo número y salida (p. ej. repetidos en el JSON).
+        final long sequence;
+
+        Entry(Flight flight, long sequence) {
+            this.flight = flight;
+            this.flightNumber = flight.getFlightNumber();
+            this.origin = flight.getOriginAirportCode();
+            this.destination = flight.getDestinationAirportCode();
+            this.departure = flight.getDepartureTime();
+            this.status = flight.getStatus();
+            this.sequence = sequence;
+        }
+
+        // Entrada de búsqueda: el número vacío y la secuencia mínima la ubican antes de todo vuelo con esa salida.
+        Entry(LocalDateTime departure) {
+            this.flight = null;
+            this.flightNumber = "";
+            this.origin = null;
+            this.destination = null;
+            this.departure = departure;
+            this.status = null;
+            this.sequence = Long.MIN_VALUE;
+        }
+    }
+
+    // Por identidad: dos objetos Flight con el mismo número son entradas distintas.
+    private final Map<Flight, Entry> entries;
+    private final Map<String, TreeSet<Entry>> byRoute;
+    private final Map<String, TreeSet<Entry>> byOrigin;
+    private final Map<Flight.FlightStatus, TreeSet<Entry>> byStatus;
+    private final TreeSet<Entry> byDeparture;
+    private long nextSequence;
+
+    public FlightSearchIndex() {
+        this.entries = new IdentityHashMap<>();
+        this.byRoute = new HashMap<>();
+        this.byOrigin = new HashMap<>();
+        this.byStatus = new EnumMap<>(Flight.FlightStatus.class);
+        this.byDeparture = new TreeSet<>(BY_DEPARTURE);
+    }
+
+    private static String routeKey(String origin, String destination) {
+        return origin + "-" + destination;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Reemplaza el contenido del índice por los vuelos dados, recorriendo la lista por nodos.
+     */
+    public synchronized void rebuild(CircularDoublyLinkedList allFlights) throws ListException {
+        entries.clear();
+        byRoute.clear();
+        byOrigin.clear();
+        byStatus.clear();
+        byDeparture.clear();
+        if (allFlights != null && !allFlights.isEmpty()) {
+            Node node = allFlights.getNode(0);
+            for (int i = 0; i < allFlights.size(); i++, node = node.next) {
+                if (node.data instanceof Flight flight) {
+                    addInternal(flight);
+                }
+            }
+        }
+    }
+
+    /**
+     * Agrega un vuelo; si ya estaba indexado, se reubica con sus valores actuales.
+     */
+    public synchronized void add(Flight flight) {
+        if (flight == null) {
+            return;
+        }
+        removeInternal(flight);
+        addInternal(flight);
+    }
+
+    /**
+     * Quita un vuelo del índice.
+     * @return true si el vuelo estaba indexado.
+     */
+    public synchronized boolean remove(Flight flight) {
+        return flight != null && removeInternal(flight);
+    }
+
+    /**
+     * Reubica un vuelo indexado cuyo estado, salida, origen o destino cambió. Si no estaba indexado
+     * no hace nada (por ejemplo, un vuelo ya eliminado que sigue cambiando de estado).
+     * @return true si el vuelo estaba indexado.
+     */
+    public synchronized boolean update(Flight flight) {
+        if (flight != null && removeInternal(flight)) {
+            addInternal(flight);
+            return true;
+        }
+        return false;
+    }
+
+    private void addInternal(Flight flight) {
+        if (flight.getFlightNumber() == null || flight.getDepartureTime() == null
+                || flight.getOriginAirportCode() == null || flight.getDestinationAirportCode() == null
+                || flight.getStatus() == null) {
+            return;
+        }
+        Entry entry = new Entry(flight, nextSequence++);
+        entries.put(flight, entry);
+        byRoute.computeIfAbsent(routeKey(entry.origin, entry.destination), k -> new TreeSet<>(BY_DEPARTURE)).add(entry);
+        byOrigin.computeIfAbsent(entry.origin, k -> new TreeSet<>(BY_DEPARTURE)).add(entry);
+        byStatus.computeIfAbsent(entry.status, k -> new TreeSet<>(BY_DEPARTURE)).add(entry);
+        byDeparture.add(entry);
+    }
+
+    private boolean removeInternal(Flight flight) {
+        Entry entry = entries.remove(flight);
+        if (entry == null) {
+            return false;
+        }
+        removeFrom(byRoute, routeKey(entry.origin, entry.destination), entry);
+        removeFrom(byOrigin, entry.origin, entry);
+        removeFrom(byStatus, entry.status, entry);
+        byDeparture.remove(entry);
+        return true;
+    }
+
+    private static <K> void removeFrom(Map<K, TreeSet<Entry>> index, K key, Entry entry) {
+        TreeSet<Entry> set = index.get(key);
+        if (set != null) {
+            set.remove(entry);
+            if (set.isEmpty()) {
+                index.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Vuelos de origen a destino con salida en [from, to), ordenados por salida.
+     * Un extremo null deja el rango abierto de ese lado.
+     */
+    public synchronized List<Flight> findByRoute(String origin, String destination, LocalDateTime from, LocalDateTime to) {
+        return toFlights(byRoute.get(routeKey(origin, destination)), from, to, null);
+    }
+
+    /**
+     * Vuelos de origen a destino con el estado dado y salida en [from, to), ordenados por salida.
+     */
+    public synchronized List<Flight> findByRoute(String origin, String destination, Flight.FlightStatus status,
+                                                 LocalDateTime from, LocalDateTime to) {
+        return toFlights(byRoute.get(routeKey(origin, destination)), from, to, status);
+    }
+
+    /**
+     * Vuelos que salen de un aeropuerto, ordenados por salida; status null para todos los estados.
+     */
+    public synchronized List<Flight> findByOrigin(String origin, Flight.FlightStatus status) {
+        return toFlights(byOrigin.get(origin), null, null, status);
+    }
+
+    /**
+     * Vuelos con el estado dado, ordenados por salida.
+     */
+    public synchronized List<Flight> findByStatus(Flight.FlightStatus status) {
+        return toFlights(byStatus.get(status), null, null, null);
+    }
+
+    /**
+     * Vuelos con salida en [from, to), ordenados por salida.
+     */
+    public synchronized List<Flight> findDepartingBetween(LocalDateTime from, LocalDateTime to) {
+        return toFlights(byDeparture, from, to, null);
+    }
+
+    /**
+     * Primer vuelo que sale en o después de la hora dada, o null si no hay ninguno.
+     */
+    public synchronized Flight findNextDeparture(LocalDateTime after) {
+        Entry entry = byDeparture.ceiling(probe(after));
+        return entry == null ? null : entry.flight;
+    }
+
+    public synchronized int countByStatus(Flight.FlightStatus status) {
+        TreeSet<Entry> set = byStatus.get(status);
+        return set == null ? 0 : set.size();
+    }
+
+    /**
+     * Cantidad de vuelos por aeropuerto de origen.
+     */
+    public synchronized Map<String, Integer> countByOrigin() {
+        Map<String, Integer> counts = new HashMap<>();
+        for (Map.Entry<String, TreeSet<Entry>> e : byOrigin.entrySet()) {
+            counts.put(e.getKey(), e.getValue().size());
+        }
+        return counts;
+    }
+
+    /**
+     * Cantidad de vuelos por ruta, con la clave "origen-destino".
+     */
+    public synchronized Map<String, Integer> countByRoute() {
+        Map<String, Integer> counts = new HashMap<>();
+        for (Map.Entry<String, TreeSet<Entry>> e : byRoute.entrySet()) {
+            counts.put(e.getKey(), e.getValue().size());
+        }
+        return counts;
+    }
+
+    private static Entry probe(LocalDateTime departure) {
+        return new Entry(departure);
+    }
+
+    private List<Flight> toFlights(TreeSet<Entry> set, LocalDateTime from, LocalDateTime to, Flight.FlightStatus status) {
+        List<Flight> result = new ArrayList<>();
+        if (set == null) {
+            return result;
+        }
+        NavigableSet<Entry> range = set;
+        if (from != null && to != null) {
+            if (!from.isBefore(to)) {
+                return result;
+            }
+            range = set.subSet(probe(from), true, probe(to), false);
+        } else if (from != null) {
+            range = set.tailSet(probe(from), true);
+        } else if (to != null) {
+            range = set.headSet(probe(to), false);
+        }
+        for (Entry entry : range) {
+            if (status == null || entry.status == status) {
+                result.add(entry.flight);
+            }
+        }
+        return result;
+    }
+}
@@ -14,9 +14,11 @@ import ucr.proyectoalgoritmos.Domain.list.SinglyLinkedList;
 import ucr.proyectoalgoritmos.Domain.passenger.Passenger;
 import ucr.proyectoalgoritmos.Domain.passenger.PassengerManager;
 import ucr.proyectoalgoritmos.Domain.queue.QueueException;
+import ucr.proyectoalgoritmos.Domain.route.ReachableDestinations;
 import ucr.proyectoalgoritmos.Domain.route.RouteManager;
 import ucr.proyectoalgoritmos.Domain.stack.LinkedStack;
 import ucr.proyectoalgoritmos.Domain.stack.StackException;
+import ucr.proyectoalgoritmos.util.GeoUtility;
 import ucr.proyectoalgoritmos.util.ListConverter;
 
 import java.io.IOException;
@@ -51,6 +53,8 @@ public class FlightSimulator {
 
     private Map<String, FlightData> inProgressFlightsData;
     private final Map<String, ScheduledFuture<?>> flightDataTasks;
+    // Rumbos calculados por par "origen-destino"; dependen solo de las coordenadas.
+    private final Map<String, Integer> headingCache = new ConcurrentHashMap<>();
 
     // --- Clase Interna: FlightData (para datos en tiempo real ) ---
     public static class FlightData {
@@ -121,6 +125,9 @@ public class FlightSimulator {
             for (int i = 0; i < allLoadedAirports.size(); i++) {
                 Airport airport = (Airport) allLoadedAirports.get(i);
                 routeManager.getGraph().addVertex(airport.getCode());
+                if (airport.hasCoordinates()) {
+                    routeManager.setAirportCoordinates(airport.getCode(), airport.getLatitude(), airport.getLongitude());
+                }
             }
         }
 
@@ -174,7 +181,7 @@ public class FlightSimulator {
 
             if (airportListFromFile != null && !airportListFromFile.isEmpty()) {
                 for (Airport airport : airportListFromFile) {
-                    airportManager.createAirport(airport.getCode(), airport.getName(), airport.getCountry());
+                    airportManager.createAirport(airport.getCode(), airport.getName(), airport.getCountry(), airport.getLatitude(), airport.getLongitude());
                 }
             }
         } catch (IOException e) {
@@ -231,8 +238,8 @@ public class FlightSimulator {
         if (flight == null) return;
 
         try {
-            flight.setStatus(Flight.FlightStatus.IN_PROGRESS);
             flight.setActualDepartureTime(LocalDateTime.now());
+            flight.setStatus(Flight.FlightStatus.IN_PROGRESS);
 
             Airplane assignedPlane = flight.getAirplane();
             if (assignedPlane != null) {
@@ -300,8 +307,8 @@ public class FlightSimulator {
         progressRatio = Math.min(1.0, progressRatio);
 
         if (data.getElapsedTimeSeconds() >= totalSimulatedDurationSeconds) {
-            flight.setStatus(Flight.FlightStatus.COMPLETED);
             flight.setActualArrivalTime(LocalDateTime.now());
+            flight.setStatus(Flight.FlightStatus.COMPLETED);
 
             Airplane assignedPlane = flight.getAirplane();
             if (assignedPlane != null) {
@@ -362,15 +369,28 @@ public class FlightSimulator {
     }
 
     /**
-     * Calcula el rumbo entre dos aeropuertos.
+     * Calcula el rumbo entre dos aeropuertos: el rumbo inicial del gran círculo según sus
+     * coordenadas. Si alguno no tiene coordenadas se usa un rumbo aleatorio.
      */
     private int calculateTargetHeading(String originCode, String destinationCode) {
-        if (originCode.equals("SJO") && destinationCode.equals("LIR")) return 270;
-        if (originCode.equals("LIR") && destinationCode.equals("SJO")) return 90;
-        if (originCode.equals("SJO") && destinationCode.equals("MIA")) return 45;
-        if (originCode.equals("MIA") && destinationCode.equals("SJO")) return 225;
-        if (originCode.equals("LAX") && destinationCode.equals("JFK")) return 75;
-        if (originCode.equals("JFK") && destinationCode.equals("LAX")) return 255;
+        String key = originCode + "-" + destinationCode;
+        Integer cached = headingCache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        try {
+            Airport origin = airportManager.findAirport(originCode);
+            Airport destination = airportManager.findAirport(destinationCode);
+            if (origin != null && destination != null && origin.hasCoordinates() && destination.hasCoordinates()) {
+                int heading = (int) Math.round(GeoUtility.initialBearingDegrees(
+                        origin.getLatitude(), origin.getLongitude(),
+                        destination.getLatitude(), destination.getLongitude())) % 360;
+                headingCache.put(key, heading);
+                return heading;
+            }
+        } catch (ListException e) {
+            // Sin datos del aeropuerto: se usa el rumbo aleatorio.
+        }
         return (int) (Math.random() * 360);
     }
 
@@ -407,32 +427,23 @@ public class FlightSimulator {
 
         if (selectedOrigins.isEmpty()) return;
 
-        Airport originAirport = null;
         String originCode = null;
         String destinationCode = null;
-        int routeFindingAttempts = 0;
-        final int MAX_ROUTE_FINDING_ATTEMPTS = 100;
-
-        while (routeFindingAttempts < MAX_ROUTE_FINDING_ATTEMPTS) {
-            originAirport = selectedOrigins.get(random.nextInt(selectedOrigins.size()));
-            originCode = originAirport.getCode();
-
-            List<String> potentialDestinationCodes = new ArrayList<>();
-            SinglyLinkedList graphAirportCodes = routeManager.getGraph().getAllAirportCodes();
-            for (int i = 0; i < graphAirportCodes.size(); i++) {
-                potentialDestinationCodes.add((String) graphAirportCodes.get(i));
-            }
-
-            if (potentialDestinationCodes.isEmpty()) return;
-
-            String potentialDestinationCode = potentialDestinationCodes.get(random.nextInt(potentialDestinationCodes.size()));
-
-            if (!potentialDestinationCode.equals(originCode) &&
-                    routeManager.calculateShortestRoute(originCode, potentialDestinationCode) != Integer.MAX_VALUE) {
-                destinationCode = potentialDestinationCode;
+        double routeDistance = 0;
+
+        // Un solo Dijkstra (memorizado) por origen da todos sus destinos alcanzables;
+        // se prueban los orígenes en orden aleatorio hasta encontrar uno con destinos.
+        List<Airport> shuffledOrigins = new ArrayList<>(selectedOrigins);
+        Collections.shuffle(shuffledOrigins, random);
+        for (Airport candidateOrigin : shuffledOrigins) {
+            ReachableDestinations reachable = routeManager.reachableFrom(candidateOrigin.getCode());
+            int choice = reachable.sample(random);
+            if (choice != -1) {
+                originCode = candidateOrigin.getCode();
+                destinationCode = reachable.getCode(choice);
+                routeDistance = reachable.getDistance(choice);
                 break;
             }
-            routeFindingAttempts++;
         }
 
         if (destinationCode == null) return;
@@ -475,8 +486,8 @@ public class FlightSimulator {
         }
 
         newFlight.setAirplane(selectedAirplane);
-        int estimatedDurationRealistic = routeManager.calculateShortestRoute(originCode, destinationCode);
-        if (estimatedDurationRealistic == Integer.MAX_VALUE || estimatedDurationRealistic == 0) {
+        int estimatedDurationRealistic = (int) routeDistance;
+        if (estimatedDurationRealistic == 0) {
             estimatedDurationRealistic = 120 + random.nextInt(180);
         }
         newFlight.setEstimatedDurationMinutes(Math.max(10, estimatedDurationRealistic / 3));
@@ -617,6 +628,8 @@ public class FlightSimulator {
         } catch (ListException e) {
             throw new RuntimeException("Error al resetear estados");
         }
+        // Guardar de inmediato lo que el guardado diferido aún tenga pendiente.
+        flightScheduleManager.flushFlights();
 
         printSimulationSummary();
     }
@@ -698,8 +711,8 @@ public class FlightSimulator {
             return null;
         }
 
-        nextFlightToProcess.setStatus(Flight.FlightStatus.IN_PROGRESS);
         nextFlightToProcess.setActualDepartureTime(LocalDateTime.now());
+        nextFlightToProcess.setStatus(Flight.FlightStatus.IN_PROGRESS);
 
         if (!inProgressFlightsData.containsKey(nextFlightToProcess.getFlightNumber())) {
             FlightData newFlightData = new FlightData(nextFlightToProcess.getFlightNumber(),
@@ -726,8 +739,8 @@ public class FlightSimulator {
         }
 
         if (currentInProgress != null) {
-            currentInProgress.setStatus(Flight.FlightStatus.COMPLETED);
             currentInProgress.setActualArrivalTime(LocalDateTime.now());
+            currentInProgress.setStatus(Flight.FlightStatus.COMPLETED);
 
             Airplane assignedPlane = currentInProgress.getAirplane();
             if (assignedPlane != null) {
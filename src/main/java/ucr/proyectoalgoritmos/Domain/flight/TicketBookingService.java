@@ -0,0 +1,228 @@
+package ucr.proyectoalgoritmos.Domain.flight;
+
+import ucr.proyectoalgoritmos.Domain.Circular.CircularDoublyLinkedList;
+import ucr.proyectoalgoritmos.Domain.list.ListException;
+import ucr.proyectoalgoritmos.Domain.list.Node;
+import ucr.proyectoalgoritmos.Domain.passenger.Passenger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+
+/**
+ * Reservas de asientos y listas de espera seguras entre hilos: el simulador reserva desde su pool
+ * de hilos mientras la interfaz reserva desde el hilo de JavaFX.
+ *
+ * Cada vuelo se protege con uno de un arreglo fijo de bloqueos (bloqueo por franjas), elegido por el
+ * número de vuelo; dos reservas en el mismo vuelo se ordenan y reservas en vuelos distintos casi
+ * nunca se esperan. Con el bloqueo tomado se revisan estado, cupo y duplicados y se agrega el
+ * pasajero, así que nunca se sobrevende. Las listas de espera por ruta usan otro arreglo de bloqueos
+ * por clave de ruta. Orden de bloqueos: vuelo -> ruta, nunca al revés.
+ *
+ * Quien cambie los pasajeros o el estado de un vuelo fuera de este servicio (p. ej. al simular el
+ * vuelo) debe hacerlo con lockFlight/unlockFlight.
+ */
+public class TicketBookingService {
+
+    /** Cantidad de bloqueos por defecto; potencia de dos. */
+    public static final int DEFAULT_STRIPES = 64;
+
+    public enum Result {
+        /** El pasajero quedó en el vuelo. */
+        BOOKED,
+        /** El vuelo no estaba programado o estaba lleno; el pasajero quedó en la lista de espera de la ruta. */
+        WAITING_LIST,
+        /** El pasajero ya estaba en el vuelo; quedó en la lista de espera de la ruta. */
+        ALREADY_BOOKED
+    }
+
+    private final ReentrantLock[] flightLocks;
+    private final ReentrantLock[] routeLocks;
+    private final int mask;
+    // Clave "origen-destino" -> pasajeros en espera; cada lista se modifica solo con el bloqueo de su ruta.
+    private final ConcurrentHashMap<String, CircularDoublyLinkedList> waitingLists;
+    // Aviso de reserva hecha (p. ej. al diario de vuelos); se llama con el bloqueo del vuelo tomado.
+    private final BiConsumer<Flight, Passenger> onBooked;
+    private final LongAdder bookings;
+    private final LongAdder waitListed;
+
+    public TicketBookingService() {
+        this(DEFAULT_STRIPES, (flight, passenger) -> { });
+    }
+
+    /**
+     * @param stripes  cantidad de bloqueos; se redondea a la siguiente potencia de dos.
+     * @param onBooked aviso de cada reserva; debe ser rápido, se llama con el bloqueo del vuelo tomado.
+     */
+    public TicketBookingService(int stripes, BiConsumer<Flight, Passenger> onBooked) {
+        if (stripes <= 0) {
+            throw new IllegalArgumentException("La cantidad de bloqueos debe ser positiva: " + stripes);
+        }
+        if (onBooked == null) {
+            throw new IllegalArgumentException("El aviso de reservas no puede ser nulo.");
+        }
+        int size = Integer.highestOneBit(stripes);
+        if (size < stripes) {
+            size <<= 1;
+        }
+        this.flightLocks = new ReentrantLock[size];
+        this.routeLocks = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            flightLocks[i] = new ReentrantLock();
+            routeLocks[i] = new ReentrantLock();
+        }
+        this.mask = size - 1;
+        this.waitingLists = new ConcurrentHashMap<>();
+        this.onBooked = onBooked;
+        this.bookings = new LongAdder();
+        this.waitListed = new LongAdder();
+    }
+
+    static String routeKey(Flight flight) {
+        return flight.getOriginAirportCode() + "-" + flight.getDestinationAirportCode();
+    }
+
+    private ReentrantLock stripe(ReentrantLock[] locks, Object key) {
+        int h = key == null ? 0 : key.hashCode();
+        // Mezcla los bits altos para que números de vuelo parecidos no caigan en el mismo bloqueo.
+        h ^= (h >>> 16);
+        return locks[h & mask];
+    }
+
+    private ReentrantLock flightLock(Flight flight) {
+        return stripe(flightLocks, flight.getFlightNumber());
+    }
+
+    /**
+     * Toma el bloqueo del vuelo; debe liberarse con unlockFlight en un finally.
+     */
+    public void lockFlight(Flight flight) {
+        if (flight == null) {
+            throw new IllegalArgumentException("El vuelo no puede ser nulo.");
+        }
+        flightLock(flight).lock();
+    }
+
+    public void unlockFlight(Flight flight) {
+        flightLock(flight).unlock();
+    }
+
+    /**
+     * Reserva un asiento al pasajero; si el vuelo no está programado, está lleno o el pasajero ya
+     * está en él, lo agrega (una sola vez) a la lista de espera de la ruta. Si la reserva se hace,
+     * el pasajero sale de la lista de espera de esa ruta.
+     */
+    public Result book(Passenger passenger, Flight flight) throws ListException {
+        if (flight == null) {
+            throw new IllegalArgumentException("No se puede procesar la compra de billetes. El objeto vuelo es nulo.");
+        }
+        if (passenger == null) {
+            throw new IllegalArgumentException("No se puede procesar la compra de billetes. El objeto pasajero es nulo.");
+        }
+        String routeKey = routeKey(flight);
+        Result result;
+        ReentrantLock lock = flightLock(flight);
+        lock.lock();
+        try {
+            if (flight.getPassengers().contains(passenger)) {
+                result = Result.ALREADY_BOOKED;
+            } else if (flight.getStatus() == Flight.FlightStatus.SCHEDULED && !flight.isFull()) {
+                flight.addPassenger(passenger);
+                onBooked.accept(flight, passenger);
+                bookings.increment();
+                removeFromWaitingList(routeKey, passenger);
+                return Result.BOOKED;
+            } else {
+                result = Result.WAITING_LIST;
+            }
+        } finally {
+            lock.unlock();
+        }
+        addToWaitingList(routeKey, passenger);
+        return result;
+    }
+
+    /**
+     * Agrega el pasajero a la lista de espera de la ruta si no estaba.
+     * @return true si se agregó.
+     */
+    public boolean addToWaitingList(String routeKey, Passenger passenger) throws ListException {
+        ReentrantLock lock = stripe(routeLocks, routeKey);
+        lock.lock();
+        try {
+            CircularDoublyLinkedList list = waitingLists.computeIfAbsent(routeKey, k -> new CircularDoublyLinkedList());
+            if (list.contains(passenger)) {
+                return false;
+            }
+            list.add(passenger);
+            waitListed.increment();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Quita el pasajero de la lista de espera de la ruta; la lista se elimina si queda vacía.
+     * @return true si estaba en espera.
+     */
+    public boolean removeFromWaitingList(String routeKey, Passenger passenger) throws ListException {
+        ReentrantLock lock = stripe(routeLocks, routeKey);
+        lock.lock();
+        try {
+            CircularDoublyLinkedList list = waitingLists.get(routeKey);
+            if (list == null || !list.remove(passenger)) {
+                return false;
+            }
+            if (list.isEmpty()) {
+                waitingLists.remove(routeKey);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Copia de los pasajeros en espera para la ruta, en orden de llegada.
+     */
+    public List<Passenger> getWaitingList(String routeKey) throws ListException {
+        List<Passenger> result = new ArrayList<>();
+        ReentrantLock lock = stripe(routeLocks, routeKey);
+        lock.lock();
+        try {
+            CircularDoublyLinkedList list = waitingLists.get(routeKey);
+            if (list != null && !list.isEmpty()) {
+                Node node = list.getNode(0);
+                for (int i = 0; i < list.size(); i++, node = node.next) {
+                    result.add((Passenger) node.data);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        return result;
+    }
+
+    /**
+     * Listas de espera por ruta. Solo para lectura; recorrer una lista mientras otro hilo la
+     * modifica puede dar resultados parciales, para eso está getWaitingList.
+     */
+    public Map<String, CircularDoublyLinkedList> getWaitingLists() {
+        return waitingLists;
+    }
+
+    /** Reservas hechas desde que se creó el servicio. */
+    public long getBookingCount() {
+        return bookings.sum();
+    }
+
+    /** Pasajeros agregados a listas de espera desde que se creó el servicio. */
+    public long getWaitListedCount() {
+        return waitListed.sum();
+    }
+}
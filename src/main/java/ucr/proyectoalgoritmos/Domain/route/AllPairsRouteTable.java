@@ -0,0 +1,212 @@
+package ucr.proyectoalgoritmos.Domain.route;
+
+import ucr.proyectoalgoritmos.graph.CompressedSparseRowGraph;
+import ucr.proyectoalgoritmos.graph.ShortestPathEngine;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Tabla de rutas más cortas entre todos los pares de vértices para un criterio.
+ * Se llena con un Dijkstra de fuente única por vértice, repartidos en un ForkJoinPool,
+ * y guarda matrices densas n*n (fila = origen): costo según el criterio, suma del peso
+ * secundario sobre el mismo camino y el siguiente salto desde el origen.
+ * Las consultas de costo son O(1) y la reconstrucción del camino es O(largo del camino).
+ */
+public class AllPairsRouteTable {
+
+    // Cantidad de orígenes por tarea hoja del ForkJoinPool.
+    private static final int SOURCES_PER_TASK = 8;
+
+    private final int numVertices;
+    private final double[] cost;
+    private final double[] secondaryCost;
+    private final int[] nextHop;
+    private final ForkJoinPool pool;
+    private long version;
+
+    private AllPairsRouteTable(int numVertices, ForkJoinPool pool) {
+        this.numVertices = numVertices;
+        this.cost = new double[numVertices * numVertices];
+        this.secondaryCost = new double[numVertices * numVertices];
+        this.nextHop = new int[numVertices * numVertices];
+        this.pool = pool;
+    }
+
+    /**
+     * Construye la tabla completa.
+     * @param primaryWeights pesos por arista del criterio a minimizar (NaN = arista ignorada).
+     * @param secondaryWeights pesos que solo se acumulan sobre el camino elegido (puede ser null).
+     */
+    public static AllPairsRouteTable build(CompressedSparseRowGraph csr, double[] primaryWeights,
+                                           double[] secondaryWeights, long version, ForkJoinPool pool) {
+        int n = csr.getNumVertices();
+        if ((long) n * n > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Demasiados vértices para una tabla densa: " + n);
+        }
+        AllPairsRouteTable table = new AllPairsRouteTable(n, pool);
+        int[] sources = new int[n];
+        for (int i = 0; i < n; i++) {
+            sources[i] = i;
+        }
+        table.recomputeSources(sources, csr, primaryWeights, secondaryWeights, version);
+        return table;
+    }
+
+    /**
+     * Vuelve a ejecutar Dijkstra solo para los orígenes indicados, en paralelo.
+     */
+    public void recomputeSources(int[] sources, CompressedSparseRowGraph csr, double[] primaryWeights,
+                                 double[] secondaryWeights, long newVersion) {
+        if (csr.getNumVertices() != numVertices) {
+            throw new IllegalArgumentException("La tabla fue creada para " + numVertices + " vértices y el grafo tiene " + csr.getNumVertices() + ".");
+        }
+        if (sources.length > 0) {
+            pool.invoke(new SourceRangeTask(sources, 0, sources.length, csr, primaryWeights, secondaryWeights));
+        }
+        this.version = newVersion;
+    }
+
+    /**
+     * Orígenes cuya fila puede cambiar cuando la arista u->v pasa de oldWeight a newWeight
+     * (Double.POSITIVE_INFINITY representa una arista inexistente).
+     * Si la arista mejora, solo cambian los orígenes para los que u->v acorta el camino a v.
+     * Si empeora, solo los orígenes cuyo camino actual a v puede estar usando u->v.
+     */
+    public int[] affectedSources(int u, int v, double oldWeight, double newWeight) {
+        if (Double.isNaN(oldWeight)) oldWeight = Double.POSITIVE_INFINITY;
+        if (Double.isNaN(newWeight)) newWeight = Double.POSITIVE_INFINITY;
+        if (oldWeight == newWeight) {
+            return new int[0];
+        }
+        int[] affected = new int[numVertices];
+        int count = 0;
+        for (int s = 0; s < numVertices; s++) {
+            double toU = cost[s * numVertices + u];
+            if (toU == Double.POSITIVE_INFINITY) {
+                continue;
+            }
+            double toV = cost[s * numVertices + v];
+            boolean changes = newWeight < oldWeight
+                    ? toU + newWeight < toV
+                    : toU + oldWeight <= toV;
+            if (changes) {
+                affected[count++] = s;
+            }
+        }
+        return Arrays.copyOf(affected, count);
+    }
+
+    public int getNumVertices() { return numVertices; }
+    public long getVersion() { return version; }
+
+    public double getCost(int source, int target) {
+        return cost[source * numVertices + target];
+    }
+
+    public double getSecondaryCost(int source, int target) {
+        return secondaryCost[source * numVertices + target];
+    }
+
+    /**
+     * Primer vértice después de source en el camino más corto a target, o -1 si no es alcanzable.
+     */
+    public int getNextHop(int source, int target) {
+        return nextHop[source * numVertices + target];
+    }
+
+    public boolean isReachable(int source, int target) {
+        return cost[source * numVertices + target] != Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Camino como índices de vértices (incluye origen y destino), o null si no hay ruta.
+     */
+    public int[] getPath(int source, int target) {
+        if (!isReachable(source, target)) {
+            return null;
+        }
+        int length = 1;
+        for (int current = source; current != target; current = getNextHop(current, target)) {
+            length++;
+        }
+        int[] path = new int[length];
+        int current = source;
+        for (int i = 0; i < length; i++) {
+            path[i] = current;
+            if (current != target) {
+                current = getNextHop(current, target);
+            }
+        }
+        return path;
+    }
+
+    /**
+     * Memoria ocupada por las matrices, en bytes.
+     */
+    public long getMatrixBytes() {
+        long cells = (long) numVertices * numVertices;
+        return cells * (Double.BYTES + Double.BYTES + Integer.BYTES);
+    }
+
+    private class SourceRangeTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] sources;
+        private final int from;
+        private final int to;
+        private final CompressedSparseRowGraph csr;
+        private final double[] primaryWeights;
+        private final double[] secondaryWeights;
+
+        SourceRangeTask(int[] sources, int from, int to, CompressedSparseRowGraph csr,
+                        double[] primaryWeights, double[] secondaryWeights) {
+            this.sources = sources;
+            this.from = from;
+            this.to = to;
+            this.csr = csr;
+            this.primaryWeights = primaryWeights;
+            this.secondaryWeights = secondaryWeights;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SOURCES_PER_TASK) {
+                // Cada hilo del pool reutiliza los arreglos de trabajo de su propio motor.
+                ShortestPathEngine engine = ShortestPathEngine.forCurrentThread();
+                for (int i = from; i < to; i++) {
+                    runSingleSource(sources[i], engine);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new SourceRangeTask(sources, from, mid, csr, primaryWeights, secondaryWeights),
+                    new SourceRangeTask(sources, mid, to, csr, primaryWeights, secondaryWeights));
+        }
+
+        private void runSingleSource(int source, ShortestPathEngine engine) {
+            int row = source * numVertices;
+
+            Arrays.fill(cost, row, row + numVertices, Double.POSITIVE_INFINITY);
+            Arrays.fill(secondaryCost, row, row + numVertices, Double.POSITIVE_INFINITY);
+            Arrays.fill(nextHop, row, row + numVertices, -1);
+
+            engine.run(csr, primaryWeights, source, -1);
+
+            // En orden de asentamiento el predecesor de cada vértice ya tiene su salto y peso secundario.
+            cost[row + source] = 0;
+            secondaryCost[row + source] = 0;
+            int settledCount = engine.getSettledCount();
+            for (int i = 1; i < settledCount; i++) {
+                int v = engine.getSettledVertex(i);
+                int u = engine.getPrevVertex(v);
+                cost[row + v] = engine.getDistance(v);
+                nextHop[row + v] = (u == source) ? v : nextHop[row + u];
+                double secondary = secondaryWeights != null ? secondaryWeights[engine.getPrevEdge(v)] : 0;
+                secondaryCost[row + v] = secondaryCost[row + u] + secondary;
+            }
+            nextHop[row + source] = source;
+        }
+    }
+}
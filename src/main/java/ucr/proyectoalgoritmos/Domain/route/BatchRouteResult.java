@@ -0,0 +1,236 @@
+package ucr.proyectoalgoritmos.Domain.route;
+
+import ucr.proyectoalgoritmos.graph.CompressedSparseRowGraph;
+import ucr.proyectoalgoritmos.graph.GraphSnapshot;
+import ucr.proyectoalgoritmos.graph.ShortestPathEngine;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Resultado de un lote de consultas origen/destino, en arreglos primitivos paralelos a las consultas:
+ * distancia, duración y cantidad de tramos de la ruta más corta según el criterio, y los vértices de
+ * cada camino concatenados en un solo arreglo (pathOffsets[i] .. pathOffsets[i + 1]).
+ *
+ * Las consultas se agrupan por origen y cada origen ejecuta un único Dijkstra (completo si tiene varios
+ * destinos, detenido en el destino si tiene uno solo); los grupos se reparten en un ForkJoinPool.
+ */
+public class BatchRouteResult {
+
+    // Cantidad de orígenes por tarea hoja del ForkJoinPool.
+    private static final int ORIGINS_PER_TASK = 4;
+
+    private final GraphSnapshot snapshot;
+    private final double[] distances;
+    private final double[] durations;
+    private final int[] legs;
+    private final int[] pathOffsets;
+    private final int[] pathVertices;
+    private final int originsSearched;
+
+    private BatchRouteResult(GraphSnapshot snapshot, double[] distances, double[] durations, int[] legs,
+                             int[][] paths, int originsSearched) {
+        this.snapshot = snapshot;
+        this.distances = distances;
+        this.durations = durations;
+        this.legs = legs;
+        this.originsSearched = originsSearched;
+        this.pathOffsets = new int[paths.length + 1];
+        for (int i = 0; i < paths.length; i++) {
+            pathOffsets[i + 1] = pathOffsets[i] + (paths[i] == null ? 0 : paths[i].length);
+        }
+        this.pathVertices = new int[pathOffsets[paths.length]];
+        for (int i = 0; i < paths.length; i++) {
+            if (paths[i] != null) {
+                System.arraycopy(paths[i], 0, pathVertices, pathOffsets[i], paths[i].length);
+            }
+        }
+    }
+
+    /**
+     * Resuelve las consultas (origins[i], destinations[i]) sobre csr, el CSR de doble peso de la versión
+     * de snapshot o de una anterior (para traducir sus vértices a códigos). Un índice -1 (aeropuerto
+     * inexistente) o fuera de csr da una consulta sin ruta.
+     * @param byDistance true para minimizar distancia, false para minimizar duración.
+     */
+    public static BatchRouteResult compute(GraphSnapshot snapshot, CompressedSparseRowGraph csr, boolean byDistance,
+                                           int[] origins, int[] destinations, ForkJoinPool pool) {
+        if (origins.length != destinations.length) {
+            throw new IllegalArgumentException("Los arreglos de orígenes y destinos deben tener el mismo largo: "
+                    + origins.length + " != " + destinations.length);
+        }
+        int q = origins.length;
+        int n = csr.getNumVertices();
+        double[] distances = new double[q];
+        double[] durations = new double[q];
+        int[] legs = new int[q];
+        int[][] paths = new int[q][];
+        Arrays.fill(distances, Double.POSITIVE_INFINITY);
+        Arrays.fill(durations, Double.POSITIVE_INFINITY);
+        Arrays.fill(legs, -1);
+
+        // Agrupación por origen con un conteo: groupStart[g] .. groupStart[g + 1] en order.
+        int[] countByOrigin = new int[n + 1];
+        for (int i = 0; i < q; i++) {
+            if (isValid(origins[i], n) && isValid(destinations[i], n)) {
+                countByOrigin[origins[i] + 1]++;
+            }
+        }
+        int groups = 0;
+        for (int v = 1; v <= n; v++) {
+            if (countByOrigin[v] > 0) {
+                groups++;
+            }
+            countByOrigin[v] += countByOrigin[v - 1];
+        }
+        int[] order = new int[countByOrigin[n]];
+        int[] fill = Arrays.copyOf(countByOrigin, n);
+        for (int i = 0; i < q; i++) {
+            if (isValid(origins[i], n) && isValid(destinations[i], n)) {
+                order[fill[origins[i]]++] = i;
+            }
+        }
+        int[] groupOrigin = new int[groups];
+        int[] groupStart = new int[groups + 1];
+        int g = 0;
+        for (int v = 0; v < n; v++) {
+            if (countByOrigin[v + 1] > countByOrigin[v]) {
+                groupOrigin[g] = v;
+                groupStart[g] = countByOrigin[v];
+                g++;
+            }
+        }
+        groupStart[groups] = order.length;
+
+        if (groups > 0) {
+            double[] weights = byDistance ? csr.getDistances() : csr.getDurations();
+            pool.invoke(new OriginRangeTask(csr, weights, destinations, order, groupOrigin, groupStart,
+                    0, groups, distances, durations, legs, paths));
+        }
+        return new BatchRouteResult(snapshot, distances, durations, legs, paths, groups);
+    }
+
+    private static boolean isValid(int vertex, int n) {
+        return vertex >= 0 && vertex < n;
+    }
+
+    public int size() { return distances.length; }
+
+    /**
+     * Cantidad de orígenes distintos (y por lo tanto de Dijkstra) que se ejecutaron.
+     */
+    public int getOriginsSearched() { return originsSearched; }
+
+    public boolean isReachable(int i) { return legs[i] >= 0; }
+
+    /**
+     * Distancia total de la ruta de la consulta i, o infinito si no hay ruta.
+     */
+    public double getDistance(int i) { return distances[i]; }
+
+    /**
+     * Duración total de la ruta de la consulta i, o infinito si no hay ruta.
+     */
+    public double getDuration(int i) { return durations[i]; }
+
+    /**
+     * Tramos de la ruta de la consulta i (0 si origen y destino coinciden), o -1 si no hay ruta.
+     */
+    public int getLegs(int i) { return legs[i]; }
+
+    public int[] getPathOffsets() { return pathOffsets; }
+    public int[] getPathVertices() { return pathVertices; }
+
+    /**
+     * Códigos de aeropuerto del camino de la consulta i, o null si no hay ruta.
+     */
+    public String[] getPath(int i) {
+        if (!isReachable(i)) {
+            return null;
+        }
+        String[] codes = new String[pathOffsets[i + 1] - pathOffsets[i]];
+        for (int j = 0; j < codes.length; j++) {
+            codes[j] = snapshot.codeOf(pathVertices[pathOffsets[i] + j]);
+        }
+        return codes;
+    }
+
+    private static class OriginRangeTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final CompressedSparseRowGraph csr;
+        private final double[] weights;
+        private final int[] destinations;
+        private final int[] order;
+        private final int[] groupOrigin;
+        private final int[] groupStart;
+        private final int from;
+        private final int to;
+        private final double[] distances;
+        private final double[] durations;
+        private final int[] legs;
+        private final int[][] paths;
+
+        OriginRangeTask(CompressedSparseRowGraph csr, double[] weights, int[] destinations, int[] order,
+                        int[] groupOrigin, int[] groupStart, int from, int to,
+                        double[] distances, double[] durations, int[] legs, int[][] paths) {
+            this.csr = csr;
+            this.weights = weights;
+            this.destinations = destinations;
+            this.order = order;
+            this.groupOrigin = groupOrigin;
+            this.groupStart = groupStart;
+            this.from = from;
+            this.to = to;
+            this.distances = distances;
+            this.durations = durations;
+            this.legs = legs;
+            this.paths = paths;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= ORIGINS_PER_TASK) {
+                // Cada hilo del pool reutiliza los arreglos de trabajo de su propio motor.
+                ShortestPathEngine engine = ShortestPathEngine.forCurrentThread();
+                for (int g = from; g < to; g++) {
+                    runOrigin(g, engine);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new OriginRangeTask(csr, weights, destinations, order, groupOrigin, groupStart,
+                            from, mid, distances, durations, legs, paths),
+                    new OriginRangeTask(csr, weights, destinations, order, groupOrigin, groupStart,
+                            mid, to, distances, durations, legs, paths));
+        }
+
+        private void runOrigin(int g, ShortestPathEngine engine) {
+            int origin = groupOrigin[g];
+            int start = groupStart[g];
+            int end = groupStart[g + 1];
+            int target = end - start == 1 ? destinations[order[start]] : -1;
+            engine.run(csr, weights, origin, target);
+            for (int k = start; k < end; k++) {
+                int query = order[k];
+                int destination = destinations[query];
+                if (engine.getDistance(destination) == Double.POSITIVE_INFINITY) {
+                    continue;
+                }
+                int[] path = engine.pathTo(destination);
+                double distance = 0;
+                double duration = 0;
+                for (int i = 1; i < path.length; i++) {
+                    int e = engine.getPrevEdge(path[i]);
+                    distance += csr.distance(e);
+                    duration += csr.duration(e);
+                }
+                distances[query] = distance;
+                durations[query] = duration;
+                legs[query] = path.length - 1;
+                paths[query] = path;
+            }
+        }
+    }
+}
@@ -0,0 +1,548 @@
+package ucr.proyectoalgoritmos.Domain.route;
+
+import ucr.proyectoalgoritmos.graph.CompressedSparseRowGraph;
+import ucr.proyectoalgoritmos.graph.IndexedMinHeap;
+
+import java.util.Arrays;
+
+/**
+ * Jerarquía de contracción (Contraction Hierarchies) para un criterio de peso.
+ * En el preprocesamiento los vértices se contraen uno a uno en orden de importancia
+ * (diferencia de aristas + vecinos ya contraídos); al contraer v se agrega un atajo x->y por cada
+ * par de vecinos cuyo camino más corto pasa por v, salvo que una búsqueda local de testigos
+ * encuentre otro camino igual o más corto. La consulta es un Dijkstra bidireccional que solo
+ * sube en el orden de contracción, por lo que visita muy pocos vértices.
+ * Cada atajo guarda las dos aristas que reemplaza, y el camino se desempaca hasta las aristas
+ * del CSR original.
+ *
+ * La jerarquía es inmutable una vez construida y queda asociada a la versión del grafo con la
+ * que se construyó; las consultas pueden ejecutarse desde varios hilos a la vez.
+ */
+public class ContractionHierarchy {
+
+    // Máximo de vértices asentados por búsqueda de testigos. Si se alcanza, el atajo se agrega.
+    private static final int WITNESS_SETTLE_LIMIT = 256;
+    // Límite menor al simular la contracción para calcular prioridades: sobreestimar atajos
+    // solo afecta el orden, no la corrección.
+    private static final int SIMULATION_SETTLE_LIMIT = 32;
+    // Con más pares entrada/salida que esto, la prioridad usa la cota in * out sin buscar testigos.
+    private static final int SIMULATION_PAIR_LIMIT = 400;
+
+    private static final ThreadLocal<QueryScratch> QUERY_SCRATCH = ThreadLocal.withInitial(QueryScratch::new);
+
+    private final CompressedSparseRowGraph csr;
+    private final long version;
+    private final int numVertices;
+    private final int[] rank;
+    // Aristas de la jerarquía (originales y atajos).
+    private final int[] edgeFrom;
+    private final int[] edgeTo;
+    private final double[] edgeWeight;
+    private final int[] edgeFirstChild;
+    private final int[] edgeSecondChild;
+    private final int[] edgeOriginal;
+    private final int shortcutCount;
+    // Aristas hacia vértices de mayor rango, por vértice de origen.
+    private final int[] upOffsets;
+    private final int[] upEdges;
+    // Aristas que llegan desde vértices de mayor rango, por vértice de destino.
+    private final int[] downOffsets;
+    private final int[] downEdges;
+
+    private ContractionHierarchy(Builder builder, CompressedSparseRowGraph csr, long version) {
+        this.csr = csr;
+        this.version = version;
+        this.numVertices = builder.n;
+        this.rank = builder.rank;
+        int m = builder.edgeCount;
+        this.edgeFrom = Arrays.copyOf(builder.edgeFrom, m);
+        this.edgeTo = Arrays.copyOf(builder.edgeTo, m);
+        this.edgeWeight = Arrays.copyOf(builder.edgeWeight, m);
+        this.edgeFirstChild = Arrays.copyOf(builder.edgeFirstChild, m);
+        this.edgeSecondChild = Arrays.copyOf(builder.edgeSecondChild, m);
+        this.edgeOriginal = Arrays.copyOf(builder.edgeOriginal, m);
+        this.shortcutCount = builder.shortcutCount;
+
+        this.upOffsets = new int[numVertices + 1];
+        this.downOffsets = new int[numVertices + 1];
+        for (int e = 0; e < m; e++) {
+            if (rank[edgeTo[e]] > rank[edgeFrom[e]]) {
+                upOffsets[edgeFrom[e] + 1]++;
+            } else {
+                downOffsets[edgeTo[e] + 1]++;
+            }
+        }
+        for (int v = 0; v < numVertices; v++) {
+            upOffsets[v + 1] += upOffsets[v];
+            downOffsets[v + 1] += downOffsets[v];
+        }
+        this.upEdges = new int[upOffsets[numVertices]];
+        this.downEdges = new int[downOffsets[numVertices]];
+        int[] nextUp = Arrays.copyOf(upOffsets, numVertices);
+        int[] nextDown = Arrays.copyOf(downOffsets, numVertices);
+        for (int e = 0; e < m; e++) {
+            if (rank[edgeTo[e]] > rank[edgeFrom[e]]) {
+                upEdges[nextUp[edgeFrom[e]]++] = e;
+            } else {
+                downEdges[nextDown[edgeTo[e]]++] = e;
+            }
+        }
+    }
+
+    /**
+     * Construye la jerarquía para los pesos dados (alineados con las aristas de csr, NaN = arista ignorada).
+     * @param version versión del grafo a la que corresponden csr y weights.
+     */
+    public static ContractionHierarchy build(CompressedSparseRowGraph csr, double[] weights, long version) {
+        Builder builder = new Builder(csr, weights);
+        builder.contractAll();
+        return new ContractionHierarchy(builder, csr, version);
+    }
+
+    public long getVersion() { return version; }
+    public int getNumVertices() { return numVertices; }
+    public int getEdgeCount() { return edgeFrom.length; }
+    public int getShortcutCount() { return shortcutCount; }
+    public int getRank(int vertex) { return rank[vertex]; }
+    public CompressedSparseRowGraph getGraph() { return csr; }
+
+    /**
+     * Memoria aproximada de los arreglos de la jerarquía, en bytes.
+     */
+    public long getMemoryBytes() {
+        long edges = edgeFrom.length;
+        return edges * (5L * Integer.BYTES + Double.BYTES)
+                + (upEdges.length + downEdges.length) * (long) Integer.BYTES
+                + (3L * numVertices + 2) * Integer.BYTES;
+    }
+
+    /**
+     * Ruta más corta de source a target.
+     * @return aristas del CSR original que forman el camino, en orden (vacío si source == target),
+     *         o null si target no es alcanzable.
+     */
+    public int[] query(int source, int target) {
+        if (source < 0 || source >= numVertices || target < 0 || target >= numVertices) {
+            throw new IllegalArgumentException("Vértices inválidos: " + source + " -> " + target + ", numVertices=" + numVertices);
+        }
+        if (source == target) {
+            return new int[0];
+        }
+        QueryScratch scratch = QUERY_SCRATCH.get();
+        scratch.prepare(numVertices);
+        int gen = scratch.generation;
+        IndexedMinHeap forwardHeap = scratch.forwardHeap;
+        IndexedMinHeap backwardHeap = scratch.backwardHeap;
+
+        scratch.forwardDist[source] = 0;
+        scratch.forwardEdge[source] = -1;
+        scratch.forwardReached[source] = gen;
+        forwardHeap.insert(source, 0);
+        scratch.backwardDist[target] = 0;
+        scratch.backwardEdge[target] = -1;
+        scratch.backwardReached[target] = gen;
+        backwardHeap.insert(target, 0);
+
+        double best = Double.POSITIVE_INFINITY;
+        int meeting = -1;
+        while (true) {
+            boolean forwardOpen = !forwardHeap.isEmpty() && forwardHeap.peekMinKey() < best;
+            boolean backwardOpen = !backwardHeap.isEmpty() && backwardHeap.peekMinKey() < best;
+            if (!forwardOpen && !backwardOpen) {
+                break;
+            }
+            boolean forward = forwardOpen && (!backwardOpen || forwardHeap.peekMinKey() <= backwardHeap.peekMinKey());
+            if (forward) {
+                int u = forwardHeap.extractMin();
+                double du = scratch.forwardDist[u];
+                for (int i = upOffsets[u]; i < upOffsets[u + 1]; i++) {
+                    int e = upEdges[i];
+                    int v = edgeTo[e];
+                    double candidate = du + edgeWeight[e];
+                    if (scratch.forwardReached[v] != gen) {
+                        scratch.forwardReached[v] = gen;
+                        scratch.forwardDist[v] = candidate;
+                        forwardHeap.insert(v, candidate);
+                    } else if (candidate < scratch.forwardDist[v] && forwardHeap.contains(v)) {
+                        scratch.forwardDist[v] = candidate;
+                        forwardHeap.decreaseKey(v, candidate);
+                    } else {
+                        continue;
+                    }
+                    scratch.forwardEdge[v] = e;
+                    if (scratch.backwardReached[v] == gen && candidate + scratch.backwardDist[v] < best) {
+                        best = candidate + scratch.backwardDist[v];
+                        meeting = v;
+                    }
+                }
+            } else {
+                int u = backwardHeap.extractMin();
+                double du = scratch.backwardDist[u];
+                for (int i = downOffsets[u]; i < downOffsets[u + 1]; i++) {
+                    int e = downEdges[i];
+                    int v = edgeFrom[e];
+                    double candidate = du + edgeWeight[e];
+                    if (scratch.backwardReached[v] != gen) {
+                        scratch.backwardReached[v] = gen;
+                        scratch.backwardDist[v] = candidate;
+                        backwardHeap.insert(v, candidate);
+                    } else if (candidate < scratch.backwardDist[v] && backwardHeap.contains(v)) {
+                        scratch.backwardDist[v] = candidate;
+                        backwardHeap.decreaseKey(v, candidate);
+                    } else {
+                        continue;
+                    }
+                    scratch.backwardEdge[v] = e;
+                    if (scratch.forwardReached[v] == gen && scratch.forwardDist[v] + candidate < best) {
+                        best = scratch.forwardDist[v] + candidate;
+                        meeting = v;
+                    }
+                }
+            }
+        }
+        if (meeting == -1) {
+            return null;
+        }
+        return unpack(scratch, source, target, meeting);
+    }
+
+    /**
+     * Convierte las aristas de la jerarquía del camino encontrado en aristas del CSR original.
+     */
+    private int[] unpack(QueryScratch scratch, int source, int target, int meeting) {
+        int hierarchyEdges = 0;
+        for (int v = meeting; v != source; v = edgeFrom[scratch.forwardEdge[v]]) {
+            hierarchyEdges++;
+        }
+        int forwardCount = hierarchyEdges;
+        for (int v = meeting; v != target; v = edgeTo[scratch.backwardEdge[v]]) {
+            hierarchyEdges++;
+        }
+        int[] path = new int[hierarchyEdges];
+        int i = forwardCount - 1;
+        for (int v = meeting; v != source; v = edgeFrom[scratch.forwardEdge[v]]) {
+            path[i--] = scratch.forwardEdge[v];
+        }
+        i = forwardCount;
+        for (int v = meeting; v != target; v = edgeTo[scratch.backwardEdge[v]]) {
+            path[i++] = scratch.backwardEdge[v];
+        }
+
+        // Desempaque iterativo: pila de aristas pendientes, procesadas de izquierda a derecha.
+        int[] stack = new int[16];
+        int[] result = new int[16];
+        int resultSize = 0;
+        for (int k = 0; k < path.length; k++) {
+            int top = 0;
+            stack[top++] = path[k];
+            while (top > 0) {
+                int e = stack[--top];
+                if (edgeOriginal[e] != -1) {
+                    if (resultSize == result.length) {
+                        result = Arrays.copyOf(result, result.length * 2);
+                    }
+                    result[resultSize++] = edgeOriginal[e];
+                } else {
+                    if (top + 2 > stack.length) {
+                        stack = Arrays.copyOf(stack, stack.length * 2);
+                    }
+                    stack[top++] = edgeSecondChild[e];
+                    stack[top++] = edgeFirstChild[e];
+                }
+            }
+        }
+        return Arrays.copyOf(result, resultSize);
+    }
+
+    private static final class QueryScratch {
+        double[] forwardDist = new double[0];
+        double[] backwardDist = new double[0];
+        int[] forwardEdge = new int[0];
+        int[] backwardEdge = new int[0];
+        int[] forwardReached = new int[0];
+        int[] backwardReached = new int[0];
+        final IndexedMinHeap forwardHeap = new IndexedMinHeap(16);
+        final IndexedMinHeap backwardHeap = new IndexedMinHeap(16);
+        int generation;
+
+        void prepare(int n) {
+            if (n > forwardDist.length) {
+                int capacity = Math.max(n, forwardDist.length * 2);
+                forwardDist = new double[capacity];
+                backwardDist = new double[capacity];
+                forwardEdge = new int[capacity];
+                backwardEdge = new int[capacity];
+                forwardReached = new int[capacity];
+                backwardReached = new int[capacity];
+                generation = 0;
+            }
+            forwardHeap.ensureCapacity(n);
+            backwardHeap.ensureCapacity(n);
+            forwardHeap.clear();
+            backwardHeap.clear();
+            if (generation == Integer.MAX_VALUE) {
+                Arrays.fill(forwardReached, 0);
+                Arrays.fill(backwardReached, 0);
+                generation = 0;
+            }
+            generation++;
+        }
+    }
+
+    /**
+     * Estado mutable del preprocesamiento: grafo dinámico con listas de aristas entrantes y
+     * salientes por vértice, orden de contracción y búsqueda de testigos.
+     */
+    private static final class Builder {
+        final int n;
+        final int[] rank;
+        final boolean[] contracted;
+        final int[] contractedNeighbors;
+
+        int[] edgeFrom;
+        int[] edgeTo;
+        double[] edgeWeight;
+        int[] edgeFirstChild;
+        int[] edgeSecondChild;
+        int[] edgeOriginal;
+        int edgeCount;
+        int shortcutCount;
+
+        final int[][] outEdges;
+        final int[] outCount;
+        final int[][] inEdges;
+        final int[] inCount;
+
+        // Búsqueda de testigos.
+        final double[] witnessDist;
+        final int[] witnessStamp;
+        final IndexedMinHeap witnessHeap;
+        int witnessGeneration;
+
+        Builder(CompressedSparseRowGraph csr, double[] weights) {
+            this.n = csr.getNumVertices();
+            this.rank = new int[n];
+            this.contracted = new boolean[n];
+            this.contractedNeighbors = new int[n];
+            int capacity = Math.max(16, csr.getNumEdges() * 2);
+            this.edgeFrom = new int[capacity];
+            this.edgeTo = new int[capacity];
+            this.edgeWeight = new double[capacity];
+            this.edgeFirstChild = new int[capacity];
+            this.edgeSecondChild = new int[capacity];
+            this.edgeOriginal = new int[capacity];
+            this.outEdges = new int[n][];
+            this.outCount = new int[n];
+            this.inEdges = new int[n][];
+            this.inCount = new int[n];
+            for (int v = 0; v < n; v++) {
+                outEdges[v] = new int[Math.max(2, csr.outDegree(v))];
+                inEdges[v] = new int[2];
+            }
+            this.witnessDist = new double[n];
+            this.witnessStamp = new int[n];
+            this.witnessHeap = new IndexedMinHeap(n);
+
+            for (int u = 0; u < n; u++) {
+                for (int e = csr.edgeStart(u); e < csr.edgeEnd(u); e++) {
+                    double w = weights[e];
+                    if (!Double.isNaN(w) && csr.target(e) != u) {
+                        addOrImproveEdge(u, csr.target(e), w, -1, -1, e);
+                    }
+                }
+            }
+        }
+
+        private void addOrImproveEdge(int from, int to, double weight, int firstChild, int secondChild, int original) {
+            for (int i = 0; i < outCount[from]; i++) {
+                int e = outEdges[from][i];
+                if (edgeTo[e] == to) {
+                    if (weight < edgeWeight[e]) {
+                        edgeWeight[e] = weight;
+                        edgeFirstChild[e] = firstChild;
+                        edgeSecondChild[e] = secondChild;
+                        edgeOriginal[e] = original;
+                    }
+                    return;
+                }
+            }
+            if (edgeCount == edgeFrom.length) {
+                int capacity = edgeCount * 2;
+                edgeFrom = Arrays.copyOf(edgeFrom, capacity);
+                edgeTo = Arrays.copyOf(edgeTo, capacity);
+                edgeWeight = Arrays.copyOf(edgeWeight, capacity);
+                edgeFirstChild = Arrays.copyOf(edgeFirstChild, capacity);
+                edgeSecondChild = Arrays.copyOf(edgeSecondChild, capacity);
+                edgeOriginal = Arrays.copyOf(edgeOriginal, capacity);
+            }
+            int e = edgeCount++;
+            edgeFrom[e] = from;
+            edgeTo[e] = to;
+            edgeWeight[e] = weight;
+            edgeFirstChild[e] = firstChild;
+            edgeSecondChild[e] = secondChild;
+            edgeOriginal[e] = original;
+            if (original == -1) {
+                shortcutCount++;
+            }
+            if (outCount[from] == outEdges[from].length) {
+                outEdges[from] = Arrays.copyOf(outEdges[from], outCount[from] * 2);
+            }
+            outEdges[from][outCount[from]++] = e;
+            if (inCount[to] == inEdges[to].length) {
+                inEdges[to] = Arrays.copyOf(inEdges[to], inCount[to] * 2);
+            }
+            inEdges[to][inCount[to]++] = e;
+        }
+
+        void contractAll() {
+            IndexedMinHeap order = new IndexedMinHeap(n);
+            for (int v = 0; v < n; v++) {
+                order.insert(v, priority(v));
+            }
+            int nextRank = 0;
+            while (!order.isEmpty()) {
+                int v = order.extractMin();
+                // Actualización perezosa: si la prioridad empeoró, el vértice vuelve a la cola.
+                double current = priority(v);
+                if (!order.isEmpty() && current > order.peekMinKey()) {
+                    order.insert(v, current);
+                    continue;
+                }
+                contract(v, false);
+                contracted[v] = true;
+                rank[v] = nextRank++;
+                for (int i = 0; i < inCount[v]; i++) {
+                    updateNeighbor(order, edgeFrom[inEdges[v][i]]);
+                }
+                for (int i = 0; i < outCount[v]; i++) {
+                    updateNeighbor(order, edgeTo[outEdges[v][i]]);
+                }
+            }
+        }
+
+        private void updateNeighbor(IndexedMinHeap order, int u) {
+            if (!contracted[u] && order.contains(u)) {
+                contractedNeighbors[u]++;
+                removeContractedNeighbors(u);
+                order.changeKey(u, priority(u));
+            }
+        }
+
+        /**
+         * Quita de las listas de u las aristas hacia o desde vértices ya contraídos. Las aristas siguen
+         * en la jerarquía; solo dejan de recorrerse durante el resto del preprocesamiento.
+         */
+        private void removeContractedNeighbors(int u) {
+            int kept = 0;
+            for (int i = 0; i < outCount[u]; i++) {
+                int e = outEdges[u][i];
+                if (!contracted[edgeTo[e]]) {
+                    outEdges[u][kept++] = e;
+                }
+            }
+            outCount[u] = kept;
+            kept = 0;
+            for (int i = 0; i < inCount[u]; i++) {
+                int e = inEdges[u][i];
+                if (!contracted[edgeFrom[e]]) {
+                    inEdges[u][kept++] = e;
+                }
+            }
+            inCount[u] = kept;
+        }
+
+        private double priority(int v) {
+            int inDegree = 0;
+            for (int i = 0; i < inCount[v]; i++) {
+                if (!contracted[edgeFrom[inEdges[v][i]]]) inDegree++;
+            }
+            int outDegree = 0;
+            for (int i = 0; i < outCount[v]; i++) {
+                if (!contracted[edgeTo[outEdges[v][i]]]) outDegree++;
+            }
+            int shortcuts = inDegree * outDegree > SIMULATION_PAIR_LIMIT ? inDegree * outDegree : contract(v, true);
+            return 2 * (shortcuts - inDegree - outDegree) + contractedNeighbors[v];
+        }
+
+        /**
+         * Contrae v (o solo cuenta los atajos necesarios si simulate es true).
+         */
+        private int contract(int v, boolean simulate) {
+            int shortcuts = 0;
+            for (int i = 0; i < inCount[v]; i++) {
+                int in = inEdges[v][i];
+                int x = edgeFrom[in];
+                if (contracted[x]) {
+                    continue;
+                }
+                double maxCost = -1;
+                for (int j = 0; j < outCount[v]; j++) {
+                    int out = outEdges[v][j];
+                    int y = edgeTo[out];
+                    if (!contracted[y] && y != x) {
+                        maxCost = Math.max(maxCost, edgeWeight[in] + edgeWeight[out]);
+                    }
+                }
+                if (maxCost < 0) {
+                    continue;
+                }
+                witnessSearch(x, v, maxCost, simulate ? SIMULATION_SETTLE_LIMIT : WITNESS_SETTLE_LIMIT);
+                for (int j = 0; j < outCount[v]; j++) {
+                    int out = outEdges[v][j];
+                    int y = edgeTo[out];
+                    if (contracted[y] || y == x) {
+                        continue;
+                    }
+                    double viaV = edgeWeight[in] + edgeWeight[out];
+                    double witness = witnessStamp[y] == witnessGeneration ? witnessDist[y] : Double.POSITIVE_INFINITY;
+                    if (witness > viaV) {
+                        shortcuts++;
+                        if (!simulate) {
+                            addOrImproveEdge(x, y, viaV, in, out, -1);
+                        }
+                    }
+                }
+            }
+            return shortcuts;
+        }
+
+        /**
+         * Dijkstra local desde source sin pasar por excluded ni por vértices contraídos,
+         * hasta superar maxCost o asentar settleLimit vértices.
+         */
+        private void witnessSearch(int source, int excluded, double maxCost, int settleLimit) {
+            witnessGeneration++;
+            int gen = witnessGeneration;
+            witnessHeap.clear();
+            witnessDist[source] = 0;
+            witnessStamp[source] = gen;
+            witnessHeap.insert(source, 0);
+            int settled = 0;
+            while (!witnessHeap.isEmpty() && settled < settleLimit) {
+                if (witnessHeap.peekMinKey() > maxCost) {
+                    break;
+                }
+                int u = witnessHeap.extractMin();
+                settled++;
+                double du = witnessDist[u];
+                for (int i = 0; i < outCount[u]; i++) {
+                    int e = outEdges[u][i];
+                    int w = edgeTo[e];
+                    if (w == excluded || contracted[w]) {
+                        continue;
+                    }
+                    double candidate = du + edgeWeight[e];
+                    if (witnessStamp[w] != gen) {
+                        witnessStamp[w] = gen;
+                        witnessDist[w] = candidate;
+                        witnessHeap.insert(w, candidate);
+                    } else if (candidate < witnessDist[w] && witnessHeap.contains(w)) {
+                        witnessDist[w] = candidate;
+                        witnessHeap.decreaseKey(w, candidate);
+                    }
+                }
+            }
+        }
+    }
+}
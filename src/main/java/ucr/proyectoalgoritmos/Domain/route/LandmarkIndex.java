@@ -0,0 +1,219 @@
+package ucr.proyectoalgoritmos.Domain.route;
+
+import ucr.proyectoalgoritmos.graph.CompressedSparseRowGraph;
+import ucr.proyectoalgoritmos.graph.ReverseAdjacencyIndex;
+import ucr.proyectoalgoritmos.graph.ShortestPathEngine;
+
+import java.util.Arrays;
+
+/**
+ * Índice de puntos de referencia (ALT: A*, Landmarks, Triangle inequality) para un criterio de peso.
+ * Para cada aeropuerto de referencia L se guardan d(L, v) y d(v, L) para todo v; por la desigualdad
+ * triangular, max(d(L, t) - d(L, v), d(v, L) - d(t, L)) es una cota inferior de d(v, t), y el máximo
+ * sobre varios puntos de referencia es una heurística consistente para A* que no necesita coordenadas.
+ *
+ * Los puntos de referencia se eligen por el vértice más lejano: cada nuevo punto es el vértice peor
+ * cubierto por los ya elegidos (los que ninguno alcanza van primero). Cada punto cuesta dos Dijkstra
+ * completos y 2 * numVertices doubles de memoria (ver estimateMemoryBytes).
+ *
+ * El índice es inmutable una vez construido y queda asociado a la versión del grafo con la que se construyó.
+ */
+public class LandmarkIndex {
+
+    // Puntos de referencia usados por consulta: los que dan la mejor cota entre origen y destino.
+    private static final int ACTIVE_LANDMARKS = 4;
+
+    private final long version;
+    private final int numVertices;
+    private final int[] landmarks;
+    // fromLandmark[i][v] = d(landmarks[i], v); toLandmark[i][v] = d(v, landmarks[i]). Infinito si no hay camino.
+    private final double[][] fromLandmark;
+    private final double[][] toLandmark;
+
+    private LandmarkIndex(long version, int numVertices, int[] landmarks, double[][] fromLandmark, double[][] toLandmark) {
+        this.version = version;
+        this.numVertices = numVertices;
+        this.landmarks = landmarks;
+        this.fromLandmark = fromLandmark;
+        this.toLandmark = toLandmark;
+    }
+
+    /**
+     * Construye el índice con hasta count puntos de referencia.
+     * @param reverse índice inverso con la misma topología que csr.
+     * @param weights pesos alineados con las aristas de csr (NaN = arista ignorada).
+     * @param version versión del grafo a la que corresponden csr y weights.
+     */
+    public static LandmarkIndex build(CompressedSparseRowGraph csr, ReverseAdjacencyIndex reverse, double[] weights, int count, long version) {
+        if (count < 1) {
+            throw new IllegalArgumentException("Se requiere al menos un punto de referencia: " + count);
+        }
+        int n = csr.getNumVertices();
+        if (reverse.getNumVertices() != n) {
+            throw new IllegalArgumentException("El índice inverso no corresponde al CSR.");
+        }
+        // Grafo invertido con los mismos pesos: un Dijkstra desde L sobre él da d(v, L).
+        int[] reverseEdges = reverse.getForwardEdges();
+        double[] reverseWeights = new double[reverseEdges.length];
+        for (int i = 0; i < reverseEdges.length; i++) {
+            reverseWeights[i] = weights[reverseEdges[i]];
+        }
+        CompressedSparseRowGraph reversed = new CompressedSparseRowGraph(n, reverse.getOffsets(), reverse.getSources(),
+                reverseWeights, reverseWeights, version);
+
+        boolean[] candidate = new boolean[n];
+        int candidates = 0;
+        for (int v = 0; v < n; v++) {
+            candidate[v] = csr.outDegree(v) > 0 || reverse.inDegree(v) > 0;
+            if (candidate[v]) {
+                candidates++;
+            }
+        }
+        int k = Math.min(count, candidates);
+        int[] landmarks = new int[k];
+        double[][] fromLandmark = new double[k][];
+        double[][] toLandmark = new double[k][];
+        if (k == 0) {
+            return new LandmarkIndex(version, n, landmarks, fromLandmark, toLandmark);
+        }
+
+        ShortestPathEngine engine = new ShortestPathEngine();
+        // coverage[v]: menor d(L, v) + d(v, L) entre los puntos elegidos (infinito si ninguno lo cubre).
+        double[] coverage = new double[n];
+        Arrays.fill(coverage, Double.POSITIVE_INFINITY);
+        // El primer punto es el vértice más lejano desde el primer candidato.
+        int start = 0;
+        while (!candidate[start]) {
+            start++;
+        }
+        double[] seed = distancesFrom(engine, csr, weights, start);
+        int next = start;
+        for (int v = 0; v < n; v++) {
+            if (candidate[v] && seed[v] != Double.POSITIVE_INFINITY && seed[v] > seed[next]) {
+                next = v;
+            }
+        }
+
+        for (int i = 0; i < k; i++) {
+            landmarks[i] = next;
+            candidate[next] = false;
+            fromLandmark[i] = distancesFrom(engine, csr, weights, next);
+            toLandmark[i] = distancesFrom(engine, reversed, reverseWeights, next);
+            next = -1;
+            for (int v = 0; v < n; v++) {
+                coverage[v] = Math.min(coverage[v], fromLandmark[i][v] + toLandmark[i][v]);
+                if (candidate[v] && (next == -1 || coverage[v] > coverage[next])) {
+                    next = v;
+                }
+            }
+        }
+        return new LandmarkIndex(version, n, landmarks, fromLandmark, toLandmark);
+    }
+
+    private static double[] distancesFrom(ShortestPathEngine engine, CompressedSparseRowGraph csr, double[] weights, int source) {
+        engine.run(csr, weights, source, -1);
+        double[] distances = new double[csr.getNumVertices()];
+        for (int v = 0; v < distances.length; v++) {
+            distances[v] = engine.getDistance(v);
+        }
+        return distances;
+    }
+
+    /**
+     * Memoria de las tablas de distancias para numVertices vértices y count puntos de referencia, en bytes.
+     */
+    public static long estimateMemoryBytes(int numVertices, int count) {
+        return 2L * count * numVertices * Double.BYTES + (long) count * Integer.BYTES;
+    }
+
+    /**
+     * Mayor cantidad de puntos de referencia cuyas tablas caben en budgetBytes.
+     */
+    public static int maxLandmarksForBudget(int numVertices, long budgetBytes) {
+        long perLandmark = estimateMemoryBytes(Math.max(1, numVertices), 1);
+        return (int) Math.min(Integer.MAX_VALUE, Math.max(0, budgetBytes) / perLandmark);
+    }
+
+    public long getVersion() { return version; }
+    public int getNumVertices() { return numVertices; }
+    public int getLandmarkCount() { return landmarks.length; }
+    public int getLandmark(int i) { return landmarks[i]; }
+
+    /**
+     * Memoria de las tablas de este índice, en bytes.
+     */
+    public long getMemoryBytes() {
+        return estimateMemoryBytes(numVertices, landmarks.length);
+    }
+
+    /**
+     * Cota inferior de d(v, target) según el punto de referencia i. Es infinita cuando el punto
+     * demuestra que v no llega a target: L alcanza v pero no target, o target alcanza L pero v no.
+     */
+    private double bound(int i, int v, int target) {
+        double[] from = fromLandmark[i];
+        double[] to = toLandmark[i];
+        boolean fromV = from[v] != Double.POSITIVE_INFINITY;
+        boolean fromTarget = from[target] != Double.POSITIVE_INFINITY;
+        boolean toV = to[v] != Double.POSITIVE_INFINITY;
+        boolean toTarget = to[target] != Double.POSITIVE_INFINITY;
+        if ((fromV && !fromTarget) || (toTarget && !toV)) {
+            return Double.POSITIVE_INFINITY;
+        }
+        double best = 0;
+        if (fromV) {
+            best = from[target] - from[v];
+        }
+        if (toTarget) {
+            best = Math.max(best, to[v] - to[target]);
+        }
+        return best;
+    }
+
+    /**
+     * Cota inferior de d(v, target) con todos los puntos de referencia.
+     */
+    public double lowerBound(int v, int target) {
+        double best = 0;
+        for (int i = 0; i < landmarks.length; i++) {
+            best = Math.max(best, bound(i, v, target));
+        }
+        return best;
+    }
+
+    /**
+     * Heurística para A* de source a target con los ACTIVE_LANDMARKS puntos de referencia que dan
+     * la mejor cota en el origen; el máximo de cotas de un subconjunto sigue siendo consistente.
+     */
+    public ShortestPathEngine.Heuristic heuristic(int source, int target) {
+        if (source < 0 || source >= numVertices || target < 0 || target >= numVertices) {
+            throw new IllegalArgumentException("Vértices inválidos: " + source + " -> " + target + ", numVertices=" + numVertices);
+        }
+        int active = Math.min(ACTIVE_LANDMARKS, landmarks.length);
+        int[] chosen = new int[active];
+        double[] chosenBound = new double[active];
+        int size = 0;
+        for (int i = 0; i < landmarks.length; i++) {
+            double b = bound(i, source, target);
+            int pos = size < active ? size++ : active;
+            while (pos > 0 && chosenBound[pos - 1] < b) {
+                if (pos < active) {
+                    chosen[pos] = chosen[pos - 1];
+                    chosenBound[pos] = chosenBound[pos - 1];
+                }
+                pos--;
+            }
+            if (pos < active) {
+                chosen[pos] = i;
+                chosenBound[pos] = b;
+            }
+        }
+        return vertex -> {
+            double best = 0;
+            for (int i : chosen) {
+                best = Math.max(best, bound(i, vertex, target));
+            }
+            return best;
+        };
+    }
+}
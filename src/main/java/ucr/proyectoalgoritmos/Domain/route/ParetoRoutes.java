@@ -0,0 +1,25 @@
+package ucr.proyectoalgoritmos.Domain.route;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Frente de Pareto de rutas entre dos aeropuertos, ordenado por distancia. Si la búsqueda llegó al
+ * límite de etiquetas por vértice, truncated es true y el frente puede omitir rutas no dominadas.
+ */
+public class ParetoRoutes<R> {
+    private final List<R> routes;
+    private final boolean truncated;
+
+    public ParetoRoutes(List<R> routes, boolean truncated) {
+        this.routes = Collections.unmodifiableList(routes);
+        this.truncated = truncated;
+    }
+
+    public List<R> getRoutes() { return routes; }
+    public int size() { return routes.size(); }
+    public boolean isEmpty() { return routes.isEmpty(); }
+
+    /** true si el frente se cortó por el límite de etiquetas y puede estar incompleto. */
+    public boolean isTruncated() { return truncated; }
+}
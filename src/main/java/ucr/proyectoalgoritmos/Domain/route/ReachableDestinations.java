@@ -0,0 +1,62 @@
+package ucr.proyectoalgoritmos.Domain.route;
+
+import java.util.Random;
+
+/**
+ * Destinos alcanzables desde un origen, calculados en una sola pasada de Dijkstra.
+ * Los arreglos son paralelos: la posición i describe un destino con su índice de vértice,
+ * código, distancia (peso del grafo) y duración acumulada sobre ese mismo camino
+ * (NaN si algún tramo no tiene información de duración). El origen no se incluye.
+ */
+public class ReachableDestinations {
+    private final String originCode;
+    private final int[] vertexIndices;
+    private final String[] codes;
+    private final double[] distances;
+    private final double[] durations;
+
+    public ReachableDestinations(String originCode, int[] vertexIndices, String[] codes, double[] distances, double[] durations) {
+        this.originCode = originCode;
+        this.vertexIndices = vertexIndices;
+        this.codes = codes;
+        this.distances = distances;
+        this.durations = durations;
+    }
+
+    public String getOriginCode() { return originCode; }
+    public int size() { return codes.length; }
+    public boolean isEmpty() { return codes.length == 0; }
+
+    public int getVertexIndex(int i) { return vertexIndices[i]; }
+    public String getCode(int i) { return codes[i]; }
+    public double getDistance(int i) { return distances[i]; }
+    public double getDuration(int i) { return durations[i]; }
+
+    /**
+     * Posición de un destino por su código, o -1 si no es alcanzable.
+     */
+    public int indexOf(String destinationCode) {
+        for (int i = 0; i < codes.length; i++) {
+            if (codes[i].equals(destinationCode)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public boolean contains(String destinationCode) {
+        return indexOf(destinationCode) != -1;
+    }
+
+    /**
+     * Elige un destino alcanzable al azar en O(1). Retorna su posición, o -1 si no hay destinos.
+     */
+    public int sample(Random random) {
+        return codes.length == 0 ? -1 : random.nextInt(codes.length);
+    }
+
+    @Override
+    public String toString() {
+        return "ReachableDestinations{origin=" + originCode + ", destinations=" + codes.length + "}";
+    }
+}
@@ -0,0 +1,173 @@
+package ucr.proyectoalgoritmos.Domain.route;
+
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.MalformedJsonException;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Rutas de un archivo con el formato de routes.json ({"routes": [{origin_airport_code, ...}, ...]})
+ * leídas con un JsonReader, sin crear un objeto Route por ruta. Cada código de aeropuerto se guarda
+ * una sola vez y las rutas quedan como arreglos primitivos de ids de código (0 .. getCodeCount() - 1,
+ * en orden de primera aparición) con su distancia y duración.
+ *
+ * RouteGraphService.addDualWeightRoutes traduce los ids a vértices y arma el grafo en un solo paso.
+ */
+public class RouteBulkLoader {
+
+    private final Map<String, Integer> codeIds;
+    private String[] codes;
+    private int codeCount;
+    private int[] origins;
+    private int[] destinations;
+    private int[] distances;
+    private int[] durations;
+    private int count;
+    private int skipped;
+
+    RouteBulkLoader() {
+        this.codeIds = new HashMap<>();
+        this.codes = new String[64];
+        this.origins = new int[256];
+        this.destinations = new int[256];
+        this.distances = new int[256];
+        this.durations = new int[256];
+    }
+
+    /**
+     * Lee todas las rutas del lector. Las rutas sin código de origen o destino se omiten (ver getSkipped()).
+     * @throws JsonSyntaxException si el JSON está mal formado o una ruta no es un objeto.
+     * @throws IOException si falla la lectura.
+     */
+    public static RouteBulkLoader parse(Reader source) throws IOException {
+        RouteBulkLoader routes = new RouteBulkLoader();
+        JsonReader reader = new JsonReader(source);
+        reader.setLenient(true);
+        try {
+            reader.peek();
+        } catch (EOFException e) {
+            return routes; // Archivo vacío: sin rutas, igual que Gson.fromJson.
+        }
+        try {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if ("routes".equals(reader.nextName()) && reader.peek() == JsonToken.BEGIN_ARRAY) {
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        routes.readRoute(reader);
+                    }
+                    reader.endArray();
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+        } catch (IllegalStateException | NumberFormatException | MalformedJsonException e) {
+            throw new JsonSyntaxException(e);
+        }
+        return routes;
+    }
+
+    private void readRoute(JsonReader reader) throws IOException {
+        String origin = null;
+        String destination = null;
+        int distance = 0;
+        int duration = 0;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (reader.peek() == JsonToken.NULL) {
+                reader.nextNull();
+                continue;
+            }
+            switch (name) {
+                case "origin_airport_code":
+                    origin = reader.nextString();
+                    break;
+                case "destination_airport_code":
+                    destination = reader.nextString();
+                    break;
+                case "distance":
+                    distance = reader.nextInt();
+                    break;
+                case "duration":
+                    duration = reader.nextInt();
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        if (origin == null || destination == null) {
+            skipped++;
+            System.err.println("Error al procesar ruta: " + origin + "->" + destination + ": falta el código de aeropuerto.");
+            return;
+        }
+        addRoute(origin, destination, distance, duration);
+    }
+
+    /**
+     * Agrega una ruta a los arreglos (usado también por RouteNetworkGenerator).
+     */
+    void addRoute(String origin, String destination, int distance, int duration) {
+        if (count == origins.length) {
+            int capacity = count * 2;
+            origins = Arrays.copyOf(origins, capacity);
+            destinations = Arrays.copyOf(destinations, capacity);
+            distances = Arrays.copyOf(distances, capacity);
+            durations = Arrays.copyOf(durations, capacity);
+        }
+        origins[count] = idOf(origin);
+        destinations[count] = idOf(destination);
+        distances[count] = distance;
+        durations[count] = duration;
+        count++;
+    }
+
+    /**
+     * Id del código, registrándolo si es nuevo.
+     */
+    int idOf(String code) {
+        Integer id = codeIds.get(code);
+        if (id != null) {
+            return id;
+        }
+        if (codeCount == codes.length) {
+            codes = Arrays.copyOf(codes, codeCount * 2);
+        }
+        codes[codeCount] = code;
+        codeIds.put(code, codeCount);
+        return codeCount++;
+    }
+
+    /**
+     * Cantidad de rutas leídas (incluye repetidas; la última repetición es la que queda en el grafo).
+     */
+    public int size() { return count; }
+
+    /**
+     * Rutas omitidas por no tener código de origen o destino.
+     */
+    public int getSkipped() { return skipped; }
+
+    public int getCodeCount() { return codeCount; }
+
+    /**
+     * Código de aeropuerto de cada id; solo las primeras getCodeCount() posiciones son válidas.
+     */
+    public String[] getCodes() { return codes; }
+
+    // Arreglos paralelos por ruta; solo las primeras size() posiciones son válidas.
+    public int[] getOrigins() { return origins; }
+    public int[] getDestinations() { return destinations; }
+    public int[] getDistances() { return distances; }
+    public int[] getDurations() { return durations; }
+}
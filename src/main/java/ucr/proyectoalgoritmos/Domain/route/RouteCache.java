@@ -0,0 +1,125 @@
+package ucr.proyectoalgoritmos.Domain.route;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Caché LRU acotada de rutas más cortas, indexada por (origen, destino, criterio).
+ * Cada entrada guarda distancia, duración y camino. La caché se vacía completa cuando
+ * cambia la versión del grafo con la que se llenó, de modo que nunca retorna una ruta
+ * calculada sobre un grafo distinto al actual.
+ */
+public class RouteCache {
+
+    public static final int DEFAULT_MAX_ENTRIES = 4096;
+
+    /**
+     * Resultado memorizado. reachable == false representa "no hay ruta" (también se memoriza).
+     */
+    public static class Entry {
+        public final boolean reachable;
+        public final double distance;
+        public final double duration;
+        public final String[] path;
+
+        public Entry(boolean reachable, double distance, double duration, String[] path) {
+            this.reachable = reachable;
+            this.distance = distance;
+            this.duration = duration;
+            this.path = path;
+        }
+    }
+
+    private final int maxEntries;
+    private final LinkedHashMap<String, Entry> entries;
+    private long graphVersion;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+
+    public RouteCache() {
+        this(DEFAULT_MAX_ENTRIES);
+    }
+
+    public RouteCache(int maxEntries) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("El tamaño máximo de la caché debe ser positivo.");
+        }
+        this.maxEntries = maxEntries;
+        this.graphVersion = -1;
+        // accessOrder = true: el orden de iteración es del menos al más recientemente usado.
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > RouteCache.this.maxEntries) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    private static String key(String originCode, String destinationCode, String criteria) {
+        return originCode + "|" + destinationCode + "|" + criteria.toLowerCase();
+    }
+
+    /**
+     * Busca una ruta memorizada. Si la versión del grafo cambió desde que se llenó la caché,
+     * se invalida completa y se cuenta como fallo.
+     */
+    public synchronized Entry get(String originCode, String destinationCode, String criteria, long currentGraphVersion) {
+        if (currentGraphVersion != graphVersion) {
+            invalidate(currentGraphVersion);
+        }
+        Entry entry = entries.get(key(originCode, destinationCode, criteria));
+        if (entry == null) {
+            misses++;
+        } else {
+            hits++;
+        }
+        return entry;
+    }
+
+    public synchronized void put(String originCode, String destinationCode, String criteria, long currentGraphVersion, Entry entry) {
+        if (currentGraphVersion != graphVersion) {
+            invalidate(currentGraphVersion);
+        }
+        entries.put(key(originCode, destinationCode, criteria), entry);
+    }
+
+    private void invalidate(long newGraphVersion) {
+        if (!entries.isEmpty()) {
+            entries.clear();
+            invalidations++;
+        }
+        graphVersion = newGraphVersion;
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        graphVersion = -1;
+    }
+
+    public synchronized int size() { return entries.size(); }
+    public int getMaxEntries() { return maxEntries; }
+    public synchronized long getHits() { return hits; }
+    public synchronized long getMisses() { return misses; }
+    public synchronized long getEvictions() { return evictions; }
+    public synchronized long getInvalidations() { return invalidations; }
+
+    public synchronized void resetStatistics() {
+        hits = 0;
+        misses = 0;
+        evictions = 0;
+        invalidations = 0;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "RouteCache{size=" + entries.size() + "/" + maxEntries + ", hits=" + hits + ", misses=" + misses +
+                ", evictions=" + evictions + ", invalidations=" + invalidations + "}";
+    }
+}
@@ -2,21 +2,75 @@ package ucr.proyectoalgoritmos.Domain.route;
 
 import ucr.proyectoalgoritmos.Domain.list.ListException;
 import ucr.proyectoalgoritmos.Domain.list.SinglyLinkedList;
+import ucr.proyectoalgoritmos.graph.BidirectionalDijkstra;
+import ucr.proyectoalgoritmos.graph.CompressedSparseRowGraph;
 import ucr.proyectoalgoritmos.graph.DirectedSinglyLinkedListGraph;
+import ucr.proyectoalgoritmos.graph.DynamicShortestPathTree;
+import ucr.proyectoalgoritmos.graph.EdgeWeightMap;
+import ucr.proyectoalgoritmos.graph.GraphSnapshot;
+import ucr.proyectoalgoritmos.graph.KShortestPaths;
+import ucr.proyectoalgoritmos.graph.ParetoRouteSearch;
+import ucr.proyectoalgoritmos.graph.ReachabilityIndex;
+import ucr.proyectoalgoritmos.graph.ReverseAdjacencyIndex;
+import ucr.proyectoalgoritmos.graph.ShortestPathEngine;
+import ucr.proyectoalgoritmos.util.DistinctIndexSampler;
+import ucr.proyectoalgoritmos.util.GeoUtility;
 
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.Random;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.PriorityQueue;
-import java.util.Comparator;
-import java.util.Deque;
-import java.util.ArrayDeque;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
 
 
 public class RouteGraphService {
     private DirectedSinglyLinkedListGraph internalGraph;
-    private Map<String, DualEdgeInfo> dualWeightEdges;
+    // Distancia y duración por arista u->v, con clave primitiva (ver EdgeWeightMap). El mapa y
+    // dualWeightsVersion solo cambian con el bloqueo de escritura del grafo interno (write/mutate).
+    private final EdgeWeightMap dualWeightEdges;
+    private volatile long dualWeightsVersion;
+    // Último CSR con distancia y duración por arista, publicado junto con el snapshot del que se derivó.
+    private volatile DualWeightSnapshot dualWeightSnapshot;
+    // Modo de tablas precalculadas entre todos los pares, una por criterio ("weight", "distance", "duration").
+    // Las tablas se leen y se reparan con el bloqueo de este servicio.
+    private volatile boolean allPairsMode;
+    private volatile ForkJoinPool allPairsPool;
+    private final Map<String, AllPairsRouteTable> allPairsTables;
+    // Destinos alcanzables por origen, válidos mientras no cambie la versión del grafo.
+    private final Map<Integer, ReachableDestinations> reachableCache;
+    private long reachableCacheVersion;
+    // Árboles de caminos más cortos por origen (peso del grafo); se reparan al cambiar una arista.
+    private final Map<Integer, DynamicShortestPathTree> shortestPathTrees;
+    // Componentes fuertemente conexas y alcanzabilidad entre ellas; se actualiza al añadir aristas.
+    private ReachabilityIndex reachabilityIndex;
+    // Coordenadas por vértice en radianes (NaN = desconocidas), usadas por la heurística de A*.
+    private double[] vertexLatitudeRad;
+    private double[] vertexLongitudeRad;
+    private long coordinatesVersion;
+    // Factores de escala de la heurística por criterio (0 = A* deshabilitado) y versiones con las que se calcularon.
+    private double distanceHeuristicScale;
+    private double durationHeuristicScale;
+    private long heuristicScaleGraphVersion;
+    private long heuristicScaleCoordinatesVersion;
+    // Jerarquías de contracción por criterio ("distance", "duration"), válidas mientras su versión sea la del grafo.
+    private volatile boolean contractionHierarchyMode;
+    private volatile boolean contractionHierarchyBackgroundRebuild;
+    private final Map<String, ContractionHierarchy> contractionHierarchies;
+    private final Set<String> contractionHierarchiesRebuilding;
+    private volatile ExecutorService contractionHierarchyExecutor;
+    // Aumenta al desactivar las jerarquías: una construcción empezada antes ya no se guarda.
+    private long contractionHierarchyGeneration;
+    // Índices de puntos de referencia (ALT) por criterio; landmarkCount = 0 los deshabilita.
+    private int landmarkCount;
+    private final Map<String, LandmarkIndex> landmarkIndexes;
 
     public static class DualEdgeInfo {
         public double distance;
@@ -35,17 +89,65 @@ public class RouteGraphService {
         }
     }
 
+    /**
+     * Versión de consulta: snapshot del grafo interno y CSR de doble peso con su misma topología, más
+     * la versión combinada (grafo + pesos dobles) a la que corresponden. Una consulta toma una sola y
+     * saca de ella los índices de vértice, el CSR y el índice inverso, así que nunca mezcla versiones.
+     */
+    private static final class DualWeightSnapshot {
+        final GraphSnapshot graph;
+        final CompressedSparseRowGraph csr;
+        final long dualWeightsVersion;
+        final long version;
+
+        DualWeightSnapshot(GraphSnapshot graph, CompressedSparseRowGraph csr, long dualWeightsVersion) {
+            this.graph = graph;
+            this.csr = csr;
+            this.dualWeightsVersion = dualWeightsVersion;
+            this.version = graph.getVersion() + dualWeightsVersion;
+        }
+
+        ReverseAdjacencyIndex reverseIndex() {
+            return graph.getReverseIndex();
+        }
+    }
+
     public RouteGraphService(int maxVertices) {
         this.internalGraph = new DirectedSinglyLinkedListGraph();
-        this.dualWeightEdges = new HashMap<>();
+        this.dualWeightEdges = new EdgeWeightMap();
+        this.dualWeightsVersion = 0;
+        this.allPairsMode = false;
+        this.allPairsTables = new HashMap<>();
+        this.reachableCache = new HashMap<>();
+        this.reachableCacheVersion = -1;
+        this.shortestPathTrees = new HashMap<>();
+        this.vertexLatitudeRad = new double[0];
+        this.vertexLongitudeRad = new double[0];
+        this.coordinatesVersion = 0;
+        this.heuristicScaleGraphVersion = -1;
+        this.heuristicScaleCoordinatesVersion = -1;
+        this.contractionHierarchies = new ConcurrentHashMap<>();
+        this.contractionHierarchiesRebuilding = ConcurrentHashMap.newKeySet();
+        this.landmarkCount = 0;
+        this.landmarkIndexes = new HashMap<>();
     }
 
     public DirectedSinglyLinkedListGraph getInternalGraph() {
         return internalGraph;
     }
 
+    /**
+     * Versión combinada del grafo: cambia cuando se añade un vértice, se añade o modifica
+     * una arista del grafo interno o cambia el mapa de pesos dobles.
+     */
+    public long getGraphVersion() {
+        return internalGraph.getVersion() + dualWeightsVersion;
+    }
+
     public void addVertex(String airportCode) throws ListException {
+        long versionBefore = getGraphVersion();
         internalGraph.addVertex(airportCode);
+        updateReachability(versionBefore, -1, -1);
     }
 
     public boolean containsVertex(String airportCode) {
@@ -61,7 +163,12 @@ public class RouteGraphService {
         if (v == -1) {
             throw new IllegalArgumentException("El aeropuerto de destino '" + destinationCode + "' no existe como vértice.");
         }
+        long versionBefore = getGraphVersion();
+        Map<String, Double> weightsBefore = edgeWeightsBeforeChange(u, v);
         internalGraph.addEdge(u, v, weight);
+        repairAllPairsTables(versionBefore, u, v, weightsBefore);
+        repairShortestPathTrees(versionBefore, u, v);
+        updateReachability(versionBefore, u, v);
     }
 
     public boolean modifyEdge(String originCode, String destinationCode, int newWeight) throws ListException, IllegalArgumentException {
@@ -73,10 +180,28 @@ public class RouteGraphService {
         if (v == -1) {
             throw new IllegalArgumentException("El aeropuerto de destino '" + destinationCode + "' no existe como vértice.");
         }
-        return internalGraph.modifyEdge(u, v, newWeight);
+        long versionBefore = getGraphVersion();
+        Map<String, Double> weightsBefore = edgeWeightsBeforeChange(u, v);
+        boolean modified = internalGraph.modifyEdge(u, v, newWeight);
+        repairAllPairsTables(versionBefore, u, v, weightsBefore);
+        repairShortestPathTrees(versionBefore, u, v);
+        updateReachability(versionBefore, -1, -1);
+        return modified;
     }
 
     public int shortestPath(String startCode, String endCode) throws ListException {
+        if (allPairsMode) {
+            int startIndex = internalGraph.getIndexForAirportCode(startCode);
+            int endIndex = internalGraph.getIndexForAirportCode(endCode);
+            if (startIndex == -1 || endIndex == -1) {
+                return Integer.MAX_VALUE;
+            }
+            double cost;
+            synchronized (this) {
+                cost = getAllPairsTable("weight").getCost(startIndex, endIndex);
+            }
+            return cost == Double.POSITIVE_INFINITY ? Integer.MAX_VALUE : (int) cost;
+        }
         return internalGraph.shortestPath(startCode, endCode);
     }
 
@@ -97,167 +222,953 @@ public class RouteGraphService {
     }
 
     public boolean hasDirectRoute(String originCode, String destinationCode) {
-        try {
-            return internalGraph.hasEdge(originCode, destinationCode);
-        } catch (ListException e) {
-            System.err.println("Error al verificar ruta directa en grafo: " + e.getMessage());
-            return false;
-        }
+        // También en modo de tablas entre todos los pares: basta con buscar la arista en el snapshot,
+        // sin construir la tabla ni tomar el bloqueo del grafo.
+        return internalGraph.getSnapshot().hasEdge(originCode, destinationCode);
     }
 
 
     public void addDualWeightRoute(String originCode, String destinationCode, double distance, double duration) throws ListException, IllegalArgumentException {
-        internalGraph.addVertex(originCode);
-        internalGraph.addVertex(destinationCode);
-
-        String edgeKey = originCode + "-" + destinationCode;
-        dualWeightEdges.put(edgeKey, new DualEdgeInfo(distance, duration));
-
-        internalGraph.addEdge(internalGraph.getIndexForAirportCode(originCode),
-                internalGraph.getIndexForAirportCode(destinationCode),
-                (int) Math.round(distance));
+        long versionBefore = getGraphVersion();
+        Map<String, Double> weightsBefore = edgeWeightsBeforeChange(
+                internalGraph.getIndexForAirportCode(originCode), internalGraph.getIndexForAirportCode(destinationCode));
+        int[] edge = new int[2];
+        // Pesos dobles y arista cambian bajo el mismo bloqueo: ningún CSR de doble peso ve solo uno de los dos.
+        internalGraph.write(graph -> {
+            edge[0] = graph.addVertex(originCode);
+            edge[1] = graph.addVertex(destinationCode);
+            dualWeightEdges.put(edge[0], edge[1], distance, duration);
+            dualWeightsVersion++;
+            graph.addEdge(edge[0], edge[1], (int) Math.round(distance));
+        });
+        int u = edge[0];
+        int v = edge[1];
+        repairAllPairsTables(versionBefore, u, v, weightsBefore);
+        repairShortestPathTrees(versionBefore, u, v);
+        updateReachability(versionBefore, u, v);
 
         System.out.println("DEBUG RouteGraphService: Ruta dual añadida: " + originCode + "->" + destinationCode + " (Dist:" + distance + ", Dur:" + duration + ")");
     }
 
     public void removeDualWeightRoute(String originCode, String destinationCode) throws ListException, IllegalArgumentException {
-        String edgeKey = originCode + "-" + destinationCode;
-
-        if (!dualWeightEdges.containsKey(edgeKey)) {
+        int u = internalGraph.getIndexForAirportCode(originCode);
+        int v = internalGraph.getIndexForAirportCode(destinationCode);
+        if (!dualWeightEdges.contains(u, v)) {
             throw new IllegalArgumentException("La ruta con doble peso de " + originCode + " a " + destinationCode + " no existe.");
         }
-        dualWeightEdges.remove(edgeKey);
+        long versionBefore = getGraphVersion();
+        Map<String, Double> weightsBefore = edgeWeightsBeforeChange(u, v);
+        internalGraph.write(graph -> {
+            dualWeightEdges.remove(u, v);
+            dualWeightsVersion++;
+        });
+        repairAllPairsTables(versionBefore, u, v, weightsBefore);
+        // El peso del grafo interno no cambia: los árboles siguen siendo válidos.
+        repairShortestPathTrees(versionBefore, -1, -1);
+        updateReachability(versionBefore, -1, -1);
 
         System.out.println("Ruta con doble peso de " + originCode + " a " + destinationCode + " eliminada (solo de estructura auxiliar).");
     }
 
+    /**
+     * Añade todas las rutas de un RouteBulkLoader como una sola versión del grafo, con el mismo
+     * resultado que llamar a addDualWeightRoute por ruta: cada código se traduce a vértice una vez,
+     * los pesos dobles van al mapa primitivo y las aristas se insertan con addEdges. Las estructuras
+     * que se reparan arista por arista (árboles, tablas, alcanzabilidad) se descartan y se reconstruyen
+     * en la siguiente consulta.
+     * @return cantidad de aristas nuevas en el grafo interno.
+     */
+    public int addDualWeightRoutes(RouteBulkLoader routes) throws ListException {
+        int count = routes.size();
+        int[] added = new int[1];
+        internalGraph.mutate(graph -> {
+            String[] codes = routes.getCodes();
+            int[] vertexOf = new int[routes.getCodeCount()];
+            for (int c = 0; c < vertexOf.length; c++) {
+                vertexOf[c] = graph.addVertex(codes[c]);
+            }
+            int[] origins = routes.getOrigins();
+            int[] destinations = routes.getDestinations();
+            int[] distances = routes.getDistances();
+            int[] durations = routes.getDurations();
+            int[] sources = new int[count];
+            int[] targets = new int[count];
+            for (int i = 0; i < count; i++) {
+                sources[i] = vertexOf[origins[i]];
+                targets[i] = vertexOf[destinations[i]];
+                dualWeightEdges.put(sources[i], targets[i], distances[i], durations[i]);
+            }
+            dualWeightsVersion++;
+            added[0] = graph.addEdges(sources, targets, distances, count);
+        });
+        discardIncrementalStructures();
+        return added[0];
+    }
 
-    public double[] getShortestPathDualWeights(String startCode, String endCode, String criteria) throws ListException {
+    private synchronized void discardIncrementalStructures() {
+        allPairsTables.clear();
+        shortestPathTrees.clear();
+        reachabilityIndex = null;
+    }
 
-        int startIndex = internalGraph.getIndexForAirportCode(startCode);
-        int endIndex = internalGraph.getIndexForAirportCode(endCode);
 
-        if (startIndex == -1 || endIndex == -1 || internalGraph.getNumVertices() == 0) {
-            return null;
+    /**
+     * Retorna el CSR con distancia y duración por arista. Se reconstruye solo cuando cambia
+     * la topología del grafo interno o el mapa de pesos dobles; las aristas sin
+     * pesos dobles quedan con pesos NaN y los recorridos las saltan.
+     */
+    public CompressedSparseRowGraph getDualWeightGraph() {
+        return pinDualWeights().csr;
+    }
+
+    /**
+     * Versión de consulta al día (ver DualWeightSnapshot). Si la publicada quedó atrás se arma otra con
+     * el bloqueo de escritura del grafo tomado, para leer aristas y pesos dobles del mismo momento.
+     */
+    private DualWeightSnapshot pinDualWeights() {
+        DualWeightSnapshot current = dualWeightSnapshot;
+        if (current != null && current.graph.getVersion() == internalGraph.getVersion()
+                && current.dualWeightsVersion == dualWeightsVersion) {
+            return current;
         }
-        if (startIndex == endIndex) {
-            return new double[]{0, 0};
+        DualWeightSnapshot[] pinned = new DualWeightSnapshot[1];
+        try {
+            internalGraph.write(graph -> pinned[0] = buildDualWeightSnapshot(graph.getSnapshot()));
+        } catch (ListException e) {
+            throw new IllegalStateException("No se pudo fijar una versión del grafo: " + e.getMessage(), e);
         }
+        return pinned[0];
+    }
 
-        double[] dist = new double[internalGraph.getNumVertices()];
-        int[] prev = new int[internalGraph.getNumVertices()];
-        boolean[] visited = new boolean[internalGraph.getNumVertices()];
+    // Se llama con el bloqueo de escritura del grafo tomado.
+    private DualWeightSnapshot buildDualWeightSnapshot(GraphSnapshot graphSnapshot) {
+        DualWeightSnapshot current = dualWeightSnapshot;
+        if (current != null && current.graph == graphSnapshot && current.dualWeightsVersion == dualWeightsVersion) {
+            return current;
+        }
+        CompressedSparseRowGraph topology = graphSnapshot.getGraph();
+        int numEdges = topology.getNumEdges();
+        double[] distance = new double[numEdges];
+        double[] duration = new double[numEdges];
+        for (int u = 0; u < topology.getNumVertices(); u++) {
+            for (int e = topology.edgeStart(u); e < topology.edgeEnd(u); e++) {
+                int v = topology.target(e);
+                distance[e] = dualWeightEdges.distance(u, v);
+                duration[e] = dualWeightEdges.duration(u, v);
+            }
+        }
+        // Con la versión de la topología, el índice inverso del snapshot corresponde a este CSR.
+        DualWeightSnapshot built = new DualWeightSnapshot(graphSnapshot,
+                topology.withWeights(distance, duration, topology.getVersion()), dualWeightsVersion);
+        dualWeightSnapshot = built;
+        return built;
+    }
+
+    private static double[] weightsForCriteria(CompressedSparseRowGraph csr, String criteria) {
+        if (criteria.equalsIgnoreCase("distance")) {
+            return csr.getDistances();
+        } else if (criteria.equalsIgnoreCase("duration")) {
+            return csr.getDurations();
+        }
+        throw new IllegalArgumentException("Criterio inválido: " + criteria);
+    }
+
+    /**
+     * Registra las coordenadas (en grados) de un aeropuerto, añadiéndolo al grafo si no existe.
+     * Se usan como heurística de A* en las consultas punto a punto.
+     */
+    public synchronized void setAirportCoordinates(String airportCode, double latitude, double longitude) throws ListException {
+        if (!GeoUtility.isValidCoordinate(latitude, longitude)) {
+            throw new IllegalArgumentException("Coordenadas inválidas para " + airportCode + ": " + latitude + ", " + longitude);
+        }
+        long versionBefore = getGraphVersion();
+        int index = internalGraph.addVertex(airportCode);
+        updateReachability(versionBefore, -1, -1);
+        if (index >= vertexLatitudeRad.length) {
+            int oldLength = vertexLatitudeRad.length;
+            int newLength = Math.max(index + 1, oldLength * 2);
+            vertexLatitudeRad = Arrays.copyOf(vertexLatitudeRad, newLength);
+            vertexLongitudeRad = Arrays.copyOf(vertexLongitudeRad, newLength);
+            Arrays.fill(vertexLatitudeRad, oldLength, newLength, Double.NaN);
+            Arrays.fill(vertexLongitudeRad, oldLength, newLength, Double.NaN);
+        }
+        vertexLatitudeRad[index] = Math.toRadians(latitude);
+        vertexLongitudeRad[index] = Math.toRadians(longitude);
+        coordinatesVersion++;
+    }
 
-        Arrays.fill(dist, Double.POSITIVE_INFINITY);
-        Arrays.fill(prev, -1);
-        Arrays.fill(visited, false);
+    private boolean hasCoordinates(int vertex) {
+        return vertex < vertexLatitudeRad.length && !Double.isNaN(vertexLatitudeRad[vertex]);
+    }
 
-        PriorityQueue<PathNode_Internal> pq = new PriorityQueue<>(internalGraph.getNumVertices(),
-                Comparator.comparingDouble(n -> n.currentWeight));
+    /**
+     * Distancia de gran círculo en km entre dos vértices con coordenadas (haversine).
+     */
+    private double greatCircleKm(int u, int v) {
+        return GeoUtility.haversineKmRadians(vertexLatitudeRad[u], vertexLongitudeRad[u], vertexLatitudeRad[v], vertexLongitudeRad[v]);
+    }
 
-        dist[startIndex] = 0;
-        pq.add(new PathNode_Internal(startIndex, 0));
+    /**
+     * Factor por el que se multiplica la distancia de gran círculo para obtener una cota inferior
+     * del costo según el criterio. Las distancias de routes.json no son distancias geodésicas reales,
+     * así que el factor es el mínimo de peso / gran círculo sobre todas las aristas: con él la
+     * heurística nunca sobreestima una arista y, por la desigualdad triangular, es consistente.
+     * Retorna 0 (A* deshabilitado) si algún vértice sin coordenadas puede ser intermedio en un camino
+     * (tiene aristas de entrada y de salida), ya que para él no hay cota válida.
+     */
+    private synchronized double heuristicScale(DualWeightSnapshot pinned, String criteria) {
+        CompressedSparseRowGraph csr = pinned.csr;
+        long graphVersion = pinned.version;
+        if (graphVersion != heuristicScaleGraphVersion || coordinatesVersion != heuristicScaleCoordinatesVersion) {
+            distanceHeuristicScale = computeHeuristicScale(csr, csr.getDistances());
+            durationHeuristicScale = computeHeuristicScale(csr, csr.getDurations());
+            heuristicScaleGraphVersion = graphVersion;
+            heuristicScaleCoordinatesVersion = coordinatesVersion;
+        }
+        return criteria.equalsIgnoreCase("distance") ? distanceHeuristicScale : durationHeuristicScale;
+    }
 
+    private double computeHeuristicScale(CompressedSparseRowGraph csr, double[] weights) {
+        int n = csr.getNumVertices();
+        int[] offsets = csr.getOffsets();
+        int[] targets = csr.getTargets();
+        boolean[] hasOut = new boolean[n];
+        boolean[] hasIn = new boolean[n];
+        double scale = Double.POSITIVE_INFINITY;
+        for (int u = 0; u < n; u++) {
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                double w = weights[e];
+                if (Double.isNaN(w)) {
+                    continue;
+                }
+                int v = targets[e];
+                hasOut[u] = true;
+                hasIn[v] = true;
+                if (!hasCoordinates(u) || !hasCoordinates(v)) {
+                    continue;
+                }
+                double km = greatCircleKm(u, v);
+                if (km > 0) {
+                    scale = Math.min(scale, w / km);
+                }
+            }
+        }
+        for (int v = 0; v < n; v++) {
+            if (hasOut[v] && hasIn[v] && !hasCoordinates(v)) {
+                return 0;
+            }
+        }
+        if (scale == Double.POSITIVE_INFINITY || scale <= 0) {
+            return 0;
+        }
+        // Margen para que el redondeo no vuelva la heurística inconsistente.
+        return scale * (1 - 1e-9);
+    }
 
+    /**
+     * Heurística de A* para una consulta punto a punto: la cota de puntos de referencia si están
+     * activos, la de gran círculo si hay coordenadas suficientes, o el máximo de ambas
+     * (el máximo de dos heurísticas consistentes también lo es). Retorna null si no hay ninguna.
+     */
+    private ShortestPathEngine.Heuristic pointToPointHeuristic(DualWeightSnapshot pinned, String criteria, int startIndex, int endIndex) {
+        double scale = heuristicScale(pinned, criteria);
+        ShortestPathEngine.Heuristic greatCircle = null;
+        if (scale > 0 && hasCoordinates(endIndex)) {
+            greatCircle = vertex -> hasCoordinates(vertex) ? scale * greatCircleKm(vertex, endIndex) : 0;
+        }
+        LandmarkIndex landmarks = landmarkIndex(pinned, criteria);
+        if (landmarks == null) {
+            return greatCircle;
+        }
+        ShortestPathEngine.Heuristic alt = landmarks.heuristic(startIndex, endIndex);
+        if (greatCircle == null) {
+            return alt;
+        }
+        ShortestPathEngine.Heuristic geo = greatCircle;
+        return vertex -> Math.max(alt.estimate(vertex), geo.estimate(vertex));
+    }
 
-        while (!pq.isEmpty()) {
-            PathNode_Internal current = pq.poll();
-            int u = current.vertexIndex;
-            double currentDist = current.currentWeight;
+    /**
+     * Consulta punto a punto sobre el CSR de doble peso: A* si hay alguna heurística disponible
+     * (puntos de referencia o coordenadas), o Dijkstra en caso contrario.
+     */
+    private double runPointToPoint(ShortestPathEngine engine, DualWeightSnapshot pinned, String criteria, int startIndex, int endIndex) {
+        CompressedSparseRowGraph csr = pinned.csr;
+        double[] weights = weightsForCriteria(csr, criteria);
+        ShortestPathEngine.Heuristic heuristic = pointToPointHeuristic(pinned, criteria, startIndex, endIndex);
+        if (heuristic != null) {
+            return engine.runAStar(csr, weights, startIndex, endIndex, heuristic);
+        }
+        return engine.run(csr, weights, startIndex, endIndex);
+    }
 
-            if (visited[u]) {
-                System.out.println("DEBUG getShortestPathDualWeights: Vértice " + internalGraph.getAirportCodeForIndex(u) + " ya visitado. Continuando.");
-                continue;
+    /**
+     * Indica si las consultas punto a punto con el criterio dado se resuelven con A*
+     * (puntos de referencia activos o coordenadas suficientes).
+     */
+    public boolean isAStarEnabled(String criteria) {
+        DualWeightSnapshot pinned = pinDualWeights();
+        weightsForCriteria(pinned.csr, criteria);
+        return getLandmarkCount() > 0 || heuristicScale(pinned, criteria) > 0;
+    }
+
+    /**
+     * Activa la heurística de puntos de referencia (ALT) con count aeropuertos de referencia y
+     * construye los índices de ambos criterios. Cada índice ocupa
+     * LandmarkIndex.estimateMemoryBytes(numVertices, count) bytes; LandmarkIndex.maxLandmarksForBudget
+     * sirve para elegir count según la memoria disponible. Los índices se reconstruyen en la
+     * primera consulta después de un cambio del grafo.
+     */
+    public synchronized void enableLandmarks(int count) {
+        if (count < 1) {
+            throw new IllegalArgumentException("Se requiere al menos un punto de referencia: " + count);
+        }
+        this.landmarkCount = count;
+        landmarkIndexes.clear();
+        getLandmarkIndex("distance");
+        getLandmarkIndex("duration");
+    }
+
+    public synchronized void disableLandmarks() {
+        this.landmarkCount = 0;
+        landmarkIndexes.clear();
+    }
+
+    public synchronized int getLandmarkCount() {
+        return landmarkCount;
+    }
+
+    /**
+     * Índice de puntos de referencia del criterio para el grafo actual (se reconstruye si está
+     * desactualizado), o null si los puntos de referencia están desactivados.
+     */
+    public LandmarkIndex getLandmarkIndex(String criteria) {
+        return landmarkIndex(pinDualWeights(), criteria);
+    }
+
+    /**
+     * Índice de puntos de referencia para la versión fijada por una consulta. Solo se guarda si no
+     * hay uno más nuevo, así que una consulta atrasada no reemplaza el índice de la versión actual.
+     */
+    private synchronized LandmarkIndex landmarkIndex(DualWeightSnapshot pinned, String criteria) {
+        if (landmarkCount == 0) {
+            return null;
+        }
+        String key = dualWeightCriteria(criteria).toLowerCase();
+        LandmarkIndex index = landmarkIndexes.get(key);
+        if (index == null || index.getVersion() != pinned.version) {
+            LandmarkIndex stored = index;
+            index = LandmarkIndex.build(pinned.csr, pinned.reverseIndex(), weightsForCriteria(pinned.csr, key), landmarkCount, pinned.version);
+            if (stored == null || stored.getVersion() < pinned.version) {
+                landmarkIndexes.put(key, index);
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Memoria total de los índices de puntos de referencia construidos, en bytes.
+     */
+    public synchronized long getLandmarkMemoryBytes() {
+        long total = 0;
+        for (LandmarkIndex index : landmarkIndexes.values()) {
+            total += index.getMemoryBytes();
+        }
+        return total;
+    }
+
+    /**
+     * Retorna todos los destinos alcanzables desde el origen, con la distancia mínima
+     * (peso del grafo) y la duración sobre ese camino, ordenados por distancia.
+     * Se apoya en el árbol de caminos más cortos del origen, que se construye con un único
+     * Dijkstra y luego se repara en cada cambio de arista (ver repairShortestPathTrees).
+     * El resultado se memoriza por origen hasta que cambie el grafo.
+     * Retorna un conjunto vacío si el origen no existe.
+     */
+    public synchronized ReachableDestinations reachableFrom(String originCode) {
+        DualWeightSnapshot pinned = pinDualWeights();
+        int source = pinned.graph.indexOf(originCode);
+        if (source == -1) {
+            return new ReachableDestinations(originCode, new int[0], new String[0], new double[0], new double[0]);
+        }
+        long version = pinned.version;
+        if (version != reachableCacheVersion) {
+            reachableCache.clear();
+            reachableCacheVersion = version;
+        }
+        ReachableDestinations cached = reachableCache.get(source);
+        if (cached != null) {
+            return cached;
+        }
+
+        CompressedSparseRowGraph csr = pinned.graph.getGraph();
+        DynamicShortestPathTree tree = shortestPathTrees.get(source);
+        if (tree == null || tree.getVersion() != version || tree.getNumVertices() != csr.getNumVertices()) {
+            tree = DynamicShortestPathTree.build(csr, csr.getDistances(), source, version);
+            shortestPathTrees.put(source, tree);
+        }
+        ReachableDestinations result = toReachableDestinations(originCode, tree, pinned.csr);
+        reachableCache.put(source, result);
+        return result;
+    }
+
+    /**
+     * Destinos del árbol ordenados por distancia, con la duración acumulada sobre el camino del árbol.
+     */
+    private ReachableDestinations toReachableDestinations(String originCode, DynamicShortestPathTree tree, CompressedSparseRowGraph dual) {
+        int n = tree.getNumVertices();
+        int source = tree.getSource();
+        List<Integer> reached = new ArrayList<>();
+        for (int v = 0; v < n; v++) {
+            if (v != source && tree.isReachable(v)) {
+                reached.add(v);
+            }
+        }
+        reached.sort((a, b) -> {
+            int cmp = Double.compare(tree.getDistance(a), tree.getDistance(b));
+            return cmp != 0 ? cmp : Integer.compare(a, b);
+        });
+
+        // Duración por vértice, memorizada subiendo por los padres hasta un vértice ya calculado.
+        double[] edgeDurations = dual.getDurations();
+        double[] durationByVertex = new double[n];
+        boolean[] known = new boolean[n];
+        known[source] = true;
+        int[] chain = new int[n];
+        int count = reached.size();
+        int[] indices = new int[count];
+        String[] codes = new String[count];
+        double[] distances = new double[count];
+        double[] durations = new double[count];
+        for (int i = 0; i < count; i++) {
+            int v = reached.get(i);
+            int length = 0;
+            for (int x = v; !known[x]; x = tree.getParent(x)) {
+                chain[length++] = x;
+            }
+            for (int j = length - 1; j >= 0; j--) {
+                int x = chain[j];
+                int p = tree.getParent(x);
+                durationByVertex[x] = durationByVertex[p] + edgeDurations[dual.findEdge(p, x)];
+                known[x] = true;
             }
-            visited[u] = true;
+            indices[i] = v;
+            codes[i] = internalGraph.getAirportCodeForIndex(v);
+            distances[i] = tree.getDistance(v);
+            durations[i] = durationByVertex[v];
+        }
+        return new ReachableDestinations(originCode, indices, codes, distances, durations);
+    }
 
-            if (u == endIndex) {
-                System.out.println("DEBUG getShortestPathDualWeights: ¡Vértice final " + internalGraph.getAirportCodeForIndex(endIndex) + " alcanzado! Distancia total por criterio: " + dist[endIndex]);
-                break;
+    /**
+     * Indica si existe alguna ruta (directa o con escalas) de origen a destino, en O(1) con el índice de
+     * componentes fuertemente conexas. El índice se construye en la primera consulta y luego se actualiza
+     * con cada arista o vértice añadido; solo se reconstruye si una arista fusiona componentes o si el
+     * grafo interno se modificó sin pasar por este servicio.
+     * @return false si alguno de los aeropuertos no existe.
+     */
+    public synchronized boolean isReachable(String originCode, String destinationCode) {
+        DualWeightSnapshot pinned = pinDualWeights();
+        int u = pinned.graph.indexOf(originCode);
+        int v = pinned.graph.indexOf(destinationCode);
+        if (u == -1 || v == -1) {
+            return false;
+        }
+        long version = pinned.version;
+        if (reachabilityIndex == null || reachabilityIndex.getVersion() != version
+                || reachabilityIndex.getNumVertices() <= Math.max(u, v)) {
+            reachabilityIndex = ReachabilityIndex.build(pinned.graph.getGraph(), version);
+        }
+        return reachabilityIndex.isReachable(u, v);
+    }
+
+    /**
+     * Tras añadir la arista u->v o vértices (u = -1 si no hubo arista nueva), actualiza el índice de
+     * alcanzabilidad si estaba al día; si no, lo descarta para reconstruirlo en la siguiente consulta.
+     */
+    private synchronized void updateReachability(long versionBefore, int u, int v) {
+        if (reachabilityIndex == null) {
+            return;
+        }
+        if (reachabilityIndex.getVersion() != versionBefore) {
+            reachabilityIndex = null;
+            return;
+        }
+        // Si la versión fijada ya incluye un cambio posterior, la actualización de ese cambio descarta el índice.
+        DualWeightSnapshot pinned = pinDualWeights();
+        long newVersion = pinned.version;
+        if (u == -1 && pinned.graph.getNumVertices() == reachabilityIndex.getNumVertices()) {
+            reachabilityIndex.revalidate(newVersion);
+            return;
+        }
+        reachabilityIndex.update(pinned.graph.getGraph(), u, v, newVersion);
+    }
+
+    /**
+     * Tras cambiar la arista u->v (u = -1 si solo cambiaron las duraciones), repara los árboles de
+     * caminos más cortos guardados en lugar de descartarlos; cada reparación solo recorre los vértices
+     * cuya distancia puede cambiar. Los árboles que no estaban al día se descartan.
+     */
+    private synchronized void repairShortestPathTrees(long versionBefore, int u, int v) {
+        if (shortestPathTrees.isEmpty()) {
+            return;
+        }
+        // CSR, índice inverso y versión de la misma versión fijada. Si ya incluye un cambio posterior
+        // al de u->v, la reparación de ese cambio descarta estos árboles.
+        DualWeightSnapshot pinned = pinDualWeights();
+        long newVersion = pinned.version;
+        CompressedSparseRowGraph csr = u == -1 ? null : pinned.graph.getGraph();
+        Iterator<DynamicShortestPathTree> it = shortestPathTrees.values().iterator();
+        while (it.hasNext()) {
+            DynamicShortestPathTree tree = it.next();
+            if (tree.getVersion() != versionBefore) {
+                it.remove();
+            } else if (csr == null) {
+                tree.revalidate(newVersion);
+            } else {
+                tree.update(csr, pinned.graph.getReverseIndex(), csr.getDistances(), u, v, newVersion);
             }
+        }
+    }
 
-            ArrayList<SinglyLinkedList> adjList = internalGraph.getAdjList();
-            SinglyLinkedList neighbors = adjList.get(u);
-            if (neighbors != null) {
-                System.out.println("DEBUG getShortestPathDualWeights: Procesando vecinos de " + internalGraph.getAirportCodeForIndex(u) + ":");
-                for (int i = 0; i < neighbors.size(); i++) {
-                    int[] edgeArray = (int[]) neighbors.get(i);
-                    int v = edgeArray[0];
+    /**
+     * Activa las jerarquías de contracción para findShortestRoute y las construye para ambos criterios.
+     * Si el grafo cambia, las consultas usan la búsqueda normal hasta que la jerarquía se reconstruya:
+     * con rebuildInBackground = true eso ocurre automáticamente en un hilo aparte; si no, al llamar
+     * rebuildContractionHierarchies().
+     */
+    public synchronized void enableContractionHierarchies(boolean rebuildInBackground) {
+        this.contractionHierarchyBackgroundRebuild = rebuildInBackground;
+        if (rebuildInBackground && contractionHierarchyExecutor == null) {
+            contractionHierarchyExecutor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "contraction-hierarchy-rebuild");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        rebuildContractionHierarchies();
+        this.contractionHierarchyMode = true;
+    }
 
-                    String edgeKey = internalGraph.getAirportCodeForIndex(u) + "-" + internalGraph.getAirportCodeForIndex(v);
-                    DualEdgeInfo dualInfo = dualWeightEdges.get(edgeKey);
+    public synchronized void disableContractionHierarchies() {
+        this.contractionHierarchyMode = false;
+        this.contractionHierarchyBackgroundRebuild = false;
+        if (contractionHierarchyExecutor != null) {
+            contractionHierarchyExecutor.shutdownNow();
+            contractionHierarchyExecutor = null;
+        }
+        contractionHierarchyGeneration++;
+        contractionHierarchies.clear();
+    }
 
-                    System.out.println(" DEBUG getShortestPathDualWeights: Vecino " + internalGraph.getAirportCodeForIndex(v) + " (Key: " + edgeKey + ")");
+    public boolean isContractionHierarchyMode() {
+        return contractionHierarchyMode;
+    }
 
-                    if (dualInfo == null) {
-                        System.out.println(" DEBUG getShortestPathDualWeights: ADVERTENCIA: No se encontró DualEdgeInfo para la clave " + edgeKey + ". Saltando arista.");
-                        continue;
-                    }
+    /**
+     * Reconstruye en el hilo actual las jerarquías de ambos criterios a partir del grafo actual.
+     */
+    public void rebuildContractionHierarchies() {
+        long generation = getContractionHierarchyGeneration();
+        DualWeightSnapshot pinned = pinDualWeights();
+        for (String criteria : new String[]{"distance", "duration"}) {
+            storeContractionHierarchy(criteria,
+                    ContractionHierarchy.build(pinned.csr, weightsForCriteria(pinned.csr, criteria), pinned.version), generation);
+        }
+    }
 
-                    double edgeWeightForCriteria;
-                    if (criteria.equalsIgnoreCase("distance")) {
-                        edgeWeightForCriteria = dualInfo.distance;
-                    } else if (criteria.equalsIgnoreCase("duration")) {
-                        edgeWeightForCriteria = dualInfo.duration;
-                    } else {
-                        System.err.println("DEBUG getShortestPathDualWeights: Criterio inválido: " + criteria);
-                        throw new IllegalArgumentException("Criterio inválido: " + criteria);
-                    }
+    private synchronized long getContractionHierarchyGeneration() {
+        return contractionHierarchyGeneration;
+    }
 
-                    System.out.println(" DEBUG getShortestPathDualWeights: Peso de la arista (" + criteria + "): " + edgeWeightForCriteria);
+    /**
+     * Guarda una jerarquía construida si las jerarquías no se desactivaron desde que empezó la
+     * construcción y no hay una de versión más nueva.
+     */
+    private synchronized void storeContractionHierarchy(String key, ContractionHierarchy hierarchy, long generation) {
+        if (generation != contractionHierarchyGeneration) {
+            return;
+        }
+        contractionHierarchies.merge(key, hierarchy, (old, fresh) -> fresh.getVersion() >= old.getVersion() ? fresh : old);
+    }
 
-                    if (!visited[v] && currentDist != Double.POSITIVE_INFINITY && currentDist + edgeWeightForCriteria < dist[v]) {
-                        dist[v] = currentDist + edgeWeightForCriteria;
-                        prev[v] = u;
-                        pq.add(new PathNode_Internal(v, dist[v]));
-                        System.out.println("    DEBUG getShortestPathDualWeights: Actualizando dist(" + internalGraph.getAirportCodeForIndex(v) + ") a " + dist[v] + ". Añadiendo a PQ. Prev: " + internalGraph.getAirportCodeForIndex(u));
-                    } else {
-                        System.out.println(" DEBUG getShortestPathDualWeights: No se actualiza dist(" + internalGraph.getAirportCodeForIndex(v) + "). Ya visitado o nueva dist " + (currentDist + edgeWeightForCriteria) + " no es menor que actual " + dist[v] + ".");
+    /**
+     * Jerarquía actual del criterio (puede estar desactualizada), o null si no se ha construido.
+     */
+    public ContractionHierarchy getContractionHierarchy(String criteria) {
+        return contractionHierarchies.get(dualWeightCriteria(criteria).toLowerCase());
+    }
+
+    /**
+     * Retorna la jerarquía del criterio si corresponde al grafo actual. Si está desactualizada
+     * retorna null y, en modo de reconstrucción en segundo plano, programa su reconstrucción
+     * sobre el CSR inmutable de la versión fijada por la consulta.
+     */
+    private ContractionHierarchy currentContractionHierarchy(DualWeightSnapshot pinned, String criteria) {
+        String key = criteria.toLowerCase();
+        ContractionHierarchy hierarchy = contractionHierarchies.get(key);
+        if (hierarchy != null && hierarchy.getVersion() == pinned.version) {
+            return hierarchy;
+        }
+        long generation = getContractionHierarchyGeneration();
+        ExecutorService executor = contractionHierarchyExecutor;
+        if (contractionHierarchyBackgroundRebuild && executor != null && contractionHierarchiesRebuilding.add(key)) {
+            CompressedSparseRowGraph csr = pinned.csr;
+            double[] weights = weightsForCriteria(csr, key);
+            try {
+                executor.execute(() -> {
+                    try {
+                        storeContractionHierarchy(key, ContractionHierarchy.build(csr, weights, pinned.version), generation);
+                    } finally {
+                        contractionHierarchiesRebuilding.remove(key);
                     }
+                });
+            } catch (RejectedExecutionException e) {
+                contractionHierarchiesRebuilding.remove(key);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Activa el modo de tablas entre todos los pares: shortestPath, getShortestPathDualWeights,
+     * y getPathDualWeight se responden desde matrices precalculadas.
+     * Las tablas se construyen la primera vez que se consultan con cada criterio.
+     */
+    public void enableAllPairsMode() {
+        enableAllPairsMode(ForkJoinPool.commonPool());
+    }
+
+    public void enableAllPairsMode(ForkJoinPool pool) {
+        if (pool == null) {
+            throw new IllegalArgumentException("El ForkJoinPool no puede ser nulo.");
+        }
+        this.allPairsPool = pool;
+        this.allPairsMode = true;
+    }
+
+    public synchronized void disableAllPairsMode() {
+        this.allPairsMode = false;
+        this.allPairsTables.clear();
+    }
+
+    public boolean isAllPairsMode() {
+        return allPairsMode;
+    }
+
+    /**
+     * Retorna la tabla entre todos los pares del criterio ("weight", "distance" o "duration"),
+     * reconstruyéndola completa si el grafo cambió por fuera de este servicio.
+     */
+    public synchronized AllPairsRouteTable getAllPairsTable(String criteria) {
+        if (!allPairsMode) {
+            throw new IllegalStateException("El modo de tablas entre todos los pares no está activo.");
+        }
+        String key = allPairsKey(criteria);
+        DualWeightSnapshot pinned = pinDualWeights();
+        long version = pinned.version;
+        AllPairsRouteTable table = allPairsTables.get(key);
+        if (table == null || table.getVersion() != version || table.getNumVertices() != pinned.graph.getNumVertices()) {
+            CompressedSparseRowGraph csr = csrForAllPairs(pinned, key);
+            table = AllPairsRouteTable.build(csr, primaryWeightsForAllPairs(csr, key), secondaryWeightsForAllPairs(csr, key), version, allPairsPool);
+            allPairsTables.put(key, table);
+        }
+        return table;
+    }
+
+    private static String dualWeightCriteria(String criteria) {
+        if (criteria.equalsIgnoreCase("distance") || criteria.equalsIgnoreCase("duration")) {
+            return criteria;
+        }
+        throw new IllegalArgumentException("Criterio inválido: " + criteria);
+    }
+
+    private static String allPairsKey(String criteria) {
+        if (criteria.equalsIgnoreCase("weight")) {
+            return "weight";
+        } else if (criteria.equalsIgnoreCase("distance")) {
+            return "distance";
+        } else if (criteria.equalsIgnoreCase("duration")) {
+            return "duration";
+        }
+        throw new IllegalArgumentException("Criterio inválido: " + criteria);
+    }
+
+    private static CompressedSparseRowGraph csrForAllPairs(DualWeightSnapshot pinned, String key) {
+        return key.equals("weight") ? pinned.graph.getGraph() : pinned.csr;
+    }
+
+    private static double[] primaryWeightsForAllPairs(CompressedSparseRowGraph csr, String key) {
+        return key.equals("duration") ? csr.getDurations() : csr.getDistances();
+    }
+
+    private static double[] secondaryWeightsForAllPairs(CompressedSparseRowGraph csr, String key) {
+        if (key.equals("weight")) {
+            return null;
+        }
+        return key.equals("distance") ? csr.getDurations() : csr.getDistances();
+    }
+
+    /**
+     * Peso actual de la arista u->v en cada tabla construida (infinito si no existe),
+     * para luego decidir qué orígenes hay que recalcular.
+     */
+    private synchronized Map<String, Double> edgeWeightsBeforeChange(int u, int v) {
+        Map<String, Double> weights = new HashMap<>();
+        if (!allPairsMode || allPairsTables.isEmpty() || u == -1 || v == -1) {
+            return weights;
+        }
+        DualWeightSnapshot pinned = pinDualWeights();
+        for (String key : allPairsTables.keySet()) {
+            weights.put(key, currentEdgeWeight(pinned, key, u, v));
+        }
+        return weights;
+    }
+
+    private static double currentEdgeWeight(DualWeightSnapshot pinned, String key, int u, int v) {
+        CompressedSparseRowGraph csr = csrForAllPairs(pinned, key);
+        int e = csr.findEdge(u, v);
+        if (e == -1) {
+            return Double.POSITIVE_INFINITY;
+        }
+        double w = primaryWeightsForAllPairs(csr, key)[e];
+        return Double.isNaN(w) ? Double.POSITIVE_INFINITY : w;
+    }
+
+    /**
+     * Tras cambiar la arista u->v, recalcula en cada tabla solo los orígenes afectados.
+     * Las tablas que no estaban al día o cuyo número de vértices cambió se descartan
+     * y se reconstruyen completas en la siguiente consulta.
+     */
+    private synchronized void repairAllPairsTables(long versionBefore, int u, int v, Map<String, Double> weightsBefore) {
+        if (!allPairsMode || allPairsTables.isEmpty()) {
+            return;
+        }
+        DualWeightSnapshot pinned = pinDualWeights();
+        long newVersion = pinned.version;
+        Iterator<Map.Entry<String, AllPairsRouteTable>> it = allPairsTables.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<String, AllPairsRouteTable> entry = it.next();
+            String key = entry.getKey();
+            AllPairsRouteTable table = entry.getValue();
+            if (table.getVersion() != versionBefore || table.getNumVertices() != pinned.graph.getNumVertices()
+                    || !weightsBefore.containsKey(key)) {
+                it.remove();
+                continue;
+            }
+            CompressedSparseRowGraph csr = csrForAllPairs(pinned, key);
+            int[] affected = table.affectedSources(u, v, weightsBefore.get(key), currentEdgeWeight(pinned, key, u, v));
+            table.recomputeSources(affected, csr, primaryWeightsForAllPairs(csr, key), secondaryWeightsForAllPairs(csr, key), newVersion);
+        }
+    }
+
+    /**
+     * Ruta más corta según el criterio ("distance" o "duration") con la distancia total,
+     * la duración total y el camino, obtenidos en una sola búsqueda: la tabla entre todos los pares
+     * o la jerarquía de contracción si están activas y al día; si no, A* cuando hay puntos de
+     * referencia o coordenadas suficientes, o Dijkstra bidireccional sobre el índice de aristas entrantes.
+     * @return entrada con reachable = false si no hay ruta, o null si algún código no existe.
+     */
+    public RouteCache.Entry findShortestRoute(String startCode, String endCode, String criteria) {
+        dualWeightCriteria(criteria);
+        // Índices, CSR e índice inverso salen de la misma versión fijada.
+        DualWeightSnapshot pinned = pinDualWeights();
+        int startIndex = pinned.graph.indexOf(startCode);
+        int endIndex = pinned.graph.indexOf(endCode);
+        if (startIndex == -1 || endIndex == -1) {
+            return null;
+        }
+        if (startIndex == endIndex) {
+            return new RouteCache.Entry(true, 0, 0, new String[]{startCode});
+        }
+        boolean byDistance = criteria.equalsIgnoreCase("distance");
+
+        if (allPairsMode) {
+            // Con el bloqueo del servicio: una reparación no cambia la tabla a mitad de la lectura.
+            synchronized (this) {
+                AllPairsRouteTable table = getAllPairsTable(dualWeightCriteria(criteria));
+                int[] path = table.getPath(startIndex, endIndex);
+                if (path == null) {
+                    return new RouteCache.Entry(false, 0, 0, null);
+                }
+                double cost = table.getCost(startIndex, endIndex);
+                double secondary = table.getSecondaryCost(startIndex, endIndex);
+                return new RouteCache.Entry(true, byDistance ? cost : secondary, byDistance ? secondary : cost, toCodes(path));
+            }
+        }
+
+        if (contractionHierarchyMode) {
+            ContractionHierarchy hierarchy = currentContractionHierarchy(pinned, criteria);
+            if (hierarchy != null) {
+                int[] pathEdges = hierarchy.query(startIndex, endIndex);
+                if (pathEdges == null) {
+                    return new RouteCache.Entry(false, 0, 0, null);
                 }
+                return toRouteEntry(hierarchy.getGraph(), startCode, pathEdges);
             }
         }
 
-        if (dist[endIndex] == Double.POSITIVE_INFINITY) {
-            System.out.println("DEBUG getShortestPathDualWeights: Vértice final " + internalGraph.getAirportCodeForIndex(endIndex) + " no alcanzado. Retornando null.");
+        CompressedSparseRowGraph csr = pinned.csr;
+        int[] pathEdges;
+        ShortestPathEngine.Heuristic heuristic = pointToPointHeuristic(pinned, criteria, startIndex, endIndex);
+        if (heuristic != null) {
+            ShortestPathEngine engine = ShortestPathEngine.forCurrentThread();
+            if (engine.runAStar(csr, weightsForCriteria(csr, criteria), startIndex, endIndex, heuristic) == Double.POSITIVE_INFINITY) {
+                return new RouteCache.Entry(false, 0, 0, null);
+            }
+            int[] vertices = engine.pathTo(endIndex);
+            pathEdges = new int[vertices.length - 1];
+            for (int i = 1; i < vertices.length; i++) {
+                pathEdges[i - 1] = engine.getPrevEdge(vertices[i]);
+            }
+        } else {
+            BidirectionalDijkstra search = BidirectionalDijkstra.forCurrentThread();
+            double cost = search.run(csr, pinned.reverseIndex(), weightsForCriteria(csr, criteria), startIndex, endIndex);
+            if (cost == Double.POSITIVE_INFINITY) {
+                return new RouteCache.Entry(false, 0, 0, null);
+            }
+            pathEdges = search.pathEdges();
+        }
+        return toRouteEntry(csr, startCode, pathEdges);
+    }
+
+    /**
+     * Rutas más cortas según el criterio ("distance" o "duration") para un lote de pares
+     * (originCodes[i], destinationCodes[i]): un Dijkstra por origen distinto, repartidos en pool.
+     * Los códigos que no existen dan consultas sin ruta en lugar de una excepción.
+     */
+    public BatchRouteResult findShortestRoutes(String[] originCodes, String[] destinationCodes, String criteria, ForkJoinPool pool) {
+        dualWeightCriteria(criteria);
+        if (originCodes.length != destinationCodes.length) {
+            throw new IllegalArgumentException("Los arreglos de orígenes y destinos deben tener el mismo largo: "
+                    + originCodes.length + " != " + destinationCodes.length);
+        }
+        DualWeightSnapshot pinned = pinDualWeights();
+        int[] origins = new int[originCodes.length];
+        int[] destinations = new int[destinationCodes.length];
+        for (int i = 0; i < origins.length; i++) {
+            origins[i] = pinned.graph.indexOf(originCodes[i]);
+            destinations[i] = pinned.graph.indexOf(destinationCodes[i]);
+        }
+        return BatchRouteResult.compute(pinned.graph, pinned.csr, criteria.equalsIgnoreCase("distance"), origins, destinations, pool);
+    }
+
+    /**
+     * Hasta k rutas sin ciclos de menor costo según el criterio ("distance" o "duration"),
+     * en orden, con su distancia y duración totales (algoritmo de Yen).
+     * @return lista vacía si no hay ruta, o null si algún código no existe.
+     */
+    public List<RouteCache.Entry> findKShortestRoutes(String startCode, String endCode, int k, String criteria) {
+        dualWeightCriteria(criteria);
+        DualWeightSnapshot pinned = pinDualWeights();
+        int startIndex = pinned.graph.indexOf(startCode);
+        int endIndex = pinned.graph.indexOf(endCode);
+        if (startIndex == -1 || endIndex == -1) {
+            return null;
+        }
+        CompressedSparseRowGraph csr = pinned.csr;
+        List<KShortestPaths.Path> paths = KShortestPaths.forCurrentThread()
+                .find(csr, pinned.reverseIndex(), weightsForCriteria(csr, criteria), startIndex, endIndex, k);
+        List<RouteCache.Entry> routes = new ArrayList<>(paths.size());
+        for (KShortestPaths.Path path : paths) {
+            routes.add(toRouteEntry(csr, startCode, path.getEdges()));
+        }
+        return routes;
+    }
+
+    /**
+     * Frente de Pareto de rutas entre dos aeropuertos sobre distancia, duración y cantidad de tramos:
+     * ninguna ruta retornada es peor que otra en los tres criterios a la vez. Se obtiene con una sola
+     * búsqueda multicriterio en lugar de un Dijkstra por criterio.
+     * @param maxLegs máximo de tramos por ruta.
+     * @return rutas ordenadas por distancia (vacío si no hay ruta) e indicación de si el frente se
+     *         truncó, o null si algún código no existe.
+     */
+    public ParetoRoutes<RouteCache.Entry> findParetoRoutes(String startCode, String endCode, int maxLegs) {
+        DualWeightSnapshot pinned = pinDualWeights();
+        int startIndex = pinned.graph.indexOf(startCode);
+        int endIndex = pinned.graph.indexOf(endCode);
+        if (startIndex == -1 || endIndex == -1) {
             return null;
         }
+        CompressedSparseRowGraph csr = pinned.csr;
+        ParetoRouteSearch search = ParetoRouteSearch.forCurrentThread();
+        List<ParetoRouteSearch.Route> front = search.search(csr, startIndex, endIndex, maxLegs, ParetoRouteSearch.DEFAULT_MAX_LABELS_PER_VERTEX);
+        List<RouteCache.Entry> routes = new ArrayList<>(front.size());
+        for (ParetoRouteSearch.Route route : front) {
+            routes.add(toRouteEntry(csr, startCode, route.getEdges()));
+        }
+        return new ParetoRoutes<>(routes, search.isTruncated());
+    }
 
+    /**
+     * Suma distancia y duración sobre las aristas del camino y arma la lista de códigos.
+     */
+    private RouteCache.Entry toRouteEntry(CompressedSparseRowGraph csr, String startCode, int[] pathEdges) {
         double totalDistance = 0;
         double totalDuration = 0;
-        int currentVertexIndex = endIndex;
-        Deque<Integer> pathStackForTraversal = new ArrayDeque<>();
+        String[] codes = new String[pathEdges.length + 1];
+        codes[0] = startCode;
+        for (int i = 0; i < pathEdges.length; i++) {
+            int e = pathEdges[i];
+            totalDistance += csr.distance(e);
+            totalDuration += csr.duration(e);
+            codes[i + 1] = internalGraph.getAirportCodeForIndex(csr.target(e));
+        }
+        return new RouteCache.Entry(true, totalDistance, totalDuration, codes);
+    }
 
-        System.out.println("DEBUG getShortestPathDualWeights: Reconstruyendo camino...");
-        while (currentVertexIndex != -1) {
-            System.out.println("DEBUG getShortestPathDualWeights: Añadiendo a pila de recorrido: " + internalGraph.getAirportCodeForIndex(currentVertexIndex));
-            pathStackForTraversal.push(currentVertexIndex);
-            if (currentVertexIndex == startIndex) break;
-            currentVertexIndex = prev[currentVertexIndex];
+    private String[] toCodes(int[] vertices) {
+        String[] codes = new String[vertices.length];
+        for (int i = 0; i < vertices.length; i++) {
+            codes[i] = internalGraph.getAirportCodeForIndex(vertices[i]);
         }
+        return codes;
+    }
+
+    public double[] getShortestPathDualWeights(String startCode, String endCode, String criteria) throws ListException {
 
-        if (pathStackForTraversal.isEmpty() || pathStackForTraversal.peek() != startIndex) {
-            System.out.println("DEBUG getShortestPathDualWeights: Fallo en la reconstrucción del camino.");
+        DualWeightSnapshot pinned = pinDualWeights();
+        int startIndex = pinned.graph.indexOf(startCode);
+        int endIndex = pinned.graph.indexOf(endCode);
+
+        if (startIndex == -1 || endIndex == -1) {
             return null;
         }
+        if (startIndex == endIndex) {
+            return new double[]{0, 0};
+        }
 
-        int prevVertexIndex = pathStackForTraversal.pop();
-        while (!pathStackForTraversal.isEmpty()) {
-            int nextVertexIndex = pathStackForTraversal.pop();
+        if (allPairsMode) {
+            synchronized (this) {
+                AllPairsRouteTable table = getAllPairsTable(dualWeightCriteria(criteria));
+                if (!table.isReachable(startIndex, endIndex)) {
+                    return null;
+                }
+                return new double[]{table.getCost(startIndex, endIndex), table.getSecondaryCost(startIndex, endIndex)};
+            }
+        }
 
-            String edgeKey = internalGraph.getAirportCodeForIndex(prevVertexIndex) + "-" + internalGraph.getAirportCodeForIndex(nextVertexIndex);
-            DualEdgeInfo dualInfo = dualWeightEdges.get(edgeKey);
+        CompressedSparseRowGraph csr = pinned.csr;
+        ShortestPathEngine engine = ShortestPathEngine.forCurrentThread();
 
-            System.out.println("DEBUG getShortestPathDualWeights: Procesando arista " + internalGraph.getAirportCodeForIndex(prevVertexIndex) + "->" + internalGraph.getAirportCodeForIndex(nextVertexIndex) + " (Key: " + edgeKey + ")");
+        // El detalle de la búsqueda queda en el RouteTracer del hilo, si hay uno asociado.
+        double total = runPointToPoint(engine, pinned, criteria, startIndex, endIndex);
+        if (total == Double.POSITIVE_INFINITY) {
+            return null;
+        }
 
-            if (dualInfo != null) {
-                totalDistance += dualInfo.distance;
-                totalDuration += dualInfo.duration;
-                System.out.println("DEBUG getShortestPathDualWeights: Añadiendo: Dist=" + dualInfo.distance + ", Dur=" + dualInfo.duration + ". Totales: Dist=" + totalDistance + ", Dur=" + totalDuration);
-            } else {
-                System.err.println("DEBUG getShortestPathDualWeights: ERROR FATAL: Ruta " + internalGraph.getAirportCodeForIndex(prevVertexIndex) + "->" + internalGraph.getAirportCodeForIndex(nextVertexIndex) + " encontrada por Dijkstra pero sin DualEdgeInfo. Esto indica un problema de sincronización de datos.");
+        double totalDistance = 0;
+        double totalDuration = 0;
+        int currentVertexIndex = endIndex;
+        while (currentVertexIndex != startIndex) {
+            int e = engine.getPrevEdge(currentVertexIndex);
+            if (e == -1) {
+                return null;
             }
-            prevVertexIndex = nextVertexIndex;
+            totalDistance += csr.distance(e);
+            totalDuration += csr.duration(e);
+            currentVertexIndex = engine.getPrevVertex(currentVertexIndex);
         }
 
         double[] result = new double[2];
@@ -268,16 +1179,16 @@ public class RouteGraphService {
             result[0] = totalDuration;
             result[1] = totalDistance;
         }
-        System.out.println("DEBUG getShortestPathDualWeights: Resultado final: [" + result[0] + ", " + result[1] + "]");
         return result;
     }
 
     public SinglyLinkedList getPathDualWeight(String startCode, String endCode, String criteria) throws ListException {
-        int startIndex = internalGraph.getIndexForAirportCode(startCode);
-        int endIndex = internalGraph.getIndexForAirportCode(endCode);
+        DualWeightSnapshot pinned = pinDualWeights();
+        int startIndex = pinned.graph.indexOf(startCode);
+        int endIndex = pinned.graph.indexOf(endCode);
 
         SinglyLinkedList pathList = new SinglyLinkedList();
-        if (startIndex == -1 || endIndex == -1 || internalGraph.getNumVertices() == 0) {
+        if (startIndex == -1 || endIndex == -1) {
             return pathList;
         }
         if (startIndex == endIndex) {
@@ -285,130 +1196,60 @@ public class RouteGraphService {
             return pathList;
         }
 
-        double[] dist = new double[internalGraph.getNumVertices()];
-        int[] prev = new int[internalGraph.getNumVertices()];
-        boolean[] visited = new boolean[internalGraph.getNumVertices()];
-
-        Arrays.fill(dist, Double.POSITIVE_INFINITY);
-        Arrays.fill(prev, -1);
-        Arrays.fill(visited, false);
-
-        // ¡Cambiado a PathNode_Internal!
-        PriorityQueue<PathNode_Internal> pq = new PriorityQueue<>(internalGraph.getNumVertices(),
-                Comparator.comparingDouble(n -> n.currentWeight));
-
-        dist[startIndex] = 0;
-        pq.add(new PathNode_Internal(startIndex, 0));
-
-        while (!pq.isEmpty()) {
-            PathNode_Internal current = pq.poll();
-            int u = current.vertexIndex;
-            double currentDist = current.currentWeight;
-
-            if (visited[u]) {
-                continue;
-            }
-            visited[u] = true;
-
-            if (u == endIndex) {
-                break;
+        if (allPairsMode) {
+            int[] path;
+            synchronized (this) {
+                path = getAllPairsTable(dualWeightCriteria(criteria)).getPath(startIndex, endIndex);
             }
-
-            ArrayList<SinglyLinkedList> adjList = internalGraph.getAdjList();
-            SinglyLinkedList neighbors = adjList.get(u);
-            if (neighbors != null) {
-                for (int i = 0; i < neighbors.size(); i++) {
-                    int[] edgeArray = (int[]) neighbors.get(i);
-                    int v = edgeArray[0];
-
-                    String edgeKey = internalGraph.getAirportCodeForIndex(u) + "-" + internalGraph.getAirportCodeForIndex(v);
-                    DualEdgeInfo dualInfo = dualWeightEdges.get(edgeKey);
-
-                    if (dualInfo == null) {
-                        continue;
-                    }
-
-                    double edgeWeightForCriteria;
-                    if (criteria.equalsIgnoreCase("distance")) {
-                        edgeWeightForCriteria = dualInfo.distance;
-                    } else if (criteria.equalsIgnoreCase("duration")) {
-                        edgeWeightForCriteria = dualInfo.duration;
-                    } else {
-                        throw new IllegalArgumentException("Criterio inválido: " + criteria);
-                    }
-
-                    if (!visited[v] && currentDist != Double.POSITIVE_INFINITY && currentDist + edgeWeightForCriteria < dist[v]) {
-                        dist[v] = currentDist + edgeWeightForCriteria;
-                        prev[v] = u;
-                        pq.add(new PathNode_Internal(v, dist[v]));
-                    }
+            if (path != null) {
+                for (int vertex : path) {
+                    pathList.add(internalGraph.getAirportCodeForIndex(vertex));
                 }
             }
+            return pathList;
         }
 
-        if (dist[endIndex] == Double.POSITIVE_INFINITY) {
-            return new SinglyLinkedList();
-        }
+        ShortestPathEngine engine = ShortestPathEngine.forCurrentThread();
 
-        int currentVertex = endIndex;
-        Deque<String> pathStack = new ArrayDeque<>();
-        while (currentVertex != -1) {
-            pathStack.push(internalGraph.getAirportCodeForIndex(currentVertex));
-            if (currentVertex == startIndex) break;
-            currentVertex = prev[currentVertex];
+        if (runPointToPoint(engine, pinned, criteria, startIndex, endIndex) == Double.POSITIVE_INFINITY) {
+            return new SinglyLinkedList();
         }
 
-        while (!pathStack.isEmpty()) {
-            pathList.add(pathStack.pop());
+        for (int vertex : engine.pathTo(endIndex)) {
+            pathList.add(internalGraph.getAirportCodeForIndex(vertex));
         }
         return pathList;
     }
 
     public void generateRandomDualWeightRoutes(int minRoutesPerAirport, int maxRoutesPerAirport, double minDistance, double maxDistance) throws ListException {
-        SinglyLinkedList allCodes = internalGraph.getAllAirportCodes();
-        if (allCodes.isEmpty() || allCodes.size() < 2) {
+        generateRandomDualWeightRoutes(minRoutesPerAirport, maxRoutesPerAirport, minDistance, maxDistance, new Random());
+    }
+
+    /**
+     * Igual que generateRandomDualWeightRoutes, con un generador propio (por ejemplo con semilla fija).
+     * Cada aeropuerto recibe destinos distintos tomados sin reintentos. Para redes grandes con
+     * distancias geográficas ver RouteNetworkGenerator.
+     */
+    public void generateRandomDualWeightRoutes(int minRoutesPerAirport, int maxRoutesPerAirport, double minDistance, double maxDistance, Random random) throws ListException {
+        String[] codes = internalGraph.getVertices();
+        if (codes.length < 2) {
             System.out.println("ADVERTENCIA: No hay suficientes aeropuertos cargados para generar rutas aleatorias.");
             return;
         }
 
-        java.util.Random random = new java.util.Random();
-
-        for (int k = 0; k < allCodes.size(); k++) {
-            String originCode = (String) allCodes.get(k);
+        DistinctIndexSampler sampler = new DistinctIndexSampler(codes.length, random);
+        int[] destinations = new int[codes.length];
+        for (int k = 0; k < codes.length; k++) {
             int routesToGenerate = random.nextInt(maxRoutesPerAirport - minRoutesPerAirport + 1) + minRoutesPerAirport;
-            int generatedCount = 0;
-            int attemptCount = 0;
-            final int MAX_ATTEMPTS_PER_ROUTE = 50;
-
-            while (generatedCount < routesToGenerate && attemptCount < allCodes.size() * MAX_ATTEMPTS_PER_ROUTE) {
-                String destinationCode = (String) allCodes.get(random.nextInt(allCodes.size()));
-                if (!originCode.equals(destinationCode)) {
-                    double distance = minDistance + (maxDistance - minDistance) * random.nextDouble();
-                    double duration = (distance / 5.0) + (random.nextDouble() * (distance / 10.0));
-
-                    try {
-                        addDualWeightRoute(originCode, destinationCode, distance, duration);
-                        generatedCount++;
-                    } catch (IllegalArgumentException | ListException e) {
-
-                    }
-                }
-                attemptCount++;
+            int count = sampler.sample(k, routesToGenerate, destinations);
+            for (int j = 0; j < count; j++) {
+                double distance = minDistance + (maxDistance - minDistance) * random.nextDouble();
+                double duration = (distance / 5.0) + (random.nextDouble() * (distance / 10.0));
+                addDualWeightRoute(codes[k], codes[destinations[j]], distance, duration);
             }
         }
     }
 
-    private static class PathNode_Internal {
-        public int vertexIndex;
-        public double currentWeight;
-
-        public PathNode_Internal(int vertexIndex, double currentWeight) {
-            this.vertexIndex = vertexIndex;
-            this.currentWeight = currentWeight;
-        }
-    }
-
-
     public String getGraphDetails() throws ListException {
         String result = "Grafo de Rutas (Vértices: " + internalGraph.getNumVertices() + "):\n";
         SinglyLinkedList allCodes = internalGraph.getAllAirportCodes();
@@ -427,8 +1268,9 @@ public class RouteGraphService {
                         int[] edgeArray = (int[]) connections.get(j);
                         int destIndex = edgeArray[0];
                         String destCode = internalGraph.getAirportCodeForIndex(destIndex);
-                        String edgeKey = originCode + "-" + destCode;
-                        DualEdgeInfo dualInfo = dualWeightEdges.get(edgeKey);
+                        DualEdgeInfo dualInfo = dualWeightEdges.contains(originIndex, destIndex)
+                                ? new DualEdgeInfo(dualWeightEdges.distance(originIndex, destIndex), dualWeightEdges.duration(originIndex, destIndex))
+                                : null;
 
                         if (!first) {
                             result += ", ";
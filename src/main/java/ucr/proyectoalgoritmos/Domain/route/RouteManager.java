@@ -6,13 +6,17 @@ import ucr.proyectoalgoritmos.Domain.aeropuetos.AirportManager;
 import ucr.proyectoalgoritmos.Domain.list.ListException;
 import ucr.proyectoalgoritmos.Domain.list.SinglyLinkedList;
 import ucr.proyectoalgoritmos.graph.DirectedSinglyLinkedListGraph;
+import ucr.proyectoalgoritmos.graph.ParetoRouteSearch;
 
+import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
 import java.io.Reader;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
 
 public class RouteManager {
 
@@ -23,11 +27,16 @@ public class RouteManager {
     private Gson gson;
     private static RouteManager instance;
 
+    // Criterio usado en la caché para el peso entero de calculateShortestRoute.
+    private static final String WEIGHT_CRITERIA = "weight";
+    private final RouteCache routeCache;
+
 
     public RouteManager(AirportManager airportManager) {
         this.airportManager = airportManager;
 
         this.routeService = new RouteGraphService(0);
+        this.routeCache = new RouteCache();
         // Inicializa Gson con formato bonito para depuración.
         this.gson = new GsonBuilder().setPrettyPrinting().create();
     }
@@ -38,32 +47,18 @@ public class RouteManager {
      * @throws IOException Si ocurre un error al leer el archivo.
      */
     public void loadRoutesFromJson(String filePath) throws IOException {
-        try (Reader reader = new FileReader(filePath)) {
-            RouteListWrapper wrapper = gson.fromJson(reader, RouteListWrapper.class);
+        try (Reader reader = new BufferedReader(new FileReader(filePath))) {
+            // Lectura por tokens a arreglos primitivos; todo el archivo se publica como una sola versión del grafo.
+            RouteBulkLoader routes = RouteBulkLoader.parse(reader);
 
-            if (wrapper == null || wrapper.getRoutes() == null) {
+            if (routes.size() == 0) {
                 System.err.println("Advertencia: No se encontraron rutas en el archivo JSON o el formato es incorrecto.");
                 return;
             }
 
-            List<Route> loadedRoutes = wrapper.getRoutes();
-
-            for (Route route : loadedRoutes) {
-                try {
-
-                    routeService.addDualWeightRoute(
-                            route.getOrigin_airport_code(),
-                            route.getDestination_airport_code(),
-                            route.getDistance(),
-                            route.getDuration()
-                    );
-                    routeService.addVertex(route.getOrigin_airport_code());
-                    routeService.addVertex(route.getDestination_airport_code());
-
-                } catch (ListException | IllegalArgumentException e) {
-                    System.err.println("Error al procesar ruta: " + route.getOrigin_airport_code() + "->" + route.getDestination_airport_code() + ": " + e.getMessage());
-                }
-            }
+            routeService.addDualWeightRoutes(routes);
+        } catch (ListException e) {
+            System.err.println("Error al publicar las rutas cargadas desde '" + filePath + "': " + e.getMessage());
         } catch (IOException e) {
             System.err.println("Error al cargar el archivo de rutas desde '" + filePath + "'. Asegúrese de que la ruta es correcta y el archivo existe.");
             throw e;
@@ -75,6 +70,14 @@ public class RouteManager {
         routeService.addVertex(airportCode);
     }
 
+    /**
+     * Registra las coordenadas de un aeropuerto para que las rutas más cortas punto a punto
+     * se busquen con A* (heurística de distancia de gran círculo).
+     */
+    public void setAirportCoordinates(String airportCode, double latitude, double longitude) throws ListException {
+        routeService.setAirportCoordinates(airportCode, latitude, longitude);
+    }
+
 
     public DirectedSinglyLinkedListGraph getGraph() {
 
@@ -83,9 +86,83 @@ public class RouteManager {
 
 
     public int calculateShortestRoute(String startCode, String endCode) throws ListException {
-        return routeService.shortestPath(startCode, endCode);
+        long graphVersion = routeService.getGraphVersion();
+        RouteCache.Entry cached = routeCache.get(startCode, endCode, WEIGHT_CRITERIA, graphVersion);
+        if (cached != null) {
+            return cached.reachable ? (int) cached.distance : Integer.MAX_VALUE;
+        }
+        int shortest = routeService.shortestPath(startCode, endCode);
+        routeCache.put(startCode, endCode, WEIGHT_CRITERIA, graphVersion,
+                new RouteCache.Entry(shortest != Integer.MAX_VALUE, shortest, Double.NaN, null));
+        return shortest;
+    }
+
+    /**
+     * Destinos alcanzables desde el origen con su distancia y duración (un solo Dijkstra, memorizado por origen).
+     */
+    public ReachableDestinations reachableFrom(String originCode) {
+        return routeService.reachableFrom(originCode);
+    }
+
+    /**
+     * Precalcula las rutas entre todos los pares de aeropuertos (Dijkstra por origen en paralelo)
+     * para que las consultas posteriores se respondan desde tablas en O(1) o O(largo del camino).
+     */
+    public void enableAllPairsMode() {
+        routeService.enableAllPairsMode();
+    }
+
+    public void disableAllPairsMode() {
+        routeService.disableAllPairsMode();
+    }
+
+    /**
+     * Construye jerarquías de contracción (una por criterio) para responder findShortestRouteDetails.
+     * Mientras una jerarquía no corresponda al grafo actual se usa la búsqueda normal; con
+     * rebuildInBackground = true la jerarquía se reconstruye en otro hilo sin bloquear las consultas.
+     */
+    public void enableContractionHierarchies(boolean rebuildInBackground) {
+        routeService.enableContractionHierarchies(rebuildInBackground);
     }
 
+    public void disableContractionHierarchies() {
+        routeService.disableContractionHierarchies();
+    }
+
+    /**
+     * Activa A* con puntos de referencia (ALT) para las consultas de rutas, con count aeropuertos
+     * de referencia por criterio. Ver LandmarkIndex.maxLandmarksForBudget para elegir count.
+     */
+    public void enableLandmarks(int count) {
+        routeService.enableLandmarks(count);
+    }
+
+    public void disableLandmarks() {
+        routeService.disableLandmarks();
+    }
+
+    /**
+     * Memoria ocupada por los índices de puntos de referencia, en bytes.
+     */
+    public long getLandmarkMemoryBytes() {
+        return routeService.getLandmarkMemoryBytes();
+    }
+
+    /**
+     * Caché de rutas más cortas, expuesta para consultar sus contadores (aciertos, fallos, desalojos).
+     */
+    public RouteCache getRouteCache() {
+        return routeCache;
+    }
+
+
+    /**
+     * Indica si hay alguna ruta, directa o con escalas, entre dos aeropuertos. Es una consulta O(1)
+     * sobre el índice de componentes fuertemente conexas del grafo, sin ejecutar Dijkstra.
+     */
+    public boolean isReachable(String originCode, String destinationCode) {
+        return routeService.isReachable(originCode, destinationCode);
+    }
 
     public boolean checkRouteExists(String originCode, String destinationCode) {
 
@@ -151,28 +228,136 @@ public class RouteManager {
             throw new IllegalArgumentException("El aeropuerto de destino '" + destinationCode + "' no existe en el grafo.");
         }
 
-        double[] allWeights = routeService.getShortestPathDualWeights(originCode, destinationCode, criteria);
-
-        if (allWeights == null) {
+        long graphVersion = routeService.getGraphVersion();
+        RouteCache.Entry route = routeCache.get(originCode, destinationCode, criteria, graphVersion);
+        if (route == null) {
+            if (!criteria.equalsIgnoreCase("distance") && !criteria.equalsIgnoreCase("duration")) {
+                throw new IllegalArgumentException("Criterio inválido. Use 'distance' o 'duration'.");
+            }
+            // Pesos y camino salen de la misma búsqueda.
+            route = routeService.findShortestRoute(originCode, destinationCode, criteria);
+            if (route == null) {
+                // El aeropuerto se está agregando en otro hilo: containsVertex ya lo ve en el mapa de códigos,
+                // pero la versión fijada para la búsqueda todavía no lo incluye. Se trata como sin ruta.
+                return null;
+            }
+            routeCache.put(originCode, destinationCode, criteria, graphVersion, route);
+        }
+        if (!route.reachable) {
             return null;
         }
+        return toResult(route);
+    }
+
+    /**
+     * Par origen/destino de una consulta en lote.
+     */
+    public static class RoutePair {
+        public final String originCode;
+        public final String destinationCode;
+
+        public RoutePair(String originCode, String destinationCode) {
+            this.originCode = originCode;
+            this.destinationCode = destinationCode;
+        }
 
-        SinglyLinkedList path = routeService.getPathDualWeight(originCode, destinationCode, criteria);
+        @Override
+        public String toString() {
+            return originCode + "->" + destinationCode;
+        }
+    }
 
-        double totalCalculatedDistance;
-        double totalCalculatedDuration;
+    /**
+     * Rutas más cortas para muchos pares a la vez según el criterio ("distance" o "duration").
+     * Las consultas se agrupan por origen, cada origen ejecuta un solo Dijkstra y los orígenes se
+     * resuelven en paralelo en el ForkJoinPool común. La posición i del resultado corresponde a
+     * queries.get(i); los aeropuertos inexistentes dan consultas sin ruta. No usa la caché de rutas.
+     */
+    public BatchRouteResult calculateShortestRoutes(List<RoutePair> queries, String criteria) {
+        if (queries == null) {
+            throw new IllegalArgumentException("La lista de consultas no puede ser nula.");
+        }
+        if (criteria == null || (!criteria.equalsIgnoreCase("distance") && !criteria.equalsIgnoreCase("duration"))) {
+            throw new IllegalArgumentException("Criterio inválido. Use 'distance' o 'duration'.");
+        }
+        String[] origins = new String[queries.size()];
+        String[] destinations = new String[queries.size()];
+        for (int i = 0; i < origins.length; i++) {
+            RoutePair pair = queries.get(i);
+            origins[i] = pair.originCode;
+            destinations[i] = pair.destinationCode;
+        }
+        return routeService.findShortestRoutes(origins, destinations, criteria, ForkJoinPool.commonPool());
+    }
 
-        if (criteria.equalsIgnoreCase("distance")) {
-            totalCalculatedDistance = allWeights[0];
-            totalCalculatedDuration = allWeights[1];
-        } else if (criteria.equalsIgnoreCase("duration")) {
-            totalCalculatedDuration = allWeights[0];
-            totalCalculatedDistance = allWeights[1];
-        } else {
+    /**
+     * Las k mejores rutas sin ciclos entre dos aeropuertos según el criterio ("distance" o "duration"),
+     * de menor a mayor costo, con distancia y duración. Sirve para sugerir alternativas cuando la
+     * ruta principal no tiene vuelos disponibles.
+     * @return lista vacía si no hay ruta.
+     */
+    public List<ShortestPathResult> findKShortestRoutes(String originCode, String destinationCode, int k, String criteria) throws ListException {
+        if (originCode == null || originCode.isEmpty() || destinationCode == null || destinationCode.isEmpty()) {
+            throw new IllegalArgumentException("Los códigos de aeropuerto no pueden ser nulos o vacíos.");
+        }
+        if (!routeService.containsVertex(originCode)) {
+            throw new IllegalArgumentException("El aeropuerto de origen '" + originCode + "' no existe en el grafo.");
+        }
+        if (!routeService.containsVertex(destinationCode)) {
+            throw new IllegalArgumentException("El aeropuerto de destino '" + destinationCode + "' no existe en el grafo.");
+        }
+        if (!criteria.equalsIgnoreCase("distance") && !criteria.equalsIgnoreCase("duration")) {
             throw new IllegalArgumentException("Criterio inválido. Use 'distance' o 'duration'.");
         }
 
-        return new ShortestPathResult(path, totalCalculatedDistance, totalCalculatedDuration);
+        List<ShortestPathResult> results = new ArrayList<>();
+        List<RouteCache.Entry> routes = routeService.findKShortestRoutes(originCode, destinationCode, k, criteria);
+        if (routes == null) {
+            return results;
+        }
+        for (RouteCache.Entry route : routes) {
+            results.add(toResult(route));
+        }
+        return results;
+    }
+
+    /**
+     * Rutas no dominadas entre dos aeropuertos considerando a la vez distancia, duración y cantidad
+     * de tramos (a lo sumo ParetoRouteSearch.DEFAULT_MAX_LEGS), ordenadas por distancia.
+     * @return frente vacío si no hay ruta; isTruncated() indica si puede faltar alguna ruta.
+     */
+    public ParetoRoutes<ShortestPathResult> findParetoRoutes(String originCode, String destinationCode) throws ListException {
+        return findParetoRoutes(originCode, destinationCode, ParetoRouteSearch.DEFAULT_MAX_LEGS);
+    }
+
+    public ParetoRoutes<ShortestPathResult> findParetoRoutes(String originCode, String destinationCode, int maxLegs) throws ListException {
+        if (originCode == null || originCode.isEmpty() || destinationCode == null || destinationCode.isEmpty()) {
+            throw new IllegalArgumentException("Los códigos de aeropuerto no pueden ser nulos o vacíos.");
+        }
+        if (!routeService.containsVertex(originCode)) {
+            throw new IllegalArgumentException("El aeropuerto de origen '" + originCode + "' no existe en el grafo.");
+        }
+        if (!routeService.containsVertex(destinationCode)) {
+            throw new IllegalArgumentException("El aeropuerto de destino '" + destinationCode + "' no existe en el grafo.");
+        }
+
+        ParetoRoutes<RouteCache.Entry> front = routeService.findParetoRoutes(originCode, destinationCode, maxLegs);
+        if (front == null) {
+            return new ParetoRoutes<>(new ArrayList<>(), false);
+        }
+        List<ShortestPathResult> results = new ArrayList<>(front.size());
+        for (RouteCache.Entry route : front.getRoutes()) {
+            results.add(toResult(route));
+        }
+        return new ParetoRoutes<>(results, front.isTruncated());
+    }
+
+    private static ShortestPathResult toResult(RouteCache.Entry route) throws ListException {
+        SinglyLinkedList path = new SinglyLinkedList();
+        for (String code : route.path) {
+            path.add(code);
+        }
+        return new ShortestPathResult(path, route.distance, route.duration);
     }
 
 
@@ -0,0 +1,290 @@
+package ucr.proyectoalgoritmos.Domain.route;
+
+import ucr.proyectoalgoritmos.Domain.list.ListException;
+import ucr.proyectoalgoritmos.graph.EdgeWeightMap;
+import ucr.proyectoalgoritmos.util.GeoUtility;
+
+import java.util.Random;
+
+/**
+ * Genera redes de rutas sintéticas de tipo hub-and-spoke, reproducibles a partir de una semilla,
+ * para pruebas de carga y mediciones (ver RoutingBenchmark en las pruebas).
+ *
+ * Una fracción de los aeropuertos son hubs repartidos por el mundo; el resto se agrupa alrededor
+ * de un hub propio. La red siempre incluye, en ambos sentidos: un anillo entre hubs, cada aeropuerto
+ * con su hub y cada hub con sus hubs más cercanos, así que es fuertemente conexa. Las rutas restantes
+ * hasta routeCount son regionales (entre aeropuertos del mismo hub), hacia un hub vecino o de largo
+ * alcance entre hubs. La distancia es la de gran círculo y la duración se estima con una velocidad
+ * de crucero más un tiempo fijo por vuelo.
+ */
+public class RouteNetworkGenerator {
+
+    private static final double CRUISE_SPEED_KMH = 800.0;
+    private static final int GROUND_MINUTES = 30;
+    // Desviación, en grados, de la posición de un aeropuerto respecto de su hub.
+    private static final double REGION_SPREAD_DEGREES = 4.0;
+
+    private final long seed;
+    private final int airportCount;
+    private final int routeCount;
+    private double hubFraction;
+    private int hubNeighbours;
+
+    public RouteNetworkGenerator(long seed, int airportCount, int routeCount) {
+        if (airportCount < 2) {
+            throw new IllegalArgumentException("Se necesitan al menos 2 aeropuertos: " + airportCount);
+        }
+        if (routeCount < 0) {
+            throw new IllegalArgumentException("La cantidad de rutas no puede ser negativa: " + routeCount);
+        }
+        this.seed = seed;
+        this.airportCount = airportCount;
+        this.routeCount = routeCount;
+        this.hubFraction = 0.02;
+        this.hubNeighbours = 8;
+    }
+
+    /**
+     * Fracción de aeropuertos que son hubs (por defecto 0.02; siempre hay al menos 2).
+     */
+    public RouteNetworkGenerator setHubFraction(double hubFraction) {
+        if (hubFraction <= 0 || hubFraction > 1) {
+            throw new IllegalArgumentException("La fracción de hubs debe estar en (0, 1]: " + hubFraction);
+        }
+        this.hubFraction = hubFraction;
+        return this;
+    }
+
+    /**
+     * Hubs más cercanos con los que se conecta cada hub (por defecto 8).
+     */
+    public RouteNetworkGenerator setHubNeighbours(int hubNeighbours) {
+        if (hubNeighbours < 0) {
+            throw new IllegalArgumentException("La cantidad de hubs vecinos no puede ser negativa: " + hubNeighbours);
+        }
+        this.hubNeighbours = hubNeighbours;
+        return this;
+    }
+
+    /**
+     * Código de aeropuerto de tres letras o más para un índice: AAA, AAB, ..., ZZZ, AAAA, ...
+     */
+    public static String codeFor(int index) {
+        int length = 3;
+        int first = 0;
+        int block = 26 * 26 * 26;
+        while (index - first >= block) {
+            first += block;
+            block *= 26;
+            length++;
+        }
+        int value = index - first;
+        char[] letters = new char[length];
+        for (int i = length - 1; i >= 0; i--) {
+            letters[i] = (char) ('A' + value % 26);
+            value /= 26;
+        }
+        return new String(letters);
+    }
+
+    public Network generate() {
+        Random random = new Random(seed);
+        int n = airportCount;
+        int hubs = (int) Math.max(2, Math.min(n, Math.round(n * hubFraction)));
+        String[] codes = new String[n];
+        double[] latitude = new double[n];
+        double[] longitude = new double[n];
+        int[] home = new int[n];
+
+        // Los hubs son los primeros índices; el resto se ubica cerca de un hub elegido al azar.
+        for (int i = 0; i < n; i++) {
+            codes[i] = codeFor(i);
+            if (i < hubs) {
+                home[i] = i;
+                latitude[i] = -50 + 115 * random.nextDouble();
+                longitude[i] = -180 + 360 * random.nextDouble();
+            } else {
+                int hub = random.nextInt(hubs);
+                home[i] = hub;
+                latitude[i] = Math.max(-85, Math.min(85, latitude[hub] + random.nextGaussian() * REGION_SPREAD_DEGREES));
+                longitude[i] = wrapLongitude(longitude[hub] + random.nextGaussian() * REGION_SPREAD_DEGREES);
+            }
+        }
+
+        // Aeropuertos de cada hub agrupados con un conteo: spokes[spokeStart[h] .. spokeStart[h + 1]].
+        int[] spokeStart = new int[hubs + 1];
+        for (int i = hubs; i < n; i++) {
+            spokeStart[home[i] + 1]++;
+        }
+        for (int h = 0; h < hubs; h++) {
+            spokeStart[h + 1] += spokeStart[h];
+        }
+        int[] spokes = new int[n - hubs];
+        int[] fill = new int[hubs];
+        System.arraycopy(spokeStart, 0, fill, 0, hubs);
+        for (int i = hubs; i < n; i++) {
+            spokes[fill[home[i]]++] = i;
+        }
+
+        Builder builder = new Builder(codes, latitude, longitude, routeCount);
+        for (int i = 0; i < n; i++) {
+            builder.routes.idOf(codes[i]);
+        }
+        for (int h = 0; h < hubs; h++) {
+            builder.addBothWays(h, (h + 1) % hubs);
+        }
+        for (int i = hubs; i < n; i++) {
+            builder.addBothWays(i, home[i]);
+        }
+        int[][] nearestHubs = nearestHubs(latitude, longitude, hubs, Math.min(hubNeighbours, hubs - 1));
+        for (int h = 0; h < hubs; h++) {
+            for (int neighbour : nearestHubs[h]) {
+                builder.addBothWays(h, neighbour);
+            }
+        }
+
+        long maxAttempts = 4L * routeCount + 1000;
+        for (long attempt = 0; attempt < maxAttempts && builder.routes.size() < routeCount; attempt++) {
+            double kind = random.nextDouble();
+            if (n == hubs || kind >= 0.75) {
+                builder.addBothWays(random.nextInt(hubs), random.nextInt(hubs));
+                continue;
+            }
+            int spoke = spokes[random.nextInt(spokes.length)];
+            int hub = home[spoke];
+            if (kind < 0.45) {
+                builder.addBothWays(spoke, spokes[spokeStart[hub] + random.nextInt(spokeStart[hub + 1] - spokeStart[hub])]);
+            } else if (nearestHubs[hub].length > 0) {
+                builder.addBothWays(spoke, nearestHubs[hub][random.nextInt(nearestHubs[hub].length)]);
+            }
+        }
+        return new Network(builder.routes, codes, latitude, longitude, hubs);
+    }
+
+    private static double wrapLongitude(double longitude) {
+        double wrapped = (longitude + 180) % 360;
+        return (wrapped < 0 ? wrapped + 360 : wrapped) - 180;
+    }
+
+    /**
+     * Para cada hub, los k hubs más cercanos por distancia de gran círculo (selección parcial, O(hubs^2 * k)).
+     */
+    private static int[][] nearestHubs(double[] latitude, double[] longitude, int hubs, int k) {
+        int[][] nearest = new int[hubs][];
+        double[] distance = new double[hubs];
+        int[] candidates = new int[hubs];
+        for (int h = 0; h < hubs; h++) {
+            int count = 0;
+            for (int other = 0; other < hubs; other++) {
+                if (other != h) {
+                    distance[other] = GeoUtility.haversineKm(latitude[h], longitude[h], latitude[other], longitude[other]);
+                    candidates[count++] = other;
+                }
+            }
+            int take = Math.min(k, count);
+            for (int i = 0; i < take; i++) {
+                int best = i;
+                for (int j = i + 1; j < count; j++) {
+                    if (distance[candidates[j]] < distance[candidates[best]]) {
+                        best = j;
+                    }
+                }
+                int swap = candidates[i];
+                candidates[i] = candidates[best];
+                candidates[best] = swap;
+            }
+            nearest[h] = new int[take];
+            System.arraycopy(candidates, 0, nearest[h], 0, take);
+        }
+        return nearest;
+    }
+
+    private static class Builder {
+        private final String[] codes;
+        private final double[] latitude;
+        private final double[] longitude;
+        private final RouteBulkLoader routes;
+        private final EdgeWeightMap added;
+
+        Builder(String[] codes, double[] latitude, double[] longitude, int expectedRoutes) {
+            this.codes = codes;
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.routes = new RouteBulkLoader();
+            this.added = new EdgeWeightMap(expectedRoutes);
+        }
+
+        void addBothWays(int u, int v) {
+            if (u == v) {
+                return;
+            }
+            double km = GeoUtility.haversineKm(latitude[u], longitude[u], latitude[v], longitude[v]);
+            int distance = (int) Math.max(1, Math.round(km));
+            int duration = GROUND_MINUTES + (int) Math.round(km / CRUISE_SPEED_KMH * 60);
+            add(u, v, distance, duration);
+            add(v, u, distance, duration);
+        }
+
+        private void add(int u, int v, int distance, int duration) {
+            if (added.put(u, v, distance, duration)) {
+                routes.addRoute(codes[u], codes[v], distance, duration);
+            }
+        }
+    }
+
+    /**
+     * Red generada: aeropuertos (el índice i tiene el código codeFor(i); los primeros getHubCount()
+     * son hubs) con sus coordenadas y las rutas sin repetir, listas para RouteGraphService.
+     */
+    public static class Network {
+        private final RouteBulkLoader routes;
+        private final String[] codes;
+        private final double[] latitude;
+        private final double[] longitude;
+        private final int hubCount;
+
+        private Network(RouteBulkLoader routes, String[] codes, double[] latitude, double[] longitude, int hubCount) {
+            this.routes = routes;
+            this.codes = codes;
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.hubCount = hubCount;
+        }
+
+        public int getAirportCount() { return codes.length; }
+        public int getHubCount() { return hubCount; }
+        public int getRouteCount() { return routes.size(); }
+        public String getCode(int airport) { return codes[airport]; }
+        public double getLatitude(int airport) { return latitude[airport]; }
+        public double getLongitude(int airport) { return longitude[airport]; }
+
+        /**
+         * Rutas en arreglos primitivos; los ids de código coinciden con los índices de aeropuerto.
+         */
+        public RouteBulkLoader getRoutes() { return routes; }
+
+        /**
+         * Carga las rutas en un solo lote y registra las coordenadas de cada aeropuerto (para A*).
+         */
+        public void loadInto(RouteGraphService service) throws ListException {
+            service.addDualWeightRoutes(routes);
+            for (int i = 0; i < codes.length; i++) {
+                service.setAirportCoordinates(codes[i], latitude[i], longitude[i]);
+            }
+        }
+
+        /**
+         * Aristas {origen, destino, distancia} con índices de aeropuerto, en el formato de Dijkstra.dijkstra.
+         */
+        public int[][] toEdgeArray() {
+            int[][] edges = new int[routes.size()][];
+            int[] origins = routes.getOrigins();
+            int[] destinations = routes.getDestinations();
+            int[] distances = routes.getDistances();
+            for (int i = 0; i < edges.length; i++) {
+                edges[i] = new int[]{origins[i], destinations[i], distances[i]};
+            }
+            return edges;
+        }
+    }
+}
@@ -0,0 +1,613 @@
+package ucr.proyectoalgoritmos.UtilJson;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import ucr.proyectoalgoritmos.Domain.Circular.CircularDoublyLinkedList;
+import ucr.proyectoalgoritmos.Domain.flight.Flight;
+import ucr.proyectoalgoritmos.Domain.list.ListException;
+import ucr.proyectoalgoritmos.Domain.list.Node;
+import ucr.proyectoalgoritmos.Domain.passenger.Passenger;
+
+import java.io.BufferedReader;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Diario de cambios de los vuelos: en lugar de reescribir flights.json completo, cada cambio se agrega
+ * como un registro JSON de una línea al final de flights.journal (crear, actualizar, cambio de estado,
+ * horario u otro dato del vuelo, pasajero agregado o quitado, eliminar). Los registros se acumulan en memoria y un hilo en
+ * segundo plano los escribe juntos con un solo fsync (sync), así que el costo de guardar depende de
+ * cuántos cambios hay y no del tamaño del horario.
+ *
+ * Al iniciar, recover lee la última instantánea (flights.snapshot.json) y aplica los registros del
+ * diario en orden. Mientras no exista una instantánea se parte de flights.json, que el diario nunca
+ * reescribe: ese archivo sigue siendo el de FlightJson, con todos sus campos. Cuando el diario acumula suficientes registros, el compactador lo renombra a
+ * flights.journal.compacting, abre uno nuevo, escribe una instantánea nueva con la lista actual y
+ * borra el segmento renombrado. Los registros guardan el valor final (no diferencias), así que aplicar
+ * de nuevo un registro que ya está en la instantánea no cambia el resultado; por eso una caída en
+ * cualquier punto de la compactación se recupera leyendo instantánea, segmento renombrado y diario.
+ *
+ * El avión asignado no se guarda en el diario ni en la instantánea: es estado del simulador.
+ */
+public class FlightJournal implements FlightPersistence {
+
+    public static final long DEFAULT_SYNC_INTERVAL_MILLIS = 200;
+    public static final long DEFAULT_COMPACT_INTERVAL_MILLIS = 30_000;
+    /** Registros en el diario a partir de los cuales se compacta. */
+    public static final int DEFAULT_COMPACT_THRESHOLD = 2_000;
+    public static final String DEFAULT_BASE_PATH = FlightJson.FILE_PATH;
+    public static final String DEFAULT_SNAPSHOT_PATH = "src/main/resources/flights.snapshot.json";
+    public static final String DEFAULT_JOURNAL_PATH = "src/main/resources/flights.journal";
+
+    static final String CREATE = "CREATE";
+    static final String UPDATE = "UPDATE";
+    static final String STATUS = "STATUS";
+    static final String PASSENGER_ADD = "PASSENGER_ADD";
+    static final String PASSENGER_REMOVE = "PASSENGER_REMOVE";
+    static final String REMOVE = "REMOVE";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    static {
+        MAPPER.registerModule(new JavaTimeModule());
+        MAPPER.configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false);
+        MAPPER.addMixIn(Flight.class, FlightRecordMixin.class);
+    }
+
+    // Los pasajeros se escriben aparte (solo id, nombre y nacionalidad); el avión y los campos derivados no se guardan.
+    @JsonIgnoreProperties(value = {"passengers", "airplane", "full", "scheduledDepartureTime", "passengersDisplay"},
+            ignoreUnknown = true)
+    private abstract static class FlightRecordMixin {
+    }
+
+    private final Path baseFile;
+    private final Path snapshotFile;
+    private final Path journalFile;
+    private final Path compactingFile;
+    private final Supplier<CircularDoublyLinkedList> snapshot;
+    private final int compactThreshold;
+    private final ScheduledExecutorService executor;
+    // Orden de bloqueos: compactLock -> syncLock -> this. Los registros nuevos solo toman this.
+    private final Object syncLock = new Object();
+    private final Object compactLock = new Object();
+    private final StringBuilder pending;
+    private int pendingRecords;
+    private long recordsSinceCompaction;
+    private FileChannel channel;
+    private long syncCount;
+    private long compactionCount;
+    private volatile boolean closed;
+
+    /**
+     * Abre el diario por defecto junto a flights.json, con los intervalos por defecto.
+     * La lista ya debe estar cargada con recover antes de abrirlo.
+     */
+    public static FlightJournal open(Supplier<CircularDoublyLinkedList> snapshot) throws IOException {
+        return new FlightJournal(Paths.get(DEFAULT_BASE_PATH), Paths.get(DEFAULT_SNAPSHOT_PATH),
+                Paths.get(DEFAULT_JOURNAL_PATH), snapshot,
+                DEFAULT_SYNC_INTERVAL_MILLIS, DEFAULT_COMPACT_INTERVAL_MILLIS, DEFAULT_COMPACT_THRESHOLD);
+    }
+
+    /**
+     * Diario sin archivo base: mientras no haya instantánea, la lista guardada empieza vacía.
+     */
+    public FlightJournal(Path snapshotFile, Path journalFile, Supplier<CircularDoublyLinkedList> snapshot,
+                         long syncIntervalMillis, long compactIntervalMillis, int compactThreshold) throws IOException {
+        this(null, snapshotFile, journalFile, snapshot, syncIntervalMillis, compactIntervalMillis, compactThreshold);
+    }
+
+    /**
+     * @param baseFile lista con el formato de FlightJson que se lee mientras no haya instantánea; puede ser null.
+     *                 El diario nunca la escribe.
+     * @param snapshot copia de la lista actual para escribir la instantánea al compactar.
+     */
+    public FlightJournal(Path baseFile, Path snapshotFile, Path journalFile, Supplier<CircularDoublyLinkedList> snapshot,
+                         long syncIntervalMillis, long compactIntervalMillis, int compactThreshold) throws IOException {
+        if (snapshotFile == null || journalFile == null || snapshot == null) {
+            throw new IllegalArgumentException("Los archivos y la copia de la lista no pueden ser nulos.");
+        }
+        if (syncIntervalMillis <= 0 || compactIntervalMillis <= 0 || compactThreshold <= 0) {
+            throw new IllegalArgumentException("Los intervalos y el umbral de compactación deben ser positivos.");
+        }
+        this.baseFile = baseFile;
+        this.snapshotFile = snapshotFile;
+        this.journalFile = journalFile;
+        this.compactingFile = compactingFileOf(journalFile);
+        this.snapshot = snapshot;
+        this.compactThreshold = compactThreshold;
+        this.pending = new StringBuilder();
+        Path parent = journalFile.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        this.channel = openChannel();
+        // Una compactación anterior que no terminó se completa en la primera revisión.
+        this.recordsSinceCompaction = Files.exists(compactingFile) ? compactThreshold : 0;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "flights-journal");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::syncQuietly, syncIntervalMillis, syncIntervalMillis, TimeUnit.MILLISECONDS);
+        executor.scheduleWithFixedDelay(this::compactIfNeeded, compactIntervalMillis, compactIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private static Path compactingFileOf(Path journalFile) {
+        return journalFile.resolveSibling(journalFile.getFileName() + ".compacting");
+    }
+
+    private FileChannel openChannel() throws IOException {
+        return FileChannel.open(journalFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    // --- Registros ---
+
+    @Override
+    public void flightCreated(Flight flight) {
+        append(record(CREATE, flight).set("flight", flightNode(flight)));
+    }
+
+    @Override
+    public void flightUpdated(Flight flight) {
+        append(record(UPDATE, flight).set("flight", flightNode(flight)));
+    }
+
+    @Override
+    public void flightChanged(Flight flight) {
+        ObjectNode record = record(STATUS, flight);
+        record.put("status", flight.getStatus() == null ? null : flight.getStatus().name());
+        record.put("departure", toText(flight.getDepartureTime()));
+        record.put("origin", flight.getOriginAirportCode());
+        record.put("destination", flight.getDestinationAirportCode());
+        record.put("actualDeparture", toText(flight.getActualDepartureTime()));
+        record.put("actualArrival", toText(flight.getActualArrivalTime()));
+        record.put("estimatedDuration", flight.getEstimatedDurationMinutes());
+        record.put("capacity", flight.getCapacity());
+        record.put("gate", flight.getGate());
+        append(record);
+    }
+
+    @Override
+    public void passengerAdded(Flight flight, Passenger passenger) {
+        append(record(PASSENGER_ADD, flight).set("passenger", passengerNode(passenger)));
+    }
+
+    @Override
+    public void passengerRemoved(Flight flight, Passenger passenger) {
+        append(record(PASSENGER_REMOVE, flight).set("passenger", passengerNode(passenger)));
+    }
+
+    @Override
+    public void flightRemoved(Flight flight) {
+        append(record(REMOVE, flight));
+    }
+
+    private static ObjectNode record(String type, Flight flight) {
+        ObjectNode record = MAPPER.createObjectNode();
+        record.put("type", type);
+        record.put("number", flight.getFlightNumber());
+        return record;
+    }
+
+    private static String toText(LocalDateTime time) {
+        return time == null ? null : time.toString();
+    }
+
+    private static LocalDateTime toTime(JsonNode node) {
+        return node == null || node.isNull() ? null : LocalDateTime.parse(node.asText());
+    }
+
+    private static ObjectNode passengerNode(Passenger passenger) {
+        ObjectNode node = MAPPER.createObjectNode();
+        node.put("id", passenger.getId());
+        node.put("name", passenger.getName());
+        node.put("nationality", passenger.getNationality());
+        return node;
+    }
+
+    static ObjectNode flightNode(Flight flight) {
+        ObjectNode node = MAPPER.valueToTree(flight);
+        ArrayNode passengers = node.putArray("passengers");
+        CircularDoublyLinkedList list = flight.getPassengers();
+        try {
+            if (list != null && !list.isEmpty()) {
+                Node current = list.getNode(0);
+                for (int i = 0; i < list.size(); i++, current = current.next) {
+                    if (current.data instanceof Passenger passenger) {
+                        passengers.add(passengerNode(passenger));
+                    }
+                }
+            }
+        } catch (ListException e) {
+            System.err.println("Error al leer los pasajeros del vuelo " + flight.getFlightNumber() + ": " + e.getMessage());
+        }
+        return node;
+    }
+
+    static Flight readFlight(JsonNode node) throws JsonProcessingException {
+        ObjectNode copy = node.deepCopy();
+        JsonNode passengers = copy.remove("passengers");
+        Flight flight = MAPPER.treeToValue(copy, Flight.class);
+        if (passengers != null) {
+            // Directo a la lista: la ocupación ya viene en el registro.
+            for (JsonNode p : passengers) {
+                if (p.hasNonNull("id")) {
+                    flight.getPassengers().add(new Passenger(p.get("id").asText(), p.path("name").asText(null),
+                            p.path("nationality").asText(null)));
+                }
+            }
+        }
+        return flight;
+    }
+
+    private void append(ObjectNode record) {
+        String line;
+        try {
+            line = MAPPER.writeValueAsString(record);
+        } catch (JsonProcessingException e) {
+            System.err.println("Error al escribir un registro del diario de vuelos: " + e.getMessage());
+            return;
+        }
+        synchronized (this) {
+            pending.append(line).append('\n');
+            pendingRecords++;
+            recordsSinceCompaction++;
+        }
+    }
+
+    // --- Escritura ---
+
+    /**
+     * Escribe los registros pendientes al final del diario con un solo fsync.
+     * @return true si había registros pendientes.
+     */
+    public boolean sync() throws IOException {
+        synchronized (syncLock) {
+            String batch;
+            synchronized (this) {
+                if (pendingRecords == 0) {
+                    return false;
+                }
+                batch = pending.toString();
+                pending.setLength(0);
+                pendingRecords = 0;
+            }
+            try {
+                ByteBuffer buffer = ByteBuffer.wrap(batch.getBytes(StandardCharsets.UTF_8));
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(false);
+            } catch (IOException e) {
+                // Se reintentan en el siguiente sync; si quedó una línea cortada, recover la ignora.
+                synchronized (this) {
+                    pending.insert(0, batch);
+                    pendingRecords += countLines(batch);
+                }
+                throw e;
+            }
+            syncCount++;
+            return true;
+        }
+    }
+
+    private static int countLines(String text) {
+        int lines = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == '\n') {
+                lines++;
+            }
+        }
+        return lines;
+    }
+
+    @Override
+    public boolean flush() {
+        try {
+            return sync();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void syncQuietly() {
+        try {
+            sync();
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Error al guardar el diario de vuelos: " + e.getMessage());
+        }
+    }
+
+    private void compactIfNeeded() {
+        boolean due;
+        synchronized (this) {
+            due = recordsSinceCompaction >= compactThreshold;
+        }
+        if (!due) {
+            return;
+        }
+        try {
+            compact();
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Error al compactar el diario de vuelos: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Pasa el diario actual a una instantánea nueva de la lista y lo vacía.
+     */
+    public void compact() throws IOException {
+        synchronized (compactLock) {
+            synchronized (syncLock) {
+                sync();
+                channel.close();
+                if (Files.exists(compactingFile)) {
+                    // Quedó un segmento de una compactación sin terminar: el diario actual va después.
+                    Files.write(compactingFile, Files.readAllBytes(journalFile), StandardOpenOption.APPEND);
+                    Files.delete(journalFile);
+                } else {
+                    Files.move(journalFile, compactingFile, StandardCopyOption.ATOMIC_MOVE);
+                }
+                channel = openChannel();
+                synchronized (this) {
+                    recordsSinceCompaction = pendingRecords;
+                }
+            }
+            // Sin los bloqueos de escritura: snapshot toma el bloqueo de FlightScheduleManager, que
+            // puede estar esperando para agregar un registro.
+            writeSnapshot(snapshot.get());
+            Files.deleteIfExists(compactingFile);
+            compactionCount++;
+        }
+    }
+
+    private void writeSnapshot(CircularDoublyLinkedList flights) throws IOException {
+        ArrayNode array = MAPPER.createArrayNode();
+        try {
+            if (flights != null && !flights.isEmpty()) {
+                Node node = flights.getNode(0);
+                for (int i = 0; i < flights.size(); i++, node = node.next) {
+                    if (node.data instanceof Flight flight) {
+                        array.add(flightNode(flight));
+                    }
+                }
+            }
+        } catch (ListException e) {
+            throw new IOException("No se pudo recorrer la lista de vuelos: " + e.getMessage(), e);
+        }
+        Path temporary = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+        try (FileOutputStream out = new FileOutputStream(temporary.toFile())) {
+            MAPPER.writerWithDefaultPrettyPrinter().writeValue(new NonClosingStream(out), array);
+            out.getFD().sync();
+        }
+        Files.move(temporary, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // writeValue cierra el stream; el descriptor debe seguir abierto para el fsync.
+    private static final class NonClosingStream extends java.io.FilterOutputStream {
+        NonClosingStream(java.io.OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+
+    // --- Lectura ---
+
+    /**
+     * Guarda lo pendiente y vuelve a leer instantánea y diario.
+     * @return la lista guardada, o null si no se pudo leer.
+     */
+    @Override
+    public CircularDoublyLinkedList load() {
+        synchronized (compactLock) {
+            try {
+                sync();
+                return recover(baseFile, snapshotFile, journalFile);
+            } catch (IOException e) {
+                System.err.println("Error al leer el diario de vuelos: " + e.getMessage());
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Lista de vuelos guardada: la instantánea con los registros del diario aplicados en orden
+     * (primero los de una compactación sin terminar). Las líneas que no se pueden leer, como una
+     * última línea cortada por una caída, se ignoran.
+     */
+    public static CircularDoublyLinkedList recover(Path snapshotFile, Path journalFile) throws IOException {
+        return recover(null, snapshotFile, journalFile);
+    }
+
+    /**
+     * Igual que recover(snapshotFile, journalFile), pero si todavía no hay instantánea parte de baseFile
+     * (una lista guardada por FlightJson), de la que solo se leen los campos que guarda el diario.
+     */
+    public static CircularDoublyLinkedList recover(Path baseFile, Path snapshotFile, Path journalFile) throws IOException {
+        CircularDoublyLinkedList flights = new CircularDoublyLinkedList();
+        Map<String, Node> byNumber = new HashMap<>();
+        Path source = Files.exists(snapshotFile) || baseFile == null ? snapshotFile : baseFile;
+        if (Files.exists(source) && Files.size(source) > 0) {
+            for (JsonNode node : MAPPER.readTree(source.toFile())) {
+                Flight flight = readFlight(node);
+                byNumber.putIfAbsent(flight.getFlightNumber(), flights.addNode(flight));
+            }
+        }
+        replay(compactingFileOf(journalFile), flights, byNumber);
+        replay(journalFile, flights, byNumber);
+        return flights;
+    }
+
+    private static void replay(Path file, CircularDoublyLinkedList flights, Map<String, Node> byNumber) throws IOException {
+        if (!Files.exists(file)) {
+            return;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    apply(MAPPER.readTree(line), flights, byNumber);
+                } catch (IOException | RuntimeException | ListException e) {
+                    System.err.println("Registro ignorado en " + file.getFileName() + ", línea " + lineNumber + ": " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private static void apply(JsonNode record, CircularDoublyLinkedList flights, Map<String, Node> byNumber)
+            throws IOException, ListException {
+        String number = record.get("number").asText();
+        Node node = byNumber.get(number);
+        Flight flight = node == null ? null : (Flight) node.data;
+        switch (record.get("type").asText()) {
+            case CREATE:
+            case UPDATE:
+                Flight recorded = readFlight(record.get("flight"));
+                if (node != null) {
+                    node.data = recorded;
+                } else {
+                    byNumber.put(number, flights.addNode(recorded));
+                }
+                break;
+            case STATUS:
+                if (flight != null) {
+                    flight.setStatus(Flight.FlightStatus.valueOf(record.get("status").asText()));
+                    flight.setDepartureTime(toTime(record.get("departure")));
+                    flight.setOriginAirportCode(record.get("origin").asText());
+                    flight.setDestinationAirportCode(record.get("destination").asText());
+                    flight.setActualDepartureTime(toTime(record.get("actualDeparture")));
+                    flight.setActualArrivalTime(toTime(record.get("actualArrival")));
+                    // Registros anteriores no traen duración, capacidad ni puerta.
+                    if (record.has("estimatedDuration")) {
+                        flight.setEstimatedDurationMinutes(record.get("estimatedDuration").asInt());
+                    }
+                    if (record.has("capacity")) {
+                        flight.setCapacity(record.get("capacity").asInt());
+                    }
+                    if (record.hasNonNull("gate")) {
+                        flight.setGate(record.get("gate").asText());
+                    }
+                }
+                break;
+            case PASSENGER_ADD:
+                if (flight != null) {
+                    Passenger passenger = readPassenger(record.get("passenger"));
+                    if (!flight.getPassengers().contains(passenger) && !flight.isFull()) {
+                        flight.addPassenger(passenger);
+                    }
+                }
+                break;
+            case PASSENGER_REMOVE:
+                if (flight != null) {
+                    Passenger passenger = readPassenger(record.get("passenger"));
+                    if (flight.getPassengers().contains(passenger)) {
+                        flight.removePassenger(passenger);
+                    }
+                }
+                break;
+            case REMOVE:
+                if (node != null) {
+                    byNumber.remove(number);
+                    flights.removeNode(node);
+                }
+                break;
+            default:
+                throw new IOException("Tipo de registro desconocido: " + record.get("type").asText());
+        }
+    }
+
+    private static Passenger readPassenger(JsonNode node) {
+        return new Passenger(node.get("id").asText(), node.path("name").asText(null), node.path("nationality").asText(null));
+    }
+
+    // --- Estado ---
+
+    public synchronized int getPendingRecords() {
+        return pendingRecords;
+    }
+
+    public synchronized long getRecordsSinceCompaction() {
+        return recordsSinceCompaction;
+    }
+
+    public long getSyncCount() {
+        synchronized (syncLock) {
+            return syncCount;
+        }
+    }
+
+    public long getCompactionCount() {
+        synchronized (compactLock) {
+            return compactionCount;
+        }
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Detiene el hilo en segundo plano, escribe lo pendiente y cierra el diario. No compacta: el
+     * siguiente inicio aplica el diario sobre la instantánea.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            executor.shutdownNow();
+        }
+        synchronized (syncLock) {
+            syncQuietly();
+            try {
+                channel.close();
+            } catch (IOException e) {
+                System.err.println("Error al cerrar el diario de vuelos: " + e.getMessage());
+            }
+        }
+    }
+}
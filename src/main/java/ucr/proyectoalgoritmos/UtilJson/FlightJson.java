@@ -20,7 +20,7 @@ import java.io.IOException;
 
 public class FlightJson {
 
-    private static final String FILE_PATH = "src/main/resources/flights.json";
+    static final String FILE_PATH = "src/main/resources/flights.json";
     private static final ObjectMapper objectMapper = new ObjectMapper();
 
     static {
@@ -36,15 +36,18 @@ public class FlightJson {
     }
 
     public static void saveFlightsToJson(CircularDoublyLinkedList flights) {
+        saveFlightsToJson(flights, new File(FILE_PATH));
+    }
+
+    public static void saveFlightsToJson(CircularDoublyLinkedList flights, File file) {
         try {
-            File file = new File(FILE_PATH);
             File parentDir = file.getParentFile();
             if (parentDir != null && !parentDir.exists()) {
                 parentDir.mkdirs();
             }
 
             objectMapper.writeValue(file, flights);
-            System.out.println("Vuelos guardados en " + FILE_PATH);
+            System.out.println("Vuelos guardados en " + file.getPath());
         } catch (IOException e) {
             System.err.println("Error al guardar vuelos en JSON: " + e.getMessage());
             e.printStackTrace();
@@ -57,7 +60,10 @@ public class FlightJson {
     }
 
     public static CircularDoublyLinkedList loadFlightsFromJson(AirportManager airportManager, RouteManager routeManager) {
-        File file = new File(FILE_PATH);
+        return loadFlightsFromJson(new File(FILE_PATH));
+    }
+
+    public static CircularDoublyLinkedList loadFlightsFromJson(File file) {
         if (!file.exists() || file.length() == 0) {
 
             return new CircularDoublyLinkedList();
@@ -0,0 +1,49 @@
+package ucr.proyectoalgoritmos.UtilJson;
+
+import ucr.proyectoalgoritmos.Domain.Circular.CircularDoublyLinkedList;
+import ucr.proyectoalgoritmos.Domain.flight.Flight;
+import ucr.proyectoalgoritmos.Domain.passenger.Passenger;
+
+/**
+ * Cómo guarda FlightScheduleManager los cambios de su lista de vuelos en memoria. El manager avisa
+ * cada cambio por separado; cada implementación decide si lo escribe como evento (FlightJournal)
+ * o si solo lo usa para saber que hay que reescribir la lista completa (FlightWriteBehind).
+ *
+ * Los avisos pueden llegar desde cualquier hilo y con el bloqueo del manager tomado, así que deben
+ * ser rápidos y no pedir la copia de la lista.
+ */
+public interface FlightPersistence extends AutoCloseable {
+
+    void flightCreated(Flight flight);
+
+    /** El vuelo reemplazó al que tenía el mismo número (updateFlight). */
+    void flightUpdated(Flight flight);
+
+    /** Cambió el estado, un horario, el origen, el destino, la duración, la puerta o la capacidad del vuelo. */
+    void flightChanged(Flight flight);
+
+    void passengerAdded(Flight flight, Passenger passenger);
+
+    void passengerRemoved(Flight flight, Passenger passenger);
+
+    void flightRemoved(Flight flight);
+
+    /**
+     * Guarda ahora lo pendiente.
+     * @return true si se escribió algo.
+     */
+    boolean flush();
+
+    /**
+     * Lee la lista guardada, o null si esta persistencia no sabe leerla (se usa FlightJson).
+     */
+    default CircularDoublyLinkedList load() {
+        return null;
+    }
+
+    /**
+     * Detiene el trabajo en segundo plano después de guardar lo pendiente.
+     */
+    @Override
+    void close();
+}
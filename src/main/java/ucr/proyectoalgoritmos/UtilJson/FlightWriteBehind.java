@@ -0,0 +1,163 @@
+package ucr.proyectoalgoritmos.UtilJson;
+
+import ucr.proyectoalgoritmos.Domain.Circular.CircularDoublyLinkedList;
+import ucr.proyectoalgoritmos.Domain.flight.Flight;
+import ucr.proyectoalgoritmos.Domain.passenger.Passenger;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Persistencia diferida (write-behind) de los vuelos. La lista en memoria es la fuente de verdad:
+ * cada cambio solo marca que hay algo pendiente (markDirty, O(1)) y un hilo en segundo plano escribe
+ * el archivo completo cada cierto intervalo si hubo cambios. Así muchos cambios seguidos (por ejemplo,
+ * varios aterrizajes del simulador) se agrupan en una sola escritura.
+ *
+ * flush escribe de inmediato lo pendiente; close detiene el hilo y hace un último flush. Si la escritura
+ * falla, los cambios siguen pendientes y se reintentan en el siguiente intervalo. flush pide la copia
+ * con snapshot mientras tiene su propio bloqueo, así que no debe llamarse con un bloqueo que snapshot
+ * también necesite.
+ */
+public class FlightWriteBehind implements FlightPersistence {
+
+    /** Intervalo por defecto entre escrituras, en milisegundos. */
+    public static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 2000;
+
+    private final Supplier<CircularDoublyLinkedList> snapshot;
+    private final Consumer<CircularDoublyLinkedList> writer;
+    private final ScheduledExecutorService executor;
+    // Cambios marcados desde el inicio; flushedChanges es cuántos de ellos ya están en el archivo.
+    private final AtomicLong changes;
+    private long flushedChanges;
+    private long writeCount;
+    private volatile boolean closed;
+
+    /**
+     * @param snapshot copia de la lista a guardar; se pide en el momento de escribir.
+     * @param writer   escritura completa, por ejemplo FlightJson::saveFlightsToJson.
+     */
+    public FlightWriteBehind(Supplier<CircularDoublyLinkedList> snapshot, Consumer<CircularDoublyLinkedList> writer,
+                             long flushIntervalMillis) {
+        if (snapshot == null || writer == null) {
+            throw new IllegalArgumentException("La copia y la escritura de vuelos no pueden ser nulas.");
+        }
+        if (flushIntervalMillis <= 0) {
+            throw new IllegalArgumentException("El intervalo de escritura debe ser positivo: " + flushIntervalMillis);
+        }
+        this.snapshot = snapshot;
+        this.writer = writer;
+        this.changes = new AtomicLong();
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "flights-write-behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Registra un cambio en la lista; se guardará en el siguiente flush.
+     */
+    public void markDirty() {
+        changes.incrementAndGet();
+    }
+
+    // Cualquier cambio obliga a reescribir la lista completa.
+    @Override
+    public void flightCreated(Flight flight) {
+        markDirty();
+    }
+
+    @Override
+    public void flightUpdated(Flight flight) {
+        markDirty();
+    }
+
+    @Override
+    public void flightChanged(Flight flight) {
+        markDirty();
+    }
+
+    @Override
+    public void passengerAdded(Flight flight, Passenger passenger) {
+        markDirty();
+    }
+
+    @Override
+    public void passengerRemoved(Flight flight, Passenger passenger) {
+        markDirty();
+    }
+
+    @Override
+    public void flightRemoved(Flight flight) {
+        markDirty();
+    }
+
+    /**
+     * Cambios marcados que todavía no están en el archivo.
+     */
+    public synchronized long getPendingChanges() {
+        return changes.get() - flushedChanges;
+    }
+
+    /**
+     * Escrituras del archivo hechas hasta ahora.
+     */
+    public synchronized long getWriteCount() {
+        return writeCount;
+    }
+
+    /**
+     * Escribe ahora si hay cambios pendientes.
+     * @return true si se escribió el archivo.
+     */
+    @Override
+    public synchronized boolean flush() {
+        long target = changes.get();
+        if (target == flushedChanges) {
+            return false;
+        }
+        // Los cambios marcados mientras se escribe quedan pendientes para el siguiente flush.
+        writer.accept(snapshot.get());
+        flushedChanges = target;
+        writeCount++;
+        return true;
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            System.err.println("Error al guardar los vuelos en segundo plano: " + e.getMessage());
+        }
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Detiene las escrituras periódicas y guarda lo pendiente.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            executor.shutdownNow();
+        }
+        flushQuietly();
+    }
+}
@@ -0,0 +1,280 @@
+package ucr.proyectoalgoritmos.graph;
+
+import java.util.Arrays;
+
+/**
+ * Dijkstra bidireccional para consultas punto a punto. Una búsqueda avanza desde el origen
+ * por las aristas salientes del CSR y otra retrocede desde el destino por el ReverseAdjacencyIndex;
+ * en cada paso se expande el frente con menos vértices pendientes. Se mantiene el mejor costo
+ * conocido de un camino que pasa por un vértice alcanzado por ambos frentes, y la búsqueda
+ * termina cuando la suma de los mínimos de los dos montículos ya no puede mejorarlo.
+ *
+ * Igual que ShortestPathEngine, reutiliza sus arreglos de trabajo entre consultas mediante un
+ * número de generación y hay una instancia por hilo (forCurrentThread()). Igual que ese motor,
+ * registra sus eventos en el RouteTracer del hilo si hay uno asociado.
+ */
+public final class BidirectionalDijkstra {
+
+    private static final ThreadLocal<BidirectionalDijkstra> PER_THREAD = ThreadLocal.withInitial(BidirectionalDijkstra::new);
+
+    // Lado hacia adelante: distancia desde el origen y arista/vértice previos.
+    private double[] forwardDist;
+    private int[] forwardEdge;
+    private int[] forwardVertex;
+    private int[] forwardReached;
+    private int[] forwardSettled;
+    // Lado hacia atrás: distancia hasta el destino y arista/vértice siguientes.
+    private double[] backwardDist;
+    private int[] backwardEdge;
+    private int[] backwardVertex;
+    private int[] backwardReached;
+    private int[] backwardSettled;
+
+    private final IndexedMinHeap forwardHeap;
+    private final IndexedMinHeap backwardHeap;
+    private int generation;
+    private int settledCount;
+    private int meetingVertex;
+    private int source;
+    private int target;
+
+    public BidirectionalDijkstra() {
+        this.forwardHeap = new IndexedMinHeap(16);
+        this.backwardHeap = new IndexedMinHeap(16);
+        allocate(0);
+    }
+
+    public static BidirectionalDijkstra forCurrentThread() {
+        return PER_THREAD.get();
+    }
+
+    private void allocate(int capacity) {
+        forwardDist = new double[capacity];
+        forwardEdge = new int[capacity];
+        forwardVertex = new int[capacity];
+        forwardReached = new int[capacity];
+        forwardSettled = new int[capacity];
+        backwardDist = new double[capacity];
+        backwardEdge = new int[capacity];
+        backwardVertex = new int[capacity];
+        backwardReached = new int[capacity];
+        backwardSettled = new int[capacity];
+        generation = 0;
+    }
+
+    private void prepare(int n) {
+        if (n > forwardDist.length) {
+            allocate(Math.max(n, forwardDist.length * 2));
+        }
+        forwardHeap.ensureCapacity(n);
+        backwardHeap.ensureCapacity(n);
+        forwardHeap.clear();
+        backwardHeap.clear();
+        if (generation == Integer.MAX_VALUE) {
+            Arrays.fill(forwardReached, 0);
+            Arrays.fill(forwardSettled, 0);
+            Arrays.fill(backwardReached, 0);
+            Arrays.fill(backwardSettled, 0);
+            generation = 0;
+        }
+        generation++;
+        settledCount = 0;
+        meetingVertex = -1;
+    }
+
+    /**
+     * Busca el camino más corto de source a target.
+     * @param reverse índice inverso con la misma topología que csr.
+     * @param weights pesos alineados con las aristas de csr (NaN = arista ignorada).
+     * @return costo del camino, o POSITIVE_INFINITY si target no es alcanzable.
+     */
+    public double run(CompressedSparseRowGraph csr, ReverseAdjacencyIndex reverse, double[] weights, int source, int target) {
+        int n = csr.getNumVertices();
+        if (reverse.getNumVertices() != n || reverse.getVersion() != csr.getVersion()) {
+            throw new IllegalArgumentException("El índice inverso no corresponde al CSR consultado.");
+        }
+        if (source < 0 || source >= n || target < 0 || target >= n) {
+            throw new IllegalArgumentException("Vértices inválidos: " + source + " -> " + target + ", numVertices=" + n);
+        }
+        prepare(n);
+        this.source = source;
+        this.target = target;
+        int gen = generation;
+        RouteTracer tracer = RouteTracer.current();
+        if (tracer != null) {
+            tracer.query(source, target);
+        }
+
+        forwardDist[source] = 0;
+        forwardEdge[source] = -1;
+        forwardVertex[source] = -1;
+        forwardReached[source] = gen;
+        forwardHeap.insert(source, 0);
+        backwardDist[target] = 0;
+        backwardEdge[target] = -1;
+        backwardVertex[target] = -1;
+        backwardReached[target] = gen;
+        backwardHeap.insert(target, 0);
+
+        if (source == target) {
+            meetingVertex = source;
+            if (tracer != null) {
+                tracer.result(target, 0);
+            }
+            return 0;
+        }
+
+        int[] offsets = csr.getOffsets();
+        int[] targets = csr.getTargets();
+        int[] reverseOffsets = reverse.getOffsets();
+        int[] reverseSources = reverse.getSources();
+        int[] reverseForwardEdges = reverse.getForwardEdges();
+        double best = Double.POSITIVE_INFINITY;
+
+        while (!forwardHeap.isEmpty() && !backwardHeap.isEmpty()) {
+            if (forwardHeap.peekMinKey() + backwardHeap.peekMinKey() >= best) {
+                break;
+            }
+            if (forwardHeap.size() <= backwardHeap.size()) {
+                int u = forwardHeap.extractMin();
+                forwardSettled[u] = gen;
+                settledCount++;
+                double du = forwardDist[u];
+                if (tracer != null) {
+                    tracer.settled(u, du, false);
+                }
+                for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                    double w = weights[e];
+                    if (Double.isNaN(w)) {
+                        continue;
+                    }
+                    int v = targets[e];
+                    if (forwardSettled[v] == gen) {
+                        continue;
+                    }
+                    double candidate = du + w;
+                    if (forwardReached[v] != gen) {
+                        forwardReached[v] = gen;
+                        forwardDist[v] = candidate;
+                        forwardHeap.insert(v, candidate);
+                    } else if (candidate < forwardDist[v]) {
+                        forwardDist[v] = candidate;
+                        forwardHeap.decreaseKey(v, candidate);
+                    } else {
+                        continue;
+                    }
+                    forwardEdge[v] = e;
+                    forwardVertex[v] = u;
+                    if (tracer != null) {
+                        tracer.relaxed(u, v, candidate);
+                    }
+                    if (backwardReached[v] == gen && candidate + backwardDist[v] < best) {
+                        best = candidate + backwardDist[v];
+                        meetingVertex = v;
+                    }
+                }
+            } else {
+                int u = backwardHeap.extractMin();
+                backwardSettled[u] = gen;
+                settledCount++;
+                double du = backwardDist[u];
+                if (tracer != null) {
+                    tracer.settled(u, du, true);
+                }
+                for (int i = reverseOffsets[u]; i < reverseOffsets[u + 1]; i++) {
+                    int e = reverseForwardEdges[i];
+                    double w = weights[e];
+                    if (Double.isNaN(w)) {
+                        continue;
+                    }
+                    int v = reverseSources[i];
+                    if (backwardSettled[v] == gen) {
+                        continue;
+                    }
+                    double candidate = du + w;
+                    if (backwardReached[v] != gen) {
+                        backwardReached[v] = gen;
+                        backwardDist[v] = candidate;
+                        backwardHeap.insert(v, candidate);
+                    } else if (candidate < backwardDist[v]) {
+                        backwardDist[v] = candidate;
+                        backwardHeap.decreaseKey(v, candidate);
+                    } else {
+                        continue;
+                    }
+                    backwardEdge[v] = e;
+                    backwardVertex[v] = u;
+                    if (tracer != null) {
+                        tracer.relaxedBackward(v, u, candidate);
+                    }
+                    if (forwardReached[v] == gen && forwardDist[v] + candidate < best) {
+                        best = forwardDist[v] + candidate;
+                        meetingVertex = v;
+                    }
+                }
+            }
+        }
+        if (tracer != null) {
+            tracer.result(target, best);
+        }
+        return best;
+    }
+
+    /**
+     * Vértices asentados entre ambos frentes en la última consulta.
+     */
+    public int getSettledCount() {
+        return settledCount;
+    }
+
+    /**
+     * Vértice donde se unen los dos frentes en el camino encontrado, o -1 si no hay camino.
+     */
+    public int getMeetingVertex() {
+        return meetingVertex;
+    }
+
+    /**
+     * Aristas del CSR que forman el camino de la última consulta, en orden desde el origen,
+     * o null si no se encontró camino.
+     */
+    public int[] pathEdges() {
+        if (meetingVertex == -1) {
+            return null;
+        }
+        int forwardHops = 0;
+        for (int v = meetingVertex; v != source; v = forwardVertex[v]) {
+            forwardHops++;
+        }
+        int backwardHops = 0;
+        for (int v = meetingVertex; v != target; v = backwardVertex[v]) {
+            backwardHops++;
+        }
+        int[] edges = new int[forwardHops + backwardHops];
+        int i = forwardHops - 1;
+        for (int v = meetingVertex; v != source; v = forwardVertex[v]) {
+            edges[i--] = forwardEdge[v];
+        }
+        i = forwardHops;
+        for (int v = meetingVertex; v != target; v = backwardVertex[v]) {
+            edges[i++] = backwardEdge[v];
+        }
+        return edges;
+    }
+
+    /**
+     * Vértices del camino de la última consulta, incluyendo origen y destino, o null si no hay camino.
+     */
+    public int[] pathVertices(CompressedSparseRowGraph csr) {
+        int[] edges = pathEdges();
+        if (edges == null) {
+            return null;
+        }
+        int[] vertices = new int[edges.length + 1];
+        vertices[0] = source;
+        for (int i = 0; i < edges.length; i++) {
+            vertices[i + 1] = csr.target(edges[i]);
+        }
+        return vertices;
+    }
+}
@@ -0,0 +1,73 @@
+package ucr.proyectoalgoritmos.graph;
+
+/**
+ * Representación congelada (Compressed Sparse Row) de un grafo dirigido.
+ * Las aristas salientes del vértice u ocupan las posiciones [offsets[u], offsets[u + 1])
+ * de los arreglos targets, distance y duration, por lo que recorrer los vecinos
+ * de un vértice es un barrido lineal sobre arreglos primitivos.
+ * Una duración NaN indica que la arista no tiene información de doble peso.
+ * Los arreglos se comparten sin copiar: no deben modificarse desde fuera.
+ */
+public final class CompressedSparseRowGraph {
+    private final int numVertices;
+    private final int[] offsets;
+    private final int[] targets;
+    private final double[] distance;
+    private final double[] duration;
+    private final long version;
+
+    public CompressedSparseRowGraph(int numVertices, int[] offsets, int[] targets,
+                                    double[] distance, double[] duration, long version) {
+        if (offsets.length != numVertices + 1) {
+            throw new IllegalArgumentException("offsets debe tener numVertices + 1 posiciones.");
+        }
+        if (targets.length != offsets[numVertices] || distance.length != targets.length || duration.length != targets.length) {
+            throw new IllegalArgumentException("Los arreglos de aristas no coinciden con offsets.");
+        }
+        this.numVertices = numVertices;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.distance = distance;
+        this.duration = duration;
+        this.version = version;
+    }
+
+    /**
+     * Crea una vista con la misma topología pero otros pesos por arista.
+     */
+    public CompressedSparseRowGraph withWeights(double[] distance, double[] duration, long version) {
+        return new CompressedSparseRowGraph(numVertices, offsets, targets, distance, duration, version);
+    }
+
+    public int getNumVertices() { return numVertices; }
+    public int getNumEdges() { return offsets[numVertices]; }
+    public long getVersion() { return version; }
+
+    public int edgeStart(int u) { return offsets[u]; }
+    public int edgeEnd(int u) { return offsets[u + 1]; }
+    public int outDegree(int u) { return offsets[u + 1] - offsets[u]; }
+
+    public int target(int edge) { return targets[edge]; }
+    public double distance(int edge) { return distance[edge]; }
+    public double duration(int edge) { return duration[edge]; }
+
+    public int[] getOffsets() { return offsets; }
+    public int[] getTargets() { return targets; }
+    public double[] getDistances() { return distance; }
+    public double[] getDurations() { return duration; }
+
+    /**
+     * Busca la arista u->v. Retorna su posición en los arreglos de aristas o -1 si no existe.
+     */
+    public int findEdge(int u, int v) {
+        if (u < 0 || u >= numVertices) {
+            return -1;
+        }
+        for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+            if (targets[e] == v) {
+                return e;
+            }
+        }
+        return -1;
+    }
+}
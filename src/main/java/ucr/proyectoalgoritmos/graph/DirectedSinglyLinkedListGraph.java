@@ -2,226 +2,455 @@ package ucr.proyectoalgoritmos.graph;
 
 import ucr.proyectoalgoritmos.Domain.list.SinglyLinkedList; // Asumo esta es la SinglyLinkedList sin genéricos
 import ucr.proyectoalgoritmos.Domain.list.ListException;
-import java.util.HashMap;
+import ucr.proyectoalgoritmos.Domain.list.Node;
+import ucr.proyectoalgoritmos.util.DistinctIndexSampler;
 import java.util.Map;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.PriorityQueue;
-import java.util.Comparator;
 import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+
+/**
+ * Grafo dirigido de aeropuertos con listas de adyacencia.
+ *
+ * Las mutaciones se serializan con writeLock. Las consultas no leen las listas de adyacencia sino un
+ * GraphSnapshot inmutable publicado por una referencia volatile: getSnapshot() lo retorna sin bloquear
+ * si está al día, lo reconstruye si no hay un escritor activo y, si lo hay, retorna la última versión
+ * publicada en lugar de esperar. Para que un lote de cambios se publique como una sola versión se usa mutate().
+ */
+public class DirectedSinglyLinkedListGraph {
 
+    /**
+     * Lote de cambios aplicado con el grafo bloqueado para escritura.
+     */
+    @FunctionalInterface
+    public interface Mutation {
+        void apply(DirectedSinglyLinkedListGraph graph) throws ListException;
+    }
 
-public class DirectedSinglyLinkedListGraph {
+    // Los vértices solo se añaden: el mapa y el arreglo se comparten con los snapshots.
     private final Map<String, Integer> airportCodeToIndexMap;
-    private String[] indexToAirportCodeArray;
+    private volatile String[] indexToAirportCodeArray;
 
     private final ArrayList<SinglyLinkedList> adjList;
 
-    private int numVertices;
+    private volatile int numVertices;
     private int numEdges;
     private final Random random;
 
+    // Contador de modificaciones: cambia con cada vértice o arista añadida/modificada.
+    private volatile long version;
+    // Última representación CSR congelada y buffer lateral de filas modificadas desde entonces.
+    private CompressedSparseRowGraph frozen;
+    private int[] dirtyRows;
+    private int dirtyRowCount;
+    private boolean[] dirtyRowMark;
+    // Última versión publicada para los lectores.
+    private volatile GraphSnapshot snapshot;
+    private final ReentrantLock writeLock;
+
     public DirectedSinglyLinkedListGraph() {
-        this.airportCodeToIndexMap = new HashMap<>();
+        this.airportCodeToIndexMap = new ConcurrentHashMap<>();
         this.indexToAirportCodeArray = new String[25];
         this.adjList = new ArrayList<>();
         this.numVertices = 0;
         this.numEdges = 0;
         this.random = new Random();
+        this.version = 0;
+        this.frozen = null;
+        this.dirtyRows = new int[16];
+        this.dirtyRowCount = 0;
+        this.dirtyRowMark = new boolean[25];
+        this.writeLock = new ReentrantLock();
     }
 
 
     public int addVertex(String airportCode) {
-        if (airportCodeToIndexMap.containsKey(airportCode)) {
-            return airportCodeToIndexMap.get(airportCode);
-        }
-        if (numVertices >= indexToAirportCodeArray.length) {
-            indexToAirportCodeArray = Arrays.copyOf(indexToAirportCodeArray, indexToAirportCodeArray.length * 2);
+        writeLock.lock();
+        try {
+            Integer existing = airportCodeToIndexMap.get(airportCode);
+            if (existing != null) {
+                return existing;
+            }
+            int index = numVertices;
+            String[] codes = indexToAirportCodeArray;
+            if (index >= codes.length) {
+                codes = Arrays.copyOf(codes, codes.length * 2);
+            }
+            codes[index] = airportCode;
+            indexToAirportCodeArray = codes;
+            adjList.add(new SinglyLinkedList());
+            airportCodeToIndexMap.put(airportCode, index);
+            version++;
+            // Se publica al final: quien vea el nuevo numVertices ve también su código.
+            numVertices = index + 1;
+            return index;
+        } finally {
+            writeLock.unlock();
         }
-        airportCodeToIndexMap.put(airportCode, numVertices);
-        indexToAirportCodeArray[numVertices] = airportCode;
-        adjList.add(new SinglyLinkedList());
-        return numVertices++;
     }
 
 
     public void addEdge(int u, int v, int weight) throws ListException {
-        if (u < 0 || u >= numVertices || v < 0 || v >= numVertices) {
-            throw new IllegalArgumentException("Índice de vértice inválido para añadir arista: u=" + u + ", v=" + v + ", numVertices=" + numVertices);
-        }
-        if (u == v) {
-            return;
-        }
+        writeLock.lock();
+        try {
+            if (u < 0 || u >= numVertices || v < 0 || v >= numVertices) {
+                throw new IllegalArgumentException("Índice de vértice inválido para añadir arista: u=" + u + ", v=" + v + ", numVertices=" + numVertices);
+            }
+            if (u == v) {
+                return;
+            }
 
-        SinglyLinkedList connections = adjList.get(u);
-        boolean found = false;
-        for (int i = 0; i < connections.size(); i++) {
-            int[] edge = (int[]) connections.get(i);
-            if (edge[0] == v) {
+            int[] edge = findEdgeArray(u, v);
+            if (edge != null) {
                 edge[1] = weight;
-                found = true;
-                break;
+            } else {
+                adjList.get(u).add(new int[]{v, weight});
+                numEdges++;
             }
+            markRowDirty(u);
+        } finally {
+            writeLock.unlock();
         }
-        if (!found) {
-            connections.add(new int[]{v, weight});
-            numEdges++;
+    }
+
+    /**
+     * Añade en bloque las aristas sources[i]->targets[i] con peso weights[i] (i < count), con la misma
+     * semántica que llamar a addEdge en orden: una arista repetida se queda con el último peso y los
+     * lazos se ignoran. Las aristas se agrupan por origen con un conteo y se deduplican con un arreglo
+     * de marcas por destino, así que cada fila de adyacencia se arma una sola vez en O(grado) en lugar
+     * de recorrer la lista por cada arista.
+     * @return cantidad de aristas nuevas.
+     */
+    public int addEdges(int[] sources, int[] targets, int[] weights, int count) throws ListException {
+        writeLock.lock();
+        try {
+            int n = numVertices;
+            int[] rowStart = new int[n + 1];
+            for (int i = 0; i < count; i++) {
+                int u = sources[i];
+                int v = targets[i];
+                if (u < 0 || u >= n || v < 0 || v >= n) {
+                    throw new IllegalArgumentException("Índice de vértice inválido para añadir arista: u=" + u + ", v=" + v + ", numVertices=" + n);
+                }
+                rowStart[u + 1]++;
+            }
+            for (int u = 0; u < n; u++) {
+                rowStart[u + 1] += rowStart[u];
+            }
+            // Orden estable por origen: dentro de cada fila se conserva el orden de entrada.
+            int[] byRow = new int[count];
+            int[] fill = Arrays.copyOf(rowStart, n);
+            for (int i = 0; i < count; i++) {
+                byRow[fill[sources[i]]++] = i;
+            }
+
+            // rowMark[v] == u + 1 indica que la fila u ya tiene la arista u->v, guardada en edgeOf[v].
+            int[] rowMark = new int[n];
+            int[][] edgeOf = new int[n][];
+            int added = 0;
+            for (int u = 0; u < n; u++) {
+                if (rowStart[u] == rowStart[u + 1]) {
+                    continue;
+                }
+                SinglyLinkedList row = adjList.get(u);
+                int[][] rowEdges = new int[row.size() + rowStart[u + 1] - rowStart[u]][];
+                int rowSize = 0;
+                for (Node node = row.getFirstNode(); node != null; node = node.next) {
+                    int[] edge = (int[]) node.data;
+                    rowMark[edge[0]] = u + 1;
+                    edgeOf[edge[0]] = edge;
+                    rowEdges[rowSize++] = edge;
+                }
+                int existing = rowSize;
+                for (int k = rowStart[u]; k < rowStart[u + 1]; k++) {
+                    int i = byRow[k];
+                    int v = targets[i];
+                    if (v == u) {
+                        continue;
+                    }
+                    if (rowMark[v] == u + 1) {
+                        edgeOf[v][1] = weights[i];
+                    } else {
+                        int[] edge = new int[]{v, weights[i]};
+                        rowMark[v] = u + 1;
+                        edgeOf[v] = edge;
+                        rowEdges[rowSize++] = edge;
+                    }
+                }
+                if (rowSize > existing) {
+                    // add() recorre la lista hasta el final; se rearma la fila insertando al frente en orden inverso.
+                    row.clear();
+                    for (int j = rowSize - 1; j >= 0; j--) {
+                        row.addFirst(rowEdges[j]);
+                    }
+                    added += rowSize - existing;
+                }
+                markRowDirty(u);
+            }
+            numEdges += added;
+            return added;
+        } finally {
+            writeLock.unlock();
         }
     }
 
     public boolean modifyEdge(int u, int v, int newWeight) throws ListException {
-        if (u < 0 || u >= numVertices || v < 0 || v >= numVertices) {
-            throw new IllegalArgumentException("Índice de vértice inválido para modificar arista: u=" + u + ", v=" + v + ", numVertices=" + numVertices);
-        }
+        writeLock.lock();
+        try {
+            if (u < 0 || u >= numVertices || v < 0 || v >= numVertices) {
+                throw new IllegalArgumentException("Índice de vértice inválido para modificar arista: u=" + u + ", v=" + v + ", numVertices=" + numVertices);
+            }
 
-        SinglyLinkedList connections = adjList.get(u);
-        boolean found = false;
-        for (int i = 0; i < connections.size(); i++) {
-            int[] edge = (int[]) connections.get(i);
-            if (edge[0] == v) {
-                edge[1] = newWeight;
-                found = true;
-                break;
+            int[] edge = findEdgeArray(u, v);
+            if (edge == null) {
+                return false;
             }
+            edge[1] = newWeight;
+            markRowDirty(u);
+            return true;
+        } finally {
+            writeLock.unlock();
         }
-        if (!found) {
-            return false;
+    }
+
+    /**
+     * Aplica un lote de cambios como una sola escritura y publica el snapshot resultante,
+     * de modo que los lectores pasan directamente de la versión anterior a la final.
+     * @return snapshot con todos los cambios del lote.
+     */
+    public GraphSnapshot mutate(Mutation batch) throws ListException {
+        writeLock.lock();
+        try {
+            batch.apply(this);
+            return publishSnapshot();
+        } finally {
+            writeLock.unlock();
         }
-        return true;
     }
 
-    public int shortestPath(String startAirportCode, String endAirportCode) throws ListException {
-        int startIndex = getIndexForAirportCode(startAirportCode);
-        int endIndex = getIndexForAirportCode(endAirportCode);
+    /**
+     * Aplica cambios con el grafo bloqueado para escritura, sin publicar un snapshot (el siguiente
+     * getSnapshot() los incluye). Sirve para que datos guardados fuera del grafo, como los pesos
+     * dobles de RouteGraphService, cambien bajo el mismo bloqueo que las aristas.
+     */
+    public void write(Mutation batch) throws ListException {
+        writeLock.lock();
+        try {
+            batch.apply(this);
+        } finally {
+            writeLock.unlock();
+        }
+    }
 
-        if (startIndex == -1 || endIndex == -1 || numVertices == 0) {
-            return Integer.MAX_VALUE;
+    /**
+     * Snapshot inmutable para consultas. No bloquea si el publicado está al día; si no lo está y
+     * ningún escritor tiene el grafo, publica uno nuevo; si un escritor lo tiene (por ejemplo, a mitad
+     * de un lote), retorna el último publicado, que es consistente aunque no incluya esos cambios.
+     * El hilo que está escribiendo siempre ve sus propios cambios.
+     */
+    public GraphSnapshot getSnapshot() {
+        GraphSnapshot current = snapshot;
+        if (current != null && current.getVersion() == version) {
+            return current;
         }
-        if (startIndex == endIndex) {
-            return 0;
+        if (current == null) {
+            writeLock.lock();
+        } else if (!writeLock.tryLock()) {
+            return current;
         }
+        try {
+            return publishSnapshot();
+        } finally {
+            writeLock.unlock();
+        }
+    }
 
-        int[] distances = new int[numVertices];
-        Arrays.fill(distances, Integer.MAX_VALUE);
-        boolean[] visited = new boolean[numVertices];
-        Arrays.fill(visited, false);
-
-        PriorityQueue<DijkstraNode> pq = new PriorityQueue<>(numVertices, Comparator.comparingInt(DijkstraNode::getDistance));
-
-        distances[startIndex] = 0;
-        pq.add(new DijkstraNode(startIndex, 0));
+    private GraphSnapshot publishSnapshot() {
+        GraphSnapshot current = snapshot;
+        if (current == null || current.getVersion() != version) {
+            current = new GraphSnapshot(freeze(), indexToAirportCodeArray, airportCodeToIndexMap);
+            snapshot = current;
+        }
+        return current;
+    }
 
+    /**
+     * Recorre los nodos de la lista de adyacencia de u (sin get(i), que es O(n) por llamada)
+     * y retorna el arreglo {destino, peso} de la arista u->v, o null si no existe.
+     */
+    private int[] findEdgeArray(int u, int v) {
+        Node node = adjList.get(u).getFirstNode();
+        while (node != null) {
+            int[] edge = (int[]) node.data;
+            if (edge[0] == v) {
+                return edge;
+            }
+            node = node.next;
+        }
+        return null;
+    }
 
+    private void markRowDirty(int u) {
+        version++;
+        if (frozen == null) {
+            return; // Aún no hay CSR: la primera congelación lee todas las filas.
+        }
+        if (u >= dirtyRowMark.length) {
+            dirtyRowMark = Arrays.copyOf(dirtyRowMark, Math.max(u + 1, dirtyRowMark.length * 2));
+        }
+        if (!dirtyRowMark[u]) {
+            dirtyRowMark[u] = true;
+            if (dirtyRowCount == dirtyRows.length) {
+                dirtyRows = Arrays.copyOf(dirtyRows, dirtyRows.length * 2);
+            }
+            dirtyRows[dirtyRowCount++] = u;
+        }
+    }
 
-        while (!pq.isEmpty()) {
-            DijkstraNode currentNode = pq.poll();
-            int u = currentNode.getVertex();
-            int dist_u = currentNode.getDistance();
+    /**
+     * Retorna la representación CSR congelada del snapshot actual (ver getSnapshot()).
+     * En el CSR del grafo la distancia es el peso entero y la duración es NaN.
+     */
+    public CompressedSparseRowGraph getFrozenGraph() {
+        return getSnapshot().getGraph();
+    }
 
-            if (visited[u]) {
-                System.out.println("DEBUG Dijkstra: Vértice " + getAirportCodeForIndex(u) + " ya visitado. Continuando.");
-                continue;
+    /**
+     * Congela el grafo actual; se llama con writeLock tomado. Si hubo mutaciones desde la
+     * última congelación, las filas marcadas en el buffer lateral se vuelven a leer de las
+     * listas de adyacencia y el resto se copia directamente del CSR anterior.
+     */
+    private CompressedSparseRowGraph freeze() {
+        if (frozen != null && frozen.getVersion() == version) {
+            return frozen;
+        }
+        CompressedSparseRowGraph previous = frozen;
+        int[] offsets = new int[numVertices + 1];
+        for (int u = 0; u < numVertices; u++) {
+            boolean reuseRow = previous != null && u < previous.getNumVertices() && !isRowDirty(u);
+            offsets[u + 1] = offsets[u] + (reuseRow ? previous.outDegree(u) : adjList.get(u).size());
+        }
+        int totalEdges = offsets[numVertices];
+        int[] targets = new int[totalEdges];
+        double[] distance = new double[totalEdges];
+        double[] duration = new double[totalEdges];
+        Arrays.fill(duration, Double.NaN);
+
+        for (int u = 0; u < numVertices; u++) {
+            int e = offsets[u];
+            if (previous != null && u < previous.getNumVertices() && !isRowDirty(u)) {
+                int start = previous.edgeStart(u);
+                int degree = previous.outDegree(u);
+                System.arraycopy(previous.getTargets(), start, targets, e, degree);
+                System.arraycopy(previous.getDistances(), start, distance, e, degree);
+            } else {
+                Node node = adjList.get(u).getFirstNode();
+                while (node != null) {
+                    int[] edge = (int[]) node.data;
+                    targets[e] = edge[0];
+                    distance[e] = edge[1];
+                    e++;
+                    node = node.next;
+                }
             }
-            visited[u] = true;
+        }
 
-            if (u == endIndex) {
-                System.out.println("DEBUG Dijkstra: ¡Vértice final " + getAirportCodeForIndex(endIndex) + " alcanzado! Distancia total: " + distances[endIndex]);
-                return distances[endIndex];
-            }
+        for (int i = 0; i < dirtyRowCount; i++) {
+            dirtyRowMark[dirtyRows[i]] = false;
+        }
+        dirtyRowCount = 0;
+        frozen = new CompressedSparseRowGraph(numVertices, offsets, targets, distance, duration, version);
+        return frozen;
+    }
 
-            SinglyLinkedList neighbors = adjList.get(u);
-            if (neighbors != null) {
-                System.out.println("DEBUG Dijkstra: Procesando vecinos de " + getAirportCodeForIndex(u) + ":");
-                for (int i = 0; i < neighbors.size(); i++) {
-                    int[] edge = (int[]) neighbors.get(i);
-                    int v = edge[0]; // Vértice destino
-                    int weight = edge[1]; // Peso de la arista
+    /**
+     * Retorna el índice de aristas entrantes del CSR congelado actual. Las posiciones de arista
+     * que referencia coinciden con las de getFrozenGraph(), y con las de cualquier CSR que comparta
+     * su topología (por ejemplo el de doble peso de RouteGraphService).
+     */
+    public ReverseAdjacencyIndex getReverseIndex() {
+        return getSnapshot().getReverseIndex();
+    }
 
-                    System.out.println("  DEBUG Dijkstra: Vecino " + getAirportCodeForIndex(v) + " (peso " + weight + ")");
+    private boolean isRowDirty(int u) {
+        return u < dirtyRowMark.length && dirtyRowMark[u];
+    }
 
-                    if (!visited[v] && distances[u] != Integer.MAX_VALUE) {
+    /**
+     * Contador de modificaciones del grafo. Permite a las estructuras derivadas
+     * (CSR, cachés de rutas) detectar que deben reconstruirse.
+     */
+    public long getVersion() {
+        return version;
+    }
 
-                        if ((long)distances[u] + weight < distances[v]) {
-                            distances[v] = distances[u] + weight;
-                            pq.add(new DijkstraNode(v, distances[v]));
-                            System.out.println("  DEBUG Dijkstra: Actualizando dist(" + getAirportCodeForIndex(v) + ") a " + distances[v] + ". Añadiendo a PQ.");
-                        } else {
-                            System.out.println("    DEBUG Dijkstra: No se actualiza dist(" + getAirportCodeForIndex(v) + "). Nueva dist " + ((long)distances[u] + weight) + " no es menor que actual " + distances[v] + ".");
-                        }
-                    } else {
-                        System.out.println("    DEBUG Dijkstra: Vecino " + getAirportCodeForIndex(v) + " ya visitado o distancia a " + getAirportCodeForIndex(u) + " es infinita.");
-                    }
-                }
-            }
+    public int shortestPath(String startAirportCode, String endAirportCode) throws ListException {
+        GraphSnapshot pinned = getSnapshot();
+        int startIndex = pinned.indexOf(startAirportCode);
+        int endIndex = pinned.indexOf(endAirportCode);
+
+        if (startIndex == -1 || endIndex == -1) {
+            return Integer.MAX_VALUE;
+        }
+        if (startIndex == endIndex) {
+            return 0;
         }
-        System.out.println("DEBUG Dijkstra: PQ vacía. Vértice final " + getAirportCodeForIndex(endIndex) + " no alcanzado. Distancia final: " + distances[endIndex]);
-        return distances[endIndex];
+
+        CompressedSparseRowGraph csr = pinned.getGraph();
+        ShortestPathEngine engine = ShortestPathEngine.forCurrentThread();
+        double distance = engine.run(csr, csr.getDistances(), startIndex, endIndex);
+
+        // El detalle de la búsqueda queda en el RouteTracer del hilo, si hay uno asociado.
+        return distance == Double.POSITIVE_INFINITY ? Integer.MAX_VALUE : (int) distance;
     }
 
+    /**
+     * Consulta de solo lectura sobre el snapshot: no bloquea a los escritores.
+     */
     public boolean hasEdge(String uAirportCode, String vAirportCode) throws ListException {
-        int u = getIndexForAirportCode(uAirportCode);
-        int v = getIndexForAirportCode(vAirportCode);
-        if (u == -1 || v == -1) {
-            return false;
-        }
-        SinglyLinkedList connections = adjList.get(u);
-        if (connections != null) {
-            for (int i = 0; i < connections.size(); i++) {
-                int[] edge = (int[]) connections.get(i);
-                if (edge[0] == v) {
-                    return true;
-                }
-            }
-        }
-        return false;
+        return getSnapshot().hasEdge(uAirportCode, vAirportCode);
     }
 
     public void generateRandomRoutes(int minRoutesPerAirport, int maxRoutesPerAirport, int minWeight, int maxWeight) throws ListException {
-        SinglyLinkedList allCodes = getAllAirportCodes();
-        if (allCodes.isEmpty() || allCodes.size() < 2) {
+        generateRandomRoutes(minRoutesPerAirport, maxRoutesPerAirport, minWeight, maxWeight, random);
+    }
+
+    /**
+     * Igual que generateRandomRoutes, con un generador propio (por ejemplo con semilla fija para
+     * obtener siempre la misma red). Cada aeropuerto recibe destinos distintos sin reintentos.
+     */
+    public void generateRandomRoutes(int minRoutesPerAirport, int maxRoutesPerAirport, int minWeight, int maxWeight, Random random) throws ListException {
+        mutate(graph -> addRandomRoutes(minRoutesPerAirport, maxRoutesPerAirport, minWeight, maxWeight, random));
+    }
+
+    private void addRandomRoutes(int minRoutesPerAirport, int maxRoutesPerAirport, int minWeight, int maxWeight, Random random) throws ListException {
+        int n = numVertices;
+        if (n < 2) {
             System.out.println("ADVERTENCIA: No hay suficientes aeropuertos cargados para generar rutas aleatorias.");
             return;
         }
 
-        for (int k = 0; k < allCodes.size(); k++) {
-            String originCode = (String) allCodes.get(k);
+        DistinctIndexSampler sampler = new DistinctIndexSampler(n, random);
+        int[] destinations = new int[n];
+        for (int u = 0; u < n; u++) {
             int routesToGenerate = random.nextInt(maxRoutesPerAirport - minRoutesPerAirport + 1) + minRoutesPerAirport;
-            int generatedCount = 0;
-            int attemptCount = 0;
-            final int MAX_ATTEMPTS_PER_ROUTE = 50;
-
-            while (generatedCount < routesToGenerate && attemptCount < allCodes.size() * MAX_ATTEMPTS_PER_ROUTE) {
-                String destinationCode = (String) allCodes.get(random.nextInt(allCodes.size()));
-                if (!originCode.equals(destinationCode)) {
-                    int weight = random.nextInt(maxWeight - minWeight + 1) + minWeight;
-                    try {
-                        addEdge(getIndexForAirportCode(originCode), getIndexForAirportCode(destinationCode), weight);
-                        generatedCount++;
-                    } catch (IllegalArgumentException | ListException e) {
-                        // Puede que la arista ya exista o haya algún otro error
-                    }
-                }
-                attemptCount++;
+            int count = sampler.sample(u, routesToGenerate, destinations);
+            for (int j = 0; j < count; j++) {
+                int weight = random.nextInt(maxWeight - minWeight + 1) + minWeight;
+                addEdge(u, destinations[j], weight);
             }
         }
     }
 
 
-    private static class DijkstraNode {
-        private final int vertex;
-        private final int distance;
-
-        public DijkstraNode(int vertex, int distance) {
-            this.vertex = vertex;
-            this.distance = distance;
-        }
-        public int getVertex() { return vertex; }
-        public int getDistance() { return distance; }
-    }
-
     public int getNumVertices() { return numVertices; }
     public int getNumEdges() { return numEdges; }
-    public int getIndexForAirportCode(String airportCode) { return airportCodeToIndexMap.getOrDefault(airportCode, -1); }
+    public int getIndexForAirportCode(String airportCode) {
+        return airportCode == null ? -1 : airportCodeToIndexMap.getOrDefault(airportCode, -1);
+    }
     public String getAirportCodeForIndex(int index) {
         if (index >= 0 && index < numVertices) {
             return indexToAirportCodeArray[index];
@@ -231,25 +460,30 @@ public class DirectedSinglyLinkedListGraph {
     public int getOutgoingRouteCount(String airportCode) {
         int index = getIndexForAirportCode(airportCode);
         if (index == -1) { return 0; }
-        SinglyLinkedList connections = adjList.get(index);
-        return connections != null ? connections.size() : 0;
+        CompressedSparseRowGraph csr = getFrozenGraph();
+        return index < csr.getNumVertices() ? csr.outDegree(index) : 0;
     }
     public SinglyLinkedList getAllAirportCodes() throws ListException {
         SinglyLinkedList codes = new SinglyLinkedList();
-        for (int i = 0; i < numVertices; i++) {
-            if (indexToAirportCodeArray[i] != null) {
-                codes.add(indexToAirportCodeArray[i]);
+        int n = numVertices;
+        String[] array = indexToAirportCodeArray;
+        for (int i = 0; i < n; i++) {
+            if (array[i] != null) {
+                codes.add(array[i]);
             }
         }
         return codes;
     }
     public String[] getVertices() {
-        String[] vertices = new String[numVertices];
-        System.arraycopy(indexToAirportCodeArray, 0, vertices, 0, numVertices);
+        int n = numVertices;
+        String[] vertices = new String[n];
+        System.arraycopy(indexToAirportCodeArray, 0, vertices, 0, n);
         return vertices;
     }
 
     // ¡NUEVO GETTER AÑADIDO!
+    // Acceso directo a las listas de adyacencia: solo es seguro desde el hilo que escribe
+    // o cuando no hay escritores; las consultas concurrentes deben usar getSnapshot().
     public ArrayList<SinglyLinkedList> getAdjList() {
         return adjList;
     }
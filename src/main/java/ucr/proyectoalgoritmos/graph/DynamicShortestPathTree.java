@@ -0,0 +1,308 @@
+package ucr.proyectoalgoritmos.graph;
+
+import java.util.Arrays;
+
+/**
+ * Árbol de caminos más cortos desde un origen que se repara cuando cambia el peso de una arista
+ * (estilo Ramalingam–Reps), en lugar de repetir el Dijkstra completo.
+ *
+ * Si la arista u->v baja de peso y mejora d(v), la mejora se propaga con un Dijkstra que parte de v
+ * y solo visita los vértices cuya distancia baja. Si sube de peso (o desaparece) y era la arista del
+ * árbol hacia v, solo el subárbol de v puede empeorar: esos vértices toman como distancia tentativa la
+ * mejor arista entrante desde fuera del subárbol y se vuelve a ejecutar Dijkstra únicamente entre ellos.
+ * Cualquier otro cambio no altera el árbol.
+ *
+ * El árbol guarda el vértice padre (no el índice de arista), porque los índices del CSR se
+ * desplazan cuando se inserta una arista. Con caminos empatados puede quedar un padre distinto
+ * del que elegiría un Dijkstra nuevo, pero las distancias son las mismas.
+ */
+public final class DynamicShortestPathTree {
+
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    /**
+     * Montículo y marcas de trabajo compartidos por las reparaciones de un mismo hilo.
+     */
+    private static final class Scratch {
+        final IndexedMinHeap heap = new IndexedMinHeap(16);
+        int[] mark = new int[0];
+        int[] stack = new int[0];
+        int[] childHead = new int[0];
+        int[] nextSibling = new int[0];
+        int generation;
+
+        void prepare(int n) {
+            heap.ensureCapacity(n);
+            heap.clear();
+            if (n > mark.length) {
+                int capacity = Math.max(n, mark.length * 2);
+                mark = new int[capacity];
+                stack = new int[capacity];
+                childHead = new int[capacity];
+                nextSibling = new int[capacity];
+                generation = 0;
+            }
+            if (generation == Integer.MAX_VALUE) {
+                Arrays.fill(mark, 0);
+                generation = 0;
+            }
+            generation++;
+        }
+    }
+
+    private final int source;
+    private double[] dist;
+    private int[] parent;
+    private int numVertices;
+    private long version;
+
+    private DynamicShortestPathTree(int source, double[] dist, int[] parent, int numVertices, long version) {
+        this.source = source;
+        this.dist = dist;
+        this.parent = parent;
+        this.numVertices = numVertices;
+        this.version = version;
+    }
+
+    /**
+     * Construye el árbol con un Dijkstra completo desde source.
+     * @param weights pesos alineados con las aristas de csr (NaN = arista ignorada).
+     * @param version versión del grafo a la que corresponden csr y weights.
+     */
+    public static DynamicShortestPathTree build(CompressedSparseRowGraph csr, double[] weights, int source, long version) {
+        int n = csr.getNumVertices();
+        if (source < 0 || source >= n) {
+            throw new IllegalArgumentException("Origen inválido: " + source + ", numVertices=" + n);
+        }
+        ShortestPathEngine engine = ShortestPathEngine.forCurrentThread();
+        engine.run(csr, weights, source, -1);
+        double[] dist = new double[n];
+        int[] parent = new int[n];
+        Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        Arrays.fill(parent, -1);
+        for (int i = 0; i < engine.getSettledCount(); i++) {
+            int v = engine.getSettledVertex(i);
+            dist[v] = engine.getDistance(v);
+            parent[v] = v == source ? -1 : engine.getPrevVertex(v);
+        }
+        return new DynamicShortestPathTree(source, dist, parent, n, version);
+    }
+
+    public int getSource() { return source; }
+    public int getNumVertices() { return numVertices; }
+    public long getVersion() { return version; }
+
+    /**
+     * Distancia mínima desde el origen, o infinito si v no es alcanzable.
+     */
+    public double getDistance(int v) { return dist[v]; }
+
+    /**
+     * Vértice anterior a v en el árbol, o -1 para el origen y los no alcanzables.
+     */
+    public int getParent(int v) { return parent[v]; }
+
+    public boolean isReachable(int v) { return dist[v] != Double.POSITIVE_INFINITY; }
+
+    /**
+     * Marca el árbol como vigente para una versión nueva cuyo cambio no afecta sus pesos.
+     */
+    public void revalidate(long newVersion) {
+        this.version = newVersion;
+    }
+
+    /**
+     * Repara el árbol después de que la arista u->v se insertó, cambió de peso o dejó de usarse.
+     * csr y weights deben ser los del grafo ya modificado; si tiene más vértices, los nuevos
+     * quedan no alcanzables hasta que una arista los conecte.
+     * @param reverse índice inverso con la misma topología que csr.
+     * @return cantidad de vértices cuya distancia cambió.
+     */
+    public int update(CompressedSparseRowGraph csr, ReverseAdjacencyIndex reverse, double[] weights, int u, int v, long newVersion) {
+        int n = csr.getNumVertices();
+        if (reverse.getNumVertices() != n) {
+            throw new IllegalArgumentException("El índice inverso no corresponde al CSR.");
+        }
+        if (n < numVertices) {
+            throw new IllegalArgumentException("El grafo no puede tener menos vértices que el árbol: " + n + " < " + numVertices);
+        }
+        if (u < 0 || u >= n || v < 0 || v >= n) {
+            throw new IllegalArgumentException("Arista inválida: " + u + " -> " + v + ", numVertices=" + n);
+        }
+        grow(n);
+        version = newVersion;
+        if (u == v || v == source) {
+            return 0;
+        }
+        double w = edgeWeight(csr, weights, u, v);
+        double candidate = dist[u] + w;
+        if (candidate < dist[v]) {
+            return propagateDecrease(csr, weights, u, v, candidate);
+        }
+        if (parent[v] == u && candidate > dist[v]) {
+            return repairIncrease(csr, reverse, weights, v);
+        }
+        return 0;
+    }
+
+    private void grow(int n) {
+        if (n > dist.length) {
+            int capacity = Math.max(n, dist.length * 2);
+            dist = Arrays.copyOf(dist, capacity);
+            parent = Arrays.copyOf(parent, capacity);
+        }
+        for (int x = numVertices; x < n; x++) {
+            dist[x] = Double.POSITIVE_INFINITY;
+            parent[x] = -1;
+        }
+        numVertices = n;
+    }
+
+    private static double edgeWeight(CompressedSparseRowGraph csr, double[] weights, int u, int v) {
+        int e = csr.findEdge(u, v);
+        if (e == -1 || Double.isNaN(weights[e])) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return weights[e];
+    }
+
+    /**
+     * d(v) bajó a newDistance a través de u: Dijkstra desde v que solo avanza por las mejoras.
+     */
+    private int propagateDecrease(CompressedSparseRowGraph csr, double[] weights, int u, int v, double newDistance) {
+        Scratch scratch = SCRATCH.get();
+        scratch.prepare(numVertices);
+        IndexedMinHeap heap = scratch.heap;
+        int[] offsets = csr.getOffsets();
+        int[] targets = csr.getTargets();
+
+        dist[v] = newDistance;
+        parent[v] = u;
+        heap.insert(v, newDistance);
+        int changed = 0;
+        while (!heap.isEmpty()) {
+            int x = heap.extractMin();
+            changed++;
+            double dx = dist[x];
+            for (int e = offsets[x]; e < offsets[x + 1]; e++) {
+                double w = weights[e];
+                if (Double.isNaN(w)) {
+                    continue;
+                }
+                int y = targets[e];
+                double nd = dx + w;
+                if (nd < dist[y]) {
+                    dist[y] = nd;
+                    parent[y] = x;
+                    if (heap.contains(y)) {
+                        heap.decreaseKey(y, nd);
+                    } else {
+                        heap.insert(y, nd);
+                    }
+                }
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * La arista del árbol hacia v empeoró: recalcula solo el subárbol de v.
+     */
+    private int repairIncrease(CompressedSparseRowGraph csr, ReverseAdjacencyIndex reverse, double[] weights, int v) {
+        Scratch scratch = SCRATCH.get();
+        scratch.prepare(numVertices);
+        int gen = scratch.generation;
+        int[] mark = scratch.mark;
+        IndexedMinHeap heap = scratch.heap;
+
+        // Hijos de cada vértice como listas enlazadas en arreglos, para recorrer el subárbol de v.
+        int[] childHead = scratch.childHead;
+        int[] nextSibling = scratch.nextSibling;
+        Arrays.fill(childHead, 0, numVertices, -1);
+        for (int x = 0; x < numVertices; x++) {
+            int p = parent[x];
+            if (p != -1) {
+                nextSibling[x] = childHead[p];
+                childHead[p] = x;
+            }
+        }
+        int[] stack = scratch.stack;
+        int[] affected = new int[16];
+        int affectedCount = 0;
+        int top = 0;
+        stack[top++] = v;
+        mark[v] = gen;
+        while (top > 0) {
+            int x = stack[--top];
+            if (affectedCount == affected.length) {
+                affected = Arrays.copyOf(affected, affectedCount * 2);
+            }
+            affected[affectedCount++] = x;
+            for (int c = childHead[x]; c != -1; c = nextSibling[c]) {
+                mark[c] = gen;
+                stack[top++] = c;
+            }
+        }
+
+        // Distancia tentativa: mejor arista entrante desde un vértice fuera del subárbol.
+        int[] reverseOffsets = reverse.getOffsets();
+        int[] reverseSources = reverse.getSources();
+        int[] forwardEdges = reverse.getForwardEdges();
+        double[] before = new double[affectedCount];
+        for (int i = 0; i < affectedCount; i++) {
+            int x = affected[i];
+            before[i] = dist[x];
+            double best = Double.POSITIVE_INFINITY;
+            int bestParent = -1;
+            for (int r = reverseOffsets[x]; r < reverseOffsets[x + 1]; r++) {
+                int y = reverseSources[r];
+                double w = weights[forwardEdges[r]];
+                if (mark[y] == gen || Double.isNaN(w)) {
+                    continue;
+                }
+                double nd = dist[y] + w;
+                if (nd < best) {
+                    best = nd;
+                    bestParent = y;
+                }
+            }
+            dist[x] = best;
+            parent[x] = bestParent;
+            if (best != Double.POSITIVE_INFINITY) {
+                heap.insert(x, best);
+            }
+        }
+
+        int[] offsets = csr.getOffsets();
+        int[] targets = csr.getTargets();
+        while (!heap.isEmpty()) {
+            int x = heap.extractMin();
+            double dx = dist[x];
+            for (int e = offsets[x]; e < offsets[x + 1]; e++) {
+                int y = targets[e];
+                double w = weights[e];
+                if (mark[y] != gen || Double.isNaN(w)) {
+                    continue;
+                }
+                double nd = dx + w;
+                if (nd < dist[y]) {
+                    dist[y] = nd;
+                    parent[y] = x;
+                    if (heap.contains(y)) {
+                        heap.decreaseKey(y, nd);
+                    } else {
+                        heap.insert(y, nd);
+                    }
+                }
+            }
+        }
+
+        int changed = 0;
+        for (int i = 0; i < affectedCount; i++) {
+            if (dist[affected[i]] != before[i]) {
+                changed++;
+            }
+        }
+        return changed;
+    }
+}
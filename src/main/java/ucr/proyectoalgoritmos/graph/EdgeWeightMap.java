@@ -0,0 +1,177 @@
+package ucr.proyectoalgoritmos.graph;
+
+import java.util.Arrays;
+
+/**
+ * Mapa de aristas u->v a un par (distancia, duración), con direccionamiento abierto sobre arreglos
+ * primitivos. La clave es ((long) u << 32) | v, así que buscar una arista no crea cadenas ni objetos.
+ * Usa sondeo lineal y, al borrar, desplaza hacia atrás los elementos del mismo grupo en lugar de
+ * dejar marcas, por lo que las búsquedas no se degradan con los borrados.
+ */
+public final class EdgeWeightMap {
+    private static final long EMPTY = -1L;
+    private static final double MAX_LOAD = 0.6;
+
+    private long[] keys;
+    private double[] distances;
+    private double[] durations;
+    private int size;
+    private int mask;
+
+    public EdgeWeightMap() {
+        this(16);
+    }
+
+    public EdgeWeightMap(int expectedEdges) {
+        allocate(tableSizeFor(expectedEdges));
+    }
+
+    private static int tableSizeFor(int expected) {
+        int needed = (int) Math.ceil(Math.max(1, expected) / MAX_LOAD);
+        return Integer.highestOneBit(Math.max(needed - 1, 1)) << 1;
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        Arrays.fill(keys, EMPTY);
+        distances = new double[capacity];
+        durations = new double[capacity];
+        mask = capacity - 1;
+    }
+
+    private static long key(int u, int v) {
+        return ((long) u << 32) | (v & 0xffffffffL);
+    }
+
+    private int slotFor(long key) {
+        // Mezcla de bits (fmix64 de MurmurHash3) para que claves consecutivas no caigan juntas.
+        long h = key;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return (int) h & mask;
+    }
+
+    /**
+     * Posición de la arista en la tabla, o -1 si no está.
+     */
+    private int find(int u, int v) {
+        if (u < 0 || v < 0) {
+            return -1;
+        }
+        long k = key(u, v);
+        for (int slot = slotFor(k); ; slot = (slot + 1) & mask) {
+            long current = keys[slot];
+            if (current == k) {
+                return slot;
+            }
+            if (current == EMPTY) {
+                return -1;
+            }
+        }
+    }
+
+    public int size() { return size; }
+    public boolean isEmpty() { return size == 0; }
+
+    public boolean contains(int u, int v) {
+        return find(u, v) != -1;
+    }
+
+    /**
+     * Distancia de la arista u->v, o NaN si no está.
+     */
+    public double distance(int u, int v) {
+        int slot = find(u, v);
+        return slot == -1 ? Double.NaN : distances[slot];
+    }
+
+    /**
+     * Duración de la arista u->v, o NaN si no está.
+     */
+    public double duration(int u, int v) {
+        int slot = find(u, v);
+        return slot == -1 ? Double.NaN : durations[slot];
+    }
+
+    /**
+     * Guarda o reemplaza los pesos de la arista u->v.
+     * @return true si la arista no estaba.
+     */
+    public boolean put(int u, int v, double distance, double duration) {
+        if (u < 0 || v < 0) {
+            throw new IllegalArgumentException("Índices de vértice inválidos: u=" + u + ", v=" + v);
+        }
+        int slot = find(u, v);
+        if (slot != -1) {
+            distances[slot] = distance;
+            durations[slot] = duration;
+            return false;
+        }
+        if (size + 1 > MAX_LOAD * keys.length) {
+            grow();
+        }
+        long k = key(u, v);
+        slot = slotFor(k);
+        while (keys[slot] != EMPTY) {
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = k;
+        distances[slot] = distance;
+        durations[slot] = duration;
+        size++;
+        return true;
+    }
+
+    /**
+     * Quita la arista u->v.
+     * @return true si estaba.
+     */
+    public boolean remove(int u, int v) {
+        int slot = find(u, v);
+        if (slot == -1) {
+            return false;
+        }
+        // Desplazamiento hacia atrás: se mueve al hueco cada elemento posterior del grupo
+        // cuya posición ideal no está entre el hueco y su posición actual.
+        int hole = slot;
+        for (int next = (hole + 1) & mask; keys[next] != EMPTY; next = (next + 1) & mask) {
+            int ideal = slotFor(keys[next]);
+            boolean reachable = hole <= next ? (ideal <= hole || ideal > next) : (ideal <= hole && ideal > next);
+            if (reachable) {
+                keys[hole] = keys[next];
+                distances[hole] = distances[next];
+                durations[hole] = durations[next];
+                hole = next;
+            }
+        }
+        keys[hole] = EMPTY;
+        size--;
+        return true;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, EMPTY);
+        size = 0;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        double[] oldDistances = distances;
+        double[] oldDurations = durations;
+        allocate(oldKeys.length * 2);
+        for (int i = 0; i < oldKeys.length; i++) {
+            long k = oldKeys[i];
+            if (k == EMPTY) {
+                continue;
+            }
+            int slot = slotFor(k);
+            while (keys[slot] != EMPTY) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = k;
+            distances[slot] = oldDistances[i];
+            durations[slot] = oldDurations[i];
+        }
+    }
+}
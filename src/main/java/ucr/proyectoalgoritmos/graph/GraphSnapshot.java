@@ -0,0 +1,73 @@
+package ucr.proyectoalgoritmos.graph;
+
+import java.util.Map;
+
+/**
+ * Versión inmutable de un DirectedSinglyLinkedListGraph: CSR congelado, códigos de aeropuerto e
+ * índice de aristas entrantes de una misma versión. Se publica a través de una única referencia
+ * volatile (ver DirectedSinglyLinkedListGraph.getSnapshot()), así que un lector que toma un
+ * snapshot trabaja sobre un grafo consistente sin bloquear a los escritores ni ser bloqueado por ellos.
+ *
+ * Los vértices solo se añaden al final, por lo que el snapshot comparte con el grafo el arreglo de
+ * códigos y el mapa código -> índice: un código con índice >= numVertices todavía no existe en esta versión.
+ */
+public final class GraphSnapshot {
+    private final long version;
+    private final int numVertices;
+    private final CompressedSparseRowGraph graph;
+    private final String[] codes;
+    private final Map<String, Integer> codeToIndex;
+    private volatile ReverseAdjacencyIndex reverseIndex;
+
+    GraphSnapshot(CompressedSparseRowGraph graph, String[] codes, Map<String, Integer> codeToIndex) {
+        this.version = graph.getVersion();
+        this.numVertices = graph.getNumVertices();
+        this.graph = graph;
+        this.codes = codes;
+        this.codeToIndex = codeToIndex;
+    }
+
+    public long getVersion() { return version; }
+    public int getNumVertices() { return numVertices; }
+    public CompressedSparseRowGraph getGraph() { return graph; }
+
+    /**
+     * Índice de aristas entrantes de esta versión, construido la primera vez que se pide.
+     * Si dos hilos lo piden a la vez ambos lo construyen y queda uno de los dos, que son iguales.
+     */
+    public ReverseAdjacencyIndex getReverseIndex() {
+        ReverseAdjacencyIndex index = reverseIndex;
+        if (index == null) {
+            index = ReverseAdjacencyIndex.of(graph);
+            reverseIndex = index;
+        }
+        return index;
+    }
+
+    /**
+     * Índice del aeropuerto en esta versión, o -1 si no existe.
+     */
+    public int indexOf(String airportCode) {
+        Integer index = airportCode == null ? null : codeToIndex.get(airportCode);
+        return index == null || index >= numVertices ? -1 : index;
+    }
+
+    public String codeOf(int index) {
+        return index >= 0 && index < numVertices ? codes[index] : null;
+    }
+
+    public boolean containsVertex(String airportCode) {
+        return indexOf(airportCode) != -1;
+    }
+
+    public boolean hasEdge(String uAirportCode, String vAirportCode) {
+        int u = indexOf(uAirportCode);
+        int v = indexOf(vAirportCode);
+        return u != -1 && v != -1 && graph.findEdge(u, v) != -1;
+    }
+
+    @Override
+    public String toString() {
+        return "GraphSnapshot{version=" + version + ", vertices=" + numVertices + ", edges=" + graph.getNumEdges() + "}";
+    }
+}
@@ -0,0 +1,138 @@
+package ucr.proyectoalgoritmos.graph;
+
+import java.util.Arrays;
+
+/**
+ * Montículo mínimo 4-ario indexado sobre arreglos primitivos.
+ * Los elementos son índices de vértice en [0, capacidad) con una prioridad double;
+ * position[v] guarda la posición de v dentro del montículo para permitir decreaseKey
+ * en O(log n) sin crear nodos. clear() es O(1), por lo que puede reutilizarse entre consultas.
+ */
+public final class IndexedMinHeap {
+    private static final int ARITY = 4;
+
+    private int[] heap;
+    private int[] position;
+    private double[] keys;
+    private int size;
+
+    public IndexedMinHeap(int capacity) {
+        capacity = Math.max(1, capacity);
+        this.heap = new int[capacity];
+        this.position = new int[capacity];
+        this.keys = new double[capacity];
+        this.size = 0;
+    }
+
+    /**
+     * Asegura espacio para vértices en [0, capacity). Solo reserva memoria cuando crece.
+     */
+    public void ensureCapacity(int capacity) {
+        if (capacity > heap.length) {
+            int newCapacity = Math.max(capacity, heap.length * 2);
+            heap = Arrays.copyOf(heap, newCapacity);
+            position = Arrays.copyOf(position, newCapacity);
+            keys = Arrays.copyOf(keys, newCapacity);
+        }
+    }
+
+    public void clear() { size = 0; }
+    public boolean isEmpty() { return size == 0; }
+    public int size() { return size; }
+
+    /**
+     * Inserta v, que no debe estar ya en el montículo.
+     */
+    public void insert(int v, double key) {
+        keys[v] = key;
+        heap[size] = v;
+        position[v] = size;
+        siftUp(size++);
+    }
+
+    /**
+     * Reduce la prioridad de v, que debe estar en el montículo.
+     */
+    public void decreaseKey(int v, double key) {
+        keys[v] = key;
+        siftUp(position[v]);
+    }
+
+    /**
+     * Cambia la prioridad de v (que debe estar en el montículo) a un valor mayor o menor.
+     */
+    public void changeKey(int v, double key) {
+        double old = keys[v];
+        keys[v] = key;
+        if (key < old) {
+            siftUp(position[v]);
+        } else {
+            siftDown(position[v]);
+        }
+    }
+
+    public boolean contains(int v) {
+        int i = position[v];
+        return i < size && heap[i] == v;
+    }
+
+    public int peekMin() { return heap[0]; }
+    public double peekMinKey() { return keys[heap[0]]; }
+
+    public int extractMin() {
+        int min = heap[0];
+        int last = heap[--size];
+        if (size > 0) {
+            heap[0] = last;
+            position[last] = 0;
+            siftDown(0);
+        }
+        return min;
+    }
+
+    private void siftUp(int i) {
+        int v = heap[i];
+        double key = keys[v];
+        while (i > 0) {
+            int parent = (i - 1) / ARITY;
+            int p = heap[parent];
+            if (keys[p] <= key) {
+                break;
+            }
+            heap[i] = p;
+            position[p] = i;
+            i = parent;
+        }
+        heap[i] = v;
+        position[v] = i;
+    }
+
+    private void siftDown(int i) {
+        int v = heap[i];
+        double key = keys[v];
+        while (true) {
+            int firstChild = i * ARITY + 1;
+            if (firstChild >= size) {
+                break;
+            }
+            int best = firstChild;
+            double bestKey = keys[heap[firstChild]];
+            int lastChild = Math.min(firstChild + ARITY, size);
+            for (int c = firstChild + 1; c < lastChild; c++) {
+                double childKey = keys[heap[c]];
+                if (childKey < bestKey) {
+                    best = c;
+                    bestKey = childKey;
+                }
+            }
+            if (bestKey >= key) {
+                break;
+            }
+            heap[i] = heap[best];
+            position[heap[i]] = i;
+            i = best;
+        }
+        heap[i] = v;
+        position[v] = i;
+    }
+}
@@ -0,0 +1,172 @@
+package ucr.proyectoalgoritmos.graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * K caminos más cortos sin ciclos (algoritmo de Yen) sobre un CompressedSparseRowGraph.
+ * Cada camino nuevo se obtiene desviándose de uno ya aceptado: para cada vértice de desvío se fija
+ * el prefijo (raíz), se bloquean las aristas que usaron los caminos aceptados con la misma raíz y los
+ * vértices de la raíz, y se busca el tramo restante con Dijkstra bidireccional.
+ *
+ * Los bloqueos se aplican sobre una copia de los pesos que se reutiliza entre búsquedas
+ * (poniendo NaN y restaurando solo las aristas tocadas). Los candidatos se guardan en un conjunto
+ * ordenado por costo que nunca guarda más de los que faltan por aceptar.
+ * Hay una instancia por hilo (forCurrentThread()).
+ */
+public final class KShortestPaths {
+
+    private static final ThreadLocal<KShortestPaths> PER_THREAD = ThreadLocal.withInitial(KShortestPaths::new);
+
+    private static final Comparator<Path> BY_COST = Comparator
+            .comparingDouble(Path::getCost)
+            .thenComparingInt(path -> path.edges.length)
+            .thenComparing((a, b) -> Arrays.compare(a.edges, b.edges));
+
+    /**
+     * Camino aceptado: aristas del CSR en orden desde el origen y su costo.
+     */
+    public static final class Path {
+        private final int[] edges;
+        private final double cost;
+
+        Path(int[] edges, double cost) {
+            this.edges = edges;
+            this.cost = cost;
+        }
+
+        public int[] getEdges() { return edges; }
+        public double getCost() { return cost; }
+    }
+
+    private final BidirectionalDijkstra search;
+    private double[] scratchWeights;
+    private int[] blockedEdges;
+    private int blockedCount;
+
+    public KShortestPaths() {
+        this.search = new BidirectionalDijkstra();
+        this.scratchWeights = new double[0];
+        this.blockedEdges = new int[16];
+    }
+
+    public static KShortestPaths forCurrentThread() {
+        return PER_THREAD.get();
+    }
+
+    /**
+     * Hasta k caminos sin ciclos de source a target, en orden de costo no decreciente.
+     * @param reverse índice inverso con la misma topología que csr.
+     * @param weights pesos alineados con las aristas de csr (NaN = arista ignorada).
+     * @return lista vacía si target no es alcanzable.
+     */
+    public List<Path> find(CompressedSparseRowGraph csr, ReverseAdjacencyIndex reverse, double[] weights, int source, int target, int k) {
+        if (k < 1) {
+            throw new IllegalArgumentException("k debe ser al menos 1: " + k);
+        }
+        int m = csr.getNumEdges();
+        if (scratchWeights.length < m) {
+            scratchWeights = new double[Math.max(m, scratchWeights.length * 2)];
+        }
+        System.arraycopy(weights, 0, scratchWeights, 0, m);
+        blockedCount = 0;
+
+        List<Path> accepted = new ArrayList<>(k);
+        if (source == target) {
+            accepted.add(new Path(new int[0], 0));
+            return accepted;
+        }
+        double first = search.run(csr, reverse, scratchWeights, source, target);
+        if (first == Double.POSITIVE_INFINITY) {
+            return accepted;
+        }
+        accepted.add(new Path(search.pathEdges(), first));
+
+        TreeSet<Path> candidates = new TreeSet<>(BY_COST);
+        while (accepted.size() < k) {
+            int[] previous = accepted.get(accepted.size() - 1).edges;
+            double rootCost = 0;
+            int spur = source;
+            for (int i = 0; i < previous.length; i++) {
+                // Aristas que ya usaron desde este vértice los caminos aceptados con la misma raíz.
+                for (Path path : accepted) {
+                    if (path.edges.length > i && sharesRoot(path.edges, previous, i)) {
+                        block(path.edges[i]);
+                    }
+                }
+                // Los vértices de la raíz (salvo el de desvío) no pueden volver a recorrerse.
+                int vertex = source;
+                for (int j = 0; j < i; j++) {
+                    blockOutgoing(csr, vertex);
+                    vertex = csr.target(previous[j]);
+                }
+
+                double spurCost = search.run(csr, reverse, scratchWeights, spur, target);
+                if (spurCost != Double.POSITIVE_INFINITY) {
+                    int[] spurEdges = search.pathEdges();
+                    int[] edges = Arrays.copyOf(previous, i + spurEdges.length);
+                    System.arraycopy(spurEdges, 0, edges, i, spurEdges.length);
+                    addCandidate(candidates, new Path(edges, rootCost + spurCost), k - accepted.size());
+                }
+                restore(weights);
+
+                rootCost += weights[previous[i]];
+                spur = csr.target(previous[i]);
+            }
+            if (candidates.isEmpty()) {
+                break;
+            }
+            accepted.add(candidates.pollFirst());
+        }
+        return accepted;
+    }
+
+    private static boolean sharesRoot(int[] path, int[] root, int length) {
+        for (int j = 0; j < length; j++) {
+            if (path[j] != root[j]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Agrega el candidato si no está repetido, conservando solo los limit mejores.
+     */
+    private static void addCandidate(TreeSet<Path> candidates, Path path, int limit) {
+        if (candidates.size() >= limit && BY_COST.compare(path, candidates.last()) >= 0) {
+            return;
+        }
+        if (candidates.add(path) && candidates.size() > limit) {
+            candidates.pollLast();
+        }
+    }
+
+    private void block(int edge) {
+        if (Double.isNaN(scratchWeights[edge])) {
+            return;
+        }
+        if (blockedCount == blockedEdges.length) {
+            blockedEdges = Arrays.copyOf(blockedEdges, blockedCount * 2);
+        }
+        blockedEdges[blockedCount++] = edge;
+        scratchWeights[edge] = Double.NaN;
+    }
+
+    private void blockOutgoing(CompressedSparseRowGraph csr, int vertex) {
+        for (int e = csr.edgeStart(vertex); e < csr.edgeEnd(vertex); e++) {
+            block(e);
+        }
+    }
+
+    private void restore(double[] weights) {
+        for (int i = 0; i < blockedCount; i++) {
+            int edge = blockedEdges[i];
+            scratchWeights[edge] = weights[edge];
+        }
+        blockedCount = 0;
+    }
+}
@@ -0,0 +1,326 @@
+package ucr.proyectoalgoritmos.graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Búsqueda multicriterio por etiquetas (label-setting) sobre distancia, duración y cantidad de tramos.
+ * Cada vértice guarda una bolsa de etiquetas no dominadas; una etiqueta domina a otra si no es peor en
+ * ningún criterio. Las etiquetas se procesan en orden lexicográfico (distancia, duración, tramos), así
+ * que una etiqueta extraída del montículo ya no puede ser dominada por otra que llegue después al mismo
+ * vértice. Las etiquetas dominadas por alguna del destino se descartan de inmediato.
+ *
+ * Para acotar el trabajo, los caminos tienen a lo sumo maxLegs tramos y cada bolsa guarda a lo sumo
+ * maxLabelsPerVertex etiquetas; si ese límite llega a descartar etiquetas, el frente puede quedar
+ * incompleto y isTruncated() lo indica. Las etiquetas se guardan en arreglos primitivos que se
+ * reutilizan entre consultas; hay una instancia por hilo (forCurrentThread()).
+ */
+public final class ParetoRouteSearch {
+
+    public static final int DEFAULT_MAX_LEGS = 6;
+    public static final int DEFAULT_MAX_LABELS_PER_VERTEX = 64;
+
+    private static final ThreadLocal<ParetoRouteSearch> PER_THREAD = ThreadLocal.withInitial(ParetoRouteSearch::new);
+
+    /**
+     * Itinerario del frente de Pareto: aristas del CSR en orden desde el origen y sus totales.
+     */
+    public static final class Route {
+        private final int[] edges;
+        private final double distance;
+        private final double duration;
+
+        Route(int[] edges, double distance, double duration) {
+            this.edges = edges;
+            this.distance = distance;
+            this.duration = duration;
+        }
+
+        public int[] getEdges() { return edges; }
+        public double getDistance() { return distance; }
+        public double getDuration() { return duration; }
+        public int getLegs() { return edges.length; }
+    }
+
+    // Etiquetas: vértice, costos, etiqueta y arista previas, y si fue dominada después de crearse.
+    private int[] labelVertex;
+    private double[] labelDistance;
+    private double[] labelDuration;
+    private int[] labelLegs;
+    private int[] labelParent;
+    private int[] labelEdge;
+    private boolean[] labelDominated;
+    private int labelCount;
+
+    // Bolsas por vértice, válidas solo si bagStamp[v] == generation.
+    private int[][] bags;
+    private int[] bagSize;
+    private int[] bagStamp;
+    private int generation;
+
+    // Montículo binario de etiquetas por (distancia, duración, tramos).
+    private int[] heap;
+    private int heapSize;
+
+    private boolean truncated;
+
+    public ParetoRouteSearch() {
+        allocateLabels(64);
+        this.bags = new int[0][];
+        this.bagSize = new int[0];
+        this.bagStamp = new int[0];
+        this.heap = new int[64];
+    }
+
+    public static ParetoRouteSearch forCurrentThread() {
+        return PER_THREAD.get();
+    }
+
+    private void allocateLabels(int capacity) {
+        labelVertex = new int[capacity];
+        labelDistance = new double[capacity];
+        labelDuration = new double[capacity];
+        labelLegs = new int[capacity];
+        labelParent = new int[capacity];
+        labelEdge = new int[capacity];
+        labelDominated = new boolean[capacity];
+    }
+
+    private void prepare(int n) {
+        if (n > bagStamp.length) {
+            int capacity = Math.max(n, bagStamp.length * 2);
+            bags = Arrays.copyOf(bags, capacity);
+            bagSize = new int[capacity];
+            bagStamp = new int[capacity];
+            generation = 0;
+        }
+        if (generation == Integer.MAX_VALUE) {
+            Arrays.fill(bagStamp, 0);
+            generation = 0;
+        }
+        generation++;
+        labelCount = 0;
+        heapSize = 0;
+        truncated = false;
+    }
+
+    /**
+     * Frente de Pareto de itinerarios de source a target con los límites por defecto.
+     */
+    public List<Route> search(CompressedSparseRowGraph csr, int source, int target) {
+        return search(csr, source, target, DEFAULT_MAX_LEGS, DEFAULT_MAX_LABELS_PER_VERTEX);
+    }
+
+    /**
+     * Frente de Pareto de itinerarios de source a target sobre distancia, duración y tramos.
+     * Solo se usan aristas con distancia y duración conocidas (no NaN).
+     * @return itinerarios no dominados ordenados por distancia; vacío si target no es alcanzable.
+     */
+    public List<Route> search(CompressedSparseRowGraph csr, int source, int target, int maxLegs, int maxLabelsPerVertex) {
+        int n = csr.getNumVertices();
+        if (source < 0 || source >= n || target < 0 || target >= n) {
+            throw new IllegalArgumentException("Vértices inválidos: " + source + " -> " + target + ", numVertices=" + n);
+        }
+        if (maxLegs < 1 || maxLabelsPerVertex < 1) {
+            throw new IllegalArgumentException("Los límites deben ser positivos: maxLegs=" + maxLegs + ", maxLabelsPerVertex=" + maxLabelsPerVertex);
+        }
+        prepare(n);
+        int[] offsets = csr.getOffsets();
+        int[] targets = csr.getTargets();
+        double[] distances = csr.getDistances();
+        double[] durations = csr.getDurations();
+
+        int start = newLabel(source, 0, 0, 0, -1, -1);
+        addToBag(source, start, maxLabelsPerVertex);
+        push(start);
+
+        while (heapSize > 0) {
+            int label = pop();
+            if (labelDominated[label]) {
+                continue;
+            }
+            int u = labelVertex[label];
+            if (u == target || labelLegs[label] == maxLegs) {
+                continue;
+            }
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                double distance = distances[e];
+                double duration = durations[e];
+                if (Double.isNaN(distance) || Double.isNaN(duration)) {
+                    continue;
+                }
+                int v = targets[e];
+                double newDistance = labelDistance[label] + distance;
+                double newDuration = labelDuration[label] + duration;
+                int newLegs = labelLegs[label] + 1;
+                // Poda por el destino: si ya hay un itinerario igual o mejor, la extensión no sirve.
+                if (v != target && isDominatedByBag(target, newDistance, newDuration, newLegs)) {
+                    continue;
+                }
+                if (isDominatedByBag(v, newDistance, newDuration, newLegs)) {
+                    continue;
+                }
+                int created = newLabel(v, newDistance, newDuration, newLegs, label, e);
+                if (addToBag(v, created, maxLabelsPerVertex)) {
+                    push(created);
+                } else {
+                    labelCount--;
+                }
+            }
+        }
+
+        List<Route> front = new ArrayList<>();
+        if (bagStamp[target] == generation) {
+            for (int i = 0; i < bagSize[target]; i++) {
+                front.add(toRoute(bags[target][i]));
+            }
+        }
+        front.sort((a, b) -> {
+            int cmp = Double.compare(a.distance, b.distance);
+            if (cmp == 0) cmp = Double.compare(a.duration, b.duration);
+            return cmp != 0 ? cmp : Integer.compare(a.getLegs(), b.getLegs());
+        });
+        return front;
+    }
+
+    /**
+     * Indica si en la última búsqueda el límite de etiquetas por vértice descartó etiquetas no dominadas.
+     */
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    /**
+     * Etiquetas creadas en la última búsqueda.
+     */
+    public int getLabelCount() {
+        return labelCount;
+    }
+
+    private int newLabel(int vertex, double distance, double duration, int legs, int parent, int edge) {
+        if (labelCount == labelVertex.length) {
+            int capacity = labelCount * 2;
+            labelVertex = Arrays.copyOf(labelVertex, capacity);
+            labelDistance = Arrays.copyOf(labelDistance, capacity);
+            labelDuration = Arrays.copyOf(labelDuration, capacity);
+            labelLegs = Arrays.copyOf(labelLegs, capacity);
+            labelParent = Arrays.copyOf(labelParent, capacity);
+            labelEdge = Arrays.copyOf(labelEdge, capacity);
+            labelDominated = Arrays.copyOf(labelDominated, capacity);
+        }
+        int label = labelCount++;
+        labelVertex[label] = vertex;
+        labelDistance[label] = distance;
+        labelDuration[label] = duration;
+        labelLegs[label] = legs;
+        labelParent[label] = parent;
+        labelEdge[label] = edge;
+        labelDominated[label] = false;
+        return label;
+    }
+
+    private boolean isDominatedByBag(int v, double distance, double duration, int legs) {
+        if (bagStamp[v] != generation) {
+            return false;
+        }
+        int[] bag = bags[v];
+        for (int i = 0; i < bagSize[v]; i++) {
+            int other = bag[i];
+            if (labelDistance[other] <= distance && labelDuration[other] <= duration && labelLegs[other] <= legs) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Agrega una etiqueta no dominada a la bolsa de v, quitando las que ella domina.
+     * @return false si la bolsa está llena y la etiqueta se descarta.
+     */
+    private boolean addToBag(int v, int label, int maxLabelsPerVertex) {
+        if (bagStamp[v] != generation) {
+            bagStamp[v] = generation;
+            bagSize[v] = 0;
+            if (bags[v] == null) {
+                bags[v] = new int[4];
+            }
+        }
+        int[] bag = bags[v];
+        int kept = 0;
+        for (int i = 0; i < bagSize[v]; i++) {
+            int other = bag[i];
+            if (labelDistance[label] <= labelDistance[other] && labelDuration[label] <= labelDuration[other]
+                    && labelLegs[label] <= labelLegs[other]) {
+                labelDominated[other] = true;
+            } else {
+                bag[kept++] = other;
+            }
+        }
+        bagSize[v] = kept;
+        if (kept == maxLabelsPerVertex) {
+            truncated = true;
+            return false;
+        }
+        if (kept == bag.length) {
+            bag = Arrays.copyOf(bag, Math.min(maxLabelsPerVertex, kept * 2));
+            bags[v] = bag;
+        }
+        bag[bagSize[v]++] = label;
+        return true;
+    }
+
+    private Route toRoute(int label) {
+        int[] edges = new int[labelLegs[label]];
+        for (int l = label, i = edges.length - 1; labelParent[l] != -1; l = labelParent[l]) {
+            edges[i--] = labelEdge[l];
+        }
+        return new Route(edges, labelDistance[label], labelDuration[label]);
+    }
+
+    private boolean less(int a, int b) {
+        if (labelDistance[a] != labelDistance[b]) return labelDistance[a] < labelDistance[b];
+        if (labelDuration[a] != labelDuration[b]) return labelDuration[a] < labelDuration[b];
+        return labelLegs[a] < labelLegs[b];
+    }
+
+    private void push(int label) {
+        if (heapSize == heap.length) {
+            heap = Arrays.copyOf(heap, heapSize * 2);
+        }
+        int i = heapSize++;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!less(label, heap[parent])) {
+                break;
+            }
+            heap[i] = heap[parent];
+            i = parent;
+        }
+        heap[i] = label;
+    }
+
+    private int pop() {
+        int top = heap[0];
+        int last = heap[--heapSize];
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= heapSize) {
+                break;
+            }
+            if (child + 1 < heapSize && less(heap[child + 1], heap[child])) {
+                child++;
+            }
+            if (!less(heap[child], last)) {
+                break;
+            }
+            heap[i] = heap[child];
+            i = child;
+        }
+        if (heapSize > 0) {
+            heap[i] = last;
+        }
+        return top;
+    }
+}
@@ -0,0 +1,238 @@
+package ucr.proyectoalgoritmos.graph;
+
+import java.util.Arrays;
+
+/**
+ * Índice de alcanzabilidad del grafo de rutas: componentes fuertemente conexas (Tarjan) y, sobre el
+ * DAG de componentes, un conjunto de bits por componente con las componentes que alcanza.
+ * "¿v es alcanzable desde u?" es entonces una consulta O(1) sobre reach[comp(u)].
+ *
+ * Se mantiene de forma incremental al añadir aristas y vértices:
+ * - si comp(u) ya alcanzaba comp(v), la arista u->v no cambia nada;
+ * - si no, y comp(v) no alcanza comp(u), a cada componente que alcanza comp(u) se le une reach[comp(v)];
+ * - si comp(v) alcanza comp(u), la arista cierra un ciclo que fusiona componentes y el índice se reconstruye.
+ * Las aristas nunca se quitan del grafo interno y los cambios de peso no afectan la alcanzabilidad.
+ *
+ * La memoria es de componentes^2 / 8 bytes; para la red de aeropuertos es pequeña.
+ */
+public final class ReachabilityIndex {
+
+    private int numVertices;
+    private int[] component;
+    private int numComponents;
+    // reach[c] tiene un bit por componente; words = palabras de 64 bits por fila.
+    private long[][] reach;
+    private int words;
+    private long version;
+    private int rebuildCount;
+
+    private ReachabilityIndex() {
+    }
+
+    /**
+     * Construye el índice para todas las aristas de csr, sin importar sus pesos.
+     * @param version versión del grafo a la que corresponde csr.
+     */
+    public static ReachabilityIndex build(CompressedSparseRowGraph csr, long version) {
+        ReachabilityIndex index = new ReachabilityIndex();
+        index.rebuild(csr);
+        index.version = version;
+        return index;
+    }
+
+    /**
+     * Tarjan iterativo: las componentes salen en orden topológico inverso (primero las que no tienen
+     * salida hacia otras), así que al cerrar una componente ya se conocen los conjuntos de sus sucesoras.
+     */
+    private void rebuild(CompressedSparseRowGraph csr) {
+        int n = csr.getNumVertices();
+        int[] offsets = csr.getOffsets();
+        int[] targets = csr.getTargets();
+        numVertices = n;
+        component = new int[Math.max(n, 1)];
+        Arrays.fill(component, -1);
+        words = Math.max(1, (n + 63) >>> 6);
+        reach = new long[Math.max(n, 1)][];
+        numComponents = 0;
+        rebuildCount++;
+
+        int[] low = new int[n];
+        int[] order = new int[n];
+        Arrays.fill(order, -1);
+        int[] sccStack = new int[n];
+        int sccTop = 0;
+        boolean[] onStack = new boolean[n];
+        int[] callVertex = new int[n];
+        int[] callEdge = new int[n];
+        int counter = 0;
+
+        for (int root = 0; root < n; root++) {
+            if (order[root] != -1) {
+                continue;
+            }
+            int depth = 0;
+            callVertex[0] = root;
+            callEdge[0] = offsets[root];
+            order[root] = low[root] = counter++;
+            sccStack[sccTop++] = root;
+            onStack[root] = true;
+            while (depth >= 0) {
+                int u = callVertex[depth];
+                if (callEdge[depth] < offsets[u + 1]) {
+                    int w = targets[callEdge[depth]++];
+                    if (order[w] == -1) {
+                        order[w] = low[w] = counter++;
+                        sccStack[sccTop++] = w;
+                        onStack[w] = true;
+                        depth++;
+                        callVertex[depth] = w;
+                        callEdge[depth] = offsets[w];
+                    } else if (onStack[w]) {
+                        low[u] = Math.min(low[u], order[w]);
+                    }
+                    continue;
+                }
+                if (low[u] == order[u]) {
+                    closeComponent(u, sccStack, sccTop, onStack, offsets, targets);
+                    while (sccStack[--sccTop] != u) {
+                        // Los vértices ya quedaron asignados en closeComponent.
+                    }
+                }
+                depth--;
+                if (depth >= 0) {
+                    int parent = callVertex[depth];
+                    low[parent] = Math.min(low[parent], low[u]);
+                }
+            }
+        }
+    }
+
+    private void closeComponent(int root, int[] sccStack, int sccTop, boolean[] onStack, int[] offsets, int[] targets) {
+        int c = numComponents++;
+        long[] bits = new long[words];
+        bits[c >>> 6] |= 1L << c;
+        int start = sccTop;
+        do {
+            start--;
+            component[sccStack[start]] = c;
+            onStack[sccStack[start]] = false;
+        } while (sccStack[start] != root);
+        for (int i = start; i < sccTop; i++) {
+            int x = sccStack[i];
+            for (int e = offsets[x]; e < offsets[x + 1]; e++) {
+                int d = component[targets[e]];
+                if (d != c && d != -1) {
+                    long[] other = reach[d];
+                    for (int k = 0; k < words; k++) {
+                        bits[k] |= other[k];
+                    }
+                }
+            }
+        }
+        reach[c] = bits;
+    }
+
+    public int getNumVertices() { return numVertices; }
+    public int getComponentCount() { return numComponents; }
+    public long getVersion() { return version; }
+
+    /**
+     * Veces que el índice se construyó completo (la primera incluida).
+     */
+    public int getRebuildCount() { return rebuildCount; }
+
+    public int componentOf(int v) {
+        return component[v];
+    }
+
+    /**
+     * Indica si existe un camino de u a v (siempre true si u == v).
+     */
+    public boolean isReachable(int u, int v) {
+        if (u < 0 || u >= numVertices || v < 0 || v >= numVertices) {
+            throw new IllegalArgumentException("Vértices inválidos: " + u + " -> " + v + ", numVertices=" + numVertices);
+        }
+        int target = component[v];
+        return (reach[component[u]][target >>> 6] & (1L << target)) != 0;
+    }
+
+    /**
+     * Marca el índice como vigente para una versión nueva cuyo cambio no afecta la alcanzabilidad.
+     */
+    public void revalidate(long newVersion) {
+        this.version = newVersion;
+    }
+
+    /**
+     * Actualiza el índice después de que el grafo creció y/o se añadió la arista u->v (u = -1 si solo
+     * se añadieron vértices). csr debe ser el grafo ya modificado.
+     */
+    public void update(CompressedSparseRowGraph csr, int u, int v, long newVersion) {
+        int n = csr.getNumVertices();
+        if (n < numVertices) {
+            throw new IllegalArgumentException("El grafo no puede tener menos vértices que el índice: " + n + " < " + numVertices);
+        }
+        addVertices(n);
+        version = newVersion;
+        if (u == -1 || u == v) {
+            return;
+        }
+        int cu = component[u];
+        int cv = component[v];
+        if (reaches(cu, cv)) {
+            return;
+        }
+        if (reaches(cv, cu)) {
+            // La arista cierra un ciclo: las componentes entre cv y cu se fusionan.
+            rebuild(csr);
+            return;
+        }
+        long[] added = reach[cv];
+        for (int c = 0; c < numComponents; c++) {
+            if (reaches(c, cu)) {
+                long[] bits = reach[c];
+                for (int k = 0; k < words; k++) {
+                    bits[k] |= added[k];
+                }
+            }
+        }
+    }
+
+    private boolean reaches(int from, int to) {
+        return (reach[from][to >>> 6] & (1L << to)) != 0;
+    }
+
+    /**
+     * Cada vértice nuevo es una componente propia que solo se alcanza a sí misma.
+     */
+    private void addVertices(int n) {
+        if (n == numVertices) {
+            return;
+        }
+        int neededComponents = numComponents + (n - numVertices);
+        if (n > component.length) {
+            int old = component.length;
+            component = Arrays.copyOf(component, Math.max(n, old * 2));
+            Arrays.fill(component, old, component.length, -1);
+        }
+        if (neededComponents > reach.length) {
+            reach = Arrays.copyOf(reach, Math.max(neededComponents, reach.length * 2));
+        }
+        int neededWords = (neededComponents + 63) >>> 6;
+        if (neededWords > words) {
+            int newWords = Math.max(neededWords, words * 2);
+            for (int c = 0; c < numComponents; c++) {
+                reach[c] = Arrays.copyOf(reach[c], newWords);
+            }
+            words = newWords;
+        }
+        for (int x = numVertices; x < n; x++) {
+            int c = numComponents++;
+            component[x] = c;
+            long[] bits = new long[words];
+            bits[c >>> 6] |= 1L << c;
+            reach[c] = bits;
+        }
+        numVertices = n;
+    }
+}
@@ -0,0 +1,71 @@
+package ucr.proyectoalgoritmos.graph;
+
+/**
+ * Índice de aristas entrantes de un CompressedSparseRowGraph.
+ * Las aristas que llegan al vértice v ocupan las posiciones [offsets[v], offsets[v + 1])
+ * de sources y forwardEdges; forwardEdges guarda la posición de la arista en el CSR original,
+ * de modo que cualquier arreglo de pesos alineado con el CSR sirve también para el recorrido inverso.
+ */
+public final class ReverseAdjacencyIndex {
+    private final int numVertices;
+    private final int[] offsets;
+    private final int[] sources;
+    private final int[] forwardEdges;
+    private final long version;
+
+    private ReverseAdjacencyIndex(int numVertices, int[] offsets, int[] sources, int[] forwardEdges, long version) {
+        this.numVertices = numVertices;
+        this.offsets = offsets;
+        this.sources = sources;
+        this.forwardEdges = forwardEdges;
+        this.version = version;
+    }
+
+    /**
+     * Construye el índice inverso en O(V + E) con un conteo por vértice destino.
+     */
+    public static ReverseAdjacencyIndex of(CompressedSparseRowGraph csr) {
+        int n = csr.getNumVertices();
+        int m = csr.getNumEdges();
+        int[] forwardOffsets = csr.getOffsets();
+        int[] targets = csr.getTargets();
+
+        int[] offsets = new int[n + 1];
+        for (int e = 0; e < m; e++) {
+            offsets[targets[e] + 1]++;
+        }
+        for (int v = 0; v < n; v++) {
+            offsets[v + 1] += offsets[v];
+        }
+
+        int[] next = new int[n];
+        System.arraycopy(offsets, 0, next, 0, n);
+        int[] sources = new int[m];
+        int[] forwardEdges = new int[m];
+        for (int u = 0; u < n; u++) {
+            for (int e = forwardOffsets[u]; e < forwardOffsets[u + 1]; e++) {
+                int slot = next[targets[e]]++;
+                sources[slot] = u;
+                forwardEdges[slot] = e;
+            }
+        }
+        return new ReverseAdjacencyIndex(n, offsets, sources, forwardEdges, csr.getVersion());
+    }
+
+    public int getNumVertices() { return numVertices; }
+    public long getVersion() { return version; }
+
+    public int edgeStart(int v) { return offsets[v]; }
+    public int edgeEnd(int v) { return offsets[v + 1]; }
+    public int inDegree(int v) { return offsets[v + 1] - offsets[v]; }
+
+    /** Vértice de origen de la i-ésima arista entrante del índice. */
+    public int source(int i) { return sources[i]; }
+
+    /** Posición en el CSR original de la i-ésima arista entrante del índice. */
+    public int forwardEdge(int i) { return forwardEdges[i]; }
+
+    public int[] getOffsets() { return offsets; }
+    public int[] getSources() { return sources; }
+    public int[] getForwardEdges() { return forwardEdges; }
+}
@@ -0,0 +1,205 @@
+package ucr.proyectoalgoritmos.graph;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.IntFunction;
+
+/**
+ * Registro opcional de los eventos de las búsquedas de rutas (ShortestPathEngine y BidirectionalDijkstra),
+ * en lugar de imprimir en la consola durante la búsqueda. Se activa por consulta y por hilo:
+ *
+ *   RouteTracer tracer = new RouteTracer(4096);
+ *   RouteTracer.Scope scope = tracer.attach();
+ *   try {
+ *       service.getShortestPathDualWeights("SJO", "CDG", "distance");
+ *   } finally {
+ *       scope.close();
+ *   }
+ *   tracer.dump(System.out, snapshot::codeOf);
+ *
+ * Los eventos se guardan en arreglos primitivos reservados al crear el tracer, como un buffer circular:
+ * si se llena, los eventos nuevos reemplazan a los más antiguos (ver getDroppedCount()). Sin tracer
+ * asociado al hilo, los motores solo consultan una vez por búsqueda si hay uno y el recorrido de aristas
+ * no hace ningún trabajo adicional más que comparar una variable local con null.
+ */
+public final class RouteTracer {
+
+    /** Inicio de una búsqueda: vertex = origen, other = destino (-1 si es completa). */
+    public static final int QUERY = 0;
+    /** Vértice asentado: vertex, value = distancia; other = 1 si es el frente hacia atrás. */
+    public static final int SETTLED = 1;
+    /** Distancia mejorada: other -> vertex, value = nueva distancia (en el frente hacia atrás, vertex -> other). */
+    public static final int RELAXED = 2;
+    /** Fin de una búsqueda: vertex = destino (-1 si es completa), value = costo (infinito si no se alcanzó). */
+    public static final int RESULT = 3;
+    /** Relajación en el frente hacia atrás de la búsqueda bidireccional. */
+    public static final int RELAXED_BACKWARD = 4;
+
+    private static final String[] KIND_NAMES = {"QUERY", "SETTLED", "RELAXED", "RESULT", "RELAXED_BACKWARD"};
+    private static final ThreadLocal<RouteTracer> CURRENT = new ThreadLocal<>();
+
+    private final int[] kinds;
+    private final int[] vertices;
+    private final int[] others;
+    private final double[] values;
+    // Total de eventos registrados desde el último clear(); los guardados son los últimos min(total, capacidad).
+    private long recorded;
+
+    public RouteTracer(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("La capacidad del tracer debe ser positiva: " + capacity);
+        }
+        this.kinds = new int[capacity];
+        this.vertices = new int[capacity];
+        this.others = new int[capacity];
+        this.values = new double[capacity];
+    }
+
+    /**
+     * Tracer asociado al hilo actual, o null si no hay ninguno (el caso normal).
+     */
+    public static RouteTracer current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Asocia este tracer al hilo actual hasta cerrar el Scope, que restaura el anterior.
+     */
+    public Scope attach() {
+        RouteTracer previous = CURRENT.get();
+        CURRENT.set(this);
+        return new Scope(previous);
+    }
+
+    public static final class Scope implements AutoCloseable {
+        private final RouteTracer previous;
+
+        private Scope(RouteTracer previous) {
+            this.previous = previous;
+        }
+
+        @Override
+        public void close() {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    public void query(int source, int target) {
+        record(QUERY, source, target, 0);
+    }
+
+    public void settled(int vertex, double distance, boolean backward) {
+        record(SETTLED, vertex, backward ? 1 : 0, distance);
+    }
+
+    public void relaxed(int from, int vertex, double distance) {
+        record(RELAXED, vertex, from, distance);
+    }
+
+    public void relaxedBackward(int vertex, int to, double distance) {
+        record(RELAXED_BACKWARD, vertex, to, distance);
+    }
+
+    public void result(int target, double cost) {
+        record(RESULT, target, -1, cost);
+    }
+
+    private void record(int kind, int vertex, int other, double value) {
+        int slot = (int) (recorded % kinds.length);
+        kinds[slot] = kind;
+        vertices[slot] = vertex;
+        others[slot] = other;
+        values[slot] = value;
+        recorded++;
+    }
+
+    public int getCapacity() { return kinds.length; }
+
+    /**
+     * Eventos guardados (como máximo la capacidad).
+     */
+    public int size() {
+        return (int) Math.min(recorded, kinds.length);
+    }
+
+    /**
+     * Eventos que se perdieron por falta de espacio (los más antiguos).
+     */
+    public long getDroppedCount() {
+        return recorded - size();
+    }
+
+    public void clear() {
+        recorded = 0;
+    }
+
+    private int slotOf(int i) {
+        if (i < 0 || i >= size()) {
+            throw new IndexOutOfBoundsException("Evento " + i + " fuera de rango; size=" + size());
+        }
+        return (int) ((recorded - size() + i) % kinds.length);
+    }
+
+    // Acceso al evento i, del más antiguo (0) al más reciente (size() - 1).
+    public int getKind(int i) { return kinds[slotOf(i)]; }
+    public int getVertex(int i) { return vertices[slotOf(i)]; }
+    public int getOther(int i) { return others[slotOf(i)]; }
+    public double getValue(int i) { return values[slotOf(i)]; }
+
+    /**
+     * Escribe un evento por línea, del más antiguo al más reciente.
+     * @param names traduce índices de vértice a nombres (por ejemplo GraphSnapshot::codeOf); null para índices.
+     */
+    public void dump(Appendable out, IntFunction<String> names) {
+        try {
+            if (getDroppedCount() > 0) {
+                out.append("... ").append(String.valueOf(getDroppedCount())).append(" eventos anteriores descartados\n");
+            }
+            for (int i = 0; i < size(); i++) {
+                int slot = slotOf(i);
+                int kind = kinds[slot];
+                out.append(KIND_NAMES[kind]).append(' ');
+                switch (kind) {
+                    case QUERY:
+                        out.append(name(vertices[slot], names)).append(" -> ").append(name(others[slot], names));
+                        break;
+                    case SETTLED:
+                        out.append(name(vertices[slot], names)).append(others[slot] == 1 ? " (atrás)" : "")
+                                .append(" d=").append(String.valueOf(values[slot]));
+                        break;
+                    case RELAXED:
+                        out.append(name(others[slot], names)).append(" -> ").append(name(vertices[slot], names))
+                                .append(" d=").append(String.valueOf(values[slot]));
+                        break;
+                    case RELAXED_BACKWARD:
+                        out.append(name(vertices[slot], names)).append(" -> ").append(name(others[slot], names))
+                                .append(" d=").append(String.valueOf(values[slot]));
+                        break;
+                    default:
+                        out.append(name(vertices[slot], names)).append(" costo=").append(String.valueOf(values[slot]));
+                }
+                out.append('\n');
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String name(int vertex, IntFunction<String> names) {
+        if (vertex < 0) {
+            return "*";
+        }
+        return names == null ? String.valueOf(vertex) : names.apply(vertex);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        dump(sb, null);
+        return sb.toString();
+    }
+}
@@ -0,0 +1,239 @@
+package ucr.proyectoalgoritmos.graph;
+
+import java.util.Arrays;
+
+/**
+ * Motor de Dijkstra compartido por todas las búsquedas de rutas más cortas.
+ * Trabaja sobre un CompressedSparseRowGraph y un arreglo de pesos por arista (NaN = arista ignorada),
+ * con un montículo indexado primitivo y arreglos de trabajo que se reutilizan entre consultas.
+ * En lugar de limpiar los arreglos en cada consulta se usa un número de generación: un vértice
+ * solo tiene distancia válida si su marca coincide con la generación de la consulta actual.
+ * Una vez que los arreglos alcanzan el tamaño del grafo, las consultas repetidas no reservan memoria.
+ *
+ * Cada hilo tiene su propia instancia (forCurrentThread()). Los resultados de una consulta
+ * son válidos hasta la siguiente llamada a run() o runAStar() en el mismo hilo.
+ * Si el hilo tiene un RouteTracer asociado, la búsqueda registra en él los vértices asentados y las
+ * distancias mejoradas.
+ */
+public final class ShortestPathEngine {
+
+    /**
+     * Cota inferior del costo restante desde un vértice hasta el destino de la consulta.
+     * Para que runAStar() retorne caminos óptimos debe ser consistente:
+     * estimate(u) <= peso(u, v) + estimate(v) para toda arista u->v.
+     */
+    @FunctionalInterface
+    public interface Heuristic {
+        double estimate(int vertex);
+    }
+
+    private static final ThreadLocal<ShortestPathEngine> PER_THREAD = ThreadLocal.withInitial(ShortestPathEngine::new);
+
+    private double[] dist;
+    private int[] prevEdge;
+    private int[] prevVertex;
+    private double[] estimate;
+    private int[] reachedStamp;
+    private int[] settledStamp;
+    private int[] settledOrder;
+    private int settledCount;
+    private int generation;
+    private int numVertices;
+    private final IndexedMinHeap heap;
+
+    public ShortestPathEngine() {
+        this.dist = new double[0];
+        this.prevEdge = new int[0];
+        this.prevVertex = new int[0];
+        this.estimate = new double[0];
+        this.reachedStamp = new int[0];
+        this.settledStamp = new int[0];
+        this.settledOrder = new int[0];
+        this.generation = 0;
+        this.heap = new IndexedMinHeap(16);
+    }
+
+    /**
+     * Instancia con arreglos de trabajo propios del hilo actual.
+     */
+    public static ShortestPathEngine forCurrentThread() {
+        return PER_THREAD.get();
+    }
+
+    private void prepare(int n) {
+        if (n > dist.length) {
+            int capacity = Math.max(n, dist.length * 2);
+            dist = new double[capacity];
+            prevEdge = new int[capacity];
+            prevVertex = new int[capacity];
+            estimate = new double[capacity];
+            reachedStamp = new int[capacity];
+            settledStamp = new int[capacity];
+            settledOrder = new int[capacity];
+            generation = 0;
+        }
+        heap.ensureCapacity(n);
+        heap.clear();
+        if (generation == Integer.MAX_VALUE) {
+            Arrays.fill(reachedStamp, 0);
+            Arrays.fill(settledStamp, 0);
+            generation = 0;
+        }
+        generation++;
+        settledCount = 0;
+        numVertices = n;
+    }
+
+    /**
+     * Ejecuta Dijkstra desde source. Si target >= 0 la búsqueda se detiene al asentar target;
+     * con target = -1 recorre todo lo alcanzable.
+     * @return distancia a target (POSITIVE_INFINITY si no es alcanzable), o 0 si target = -1.
+     */
+    public double run(CompressedSparseRowGraph csr, double[] weights, int source, int target) {
+        return search(csr, weights, source, target, null);
+    }
+
+    /**
+     * Búsqueda A* de source a target: la prioridad de cada vértice es su distancia más la
+     * estimación de la heurística, por lo que se asientan menos vértices que con run().
+     * Con una heurística consistente la distancia retornada es la misma que la de run().
+     * Las distancias de vértices distintos de target no son necesariamente mínimas.
+     * @return distancia a target (POSITIVE_INFINITY si no es alcanzable).
+     */
+    public double runAStar(CompressedSparseRowGraph csr, double[] weights, int source, int target, Heuristic heuristic) {
+        if (target < 0) {
+            throw new IllegalArgumentException("A* requiere un vértice destino.");
+        }
+        return search(csr, weights, source, target, heuristic);
+    }
+
+    private double search(CompressedSparseRowGraph csr, double[] weights, int source, int target, Heuristic heuristic) {
+        int n = csr.getNumVertices();
+        if (source < 0 || source >= n) {
+            throw new IllegalArgumentException("Vértice de origen inválido: " + source + ", numVertices=" + n);
+        }
+        prepare(n);
+        int[] offsets = csr.getOffsets();
+        int[] targets = csr.getTargets();
+        int gen = generation;
+        RouteTracer tracer = RouteTracer.current();
+        if (tracer != null) {
+            tracer.query(source, target);
+        }
+
+        dist[source] = 0;
+        prevEdge[source] = -1;
+        prevVertex[source] = -1;
+        reachedStamp[source] = gen;
+        heap.insert(source, 0);
+
+        while (!heap.isEmpty()) {
+            int u = heap.extractMin();
+            settledStamp[u] = gen;
+            settledOrder[settledCount++] = u;
+            if (tracer != null) {
+                tracer.settled(u, dist[u], false);
+            }
+            if (u == target) {
+                break;
+            }
+            double du = dist[u];
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                double w = weights[e];
+                if (Double.isNaN(w)) {
+                    continue;
+                }
+                int v = targets[e];
+                if (settledStamp[v] == gen) {
+                    continue;
+                }
+                double candidate = du + w;
+                if (reachedStamp[v] != gen) {
+                    reachedStamp[v] = gen;
+                    dist[v] = candidate;
+                    prevEdge[v] = e;
+                    prevVertex[v] = u;
+                    estimate[v] = heuristic == null ? 0 : heuristic.estimate(v);
+                    heap.insert(v, candidate + estimate[v]);
+                } else if (candidate < dist[v]) {
+                    dist[v] = candidate;
+                    prevEdge[v] = e;
+                    prevVertex[v] = u;
+                    heap.decreaseKey(v, candidate + estimate[v]);
+                } else {
+                    continue;
+                }
+                if (tracer != null) {
+                    tracer.relaxed(u, v, candidate);
+                }
+            }
+        }
+        if (tracer != null) {
+            tracer.result(target, target >= 0 ? getDistance(target) : settledCount);
+        }
+        return target >= 0 ? getDistance(target) : 0;
+    }
+
+    public int getNumVertices() {
+        return numVertices;
+    }
+
+    /**
+     * Distancia desde el origen de la última consulta (infinito si no se alcanzó).
+     * Si la búsqueda se detuvo en un destino, solo son definitivas las de vértices asentados
+     * (y con A*, solo la del destino).
+     */
+    public double getDistance(int v) {
+        return reachedStamp[v] == generation ? dist[v] : Double.POSITIVE_INFINITY;
+    }
+
+    public boolean isReached(int v) {
+        return reachedStamp[v] == generation;
+    }
+
+    public boolean isSettled(int v) {
+        return settledStamp[v] == generation;
+    }
+
+    /**
+     * Arista del CSR usada para llegar a v, o -1 si v es el origen o no se alcanzó.
+     */
+    public int getPrevEdge(int v) {
+        return reachedStamp[v] == generation ? prevEdge[v] : -1;
+    }
+
+    public int getPrevVertex(int v) {
+        return reachedStamp[v] == generation ? prevVertex[v] : -1;
+    }
+
+    /**
+     * Vértices asentados en orden creciente de distancia (el primero es el origen).
+     */
+    public int getSettledCount() {
+        return settledCount;
+    }
+
+    public int getSettledVertex(int i) {
+        return settledOrder[i];
+    }
+
+    /**
+     * Camino desde el origen hasta target como índices de vértices, o null si no se alcanzó.
+     */
+    public int[] pathTo(int target) {
+        if (!isReached(target)) {
+            return null;
+        }
+        int length = 1;
+        for (int v = target; prevVertex[v] != -1; v = prevVertex[v]) {
+            length++;
+        }
+        int[] path = new int[length];
+        int v = target;
+        for (int i = length - 1; i >= 0; i--) {
+            path[i] = v;
+            v = prevVertex[v];
+        }
+        return path;
+    }
+}
@@ -127,43 +127,15 @@ public class ReportGenerator {
      */
 
     private Map<String, Integer> countOutgoingFlights() {
-        Map<String, Integer> outgoingFlightsCount = new HashMap<>();
-        try {
-            CircularDoublyLinkedList rawFlights = flightSimulator.getFlightScheduleManager().getScheduledFlights();
-            DoublyLinkedList allFlights = ListConverter.convertToDoublyLinkedList(rawFlights);
-
-            if (allFlights != null && !allFlights.isEmpty()) {
-                for (int i = 0; i < allFlights.size(); i++) {
-                    Flight flight = (Flight) allFlights.get(i);
-                    if (flight != null && flight.getOriginAirportCode() != null) {
-                        outgoingFlightsCount.put(flight.getOriginAirportCode(),
-                                outgoingFlightsCount.getOrDefault(flight.getOriginAirportCode(), 0) + 1);
-                    }
-                }
-            }
-        } catch (ListException e) {
-            throw new RuntimeException("Error al contar vuelos salientes");
-        }
-        return outgoingFlightsCount;
+        // Conteo mantenido por el índice de origen de FlightScheduleManager.
+        return flightSimulator.getFlightScheduleManager().countFlightsByOrigin();
     }
 
     private Map<String, Integer> countRouteUsage() {
         Map<String, Integer> routeCounts = new HashMap<>();
-        try {
-            CircularDoublyLinkedList rawFlights = flightSimulator.getFlightScheduleManager().getScheduledFlights();
-            DoublyLinkedList allFlights = ListConverter.convertToDoublyLinkedList(rawFlights);
-
-            if (allFlights != null && !allFlights.isEmpty()) {
-                for (int i = 0; i < allFlights.size(); i++) {
-                    Flight flight = (Flight) allFlights.get(i);
-                    if (flight != null && flight.getOriginAirportCode() != null && flight.getDestinationAirportCode() != null) {
-                        String route = flight.getOriginAirportCode() + " - " + flight.getDestinationAirportCode();
-                        routeCounts.put(route, routeCounts.getOrDefault(route, 0) + 1);
-                    }
-                }
-            }
-        } catch (ListException e) {
-            throw new RuntimeException("Error al contar rutas");
+        for (Map.Entry<String, Integer> entry : flightSimulator.getFlightScheduleManager().countFlightsByRoute().entrySet()) {
+            // La clave del índice es "origen-destino"; el reporte muestra "origen - destino".
+            routeCounts.put(entry.getKey().replace("-", " - "), entry.getValue());
         }
         return routeCounts;
     }
@@ -0,0 +1,52 @@
+package ucr.proyectoalgoritmos.util;
+
+import java.util.Random;
+
+/**
+ * Muestreo sin reemplazo de índices en [0, n) con una permutación de Fisher-Yates parcial: cada
+ * muestra de k índices cuesta O(k), sin reintentos por índices repetidos. La permutación se
+ * reutiliza entre muestras, lo que no afecta la uniformidad.
+ */
+public final class DistinctIndexSampler {
+    private final int[] order;
+    private final int[] position;
+    private final Random random;
+
+    public DistinctIndexSampler(int n, Random random) {
+        this.order = new int[n];
+        this.position = new int[n];
+        this.random = random;
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+            position[i] = i;
+        }
+    }
+
+    /**
+     * Escribe en out hasta k índices distintos de [0, n), todos diferentes de excluded
+     * (-1 para no excluir ninguno), en orden aleatorio.
+     * @return cantidad de índices escritos: min(k, índices disponibles).
+     */
+    public int sample(int excluded, int k, int[] out) {
+        int available = order.length;
+        if (excluded >= 0 && excluded < order.length) {
+            // El excluido se mueve al final y queda fuera del rango que se baraja.
+            swap(position[excluded], --available);
+        }
+        int count = Math.min(k, available);
+        for (int j = 0; j < count; j++) {
+            swap(j, j + random.nextInt(available - j));
+            out[j] = order[j];
+        }
+        return count;
+    }
+
+    private void swap(int i, int j) {
+        int a = order[i];
+        int b = order[j];
+        order[i] = b;
+        order[j] = a;
+        position[b] = i;
+        position[a] = j;
+    }
+}
@@ -0,0 +1,52 @@
+package ucr.proyectoalgoritmos.util;
+
+/**
+ * Utilidades geográficas sobre coordenadas en grados (latitud, longitud).
+ */
+public class GeoUtility {
+
+    /** Radio medio de la Tierra en kilómetros. */
+    public static final double EARTH_RADIUS_KM = 6371.0088;
+
+    /**
+     * Distancia ortodrómica (gran círculo) entre dos puntos, con la fórmula de haversine.
+     * @return Distancia en kilómetros
+     */
+    public static double haversineKm(double lat1, double lon1, double lat2, double lon2) {
+        return haversineKmRadians(Math.toRadians(lat1), Math.toRadians(lon1), Math.toRadians(lat2), Math.toRadians(lon2));
+    }
+
+    /**
+     * Igual que haversineKm pero con las coordenadas ya en radianes, para quien las guarda
+     * convertidas y calcula muchas distancias (p. ej. la heurística de A*).
+     */
+    public static double haversineKmRadians(double phi1, double lambda1, double phi2, double lambda2) {
+        double sinPhi = Math.sin((phi2 - phi1) / 2);
+        double sinLambda = Math.sin((lambda2 - lambda1) / 2);
+        double a = sinPhi * sinPhi + Math.cos(phi1) * Math.cos(phi2) * sinLambda * sinLambda;
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+
+    /**
+     * Rumbo inicial del gran círculo que va del punto 1 al punto 2.
+     * @return Rumbo en grados en [0, 360), medido desde el norte en sentido horario
+     */
+    public static double initialBearingDegrees(double lat1, double lon1, double lat2, double lon2) {
+        double phi1 = Math.toRadians(lat1);
+        double phi2 = Math.toRadians(lat2);
+        double dLambda = Math.toRadians(lon2 - lon1);
+        double y = Math.sin(dLambda) * Math.cos(phi2);
+        double x = Math.cos(phi1) * Math.sin(phi2) - Math.sin(phi1) * Math.cos(phi2) * Math.cos(dLambda);
+        double bearing = Math.toDegrees(Math.atan2(y, x));
+        return (bearing + 360.0) % 360.0;
+    }
+
+    /**
+     * Indica si un par (latitud, longitud) es válido.
+     */
+    public static boolean isValidCoordinate(Double latitude, Double longitude) {
+        return latitude != null && longitude != null
+                && latitude >= -90 && latitude <= 90
+                && longitude >= -180 && longitude <= 180;
+    }
+}
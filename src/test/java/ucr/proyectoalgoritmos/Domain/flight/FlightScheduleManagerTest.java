@@ -15,6 +15,10 @@ import ucr.proyectoalgoritmos.Domain.stack.StackException;
 import ucr.proyectoalgoritmos.util.Utility;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -403,6 +407,197 @@ class FlightScheduleManagerTest {
         }, "Debería ejecutarse sin excepciones en una lista vacía.");
     }
 
+    // --- Tests de itinerarios con conexiones ---
+
+    @Test
+    @DisplayName("Debe encontrar el itinerario con conexiones que llega más temprano")
+    void testFindEarliestArrivalWithConnections() throws ListException {
+        flightScheduleManager.createFlight("CS100", "SJO", "MIA", LocalDateTime.of(2025, 3, 1, 10, 0), 180, 100);
+        // Sale 30 minutos después de la llegada a MIA: no cumple el tiempo mínimo de conexión.
+        flightScheduleManager.createFlight("CS101", "MIA", "JFK", LocalDateTime.of(2025, 3, 1, 13, 30), 180, 100);
+        flightScheduleManager.createFlight("CS102", "MIA", "JFK", LocalDateTime.of(2025, 3, 1, 14, 0), 180, 100);
+        flightScheduleManager.createFlight("CS103", "MIA", "JFK", LocalDateTime.of(2025, 3, 1, 18, 0), 180, 100);
+
+        LocalDateTime after = LocalDateTime.of(2025, 3, 1, 8, 0);
+        ConnectionScanIndex.Itinerary itinerary = flightScheduleManager.findEarliestArrival("SJO", "JFK", after);
+        assertNotNull(itinerary);
+        assertEquals(2, itinerary.getLegs().size());
+        assertEquals("CS100", itinerary.getLegs().get(0).getFlightNumber());
+        assertEquals("CS102", itinerary.getLegs().get(1).getFlightNumber());
+        assertEquals(LocalDateTime.of(2025, 3, 1, 17, 0), itinerary.getArrivalTime());
+
+        // Con conexión mínima de 0 minutos sí se alcanza el vuelo de las 13:30.
+        assertEquals("CS101", flightScheduleManager.findEarliestArrival("SJO", "JFK", after, 0).getLegs().get(1).getFlightNumber());
+
+        // Al cancelar la conexión, el índice se actualiza y se usa el siguiente vuelo.
+        assertTrue(flightScheduleManager.cancelFlight("CS102"));
+        assertEquals("CS103", flightScheduleManager.findEarliestArrival("SJO", "JFK", after).getLegs().get(1).getFlightNumber());
+
+        assertNull(flightScheduleManager.findEarliestArrival("SJO", "JFK", LocalDateTime.of(2025, 3, 1, 11, 0)),
+                "Después de la salida de CS100 ya no hay forma de llegar a JFK.");
+        assertNull(flightScheduleManager.findEarliestArrival("JFK", "SJO", after));
+    }
+
+    @Test
+    @DisplayName("El índice por número de vuelo debe seguir a la lista al reemplazarla y al añadir vuelos")
+    void testFlightIndexFollowsScheduledFlights() throws ListException {
+        CircularDoublyLinkedList loaded = new CircularDoublyLinkedList();
+        for (int i = 0; i < 50; i++) {
+            loaded.add(new Flight("IX" + i, "SJO", "MIA", LocalDateTime.of(2025, 5, 1, 8, 0).plusHours(i), 100));
+        }
+        flightScheduleManager.createFlight("OLD1", "SJO", "MIA", LocalDateTime.of(2025, 4, 1, 8, 0), 180, 100);
+        flightScheduleManager.setScheduledFlights(loaded);
+
+        assertNull(flightScheduleManager.findFlight("OLD1"), "Al reemplazar la lista, el vuelo anterior ya no se encuentra.");
+        for (int i = 0; i < 50; i++) {
+            assertSame(loaded.get(i), flightScheduleManager.findFlight("IX" + i));
+        }
+        assertNull(flightScheduleManager.findFlight(null));
+
+        Flight added = new Flight("IX50", "MIA", "JFK", LocalDateTime.of(2025, 5, 4, 8, 0), 100);
+        flightScheduleManager.addFlight(added);
+        assertSame(added, flightScheduleManager.findFlight("IX50"));
+        assertEquals(51, flightScheduleManager.getScheduledFlights().size());
+        assertThrows(ListException.class, () -> flightScheduleManager.createFlight("IX50", "SJO", "MIA", LocalDateTime.now(), 180, 100));
+    }
+
+    @Test
+    @DisplayName("Las búsquedas concurrentes por número deben encontrar los vuelos ya creados")
+    void testFindFlightWhileCreatingConcurrently() throws Exception {
+        int flights = 300;
+        AtomicInteger created = new AtomicInteger();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Runnable reader = () -> {
+            try {
+                while (created.get() < flights) {
+                    int visible = created.get();
+                    for (int i = 0; i < visible; i++) {
+                        if (flightScheduleManager.findFlight("CC" + i) == null) {
+                            failure.compareAndSet(null, new AssertionError("No se encontró CC" + i));
+                        }
+                    }
+                }
+            } catch (Throwable t) {
+                failure.compareAndSet(null, t);
+            }
+        };
+        Thread first = new Thread(reader);
+        Thread second = new Thread(reader);
+        first.start();
+        second.start();
+        for (int i = 0; i < flights; i++) {
+            flightScheduleManager.createFlight("CC" + i, "SJO", "MIA", LocalDateTime.of(2025, 6, 1, 0, 0).plusMinutes(i), 180, 100);
+            created.incrementAndGet();
+        }
+        first.join();
+        second.join();
+
+        assertNull(failure.get(), "Las búsquedas concurrentes no deben fallar.");
+        assertEquals(flights, flightScheduleManager.getScheduledFlights().size());
+        assertEquals("CC" + (flights - 1), flightScheduleManager.findFlight("CC" + (flights - 1)).getFlightNumber());
+    }
+
+    @Test
+    @DisplayName("Los índices por ruta, origen, estado y salida deben seguir los cambios de los vuelos")
+    void testSearchIndexesFollowFlightChanges() throws ListException {
+        LocalDateTime day = LocalDateTime.of(2025, 7, 10, 0, 0);
+        Flight late = flightScheduleManager.createFlight("SI3", "SJO", "MIA", day.plusHours(18), 180, 100);
+        Flight early = flightScheduleManager.createFlight("SI1", "SJO", "MIA", day.plusHours(6), 180, 100);
+        Flight nextDay = flightScheduleManager.createFlight("SI2", "SJO", "MIA", day.plusDays(1).plusHours(6), 180, 100);
+        Flight toLax = flightScheduleManager.createFlight("SI4", "SJO", "LAX", day.plusHours(9), 180, 100);
+        flightScheduleManager.createFlight("SI5", "MIA", "JFK", day.plusHours(12), 180, 1);
+
+        assertEquals(List.of(early, late), flightScheduleManager.findAvailableFlights("SJO", "MIA", day.toLocalDate()));
+        assertEquals(List.of(early, late, nextDay), flightScheduleManager.findFlightsByRoute("SJO", "MIA", null, null));
+        assertEquals(List.of(early, toLax, late, nextDay), flightScheduleManager.findFlightsFrom("SJO", null));
+        assertEquals(List.of(toLax), flightScheduleManager.findFlightsDepartingBetween(day.plusHours(7), day.plusHours(12)));
+        assertEquals(5, flightScheduleManager.countFlightsByStatus(Flight.FlightStatus.SCHEDULED));
+        assertEquals(4, flightScheduleManager.countFlightsByOrigin().get("SJO").intValue());
+        assertEquals(3, flightScheduleManager.countFlightsByRoute().get("SJO-MIA").intValue());
+
+        // Cambio de estado desde fuera del manager (como el simulador): se mueve de índice.
+        early.setStatus(Flight.FlightStatus.IN_PROGRESS);
+        assertEquals(List.of(late), flightScheduleManager.findAvailableFlights("SJO", "MIA", day.toLocalDate()));
+        assertEquals(List.of(early), flightScheduleManager.findFlightsByStatus(Flight.FlightStatus.IN_PROGRESS));
+        assertEquals(4, flightScheduleManager.countFlightsByStatus(Flight.FlightStatus.SCHEDULED));
+
+        // Cambio de hora: el vuelo pasa a otra fecha.
+        nextDay.setDepartureTime(day.plusHours(20));
+        assertEquals(List.of(late, nextDay), flightScheduleManager.findAvailableFlights("SJO", "MIA", day.toLocalDate()));
+        assertTrue(flightScheduleManager.findAvailableFlights("SJO", "MIA", day.toLocalDate().plusDays(1)).isEmpty());
+
+        // Un vuelo lleno sigue indexado pero no aparece como disponible.
+        flightScheduleManager.findFlight("SI5").addPassenger(new Passenger("P1", "Ana", "CR"));
+        assertTrue(flightScheduleManager.findAvailableFlights("MIA", "JFK", day.toLocalDate()).isEmpty());
+
+        assertTrue(flightScheduleManager.cancelFlight("SI3"));
+        assertEquals(List.of(late), flightScheduleManager.findFlightsByStatus(Flight.FlightStatus.CANCELLED));
+        assertEquals(List.of(nextDay), flightScheduleManager.findAvailableFlights("SJO", "MIA", day.toLocalDate()));
+
+        // Al reemplazar la lista, los vuelos anteriores dejan de actualizar los índices.
+        flightScheduleManager.setScheduledFlights(new CircularDoublyLinkedList());
+        toLax.setStatus(Flight.FlightStatus.COMPLETED);
+        assertTrue(flightScheduleManager.findFlightsByStatus(Flight.FlightStatus.COMPLETED).isEmpty());
+        assertTrue(flightScheduleManager.findFlightsFrom("SJO", null).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Eliminar y actualizar deben trabajar en memoria y guardar con el guardado diferido")
+    void testRemoveAndUpdateUseWriteBehind() throws ListException {
+        List<Integer> writtenSizes = new ArrayList<>();
+        ucr.proyectoalgoritmos.UtilJson.FlightWriteBehind writeBehind = new ucr.proyectoalgoritmos.UtilJson.FlightWriteBehind(
+                flightScheduleManager::copyScheduledFlights, list -> writtenSizes.add(list.size()), 60_000);
+        flightScheduleManager.enablePersistence(writeBehind);
+        try {
+            LocalDateTime departure = LocalDateTime.of(2025, 8, 1, 9, 0);
+            for (int i = 0; i < 5; i++) {
+                flightScheduleManager.createFlight("WB" + i, "SJO", "MIA", departure.plusHours(i), 180, 100);
+            }
+            // Los vuelos solo están en memoria: eliminar y actualizar no deben releer el archivo.
+            assertTrue(flightScheduleManager.removeFlight("WB0"));
+            assertFalse(flightScheduleManager.removeFlight("WB0"));
+            Flight replacement = new Flight("WB1", "SJO", "MIA", departure.plusDays(1), 150);
+            assertTrue(flightScheduleManager.updateFlight(replacement));
+            assertSame(replacement, flightScheduleManager.findFlight("WB1"));
+            assertEquals(4, flightScheduleManager.getScheduledFlights().size());
+            assertTrue(writtenSizes.isEmpty(), "Nada se escribe hasta el flush.");
+
+            assertTrue(flightScheduleManager.flushFlights());
+            assertEquals(List.of(4), writtenSizes, "Todos los cambios se guardan en una sola escritura.");
+            assertFalse(flightScheduleManager.flushFlights());
+
+            flightScheduleManager.findFlight("WB2").setStatus(Flight.FlightStatus.COMPLETED);
+            assertTrue(writeBehind.getPendingChanges() > 0, "Un cambio de estado también queda pendiente.");
+        } finally {
+            flightScheduleManager.closePersistence();
+        }
+        assertEquals(2, writtenSizes.size(), "Al cerrar se guarda lo pendiente.");
+    }
+
+    @Test
+    @DisplayName("Buscar, actualizar y eliminar deben encontrar el vuelo sin importar mayúsculas en el número")
+    void testFlightNumberIsCaseInsensitive() throws ListException {
+        flightScheduleManager.createFlight("CS100", "SJO", "MIA", LocalDateTime.of(2025, 3, 1, 10, 0), 180, 100);
+        assertNotNull(flightScheduleManager.findFlight("cs100"));
+        assertThrows(ListException.class,
+                () -> flightScheduleManager.createFlight("cs100", "SJO", "MIA", LocalDateTime.of(2025, 3, 2, 10, 0), 180, 100),
+                "El número ya está en uso aunque cambie de mayúsculas.");
+
+        Flight replacement = new Flight("cs100", "SJO", "MIA", LocalDateTime.of(2025, 3, 1, 14, 0), 150);
+        assertTrue(flightScheduleManager.updateFlight(replacement));
+        assertSame(replacement, flightScheduleManager.findFlight("CS100"));
+        assertEquals(1, flightScheduleManager.getScheduledFlights().size());
+        LocalDateTime after = LocalDateTime.of(2025, 3, 1, 8, 0);
+        ConnectionScanIndex.Itinerary itinerary = flightScheduleManager.findEarliestArrival("SJO", "MIA", after);
+        assertNotNull(itinerary);
+        assertEquals(1, itinerary.getLegs().size());
+        assertSame(replacement, itinerary.getLegs().get(0), "El vuelo de las 10:00, que llegaría antes, ya no debe estar en el índice de conexiones.");
+
+        assertTrue(flightScheduleManager.removeFlight("Cs100"));
+        assertNull(flightScheduleManager.findFlight("CS100"));
+        assertNull(flightScheduleManager.findEarliestArrival("SJO", "MIA", after));
+    }
+
     // --- MÉTODOS AUXILIARES PARA TESTS ---
 
     /**
@@ -0,0 +1,143 @@
+package ucr.proyectoalgoritmos.Domain.flight;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ucr.proyectoalgoritmos.Domain.list.ListException;
+import ucr.proyectoalgoritmos.Domain.passenger.Passenger;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TicketBookingServiceTest {
+
+    private static final LocalDateTime DEPARTURE = LocalDateTime.of(2025, 8, 1, 6, 0);
+    private static final int THREADS = 8;
+
+    // Ejecuta task(hilo) en THREADS hilos que arrancan juntos y espera a que terminen.
+    private interface Task {
+        void run(int thread) throws Exception;
+    }
+
+    private static void runConcurrently(Task task) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    task.run(thread);
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static Set<String> passengerIds(Flight flight) throws ListException {
+        Set<String> ids = new HashSet<>();
+        for (int i = 0; i < flight.getPassengers().size(); i++) {
+            ids.add(((Passenger) flight.getPassengers().get(i)).getId());
+        }
+        return ids;
+    }
+
+    @Test
+    @DisplayName("Muchos hilos reservando el mismo vuelo no deben sobrevenderlo ni perder pasajeros en espera")
+    void testNoOverbookingUnderContention() throws Exception {
+        int capacity = 50;
+        int perThread = 100;
+        Flight flight = new Flight("BK100", "SJO", "MIA", DEPARTURE, capacity);
+        AtomicInteger notified = new AtomicInteger();
+        TicketBookingService service = new TicketBookingService(TicketBookingService.DEFAULT_STRIPES,
+                (f, p) -> notified.incrementAndGet());
+
+        runConcurrently(thread -> {
+            for (int i = 0; i < perThread; i++) {
+                service.book(new Passenger("T" + thread + "-" + i, "Pasajero", "CR"), flight);
+            }
+        });
+
+        assertEquals(capacity, flight.getOccupancy(), "La ocupación no puede pasar la capacidad.");
+        assertEquals(capacity, flight.getPassengers().size());
+        assertEquals(capacity, service.getBookingCount());
+        assertEquals(capacity, notified.get(), "Cada reserva se avisa una sola vez.");
+
+        List<Passenger> waiting = service.getWaitingList("SJO-MIA");
+        assertEquals(THREADS * perThread - capacity, waiting.size(), "Todo pasajero sin asiento queda en espera.");
+        Set<String> booked = passengerIds(flight);
+        Set<String> waitingIds = new HashSet<>();
+        for (Passenger p : waiting) {
+            assertTrue(waitingIds.add(p.getId()), "Nadie queda dos veces en espera.");
+            assertFalse(booked.contains(p.getId()), "Un pasajero con asiento no queda en espera.");
+        }
+    }
+
+    @Test
+    @DisplayName("Reservas en varios vuelos de la misma ruta deben mantener cupos y lista de espera consistentes")
+    void testManyFlightsShareRouteWaitingList() throws Exception {
+        int flightsCount = 16;
+        int capacity = 5;
+        List<Flight> flights = new ArrayList<>();
+        for (int i = 0; i < flightsCount; i++) {
+            flights.add(new Flight("BK2" + i, "SJO", "LAX", DEPARTURE.plusHours(i), capacity));
+        }
+        // Dos bloqueos: la mayoría de los vuelos comparte bloqueo con otros.
+        TicketBookingService service = new TicketBookingService(2, (f, p) -> { });
+
+        runConcurrently(thread -> {
+            for (int i = 0; i < 40; i++) {
+                Passenger passenger = new Passenger("M" + thread + "-" + i, "Pasajero", "CR");
+                service.book(passenger, flights.get((thread * 7 + i) % flightsCount));
+            }
+        });
+
+        int seated = 0;
+        for (Flight flight : flights) {
+            assertTrue(flight.getOccupancy() <= capacity);
+            assertEquals(flight.getPassengers().size(), flight.getOccupancy());
+            seated += flight.getOccupancy();
+        }
+        assertEquals(flightsCount * capacity, seated, "Hay más pasajeros que asientos: todos se llenan.");
+        assertEquals(THREADS * 40 - seated, service.getWaitingList("SJO-LAX").size());
+    }
+
+    @Test
+    @DisplayName("Reservar debe sacar al pasajero de la lista de espera de la ruta")
+    void testBookingLeavesWaitingList() throws ListException {
+        TicketBookingService service = new TicketBookingService();
+        Flight full = new Flight("BK300", "SJO", "MIA", DEPARTURE, 1);
+        Flight later = new Flight("BK301", "SJO", "MIA", DEPARTURE.plusDays(1), 1);
+        Passenger ana = new Passenger("A1", "Ana", "CR");
+        Passenger luis = new Passenger("L1", "Luis", "CR");
+
+        assertEquals(TicketBookingService.Result.BOOKED, service.book(ana, full));
+        assertEquals(TicketBookingService.Result.WAITING_LIST, service.book(luis, full));
+        assertEquals(1, service.getWaitingList("SJO-MIA").size());
+
+        assertEquals(TicketBookingService.Result.BOOKED, service.book(luis, later));
+        assertTrue(service.getWaitingList("SJO-MIA").isEmpty());
+        assertFalse(service.getWaitingLists().containsKey("SJO-MIA"), "La lista vacía se elimina.");
+
+        later.setStatus(Flight.FlightStatus.CANCELLED);
+        assertEquals(TicketBookingService.Result.WAITING_LIST, service.book(new Passenger("C1", "Carla", "CR"), later));
+        assertEquals(TicketBookingService.Result.ALREADY_BOOKED, service.book(ana, full));
+    }
+}
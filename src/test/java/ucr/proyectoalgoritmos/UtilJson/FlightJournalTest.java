@@ -0,0 +1,249 @@
+package ucr.proyectoalgoritmos.UtilJson;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ucr.proyectoalgoritmos.Domain.Circular.CircularDoublyLinkedList;
+import ucr.proyectoalgoritmos.Domain.flight.Flight;
+import ucr.proyectoalgoritmos.Domain.list.ListException;
+import ucr.proyectoalgoritmos.Domain.passenger.Passenger;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FlightJournalTest {
+
+    private static final LocalDateTime DEPARTURE = LocalDateTime.of(2025, 7, 1, 8, 0);
+
+    @TempDir
+    Path dir;
+
+    private Path baseFile;
+    private Path snapshotFile;
+    private Path journalFile;
+    private CircularDoublyLinkedList flights;
+
+    private FlightJournal openJournal() throws IOException {
+        baseFile = dir.resolve("flights.json");
+        snapshotFile = dir.resolve("flights.snapshot.json");
+        journalFile = dir.resolve("flights.journal");
+        flights = new CircularDoublyLinkedList();
+        // Intervalos largos: las pruebas llaman sync y compact directamente.
+        return new FlightJournal(baseFile, snapshotFile, journalFile, this::copyFlights, 60_000, 60_000, 1_000);
+    }
+
+    private CircularDoublyLinkedList copyFlights() {
+        CircularDoublyLinkedList copy = new CircularDoublyLinkedList();
+        try {
+            for (int i = 0; i < flights.size(); i++) {
+                copy.add(flights.get(i));
+            }
+        } catch (ListException e) {
+            fail(e.getMessage());
+        }
+        return copy;
+    }
+
+    // Crea vuelos, reserva, cambia estados y elimina, avisando cada cambio al diario.
+    private void applyChanges(FlightJournal journal) throws ListException {
+        for (int i = 0; i < 5; i++) {
+            Flight flight = new Flight("FJ" + i, "SJO", "LAX", DEPARTURE.plusHours(i), 3);
+            flights.add(flight);
+            journal.flightCreated(flight);
+        }
+        Flight first = (Flight) flights.get(0);
+        Passenger ana = new Passenger("P1", "Ana", "CR");
+        Passenger luis = new Passenger("P2", "Luis", "MX");
+        first.addPassenger(ana);
+        journal.passengerAdded(first, ana);
+        first.addPassenger(luis);
+        journal.passengerAdded(first, luis);
+        first.removePassenger(ana);
+        journal.passengerRemoved(first, ana);
+
+        Flight second = (Flight) flights.get(1);
+        second.setStatus(Flight.FlightStatus.CANCELLED);
+        second.setDepartureTime(DEPARTURE.plusDays(1));
+        journal.flightChanged(second);
+
+        Flight replacement = new Flight("FJ2", "SJO", "MIA", DEPARTURE, 10);
+        flights.set(2, replacement);
+        journal.flightUpdated(replacement);
+
+        Flight removed = (Flight) flights.get(4);
+        flights.remove(removed);
+        journal.flightRemoved(removed);
+    }
+
+    private static String describe(CircularDoublyLinkedList list) throws ListException {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < list.size(); i++) {
+            Flight f = (Flight) list.get(i);
+            sb.append(f.getFlightNumber()).append(' ').append(f.getOriginAirportCode()).append('-')
+                    .append(f.getDestinationAirportCode()).append(' ').append(f.getDepartureTime()).append(' ')
+                    .append(f.getStatus()).append(' ').append(f.getCapacity()).append(' ').append(f.getOccupancy())
+                    .append(' ').append(f.getActualDepartureTime()).append(' ').append(f.getActualArrivalTime())
+                    .append(' ').append(f.getEstimatedDurationMinutes()).append(' ').append(f.getGate());
+            for (int j = 0; j < f.getPassengers().size(); j++) {
+                sb.append(' ').append(((Passenger) f.getPassengers().get(j)).getId());
+            }
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
+
+    @Test
+    @DisplayName("Aplicar el diario sobre la instantánea debe reconstruir la lista en memoria")
+    void testReplayMatchesMemory() throws Exception {
+        FlightJournal journal = openJournal();
+        try {
+            applyChanges(journal);
+            assertTrue(journal.getPendingRecords() > 0);
+            assertTrue(journal.sync(), "Los registros pendientes se escriben en un solo lote.");
+            assertEquals(0, journal.getPendingRecords());
+            assertEquals(1, journal.getSyncCount());
+            assertFalse(journal.sync(), "Sin registros nuevos no se escribe.");
+        } finally {
+            journal.close();
+        }
+        assertFalse(Files.exists(snapshotFile), "Sin compactar no hay instantánea.");
+        assertEquals(describe(flights), describe(FlightJournal.recover(snapshotFile, journalFile)));
+    }
+
+    @Test
+    @DisplayName("Compactar debe escribir una instantánea nueva y vaciar el diario")
+    void testCompactionTruncatesJournal() throws Exception {
+        FlightJournal journal = openJournal();
+        try {
+            applyChanges(journal);
+            journal.compact();
+            assertEquals(1, journal.getCompactionCount());
+            assertEquals(0, Files.size(journalFile), "El diario queda vacío después de compactar.");
+            assertFalse(Files.exists(journalFile.resolveSibling("flights.journal.compacting")));
+            assertEquals(describe(flights), describe(FlightJournal.recover(snapshotFile, journalFile)));
+
+            // Los cambios posteriores van al diario nuevo.
+            Flight first = (Flight) flights.get(0);
+            first.setStatus(Flight.FlightStatus.COMPLETED);
+            journal.flightChanged(first);
+            assertEquals(describe(flights), describe(journal.load()), "load guarda lo pendiente antes de leer.");
+            assertTrue(Files.size(journalFile) > 0);
+        } finally {
+            journal.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Compactar no debe reescribir flights.json y la instantánea debe cargarse con FlightJson")
+    void testCompactionKeepsFlightsJson() throws Exception {
+        FlightJournal journal = openJournal();
+        try {
+            CircularDoublyLinkedList saved = new CircularDoublyLinkedList();
+            saved.add(new Flight("FB1", "SJO", "MIA", DEPARTURE, 4));
+            FlightJson.saveFlightsToJson(saved, baseFile.toFile());
+            byte[] baseBefore = Files.readAllBytes(baseFile);
+
+            // Sin instantánea se parte de flights.json.
+            flights = FlightJournal.recover(baseFile, snapshotFile, journalFile);
+            assertEquals(describe(saved), describe(flights));
+            // Sin pasajeros: FlightJson lee toda lista anidada como lista de vuelos.
+            Flight based = (Flight) flights.get(0);
+            based.setStatus(Flight.FlightStatus.CANCELLED);
+            based.setGate("C4");
+            journal.flightChanged(based);
+            Flight created = new Flight("FB2", "SJO", "LAX", DEPARTURE.plusHours(2), 3);
+            flights.add(created);
+            journal.flightCreated(created);
+            assertEquals(describe(flights), describe(journal.load()));
+
+            journal.compact();
+            assertArrayEquals(baseBefore, Files.readAllBytes(baseFile), "La compactación no toca flights.json.");
+            assertTrue(Files.exists(snapshotFile));
+            assertEquals(describe(flights), describe(FlightJson.loadFlightsFromJson(snapshotFile.toFile())));
+            assertEquals(describe(flights), describe(FlightJournal.recover(baseFile, snapshotFile, journalFile)));
+        } finally {
+            journal.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Un vuelo que despega y aterriza debe recuperarse con sus horas reales, duración y puerta")
+    void testReplaysFlightLifecycle() throws Exception {
+        FlightJournal journal = openJournal();
+        try {
+            Flight flight = new Flight("FJ7", "SJO", "LAX", DEPARTURE, 3);
+            flights.add(flight);
+            journal.flightCreated(flight);
+
+            flight.setEstimatedDurationMinutes(330);
+            flight.setGate("B7");
+            flight.setActualDepartureTime(DEPARTURE.plusMinutes(12));
+            flight.setStatus(Flight.FlightStatus.IN_PROGRESS);
+            journal.flightChanged(flight);
+            flight.setActualArrivalTime(DEPARTURE.plusMinutes(350));
+            flight.setStatus(Flight.FlightStatus.COMPLETED);
+            journal.flightChanged(flight);
+        } finally {
+            journal.close();
+        }
+        CircularDoublyLinkedList recovered = FlightJournal.recover(snapshotFile, journalFile);
+        assertEquals(describe(flights), describe(recovered));
+        Flight replayed = (Flight) recovered.get(0);
+        assertEquals(Flight.FlightStatus.COMPLETED, replayed.getStatus());
+        assertEquals(DEPARTURE.plusMinutes(12), replayed.getActualDepartureTime());
+        assertEquals(DEPARTURE.plusMinutes(350), replayed.getActualArrivalTime());
+        assertEquals(330, replayed.getEstimatedDurationMinutes());
+        assertEquals("B7", replayed.getGate());
+    }
+
+    @Test
+    @DisplayName("Una última línea cortada por una caída debe ignorarse")
+    void testIgnoresTornTail() throws Exception {
+        FlightJournal journal = openJournal();
+        try {
+            applyChanges(journal);
+        } finally {
+            journal.close();
+        }
+        Files.write(journalFile, "{\"type\":\"CREATE\",\"number\":\"FJ9\",\"fli".getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.APPEND);
+        assertEquals(describe(flights), describe(FlightJournal.recover(snapshotFile, journalFile)));
+    }
+
+    @Test
+    @DisplayName("Una caída a mitad de la compactación debe recuperar el mismo estado")
+    void testRecoversInterruptedCompaction() throws Exception {
+        FlightJournal journal = openJournal();
+        byte[] journalBeforeCompaction;
+        try {
+            applyChanges(journal);
+            journal.sync();
+            journalBeforeCompaction = Files.readAllBytes(journalFile);
+            journal.compact();
+        } finally {
+            journal.close();
+        }
+        // Caída después de escribir la instantánea pero antes de borrar el segmento renombrado:
+        // sus registros ya están en la instantánea y aplicarlos de nuevo no cambia nada.
+        Path compacting = journalFile.resolveSibling("flights.journal.compacting");
+        Files.write(compacting, journalBeforeCompaction);
+        assertEquals(describe(flights), describe(FlightJournal.recover(snapshotFile, journalFile)));
+
+        // Al abrir de nuevo, la compactación pendiente se completa.
+        FlightJournal reopened = new FlightJournal(snapshotFile, journalFile, this::copyFlights, 60_000, 60_000, 1_000);
+        try {
+            assertEquals(1_000, reopened.getRecordsSinceCompaction());
+            reopened.compact();
+            assertFalse(Files.exists(compacting));
+        } finally {
+            reopened.close();
+        }
+        assertEquals(describe(flights), describe(FlightJournal.recover(snapshotFile, journalFile)));
+    }
+}
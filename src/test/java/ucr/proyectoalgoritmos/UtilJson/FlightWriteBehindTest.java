@@ -0,0 +1,72 @@
+package ucr.proyectoalgoritmos.UtilJson;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ucr.proyectoalgoritmos.Domain.Circular.CircularDoublyLinkedList;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FlightWriteBehindTest {
+
+    @Test
+    @DisplayName("Varios cambios seguidos deben guardarse en una sola escritura")
+    void testCoalescesChanges() {
+        AtomicInteger writes = new AtomicInteger();
+        FlightWriteBehind writeBehind = new FlightWriteBehind(CircularDoublyLinkedList::new, list -> writes.incrementAndGet(), 60_000);
+        try {
+            assertFalse(writeBehind.flush(), "Sin cambios no se escribe.");
+            for (int i = 0; i < 100; i++) {
+                writeBehind.markDirty();
+            }
+            assertEquals(100, writeBehind.getPendingChanges());
+            assertTrue(writeBehind.flush());
+            assertFalse(writeBehind.flush());
+            assertEquals(1, writes.get());
+            assertEquals(0, writeBehind.getPendingChanges());
+        } finally {
+            writeBehind.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Debe guardar en segundo plano al pasar el intervalo y al cerrar")
+    void testFlushesOnIntervalAndClose() throws InterruptedException {
+        AtomicInteger writes = new AtomicInteger();
+        FlightWriteBehind writeBehind = new FlightWriteBehind(CircularDoublyLinkedList::new, list -> writes.incrementAndGet(), 20);
+        writeBehind.markDirty();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (writes.get() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, writes.get(), "El hilo en segundo plano debe escribir el cambio pendiente.");
+
+        writeBehind.markDirty();
+        writeBehind.close();
+        assertTrue(writeBehind.isClosed());
+        assertEquals(0, writeBehind.getPendingChanges(), "Al cerrar se guarda lo pendiente.");
+        assertEquals(2, writes.get());
+    }
+
+    @Test
+    @DisplayName("Si la escritura falla, los cambios deben quedar pendientes")
+    void testFailedWriteStaysPending() {
+        AtomicInteger attempts = new AtomicInteger();
+        FlightWriteBehind writeBehind = new FlightWriteBehind(CircularDoublyLinkedList::new, list -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new IllegalStateException("disco lleno");
+            }
+        }, 60_000);
+        try {
+            writeBehind.markDirty();
+            assertThrows(IllegalStateException.class, writeBehind::flush);
+            assertEquals(1, writeBehind.getPendingChanges());
+            assertTrue(writeBehind.flush());
+            assertEquals(1, writeBehind.getWriteCount());
+        } finally {
+            writeBehind.close();
+        }
+        assertThrows(IllegalArgumentException.class, () -> new FlightWriteBehind(CircularDoublyLinkedList::new, list -> { }, 0));
+    }
+}
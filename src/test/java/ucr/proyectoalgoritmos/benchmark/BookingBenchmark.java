@@ -0,0 +1,122 @@
+package ucr.proyectoalgoritmos.benchmark;
+
+import ucr.proyectoalgoritmos.Domain.flight.Flight;
+import ucr.proyectoalgoritmos.Domain.flight.TicketBookingService;
+import ucr.proyectoalgoritmos.Domain.passenger.Passenger;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Reservas por segundo de TicketBookingService según la cantidad de hilos. No es una prueba JUnit:
+ * se ejecuta con main después de compilar las pruebas, por ejemplo
+ *
+ *   mvn test-compile
+ *   java -cp target/classes:target/test-classes ucr.proyectoalgoritmos.benchmark.BookingBenchmark 1 2 4 8 16
+ *
+ * Cada argumento es una cantidad de hilos. En cada ronda se crean vuelos nuevos y se hace la misma
+ * cantidad total de reservas (repartida entre los hilos) sobre vuelos elegidos al azar con semilla
+ * fija; casi todas consiguen asiento. Se compara el servicio con bloqueos por franjas contra el mismo
+ * servicio con un solo bloqueo, que equivale a sincronizar todas las reservas.
+ */
+public final class BookingBenchmark {
+
+    private static final long SEED = 25;
+    private static final int FLIGHTS = 256;
+    private static final int ROUTES = 32;
+    private static final int CAPACITY = 180;
+    private static final int BOOKINGS_PER_ROUND = 40_000;
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int MEASURED_ROUNDS = 5;
+    private static final String[] DEFAULT_THREADS = {"1", "2", "4", "8", "16"};
+    private static final LocalDateTime DEPARTURE = LocalDateTime.of(2025, 9, 1, 0, 0);
+
+    private BookingBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String[] threadCounts = args.length > 0 ? args : DEFAULT_THREADS;
+        System.out.printf("%-16s %8s %16s %16s %16s%n", "bloqueos", "hilos", "mediana res/s", "mejor res/s", "peor res/s");
+        for (String threadCount : threadCounts) {
+            int threads = Integer.parseInt(threadCount);
+            measure("franjas (" + TicketBookingService.DEFAULT_STRIPES + ")", TicketBookingService.DEFAULT_STRIPES, threads);
+            measure("único (1)", 1, threads);
+        }
+    }
+
+    private static void measure(String name, int stripes, int threads) throws Exception {
+        long[] bookingsPerSecond = new long[MEASURED_ROUNDS];
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            for (int round = 0; round < WARMUP_ROUNDS; round++) {
+                runRound(pool, stripes, threads, round);
+            }
+            for (int round = 0; round < MEASURED_ROUNDS; round++) {
+                long nanos = runRound(pool, stripes, threads, WARMUP_ROUNDS + round);
+                bookingsPerSecond[round] = (long) (BOOKINGS_PER_ROUND / (nanos / 1e9));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        Arrays.sort(bookingsPerSecond);
+        System.out.printf("%-16s %8d %16d %16d %16d%n", name, threads,
+                bookingsPerSecond[MEASURED_ROUNDS / 2], bookingsPerSecond[MEASURED_ROUNDS - 1], bookingsPerSecond[0]);
+    }
+
+    // Devuelve el tiempo de las reservas; armar vuelos y pasajeros queda fuera de la medición.
+    private static long runRound(ExecutorService pool, int stripes, int threads, int round) throws Exception {
+        List<Flight> flights = new ArrayList<>(FLIGHTS);
+        for (int i = 0; i < FLIGHTS; i++) {
+            int route = i % ROUTES;
+            flights.add(new Flight("BB" + i, "O" + route, "D" + route, DEPARTURE.plusHours(i), CAPACITY));
+        }
+        TicketBookingService service = new TicketBookingService(stripes, (flight, passenger) -> { });
+
+        int perThread = BOOKINGS_PER_ROUND / threads;
+        Passenger[][] passengers = new Passenger[threads][];
+        Flight[][] targets = new Flight[threads][];
+        Random random = new Random(SEED + round);
+        for (int t = 0; t < threads; t++) {
+            int count = t == threads - 1 ? BOOKINGS_PER_ROUND - perThread * (threads - 1) : perThread;
+            passengers[t] = new Passenger[count];
+            targets[t] = new Flight[count];
+            for (int i = 0; i < count; i++) {
+                passengers[t][i] = new Passenger(t + "-" + i, "Pasajero", "CR");
+                targets[t][i] = flights.get(random.nextInt(FLIGHTS));
+            }
+        }
+
+        CountDownLatch ready = new CountDownLatch(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>(threads);
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            futures.add(pool.submit(() -> {
+                ready.countDown();
+                start.await();
+                for (int i = 0; i < passengers[thread].length; i++) {
+                    service.book(passengers[thread][i], targets[thread][i]);
+                }
+                return null;
+            }));
+        }
+        ready.await();
+        long startNanos = System.nanoTime();
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        long elapsed = System.nanoTime() - startNanos;
+        if (service.getBookingCount() + service.getWaitListedCount() != BOOKINGS_PER_ROUND) {
+            throw new IllegalStateException("Reservas perdidas: " + service.getBookingCount() + " + " + service.getWaitListedCount());
+        }
+        return elapsed;
+    }
+}
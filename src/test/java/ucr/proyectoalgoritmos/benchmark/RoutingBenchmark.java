@@ -0,0 +1,126 @@
+package ucr.proyectoalgoritmos.benchmark;
+
+import ucr.proyectoalgoritmos.Domain.dijkstra.Dijkstra;
+import ucr.proyectoalgoritmos.Domain.list.SinglyLinkedList;
+import ucr.proyectoalgoritmos.Domain.route.RouteGraphService;
+import ucr.proyectoalgoritmos.Domain.route.RouteNetworkGenerator;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Mediciones de las consultas de rutas sobre redes sintéticas de varios tamaños (RouteNetworkGenerator).
+ * No es una prueba JUnit: se ejecuta con main después de compilar las pruebas, por ejemplo
+ *
+ *   mvn test-compile
+ *   java -cp target/classes:target/test-classes:&lt;gson.jar&gt; ucr.proyectoalgoritmos.benchmark.RoutingBenchmark 1000:20000 10000:200000
+ *
+ * Cada argumento es aeropuertos:rutas. Por operación se hacen rondas de calentamiento (para que el JIT
+ * compile) y luego rondas medidas sobre las mismas consultas; se informa el tiempo por operación de la
+ * mediana, la mejor y la peor ronda. Los resultados se acumulan en un campo volatile para que el JIT no
+ * elimine las llamadas, y la salida DEBUG de las consultas se descarta mientras se mide.
+ */
+public final class RoutingBenchmark {
+
+    private static final long SEED = 19;
+    private static final int QUERIES = 200;
+    // Dijkstra.dijkstra arma el grafo completo en cada llamada: se mide con menos consultas.
+    private static final int DIJKSTRA_QUERIES = 20;
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURED_ROUNDS = 10;
+    private static final String[] DEFAULT_SIZES = {"1000:20000", "10000:200000"};
+
+    private static volatile long sink;
+
+    @FunctionalInterface
+    private interface Operation {
+        long run(int query) throws Exception;
+    }
+
+    private RoutingBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String[] sizes = args.length > 0 ? args : DEFAULT_SIZES;
+        PrintStream out = System.out;
+        PrintStream discard = new PrintStream(OutputStream.nullOutputStream());
+        out.printf("%-28s %10s %10s %14s %14s %14s%n", "operación", "aeropuertos", "rutas", "mediana ns/op", "mejor ns/op", "peor ns/op");
+
+        for (String size : sizes) {
+            String[] parts = size.split(":");
+            int airports = Integer.parseInt(parts[0]);
+            int routes = Integer.parseInt(parts[1]);
+
+            System.setOut(discard);
+            RouteNetworkGenerator.Network network = new RouteNetworkGenerator(SEED, airports, routes).generate();
+            RouteGraphService service = new RouteGraphService(0);
+            long loadStart = System.nanoTime();
+            network.loadInto(service);
+            long loadNanos = System.nanoTime() - loadStart;
+            System.setOut(out);
+            out.printf("# red de %d aeropuertos y %d rutas cargada en %.1f ms%n",
+                    network.getAirportCount(), network.getRouteCount(), loadNanos / 1e6);
+
+            Random random = new Random(SEED);
+            int[] origins = new int[QUERIES];
+            int[] destinations = new int[QUERIES];
+            String[] originCodes = new String[QUERIES];
+            String[] destinationCodes = new String[QUERIES];
+            for (int i = 0; i < QUERIES; i++) {
+                origins[i] = random.nextInt(airports);
+                destinations[i] = random.nextInt(airports);
+                originCodes[i] = network.getCode(origins[i]);
+                destinationCodes[i] = network.getCode(destinations[i]);
+            }
+            int[][] edges = network.toEdgeArray();
+
+            String label = airports + ":" + routes;
+            measure(out, discard, "shortestPath", network, QUERIES,
+                    i -> service.shortestPath(originCodes[i], destinationCodes[i]));
+            measure(out, discard, "getShortestPathDualWeights", network, QUERIES, i -> {
+                double[] result = service.getShortestPathDualWeights(originCodes[i], destinationCodes[i], "distance");
+                return result == null ? -1 : (long) result[0];
+            });
+            measure(out, discard, "getPathDualWeight", network, QUERIES, i -> {
+                SinglyLinkedList path = service.getPathDualWeight(originCodes[i], destinationCodes[i], "duration");
+                return path == null ? -1 : path.size();
+            });
+            measure(out, discard, "Dijkstra.dijkstra", network, DIJKSTRA_QUERIES,
+                    i -> Dijkstra.dijkstra(airports, edges, origins[i])[destinations[i]]);
+            out.println("# fin " + label);
+        }
+        discard.close();
+    }
+
+    private static void measure(PrintStream out, PrintStream discard, String name, RouteNetworkGenerator.Network network,
+                                int queries, Operation operation) throws Exception {
+        long[] nanosPerOp = new long[MEASURED_ROUNDS];
+        System.setOut(discard);
+        try {
+            for (int round = 0; round < WARMUP_ROUNDS; round++) {
+                runRound(operation, queries);
+            }
+            for (int round = 0; round < MEASURED_ROUNDS; round++) {
+                nanosPerOp[round] = runRound(operation, queries) / queries;
+            }
+        } finally {
+            System.setOut(out);
+        }
+        Arrays.sort(nanosPerOp);
+        out.printf("%-28s %10d %10d %14d %14d %14d%n", name, network.getAirportCount(), network.getRouteCount(),
+                nanosPerOp[MEASURED_ROUNDS / 2], nanosPerOp[0], nanosPerOp[MEASURED_ROUNDS - 1]);
+    }
+
+    private static long runRound(Operation operation, int queries) throws Exception {
+        long accumulated = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < queries; i++) {
+            accumulated += operation.run(i);
+        }
+        long elapsed = System.nanoTime() - start;
+        sink += accumulated;
+        return elapsed;
+    }
+}
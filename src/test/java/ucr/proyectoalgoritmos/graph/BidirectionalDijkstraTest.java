@@ -0,0 +1,77 @@
+package ucr.proyectoalgoritmos.graph;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ucr.proyectoalgoritmos.Domain.list.ListException;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BidirectionalDijkstraTest {
+
+    @Test
+    @DisplayName("El índice inverso debe listar las aristas entrantes de cada vértice")
+    void testReverseIndex() throws ListException {
+        DirectedSinglyLinkedListGraph graph = new DirectedSinglyLinkedListGraph();
+        int sjo = graph.addVertex("SJO");
+        int mia = graph.addVertex("MIA");
+        int jfk = graph.addVertex("JFK");
+        graph.addEdge(sjo, jfk, 3000);
+        graph.addEdge(mia, jfk, 1090);
+
+        ReverseAdjacencyIndex reverse = graph.getReverseIndex();
+        CompressedSparseRowGraph csr = graph.getFrozenGraph();
+        assertEquals(2, reverse.inDegree(jfk));
+        assertEquals(0, reverse.inDegree(sjo));
+        for (int i = reverse.edgeStart(jfk); i < reverse.edgeEnd(jfk); i++) {
+            assertEquals(jfk, csr.target(reverse.forwardEdge(i)));
+            assertEquals(reverse.forwardEdge(i), csr.findEdge(reverse.source(i), jfk));
+        }
+
+        graph.addEdge(jfk, sjo, 3000);
+        assertNotSame(reverse, graph.getReverseIndex(), "El índice debe reconstruirse cuando cambia el grafo.");
+        assertEquals(1, graph.getReverseIndex().inDegree(sjo));
+    }
+
+    @Test
+    @DisplayName("La búsqueda bidireccional debe coincidir con Dijkstra y reconstruir el camino")
+    void testMatchesDijkstra() throws ListException {
+        Random random = new Random(11);
+        DirectedSinglyLinkedListGraph graph = new DirectedSinglyLinkedListGraph();
+        int n = 200;
+        for (int i = 0; i < n; i++) {
+            graph.addVertex("A" + i);
+        }
+        for (int k = 0; k < n * 3; k++) {
+            graph.addEdge(random.nextInt(n), random.nextInt(n), 1 + random.nextInt(100));
+        }
+        CompressedSparseRowGraph csr = graph.getFrozenGraph();
+        ReverseAdjacencyIndex reverse = graph.getReverseIndex();
+        ShortestPathEngine engine = new ShortestPathEngine();
+        BidirectionalDijkstra search = new BidirectionalDijkstra();
+
+        for (int q = 0; q < 200; q++) {
+            int s = random.nextInt(n);
+            int t = random.nextInt(n);
+            double expected = engine.run(csr, csr.getDistances(), s, t);
+            double actual = search.run(csr, reverse, csr.getDistances(), s, t);
+            assertEquals(expected, actual, "Consulta " + s + " -> " + t);
+
+            int[] edges = search.pathEdges();
+            if (expected == Double.POSITIVE_INFINITY) {
+                assertNull(edges);
+                continue;
+            }
+            double sum = 0;
+            int current = s;
+            for (int e : edges) {
+                assertTrue(e >= csr.edgeStart(current) && e < csr.edgeEnd(current), "El camino debe ser contiguo.");
+                sum += csr.distance(e);
+                current = csr.target(e);
+            }
+            assertEquals(t, current);
+            assertEquals(expected, sum);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package ucr.proyectoalgoritmos.graph;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ucr.proyectoalgoritmos.Domain.list.ListException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompressedSparseRowGraphTest {
+
+    private DirectedSinglyLinkedListGraph graph;
+    private int sjo;
+    private int mia;
+    private int jfk;
+
+    @BeforeEach
+    void setUp() throws ListException {
+        graph = new DirectedSinglyLinkedListGraph();
+        sjo = graph.addVertex("SJO");
+        mia = graph.addVertex("MIA");
+        jfk = graph.addVertex("JFK");
+        graph.addEdge(sjo, mia, 1300);
+        graph.addEdge(mia, jfk, 1090);
+    }
+
+    @Test
+    @DisplayName("El CSR congelado debe reflejar las aristas del grafo")
+    void testFrozenGraphMatchesAdjacency() {
+        CompressedSparseRowGraph csr = graph.getFrozenGraph();
+
+        assertEquals(3, csr.getNumVertices());
+        assertEquals(2, csr.getNumEdges());
+        assertEquals(1, csr.outDegree(sjo));
+        assertEquals(0, csr.outDegree(jfk));
+
+        int edge = csr.findEdge(sjo, mia);
+        assertTrue(edge >= 0, "Debería existir la arista SJO->MIA en el CSR.");
+        assertEquals(1300, csr.distance(edge));
+        assertTrue(Double.isNaN(csr.duration(edge)), "El CSR del grafo no tiene duración.");
+        assertEquals(-1, csr.findEdge(jfk, sjo));
+    }
+
+    @Test
+    @DisplayName("El CSR debe reutilizarse mientras el grafo no cambie")
+    void testFrozenGraphIsReusedWithoutMutations() {
+        assertSame(graph.getFrozenGraph(), graph.getFrozenGraph());
+    }
+
+    @Test
+    @DisplayName("Las mutaciones deben incorporarse al reconstruir el CSR")
+    void testMutationsAreFoldedOnRebuild() throws ListException {
+        CompressedSparseRowGraph before = graph.getFrozenGraph();
+
+        int lax = graph.addVertex("LAX");
+        graph.addEdge(jfk, lax, 3980);
+        graph.modifyEdge(sjo, mia, 1250);
+
+        CompressedSparseRowGraph after = graph.getFrozenGraph();
+        assertNotSame(before, after);
+        assertEquals(4, after.getNumVertices());
+        assertEquals(3, after.getNumEdges());
+        assertEquals(1250, after.distance(after.findEdge(sjo, mia)));
+        assertEquals(1090, after.distance(after.findEdge(mia, jfk)));
+        assertEquals(3980, after.distance(after.findEdge(jfk, lax)));
+    }
+
+    @Test
+    @DisplayName("La ruta más corta debe usar el CSR actualizado")
+    void testShortestPathUsesRebuiltGraph() throws ListException {
+        assertEquals(2390, graph.shortestPath("SJO", "JFK"));
+
+        graph.addEdge(sjo, jfk, 2000);
+        assertEquals(2000, graph.shortestPath("SJO", "JFK"));
+        assertEquals(Integer.MAX_VALUE, graph.shortestPath("JFK", "SJO"));
+    }
+}
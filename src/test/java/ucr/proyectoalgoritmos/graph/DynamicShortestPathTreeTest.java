@@ -0,0 +1,93 @@
+package ucr.proyectoalgoritmos.graph;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ucr.proyectoalgoritmos.Domain.list.ListException;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DynamicShortestPathTreeTest {
+
+    @Test
+    @DisplayName("El árbol reparado debe coincidir con un Dijkstra nuevo tras cada cambio de arista")
+    void testRepairMatchesDijkstra() throws ListException {
+        Random random = new Random(13);
+        DirectedSinglyLinkedListGraph graph = new DirectedSinglyLinkedListGraph();
+        for (int i = 0; i < 40; i++) {
+            graph.addVertex("V" + i);
+        }
+        for (int i = 0; i < 120; i++) {
+            graph.addEdge(random.nextInt(40), random.nextInt(40), 1 + random.nextInt(50));
+        }
+        CompressedSparseRowGraph csr = graph.getFrozenGraph();
+        DynamicShortestPathTree tree = DynamicShortestPathTree.build(csr, csr.getDistances(), 0, graph.getVersion());
+        ShortestPathEngine engine = new ShortestPathEngine();
+
+        for (int step = 0; step < 300; step++) {
+            if (step % 50 == 49) {
+                graph.addVertex("N" + step);
+            }
+            int n = graph.getNumVertices();
+            int u = random.nextInt(n);
+            int v = random.nextInt(n);
+            if (u == v) {
+                continue;
+            }
+            int weight = 1 + random.nextInt(random.nextBoolean() ? 5 : 200);
+            if (graph.hasEdge(graph.getAirportCodeForIndex(u), graph.getAirportCodeForIndex(v))) {
+                graph.modifyEdge(u, v, weight);
+            } else {
+                graph.addEdge(u, v, weight);
+            }
+            csr = graph.getFrozenGraph();
+            tree.update(csr, graph.getReverseIndex(), csr.getDistances(), u, v, graph.getVersion());
+
+            engine.run(csr, csr.getDistances(), 0, -1);
+            assertEquals(n, tree.getNumVertices());
+            for (int x = 0; x < n; x++) {
+                assertEquals(engine.getDistance(x), tree.getDistance(x), "Distancia a " + x + " en el paso " + step);
+                int p = tree.getParent(x);
+                if (p != -1) {
+                    assertEquals(tree.getDistance(x), tree.getDistance(p) + csr.getDistances()[csr.findEdge(p, x)],
+                            "El padre de " + x + " debe estar sobre un camino mínimo.");
+                }
+            }
+        }
+        assertEquals(graph.getVersion(), tree.getVersion());
+    }
+
+    @Test
+    @DisplayName("Al empeorar la única arista de acceso, el subárbol debe quedar inalcanzable o tomar otro camino")
+    void testIncreaseOnTreeEdge() throws ListException {
+        DirectedSinglyLinkedListGraph graph = new DirectedSinglyLinkedListGraph();
+        int a = graph.addVertex("A");
+        int b = graph.addVertex("B");
+        int c = graph.addVertex("C");
+        int d = graph.addVertex("D");
+        graph.addEdge(a, b, 1);
+        graph.addEdge(b, c, 1);
+        graph.addEdge(a, d, 10);
+        graph.addEdge(d, c, 10);
+        CompressedSparseRowGraph csr = graph.getFrozenGraph();
+        DynamicShortestPathTree tree = DynamicShortestPathTree.build(csr, csr.getDistances(), a, graph.getVersion());
+        assertEquals(2, tree.getDistance(c));
+        assertEquals(b, tree.getParent(c));
+
+        graph.modifyEdge(a, b, 100);
+        csr = graph.getFrozenGraph();
+        int changed = tree.update(csr, graph.getReverseIndex(), csr.getDistances(), a, b, graph.getVersion());
+        assertEquals(2, changed, "Cambian B y C.");
+        assertEquals(100, tree.getDistance(b));
+        assertEquals(20, tree.getDistance(c));
+        assertEquals(d, tree.getParent(c));
+
+        // Una arista que no está en el árbol y no mejora nada no cambia distancias.
+        graph.modifyEdge(b, c, 5);
+        csr = graph.getFrozenGraph();
+        assertEquals(0, tree.update(csr, graph.getReverseIndex(), csr.getDistances(), b, c, graph.getVersion()));
+        assertEquals(d, tree.getParent(c));
+        assertEquals(20, tree.getDistance(c));
+    }
+}
@@ -0,0 +1,64 @@
+package ucr.proyectoalgoritmos.graph;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EdgeWeightMapTest {
+
+    @Test
+    @DisplayName("Debe guardar, reemplazar y quitar los pesos de una arista")
+    void testPutReplaceRemove() {
+        EdgeWeightMap map = new EdgeWeightMap();
+        assertTrue(map.put(0, 1, 100, 60));
+        assertFalse(map.put(0, 1, 120, 70), "La arista ya existía.");
+        assertTrue(map.put(1, 0, 5, 3));
+        assertEquals(2, map.size());
+        assertEquals(120, map.distance(0, 1));
+        assertEquals(70, map.duration(0, 1));
+        assertEquals(5, map.distance(1, 0));
+
+        assertTrue(map.remove(0, 1));
+        assertFalse(map.remove(0, 1));
+        assertFalse(map.contains(0, 1));
+        assertTrue(Double.isNaN(map.distance(0, 1)));
+        assertTrue(Double.isNaN(map.duration(-1, 0)), "Un índice inexistente no tiene pesos.");
+        assertThrows(IllegalArgumentException.class, () -> map.put(-1, 0, 1, 1));
+    }
+
+    @Test
+    @DisplayName("Debe comportarse como un HashMap tras muchas inserciones y borrados")
+    void testMatchesHashMap() {
+        Random random = new Random(15);
+        EdgeWeightMap map = new EdgeWeightMap(4);
+        Map<Long, Double> expected = new HashMap<>();
+        for (int i = 0; i < 20000; i++) {
+            int u = random.nextInt(60);
+            int v = random.nextInt(60);
+            long key = ((long) u << 32) | v;
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key) != null, map.remove(u, v));
+            } else {
+                double distance = random.nextInt(10000);
+                assertEquals(!expected.containsKey(key), map.put(u, v, distance, distance / 2));
+                expected.put(key, distance);
+            }
+        }
+        assertEquals(expected.size(), map.size());
+        for (int u = 0; u < 60; u++) {
+            for (int v = 0; v < 60; v++) {
+                Double distance = expected.get(((long) u << 32) | v);
+                assertEquals(distance != null, map.contains(u, v));
+                if (distance != null) {
+                    assertEquals(distance.doubleValue(), map.distance(u, v));
+                    assertEquals(distance / 2, map.duration(u, v));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package ucr.proyectoalgoritmos.graph;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ucr.proyectoalgoritmos.Domain.list.ListException;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GraphSnapshotTest {
+
+    @Test
+    @DisplayName("Un snapshot tomado no debe cambiar cuando el grafo se modifica")
+    void testSnapshotIsImmutable() throws ListException {
+        DirectedSinglyLinkedListGraph graph = new DirectedSinglyLinkedListGraph();
+        int a = graph.addVertex("A");
+        int b = graph.addVertex("B");
+        graph.addEdge(a, b, 10);
+        GraphSnapshot before = graph.getSnapshot();
+        assertSame(before, graph.getSnapshot(), "Sin cambios se debe reutilizar el snapshot publicado.");
+
+        int c = graph.addVertex("C");
+        graph.addEdge(b, c, 5);
+        graph.modifyEdge(a, b, 1);
+        GraphSnapshot after = graph.getSnapshot();
+
+        assertTrue(after.getVersion() > before.getVersion());
+        assertEquals(2, before.getNumVertices());
+        assertEquals(-1, before.indexOf("C"), "C no existe en la versión anterior.");
+        assertEquals(10, before.getGraph().distance(before.getGraph().findEdge(a, b)));
+        assertEquals(3, after.getNumVertices());
+        assertEquals(c, after.indexOf("C"));
+        assertEquals(1, after.getGraph().distance(after.getGraph().findEdge(a, b)));
+        assertEquals(1, after.getReverseIndex().inDegree(c));
+    }
+
+    @Test
+    @DisplayName("Un lector no debe esperar a un lote en curso y debe ver la versión anterior completa")
+    void testReaderDuringBatchSeesPreviousVersion() throws ListException {
+        DirectedSinglyLinkedListGraph graph = new DirectedSinglyLinkedListGraph();
+        int a = graph.addVertex("A");
+        int b = graph.addVertex("B");
+        graph.addEdge(a, b, 10);
+        GraphSnapshot before = graph.getSnapshot();
+
+        AtomicReference<GraphSnapshot> seenByReader = new AtomicReference<>();
+        GraphSnapshot published = graph.mutate(g -> {
+            int c = g.addVertex("C");
+            g.addEdge(b, c, 5);
+            Thread reader = new Thread(() -> seenByReader.set(g.getSnapshot()));
+            reader.start();
+            try {
+                reader.join(5000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            g.addEdge(c, a, 7);
+        });
+
+        assertSame(before, seenByReader.get(), "El lector debe recibir el último snapshot publicado sin bloquearse.");
+        assertSame(published, graph.getSnapshot());
+        assertEquals(graph.getVersion(), published.getVersion());
+        assertEquals(3, published.getGraph().getNumEdges());
+        assertEquals(12, graph.shortestPath("B", "A"));
+    }
+
+    @Test
+    @DisplayName("Las consultas concurrentes deben ver siempre snapshots consistentes")
+    void testConcurrentReadersAndWriter() throws Exception {
+        DirectedSinglyLinkedListGraph graph = new DirectedSinglyLinkedListGraph();
+        graph.addVertex("V0");
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread[] readers = new Thread[4];
+        for (int r = 0; r < readers.length; r++) {
+            readers[r] = new Thread(() -> {
+                long lastVersion = -1;
+                for (int i = 0; i < 500 && failure.get() == null; i++) {
+                    try {
+                        GraphSnapshot snapshot = graph.getSnapshot();
+                        assertTrue(snapshot.getVersion() >= lastVersion, "Las versiones no deben retroceder.");
+                        lastVersion = snapshot.getVersion();
+                        CompressedSparseRowGraph csr = snapshot.getGraph();
+                        assertEquals(snapshot.getNumVertices(), csr.getNumVertices());
+                        for (int e = 0; e < csr.getNumEdges(); e++) {
+                            assertTrue(csr.target(e) < csr.getNumVertices());
+                        }
+                        assertNotNull(snapshot.codeOf(snapshot.getNumVertices() - 1));
+                        graph.shortestPath("V0", "V" + (i % 50));
+                    } catch (Throwable t) {
+                        failure.compareAndSet(null, t);
+                    }
+                }
+            });
+            readers[r].start();
+        }
+        for (int i = 1; i < 50; i++) {
+            int next = i;
+            graph.mutate(g -> {
+                int v = g.addVertex("V" + next);
+                g.addEdge(v - 1, v, next);
+                g.addEdge(v, 0, 1);
+            });
+        }
+        for (Thread reader : readers) {
+            reader.join();
+        }
+        assertNull(failure.get(), "Ningún lector debe fallar.");
+        assertEquals(50, graph.getSnapshot().getNumVertices());
+    }
+}
@@ -0,0 +1,47 @@
+package ucr.proyectoalgoritmos.graph;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ucr.proyectoalgoritmos.Domain.list.ListException;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KShortestPathsTest {
+
+    @Test
+    @DisplayName("Debe retornar los k caminos sin ciclos en orden de costo")
+    void testYen() throws ListException {
+        DirectedSinglyLinkedListGraph graph = new DirectedSinglyLinkedListGraph();
+        int a = graph.addVertex("A");
+        int b = graph.addVertex("B");
+        int c = graph.addVertex("C");
+        int d = graph.addVertex("D");
+        int e = graph.addVertex("E");
+        graph.addEdge(a, b, 1);
+        graph.addEdge(b, d, 1);
+        graph.addEdge(a, c, 2);
+        graph.addEdge(c, d, 1);
+        graph.addEdge(b, c, 1);
+        graph.addEdge(a, d, 5);
+        graph.addEdge(d, a, 1);
+        CompressedSparseRowGraph csr = graph.getFrozenGraph();
+        KShortestPaths yen = new KShortestPaths();
+
+        List<KShortestPaths.Path> paths = yen.find(csr, graph.getReverseIndex(), csr.getDistances(), a, d, 3);
+        assertEquals(3, paths.size());
+        assertEquals(2, paths.get(0).getCost());
+        assertEquals(3, paths.get(1).getCost());
+        assertEquals(3, paths.get(2).getCost());
+        assertFalse(Arrays.equals(paths.get(1).getEdges(), paths.get(2).getEdges()), "Los caminos no deben repetirse.");
+
+        paths = yen.find(csr, graph.getReverseIndex(), csr.getDistances(), a, d, 10);
+        assertEquals(4, paths.size(), "Solo hay cuatro caminos sin ciclos de A a D.");
+        assertEquals(5, paths.get(3).getCost());
+        assertArrayEquals(new int[]{csr.findEdge(a, d)}, paths.get(3).getEdges());
+
+        assertTrue(yen.find(csr, graph.getReverseIndex(), csr.getDistances(), b, e, 3).isEmpty(), "E no es alcanzable.");
+    }
+}
@@ -0,0 +1,38 @@
+package ucr.proyectoalgoritmos.graph;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParetoRouteSearchTest {
+
+    @Test
+    @DisplayName("Debe retornar solo los itinerarios no dominados en distancia, duración y tramos")
+    void testParetoFront() {
+        // 0 -> 3 directo (largo y lento), 0 -> 1 -> 3 (corto pero lento), 0 -> 2 -> 3 (rápido pero largo)
+        // y 0 -> 1 -> 2 -> 3 (dominado por 0 -> 2 -> 3).
+        int[] offsets = {0, 3, 5, 6, 6};
+        int[] targets = {3, 1, 2, 3, 2, 3};
+        double[] distance = {900, 100, 300, 100, 250, 300};
+        double[] duration = {500, 50, 40, 400, 60, 40};
+        CompressedSparseRowGraph csr = new CompressedSparseRowGraph(4, offsets, targets, distance, duration, 1);
+        ParetoRouteSearch search = new ParetoRouteSearch();
+
+        List<ParetoRouteSearch.Route> front = search.search(csr, 0, 3);
+        assertEquals(3, front.size());
+        assertEquals(200, front.get(0).getDistance());
+        assertEquals(450, front.get(0).getDuration());
+        assertEquals(600, front.get(1).getDistance());
+        assertEquals(80, front.get(1).getDuration());
+        assertEquals(1, front.get(2).getLegs(), "El vuelo directo no está dominado por tener menos tramos.");
+        assertArrayEquals(new int[]{1, 3}, front.get(0).getEdges());
+        assertFalse(search.isTruncated());
+
+        assertEquals(1, search.search(csr, 0, 3, 1, ParetoRouteSearch.DEFAULT_MAX_LABELS_PER_VERTEX).size(),
+                "Con un solo tramo permitido solo queda el vuelo directo.");
+        assertTrue(search.search(csr, 3, 0).isEmpty());
+    }
+}
@@ -0,0 +1,89 @@
+package ucr.proyectoalgoritmos.graph;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ucr.proyectoalgoritmos.Domain.list.ListException;
+
+import java.util.ArrayDeque;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReachabilityIndexTest {
+
+    @Test
+    @DisplayName("Debe agrupar los ciclos en una componente y responder la alcanzabilidad")
+    void testComponents() throws ListException {
+        DirectedSinglyLinkedListGraph graph = new DirectedSinglyLinkedListGraph();
+        int a = graph.addVertex("A");
+        int b = graph.addVertex("B");
+        int c = graph.addVertex("C");
+        int d = graph.addVertex("D");
+        graph.addEdge(a, b, 1);
+        graph.addEdge(b, a, 1);
+        graph.addEdge(b, c, 1);
+        ReachabilityIndex index = ReachabilityIndex.build(graph.getFrozenGraph(), graph.getVersion());
+
+        assertEquals(3, index.getComponentCount());
+        assertEquals(index.componentOf(a), index.componentOf(b));
+        assertTrue(index.isReachable(a, c));
+        assertFalse(index.isReachable(c, a));
+        assertFalse(index.isReachable(a, d));
+        assertTrue(index.isReachable(d, d));
+
+        // C->A cierra un ciclo: las tres quedan en una componente y el índice se reconstruye.
+        graph.addEdge(c, a, 1);
+        index.update(graph.getFrozenGraph(), c, a, graph.getVersion());
+        assertEquals(2, index.getRebuildCount());
+        assertEquals(2, index.getComponentCount());
+        assertTrue(index.isReachable(c, b));
+        assertEquals(graph.getVersion(), index.getVersion());
+    }
+
+    @Test
+    @DisplayName("El índice actualizado debe coincidir con un recorrido en anchura tras cada arista añadida")
+    void testIncrementalMatchesBfs() throws ListException {
+        Random random = new Random(17);
+        DirectedSinglyLinkedListGraph graph = new DirectedSinglyLinkedListGraph();
+        for (int i = 0; i < 30; i++) {
+            graph.addVertex("V" + i);
+        }
+        ReachabilityIndex index = ReachabilityIndex.build(graph.getFrozenGraph(), graph.getVersion());
+        for (int step = 0; step < 120; step++) {
+            if (step % 20 == 19) {
+                graph.addVertex("N" + step);
+            }
+            int n = graph.getNumVertices();
+            int u = random.nextInt(n);
+            int v = random.nextInt(n);
+            graph.addEdge(u, v, 1);
+            CompressedSparseRowGraph csr = graph.getFrozenGraph();
+            index.update(csr, u, v, graph.getVersion());
+            for (int s = 0; s < n; s++) {
+                boolean[] seen = bfs(csr, s);
+                for (int t = 0; t < n; t++) {
+                    assertEquals(seen[t], index.isReachable(s, t), "Alcanzabilidad " + s + " -> " + t + " en el paso " + step);
+                }
+            }
+        }
+        assertTrue(index.getRebuildCount() < 120, "No todas las aristas deben reconstruir el índice.");
+    }
+
+    private static boolean[] bfs(CompressedSparseRowGraph csr, int source) {
+        boolean[] seen = new boolean[csr.getNumVertices()];
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        seen[source] = true;
+        queue.add(source);
+        while (!queue.isEmpty()) {
+            int u = queue.poll();
+            for (int e = csr.edgeStart(u); e < csr.edgeEnd(u); e++) {
+                int v = csr.target(e);
+                if (!seen[v]) {
+                    seen[v] = true;
+                    queue.add(v);
+                }
+            }
+        }
+        return seen;
+    }
+}
@@ -0,0 +1,111 @@
+package ucr.proyectoalgoritmos.graph;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ucr.proyectoalgoritmos.Domain.list.ListException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RouteTracerTest {
+
+    private DirectedSinglyLinkedListGraph buildGraph() throws ListException {
+        DirectedSinglyLinkedListGraph graph = new DirectedSinglyLinkedListGraph();
+        int sjo = graph.addVertex("SJO");
+        int mia = graph.addVertex("MIA");
+        int jfk = graph.addVertex("JFK");
+        int cdg = graph.addVertex("CDG");
+        graph.addEdge(sjo, mia, 1300);
+        graph.addEdge(mia, jfk, 1090);
+        graph.addEdge(sjo, jfk, 3600);
+        graph.addEdge(jfk, cdg, 3620);
+        return graph;
+    }
+
+    @Test
+    @DisplayName("Debe registrar la consulta, los vértices asentados y el resultado solo mientras está asociado")
+    void testRecordsOnlyWhileAttached() throws ListException {
+        DirectedSinglyLinkedListGraph graph = buildGraph();
+        RouteTracer tracer = new RouteTracer(64);
+
+        RouteTracer.Scope scope = tracer.attach();
+        try {
+            assertSame(tracer, RouteTracer.current());
+            assertEquals(6010, graph.shortestPath("SJO", "CDG"));
+        } finally {
+            scope.close();
+        }
+        assertNull(RouteTracer.current(), "Al cerrar el scope el hilo queda sin tracer.");
+
+        assertEquals(RouteTracer.QUERY, tracer.getKind(0));
+        assertEquals(graph.getIndexForAirportCode("SJO"), tracer.getVertex(0));
+        assertEquals(RouteTracer.RESULT, tracer.getKind(tracer.size() - 1));
+        assertEquals(6010, tracer.getValue(tracer.size() - 1));
+        double lastSettled = -1;
+        int relaxed = 0;
+        for (int i = 0; i < tracer.size(); i++) {
+            if (tracer.getKind(i) == RouteTracer.SETTLED) {
+                assertTrue(tracer.getValue(i) >= lastSettled, "Los vértices se asientan en orden de distancia.");
+                lastSettled = tracer.getValue(i);
+            } else if (tracer.getKind(i) == RouteTracer.RELAXED) {
+                relaxed++;
+            }
+        }
+        assertEquals(4, relaxed, "SJO->MIA, SJO->JFK, MIA->JFK (mejora) y JFK->CDG.");
+
+        int recorded = tracer.size();
+        graph.shortestPath("SJO", "CDG");
+        assertEquals(recorded, tracer.size(), "Sin tracer asociado no se registra nada.");
+
+        String dump = tracer.toString();
+        StringBuilder named = new StringBuilder();
+        tracer.dump(named, graph.getSnapshot()::codeOf);
+        assertTrue(named.toString().startsWith("QUERY SJO -> CDG"), named.toString());
+        assertTrue(dump.contains("RELAXED 1 -> 2 d=2390.0"), dump);
+    }
+
+    @Test
+    @DisplayName("El buffer circular debe conservar los eventos más recientes y contar los descartados")
+    void testRingBufferKeepsLatest() throws ListException {
+        DirectedSinglyLinkedListGraph graph = buildGraph();
+        RouteTracer tracer = new RouteTracer(3);
+        RouteTracer.Scope scope = tracer.attach();
+        try {
+            graph.shortestPath("SJO", "CDG");
+        } finally {
+            scope.close();
+        }
+        assertEquals(3, tracer.size());
+        assertTrue(tracer.getDroppedCount() > 0);
+        assertEquals(RouteTracer.RESULT, tracer.getKind(2));
+        assertTrue(tracer.toString().startsWith("... " + tracer.getDroppedCount() + " eventos anteriores descartados"));
+
+        tracer.clear();
+        assertEquals(0, tracer.size());
+        assertThrows(IndexOutOfBoundsException.class, () -> tracer.getKind(0));
+    }
+
+    @Test
+    @DisplayName("La búsqueda bidireccional debe registrar ambos frentes")
+    void testBidirectionalRecordsBothDirections() throws ListException {
+        DirectedSinglyLinkedListGraph graph = buildGraph();
+        CompressedSparseRowGraph csr = graph.getFrozenGraph();
+        RouteTracer tracer = new RouteTracer(64);
+        RouteTracer.Scope scope = tracer.attach();
+        try {
+            new BidirectionalDijkstra().run(csr, graph.getReverseIndex(), csr.getDistances(),
+                    graph.getIndexForAirportCode("SJO"), graph.getIndexForAirportCode("CDG"));
+        } finally {
+            scope.close();
+        }
+        boolean forward = false;
+        boolean backward = false;
+        for (int i = 0; i < tracer.size(); i++) {
+            if (tracer.getKind(i) == RouteTracer.SETTLED) {
+                forward |= tracer.getOther(i) == 0;
+                backward |= tracer.getOther(i) == 1;
+            }
+        }
+        assertTrue(forward && backward);
+        assertEquals(6010, tracer.getValue(tracer.size() - 1));
+    }
+}
@@ -0,0 +1,93 @@
+package ucr.proyectoalgoritmos.graph;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShortestPathEngineTest {
+
+    // 0 -> 1 (4), 0 -> 2 (1), 2 -> 1 (2), 1 -> 3 (1), 3 -> 4 (NaN: sin peso para el criterio)
+    private static CompressedSparseRowGraph smallGraph() {
+        int[] offsets = {0, 2, 3, 4, 5, 5};
+        int[] targets = {1, 2, 3, 1, 4};
+        double[] weights = {4, 1, 1, 2, Double.NaN};
+        double[] durations = new double[5];
+        return new CompressedSparseRowGraph(5, offsets, targets, weights, durations, 0);
+    }
+
+    @Test
+    @DisplayName("El motor debe encontrar la distancia y el camino más corto")
+    void testShortestPathAndReconstruction() {
+        CompressedSparseRowGraph csr = smallGraph();
+        ShortestPathEngine engine = new ShortestPathEngine();
+
+        assertEquals(4, engine.run(csr, csr.getDistances(), 0, 3));
+        assertArrayEquals(new int[]{0, 2, 1, 3}, engine.pathTo(3));
+        assertEquals(csr.findEdge(1, 3), engine.getPrevEdge(3));
+        assertEquals(-1, engine.getPrevEdge(0));
+    }
+
+    @Test
+    @DisplayName("Las aristas NaN se ignoran y los resultados de una consulta no se filtran a la siguiente")
+    void testGenerationsIsolateQueries() {
+        CompressedSparseRowGraph csr = smallGraph();
+        ShortestPathEngine engine = new ShortestPathEngine();
+
+        engine.run(csr, csr.getDistances(), 0, -1);
+        assertEquals(4, engine.getSettledCount());
+        assertEquals(Double.POSITIVE_INFINITY, engine.getDistance(4));
+
+        assertEquals(Double.POSITIVE_INFINITY, engine.run(csr, csr.getDistances(), 3, 0));
+        assertFalse(engine.isReached(1), "El vértice 1 fue alcanzado en la consulta anterior, no en esta.");
+        assertNull(engine.pathTo(1));
+    }
+
+    @Test
+    @DisplayName("El motor debe coincidir con Bellman-Ford en grafos aleatorios")
+    void testMatchesBellmanFordOnRandomGraphs() {
+        Random random = new Random(7);
+        ShortestPathEngine engine = new ShortestPathEngine();
+        for (int round = 0; round < 50; round++) {
+            int n = 2 + random.nextInt(30);
+            int m = random.nextInt(n * 4);
+            int[] sources = new int[m];
+            int[] offsets = new int[n + 1];
+            for (int i = 0; i < m; i++) {
+                sources[i] = random.nextInt(n);
+                offsets[sources[i] + 1]++;
+            }
+            Arrays.sort(sources);
+            for (int u = 0; u < n; u++) {
+                offsets[u + 1] += offsets[u];
+            }
+            int[] targets = new int[m];
+            double[] weights = new double[m];
+            for (int e = 0; e < m; e++) {
+                targets[e] = random.nextInt(n);
+                weights[e] = random.nextInt(100);
+            }
+            CompressedSparseRowGraph csr = new CompressedSparseRowGraph(n, offsets, targets, weights, new double[m], round);
+
+            int source = random.nextInt(n);
+            double[] expected = new double[n];
+            Arrays.fill(expected, Double.POSITIVE_INFINITY);
+            expected[source] = 0;
+            for (int pass = 0; pass < n; pass++) {
+                for (int e = 0; e < m; e++) {
+                    if (expected[sources[e]] + weights[e] < expected[targets[e]]) {
+                        expected[targets[e]] = expected[sources[e]] + weights[e];
+                    }
+                }
+            }
+
+            engine.run(csr, weights, source, -1);
+            for (int v = 0; v < n; v++) {
+                assertEquals(expected[v], engine.getDistance(v), "Ronda " + round + ", vértice " + v);
+            }
+        }
+    }
+}
@@ -5,6 +5,11 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import ucr.proyectoalgoritmos.Domain.aeropuetos.AirportManager;
 import ucr.proyectoalgoritmos.Domain.list.ListException;
+import ucr.proyectoalgoritmos.Domain.list.SinglyLinkedList;
+import ucr.proyectoalgoritmos.Domain.route.BatchRouteResult;
+import ucr.proyectoalgoritmos.Domain.route.LandmarkIndex;
+import ucr.proyectoalgoritmos.Domain.route.ParetoRoutes;
+import ucr.proyectoalgoritmos.Domain.route.ReachableDestinations;
 import ucr.proyectoalgoritmos.Domain.route.RouteManager;
 import ucr.proyectoalgoritmos.graph.DirectedSinglyLinkedListGraph;
 
@@ -16,7 +21,12 @@ import java.io.IOException;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Objects; // Para Objects.requireNonNull
+import java.util.Random;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -135,6 +145,44 @@ class RouteManagerTest {
         }
     }
 
+    @Test
+    @DisplayName("La carga en lote debe quedarse con la última ruta repetida, ignorar lazos y rutas incompletas")
+    void testLoadRoutesFromJson_BulkDuplicatesAndLargeFile() throws IOException, ListException {
+        String bulkRoutesPath = "temp_bulk_routes.json";
+        Random random = new Random(18);
+        Set<Long> distinctEdges = new HashSet<>();
+        try (FileWriter writer = new FileWriter(bulkRoutesPath)) {
+            writer.write("{ \"routes\": [\n");
+            writer.write("{ \"origin_airport_code\": \"SJO\", \"destination_airport_code\": \"MIA\", \"distance\": 1300, \"duration\": 180 },\n");
+            writer.write("{ \"origin_airport_code\": \"SJO\", \"destination_airport_code\": \"SJO\", \"distance\": 5, \"duration\": 5 },\n");
+            writer.write("{ \"origin_airport_code\": \"SJO\", \"distance\": 5, \"duration\": 5 },\n");
+            for (int i = 0; i < 20000; i++) {
+                int u = random.nextInt(500);
+                int v = random.nextInt(500);
+                if (u != v) {
+                    distinctEdges.add((long) u * 500 + v);
+                }
+                writer.write("{ \"origin_airport_code\": \"A" + u + "\", \"destination_airport_code\": \"A" + v
+                        + "\", \"distance\": " + (100 + random.nextInt(900)) + ", \"duration\": 60, \"airline\": \"X\" },\n");
+            }
+            writer.write("{ \"origin_airport_code\": \"SJO\", \"destination_airport_code\": \"MIA\", \"distance\": 1400, \"duration\": 200 }\n");
+            writer.write("] }");
+        }
+
+        try {
+            routeManager.loadRoutesFromJson(bulkRoutesPath);
+            DirectedSinglyLinkedListGraph graph = routeManager.getGraph();
+
+            assertEquals(502, graph.getNumVertices(), "Deben existir SJO, MIA y los 500 aeropuertos generados.");
+            assertEquals(distinctEdges.size() + 1, graph.getNumEdges(), "Las rutas repetidas y los lazos no deben crear aristas.");
+            assertEquals(1400, routeManager.calculateShortestRoute("SJO", "MIA"), "Debe quedar el peso de la última ruta repetida.");
+            assertFalse(graph.hasEdge("SJO", "SJO"), "Los lazos se ignoran.");
+            assertEquals(1, graph.getOutgoingRouteCount("SJO"));
+        } finally {
+            new File(bulkRoutesPath).delete();
+        }
+    }
+
 
     @Test
     @DisplayName("Debe retornar Integer.MAX_VALUE si la ruta más corta no se encuentra o los aeropuertos no existen")
@@ -176,4 +224,231 @@ class RouteManagerTest {
         assertFalse(routeManager.checkRouteExists("NONEXISTENT", "SJO"), "Ruta desde un aeropuerto no existente no debería existir.");
         assertFalse(routeManager.checkRouteExists("SJO", "NRT"), "SJO->NRT no debería ser una ruta directa.");
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Debe memorizar rutas repetidas y contarlas como aciertos")
+    void testShortestRouteCacheHits() throws IOException, ListException {
+        routeManager.loadRoutesFromJson(routesJsonFilePath);
+        routeManager.getRouteCache().resetStatistics();
+
+        assertEquals(6010, routeManager.calculateShortestRoute("SJO", "CDG"));
+        assertEquals(6010, routeManager.calculateShortestRoute("SJO", "CDG"));
+        assertEquals(Integer.MAX_VALUE, routeManager.calculateShortestRoute("JFK", "PEK"));
+        assertEquals(Integer.MAX_VALUE, routeManager.calculateShortestRoute("JFK", "PEK"));
+
+        assertEquals(2, routeManager.getRouteCache().getHits(), "Las consultas repetidas deberían salir de la caché.");
+        assertEquals(2, routeManager.getRouteCache().getMisses(), "Solo la primera consulta de cada par debería calcularse.");
+    }
+
+    @Test
+    @DisplayName("Debe invalidar la caché cuando cambia el grafo")
+    void testShortestRouteCacheInvalidatedOnGraphChange() throws IOException, ListException {
+        routeManager.loadRoutesFromJson(routesJsonFilePath);
+        assertEquals(6010, routeManager.calculateShortestRoute("SJO", "CDG"));
+        assertNotNull(routeManager.findShortestRouteDetails("SJO", "CDG", "distance"));
+
+        DirectedSinglyLinkedListGraph graph = routeManager.getGraph();
+        graph.addEdge(graph.getIndexForAirportCode("SJO"), graph.getIndexForAirportCode("CDG"), 5000);
+
+        assertEquals(5000, routeManager.calculateShortestRoute("SJO", "CDG"),
+                "Tras añadir una arista directa la caché no debería retornar la ruta anterior.");
+        assertTrue(routeManager.getRouteCache().getInvalidations() >= 1, "Debería registrarse una invalidación.");
+    }
+
+    @Test
+    @DisplayName("El modo entre todos los pares debe dar los mismos resultados que Dijkstra")
+    void testAllPairsModeMatchesDijkstra() throws IOException, ListException {
+        routeManager.loadRoutesFromJson(routesJsonFilePath);
+        RouteManager.ShortestPathResult expected = routeManager.findShortestRouteDetails("MEX", "SYD", "duration");
+
+        routeManager.enableAllPairsMode();
+        routeManager.getRouteCache().clear();
+
+        assertEquals(6010, routeManager.calculateShortestRoute("SJO", "CDG"));
+        assertEquals(Integer.MAX_VALUE, routeManager.calculateShortestRoute("JFK", "PEK"));
+        assertTrue(routeManager.checkRouteExists("SJO", "MIA"));
+        assertFalse(routeManager.checkRouteExists("MIA", "SJO"));
+
+        RouteManager.ShortestPathResult actual = routeManager.findShortestRouteDetails("MEX", "SYD", "duration");
+        assertEquals(expected.toString(), actual.toString(), "La tabla debería reproducir el camino y los totales de Dijkstra.");
+    }
+
+    @Test
+    @DisplayName("El frente de Pareto debe incluir la ruta más corta e indicar si se truncó")
+    void testParetoRoutesIncludeShortestRoute() throws IOException, ListException {
+        routeManager.loadRoutesFromJson(routesJsonFilePath);
+        RouteManager.ShortestPathResult shortest = routeManager.findShortestRouteDetails("MEX", "SYD", "distance");
+
+        ParetoRoutes<RouteManager.ShortestPathResult> front = routeManager.findParetoRoutes("MEX", "SYD");
+        assertFalse(front.isEmpty(), "MEX debería llegar a SYD.");
+        assertFalse(front.isTruncated(), "Una red tan pequeña no llega al límite de etiquetas.");
+        assertEquals(shortest.totalDistance, front.getRoutes().get(0).totalDistance, 1e-9,
+                "La primera ruta del frente es la de menor distancia.");
+
+        assertTrue(routeManager.findParetoRoutes("JFK", "PEK").isEmpty(), "Sin ruta el frente queda vacío.");
+    }
+
+    @Test
+    @DisplayName("Debe retornar los destinos alcanzables con su distancia y duración")
+    void testReachableFrom() throws IOException, ListException {
+        routeManager.loadRoutesFromJson(routesJsonFilePath);
+
+        ReachableDestinations reachable = routeManager.reachableFrom("MEX");
+        assertFalse(reachable.isEmpty(), "MEX debería alcanzar otros aeropuertos.");
+        assertFalse(reachable.contains("MEX"), "El origen no debería estar entre los destinos.");
+
+        int syd = reachable.indexOf("SYD");
+        assertTrue(syd >= 0, "SYD debería ser alcanzable desde MEX.");
+        assertEquals(11090, reachable.getDistance(syd), 0.001);
+        assertEquals(routeManager.calculateShortestRoute("MEX", "SYD"), (int) reachable.getDistance(syd));
+
+        assertSame(reachable, routeManager.reachableFrom("MEX"), "El resultado debería memorizarse por origen.");
+        assertTrue(routeManager.reachableFrom("XYZ").isEmpty(), "Un origen inexistente no tiene destinos.");
+    }
+
+    @Test
+    @DisplayName("Los destinos alcanzables deben actualizarse al agregar una ruta")
+    void testReachableFromAfterRouteChange() throws IOException, ListException {
+        routeManager.loadRoutesFromJson(routesJsonFilePath);
+        ReachableDestinations before = routeManager.reachableFrom("MEX");
+        assertEquals(11090, before.getDistance(before.indexOf("SYD")), 0.001);
+
+        loadExtraRoutes("{ \"routes\": [ { \"origin_airport_code\": \"MEX\", \"destination_airport_code\": \"SYD\", \"distance\": 100, \"duration\": 60 } ]}");
+
+        ReachableDestinations after = routeManager.reachableFrom("MEX");
+        assertNotSame(before, after, "El resultado memorizado no debe sobrevivir al cambio.");
+        int syd = after.indexOf("SYD");
+        assertEquals(100, after.getDistance(syd), 0.001);
+        assertEquals(60, after.getDuration(syd), 0.001);
+        for (int i = 0; i < after.size(); i++) {
+            assertEquals(routeManager.calculateShortestRoute("MEX", after.getCode(i)), (int) after.getDistance(i),
+                    "Distancia reparada a " + after.getCode(i));
+        }
+    }
+
+    @Test
+    @DisplayName("Las consultas en lote deben coincidir con las consultas individuales")
+    void testCalculateShortestRoutesBatch() throws IOException, ListException {
+        routeManager.loadRoutesFromJson(routesJsonFilePath);
+        String[] codes = {"SJO", "MIA", "JFK", "LAX", "CDG", "SYD", "MEX", "LIR"};
+        List<RouteManager.RoutePair> queries = new ArrayList<>();
+        for (String origin : codes) {
+            for (String destination : codes) {
+                queries.add(new RouteManager.RoutePair(origin, destination));
+            }
+        }
+        queries.add(new RouteManager.RoutePair("SJO", "XYZ"));
+
+        for (String criteria : new String[]{"distance", "duration"}) {
+            BatchRouteResult batch = routeManager.calculateShortestRoutes(queries, criteria);
+            assertEquals(queries.size(), batch.size());
+            assertEquals(codes.length, batch.getOriginsSearched(), "Debe ejecutarse un Dijkstra por origen.");
+            for (int i = 0; i < codes.length * codes.length; i++) {
+                RouteManager.RoutePair pair = queries.get(i);
+                if (pair.originCode.equals(pair.destinationCode)) {
+                    assertEquals(0, batch.getLegs(i));
+                    continue;
+                }
+                RouteManager.ShortestPathResult single = routeManager.findShortestRouteDetails(pair.originCode, pair.destinationCode, criteria);
+                if (single == null) {
+                    assertFalse(batch.isReachable(i), "No debería haber ruta " + pair);
+                    continue;
+                }
+                assertTrue(batch.isReachable(i), "Debería haber ruta " + pair);
+                RouteManager.ShortestPathResult fromBatch = new RouteManager.ShortestPathResult(toList(batch.getPath(i)),
+                        batch.getDistance(i), batch.getDuration(i));
+                assertEquals(single.toString(), fromBatch.toString(), "Ruta " + pair);
+                assertEquals(batch.getPath(i).length - 1, batch.getLegs(i));
+            }
+            assertFalse(batch.isReachable(queries.size() - 1), "Un aeropuerto inexistente no tiene ruta.");
+        }
+        assertThrows(IllegalArgumentException.class, () -> routeManager.calculateShortestRoutes(queries, "weight"));
+    }
+
+    private static SinglyLinkedList toList(String[] codes) throws ListException {
+        SinglyLinkedList list = new SinglyLinkedList();
+        for (String code : codes) {
+            list.add(code);
+        }
+        return list;
+    }
+
+    // Carga rutas adicionales desde un archivo temporal que se borra al terminar.
+    private void loadExtraRoutes(String routesJson) throws IOException, ListException {
+        String extraRoutesPath = "temp_extra_routes.json";
+        try (FileWriter writer = new FileWriter(extraRoutesPath)) {
+            writer.write(routesJson);
+        }
+        try {
+            routeManager.loadRoutesFromJson(extraRoutesPath);
+        } finally {
+            new File(extraRoutesPath).delete();
+        }
+    }
+
+    @Test
+    @DisplayName("A* con coordenadas debe dar los mismos caminos que Dijkstra")
+    void testAStarWithCoordinatesMatchesDijkstra() throws IOException, ListException {
+        routeManager.loadRoutesFromJson(routesJsonFilePath);
+        RouteManager.ShortestPathResult byDistance = routeManager.findShortestRouteDetails("MEX", "SYD", "distance");
+        RouteManager.ShortestPathResult byDuration = routeManager.findShortestRouteDetails("MEX", "NRT", "duration");
+
+        String[] codes = {"SJO", "MIA", "JFK", "LAX", "CDG", "SYD", "LIM", "FRA", "DXB", "NRT", "ORD", "PEK", "IST", "MEX", "LIR"};
+        double[][] coordinates = {
+                {9.9939, -84.2088}, {25.7959, -80.2870}, {40.6413, -73.7781}, {33.9416, -118.4085},
+                {49.0097, 2.5479}, {-33.9399, 151.1753}, {-12.0219, -77.1143}, {50.0379, 8.5622},
+                {25.2532, 55.3657}, {35.7720, 140.3929}, {41.9742, -87.9073}, {40.0799, 116.6031},
+                {41.2753, 28.7519}, {19.4363, -99.0721}, {10.5933, -85.5444}
+        };
+        for (int i = 0; i < codes.length; i++) {
+            routeManager.setAirportCoordinates(codes[i], coordinates[i][0], coordinates[i][1]);
+        }
+        routeManager.getRouteCache().clear();
+
+        assertEquals(byDistance.toString(), routeManager.findShortestRouteDetails("MEX", "SYD", "distance").toString());
+        assertEquals(byDuration.toString(), routeManager.findShortestRouteDetails("MEX", "NRT", "duration").toString());
+        assertNull(routeManager.findShortestRouteDetails("JFK", "PEK", "distance"), "JFK no alcanza PEK.");
+        assertThrows(IllegalArgumentException.class, () -> routeManager.setAirportCoordinates("SJO", 95, 0));
+    }
+
+    @Test
+    @DisplayName("Las jerarquías de contracción deben dar los mismos caminos que Dijkstra")
+    void testContractionHierarchiesMatchDijkstra() throws IOException, ListException {
+        routeManager.loadRoutesFromJson(routesJsonFilePath);
+        RouteManager.ShortestPathResult byDistance = routeManager.findShortestRouteDetails("MEX", "SYD", "distance");
+        RouteManager.ShortestPathResult byDuration = routeManager.findShortestRouteDetails("SJO", "CDG", "duration");
+
+        routeManager.enableContractionHierarchies(false);
+        routeManager.getRouteCache().clear();
+
+        assertEquals(byDistance.toString(), routeManager.findShortestRouteDetails("MEX", "SYD", "distance").toString());
+        assertEquals(byDuration.toString(), routeManager.findShortestRouteDetails("SJO", "CDG", "duration").toString());
+        assertNull(routeManager.findShortestRouteDetails("JFK", "PEK", "distance"), "JFK no alcanza PEK.");
+
+        // Con la jerarquía desactualizada se debe usar la búsqueda normal sobre el grafo nuevo.
+        loadExtraRoutes("{ \"routes\": [ { \"origin_airport_code\": \"MEX\", \"destination_airport_code\": \"SYD\", \"distance\": 100, \"duration\": 60 } ]}");
+        RouteManager.ShortestPathResult direct = routeManager.findShortestRouteDetails("MEX", "SYD", "distance");
+        assertNotNull(direct);
+        assertEquals(100, direct.totalDistance, 0.001);
+    }
+
+    @Test
+    @DisplayName("A* con puntos de referencia debe dar los mismos caminos que Dijkstra")
+    void testLandmarksMatchDijkstra() throws IOException, ListException {
+        routeManager.loadRoutesFromJson(routesJsonFilePath);
+        RouteManager.ShortestPathResult byDistance = routeManager.findShortestRouteDetails("MEX", "SYD", "distance");
+        RouteManager.ShortestPathResult byDuration = routeManager.findShortestRouteDetails("SJO", "CDG", "duration");
+        int numVertices = routeManager.getGraph().getNumVertices();
+
+        routeManager.enableLandmarks(4);
+        routeManager.getRouteCache().clear();
+
+        assertEquals(byDistance.toString(), routeManager.findShortestRouteDetails("MEX", "SYD", "distance").toString());
+        assertEquals(byDuration.toString(), routeManager.findShortestRouteDetails("SJO", "CDG", "duration").toString());
+        assertNull(routeManager.findShortestRouteDetails("JFK", "PEK", "distance"), "JFK no alcanza PEK.");
+        assertEquals(6010, routeManager.calculateShortestRoute("SJO", "CDG"));
+        assertEquals(2 * LandmarkIndex.estimateMemoryBytes(numVertices, 4), routeManager.getLandmarkMemoryBytes(),
+                "Debe haber un índice de 4 puntos por criterio.");
+        assertEquals(4, LandmarkIndex.maxLandmarksForBudget(numVertices, LandmarkIndex.estimateMemoryBytes(numVertices, 4)));
+    }
+}
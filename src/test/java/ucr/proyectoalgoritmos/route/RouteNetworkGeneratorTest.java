@@ -0,0 +1,73 @@
+package ucr.proyectoalgoritmos.route;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ucr.proyectoalgoritmos.Domain.list.ListException;
+import ucr.proyectoalgoritmos.Domain.route.RouteBulkLoader;
+import ucr.proyectoalgoritmos.Domain.route.RouteGraphService;
+import ucr.proyectoalgoritmos.Domain.route.RouteNetworkGenerator;
+import ucr.proyectoalgoritmos.util.GeoUtility;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RouteNetworkGeneratorTest {
+
+    @Test
+    @DisplayName("La misma semilla debe generar exactamente la misma red")
+    void testSameSeedSameNetwork() {
+        RouteNetworkGenerator.Network first = new RouteNetworkGenerator(7, 300, 3000).generate();
+        RouteNetworkGenerator.Network second = new RouteNetworkGenerator(7, 300, 3000).generate();
+        RouteNetworkGenerator.Network other = new RouteNetworkGenerator(8, 300, 3000).generate();
+
+        int n = first.getRouteCount();
+        assertEquals(n, second.getRouteCount());
+        assertArrayEquals(Arrays.copyOf(first.getRoutes().getOrigins(), n), Arrays.copyOf(second.getRoutes().getOrigins(), n));
+        assertArrayEquals(Arrays.copyOf(first.getRoutes().getDestinations(), n), Arrays.copyOf(second.getRoutes().getDestinations(), n));
+        assertArrayEquals(Arrays.copyOf(first.getRoutes().getDistances(), n), Arrays.copyOf(second.getRoutes().getDistances(), n));
+        assertNotEquals(first.getLatitude(10), other.getLatitude(10), "Otra semilla debe ubicar distinto los aeropuertos.");
+    }
+
+    @Test
+    @DisplayName("Las rutas no deben repetirse y sus distancias deben ser de gran círculo")
+    void testRoutesAreDistinctAndGeographic() {
+        RouteNetworkGenerator.Network network = new RouteNetworkGenerator(19, 500, 6000).generate();
+        RouteBulkLoader routes = network.getRoutes();
+
+        assertEquals(500, routes.getCodeCount());
+        assertEquals(10, network.getHubCount());
+        assertTrue(network.getRouteCount() >= 6000, "Se deben generar al menos las rutas pedidas.");
+        assertEquals("AAA", RouteNetworkGenerator.codeFor(0));
+        assertEquals("AAAA", RouteNetworkGenerator.codeFor(26 * 26 * 26));
+
+        Set<Long> seen = new HashSet<>();
+        for (int i = 0; i < routes.size(); i++) {
+            int u = routes.getOrigins()[i];
+            int v = routes.getDestinations()[i];
+            assertNotEquals(u, v, "No debe haber lazos.");
+            assertTrue(seen.add(((long) u << 32) | v), "Ruta repetida: " + u + " -> " + v);
+            double km = GeoUtility.haversineKm(network.getLatitude(u), network.getLongitude(u),
+                    network.getLatitude(v), network.getLongitude(v));
+            assertEquals(Math.max(1, Math.round(km)), routes.getDistances()[i]);
+            assertTrue(routes.getDurations()[i] > routes.getDistances()[i] / 1000, "La duración debe crecer con la distancia.");
+        }
+    }
+
+    @Test
+    @DisplayName("La red generada debe ser fuertemente conexa al cargarla en el servicio")
+    void testLoadedNetworkIsStronglyConnected() throws ListException {
+        RouteNetworkGenerator.Network network = new RouteNetworkGenerator(3, 400, 2000).generate();
+        RouteGraphService service = new RouteGraphService(0);
+        network.loadInto(service);
+
+        assertEquals(400, service.getInternalGraph().getNumVertices());
+        assertEquals(network.getRouteCount(), service.getInternalGraph().getNumEdges());
+        for (int i = 1; i < network.getAirportCount(); i += 37) {
+            assertTrue(service.isReachable(network.getCode(0), network.getCode(i)));
+            assertTrue(service.isReachable(network.getCode(i), network.getCode(0)));
+        }
+    }
+}